@@ -0,0 +1,311 @@
+package com.ttasjwi.querydsl.common.cache;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * 메모리 맵 파일 키-값 저장소 (캐시 L2)
+ * 크기가 정해진 파일을 원형 로그로 쓰고(append-only), 키 -> 레코드 위치 색인만 힙에 둔다.
+ * 헤더 : [MAGIC int][가장 오래된 레코드 위치(head) int][watermark long]
+ * 레코드 : [길이 int][종류 byte][만료 시각 long][키 길이 short][키 UTF-8][값]
+ * 레코드 본문과 다음 위치의 끝 표시(길이 0)를 먼저 쓰고 길이를 마지막에 써서, 쓰는 중에 종료되어도 앞선 레코드까지는 읽힌다.
+ * 삭제는 삭제 레코드로 남기므로 다시 열 때 head부터 읽어 색인을 복원할 수 있다.
+ * 파일 끝에 자리가 없으면 되돌아감 표시(길이 -1)를 남기고 앞에서부터 이어 쓴다. 새 레코드가 들어갈 자리만큼 head부터
+ * 오래된 레코드를 밀어내므로(FIFO), 한 번의 저장에 드는 비용은 밀어낸 레코드 수에 비례한다.
+ * 항목마다 보관 시간이 같으면 쓴 순서가 만료 순서이므로, 먼저 만료될 항목부터 밀려난다.
+ * watermark는 호출자가 정하는 값(예: 마지막으로 반영한 변경 이벤트 식별자)으로, 다시 열 때 파일 내용이 유효한지 판단하는 데 쓴다.
+ * 스레드 안전하다. (모든 메서드가 this로 동기화)
+ */
+public class MappedFileStore implements AutoCloseable {
+
+    private static final int MAGIC = 0x4d524332;
+    private static final int HEAD_OFFSET = 4;
+    private static final int WATERMARK_OFFSET = 8;
+    private static final int HEADER_SIZE = 16;
+    private static final int RECORD_HEADER_SIZE = 4 + 1 + 8 + 2;
+    private static final int WRAP = -1;
+    private static final byte PUT = 1;
+    private static final byte REMOVE = 2;
+
+    private final RandomAccessFile file;
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final Map<String, Integer> index = new HashMap<>();
+    private int head;
+    private int end;
+    // true면 레코드가 [head, 되돌아감 표시) + [HEADER_SIZE, end) 에 있다. false면 [head, end)
+    private boolean wrapped;
+
+    /**
+     * reuse가 false거나 파일 형식이 다르면 비우고 시작한다. (watermark는 0)
+     */
+    public MappedFileStore(Path path, int capacity, boolean reuse) throws IOException {
+        if (capacity <= HEADER_SIZE + RECORD_HEADER_SIZE + 4) {
+            throw new IllegalArgumentException("파일 크기가 너무 작습니다. capacity = " + capacity);
+        }
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        file = new RandomAccessFile(path.toFile(), "rw");
+        file.setLength(capacity);
+        channel = file.getChannel();
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+
+        if (reuse && buffer.getInt(0) == MAGIC) {
+            load(System.currentTimeMillis());
+        } else {
+            buffer.putInt(0, MAGIC);
+            buffer.putLong(WATERMARK_OFFSET, 0);
+            reset();
+        }
+    }
+
+    /**
+     * 없거나 now 기준으로 만료되었으면 null
+     */
+    public synchronized Stored get(String key, long now) {
+        Integer offset = index.get(key);
+        if (offset == null) {
+            return null;
+        }
+        long expiresAt = buffer.getLong(offset + 5);
+        if (expiresAt <= now) {
+            index.remove(key);
+            return null;
+        }
+        return new Stored(readValue(offset), expiresAt);
+    }
+
+    /**
+     * 저장하지 못하면(키나 값이 너무 커서 파일을 모두 비워도 자리가 없으면) false
+     */
+    public synchronized boolean put(String key, byte[] value, long expiresAt) {
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        if (keyBytes.length > Short.MAX_VALUE || !ensureSpace(RECORD_HEADER_SIZE + keyBytes.length + value.length)) {
+            index.remove(key);
+            return false;
+        }
+        index.put(key, append(PUT, expiresAt, keyBytes, value));
+        return true;
+    }
+
+    public synchronized void remove(String key) {
+        if (index.remove(key) == null) {
+            return;
+        }
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        if (ensureSpace(RECORD_HEADER_SIZE + keyBytes.length)) {
+            append(REMOVE, 0, keyBytes, new byte[0]);
+        }
+    }
+
+    /**
+     * 모든 항목을 지운다. watermark는 그대로 둔다.
+     */
+    public synchronized void clear() {
+        reset();
+    }
+
+    public synchronized long getWatermark() {
+        return buffer.getLong(WATERMARK_OFFSET);
+    }
+
+    public synchronized void setWatermark(long watermark) {
+        buffer.putLong(WATERMARK_OFFSET, watermark);
+    }
+
+    public synchronized int size() {
+        return index.size();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        buffer.force();
+        channel.close();
+        file.close();
+    }
+
+    private int append(byte type, long expiresAt, byte[] key, byte[] value) {
+        int offset = end;
+        int length = RECORD_HEADER_SIZE - 4 + key.length + value.length;
+        ByteBuffer view = buffer.duplicate();
+        view.position(offset + 4);
+        view.put(type);
+        view.putLong(expiresAt);
+        view.putShort((short) key.length);
+        view.put(key);
+        view.put(value);
+        end = offset + 4 + length;
+        markEnd();
+        buffer.putInt(offset, length);
+        return offset;
+    }
+
+    /**
+     * end에서 recordSize 만큼과 끝 표시(int) 자리를 이어서 쓸 수 있도록, 필요하면 앞으로 되돌아가고 head부터 밀어낸다.
+     */
+    private boolean ensureSpace(int recordSize) {
+        int required = recordSize + 4;
+        if (required > buffer.capacity() - HEADER_SIZE) {
+            return false;
+        }
+        while (true) {
+            if (wrapped) {
+                if (end + required <= head) {
+                    return true;
+                }
+                if (buffer.getInt(head) == WRAP) {
+                    wrapped = false;
+                    moveHead(HEADER_SIZE);
+                } else {
+                    evictHead();
+                }
+                continue;
+            }
+
+            if (end + required <= buffer.capacity()) {
+                return true;
+            }
+            if (head == end) {
+                reset();
+                continue;
+            }
+            if (HEADER_SIZE + required > head) {
+                evictHead();
+                continue;
+            }
+            // 앞쪽 끝 표시를 먼저 써 두어야, 되돌아감 표시를 쓴 직후 종료되어도 이전 바퀴의 레코드를 읽지 않는다.
+            buffer.putInt(HEADER_SIZE, 0);
+            buffer.putInt(end, WRAP);
+            end = HEADER_SIZE;
+            wrapped = true;
+        }
+    }
+
+    /**
+     * head의 레코드를 밀어낸다. 색인이 아직 그 레코드를 가리키면 색인에서도 뺀다.
+     */
+    private void evictHead() {
+        int length = buffer.getInt(head);
+        if (buffer.get(head + 4) == PUT) {
+            String key = readKey(head);
+            Integer offset = index.get(key);
+            if (offset != null && offset == head) {
+                index.remove(key);
+            }
+        }
+        moveHead(head + 4 + length);
+    }
+
+    private void moveHead(int offset) {
+        head = offset;
+        buffer.putInt(HEAD_OFFSET, head);
+    }
+
+    private String readKey(int offset) {
+        int keyLength = buffer.getShort(offset + 13);
+        byte[] keyBytes = new byte[keyLength];
+        ByteBuffer view = buffer.duplicate();
+        view.position(offset + RECORD_HEADER_SIZE);
+        view.get(keyBytes);
+        return new String(keyBytes, StandardCharsets.UTF_8);
+    }
+
+    private byte[] readValue(int offset) {
+        int length = buffer.getInt(offset);
+        int keyLength = buffer.getShort(offset + 13);
+        int valueOffset = offset + RECORD_HEADER_SIZE + keyLength;
+        byte[] value = new byte[offset + 4 + length - valueOffset];
+        ByteBuffer view = buffer.duplicate();
+        view.position(valueOffset);
+        view.get(value);
+        return value;
+    }
+
+    private void reset() {
+        index.clear();
+        end = HEADER_SIZE;
+        wrapped = false;
+        markEnd();
+        moveHead(HEADER_SIZE);
+    }
+
+    private void markEnd() {
+        buffer.putInt(end, 0);
+    }
+
+    /**
+     * head부터 읽어 색인 복원 - 되돌아감 표시를 만나면 앞에서부터 이어 읽고,
+     * 길이가 0이거나 범위를 벗어난 레코드에서 멈춘다.
+     */
+    private void load(long now) {
+        index.clear();
+        head = buffer.getInt(HEAD_OFFSET);
+        if (head < HEADER_SIZE || head + 4 > buffer.capacity()) {
+            reset();
+            return;
+        }
+        wrapped = false;
+        int offset = head;
+        while (true) {
+            int limit = wrapped ? head : buffer.capacity();
+            if (offset + 4 > limit) {
+                break;
+            }
+            int length = buffer.getInt(offset);
+            if (length == WRAP && !wrapped) {
+                wrapped = true;
+                offset = HEADER_SIZE;
+                continue;
+            }
+            if (length < RECORD_HEADER_SIZE - 4 || offset + 4 + length + 4 > limit) {
+                break;
+            }
+            byte type = buffer.get(offset + 4);
+            int keyLength = buffer.getShort(offset + 13);
+            if (keyLength < 0 || RECORD_HEADER_SIZE + keyLength > 4 + length || (type != PUT && type != REMOVE)) {
+                break;
+            }
+            String key = readKey(offset);
+            if (type == PUT) {
+                index.put(key, offset);
+            } else {
+                index.remove(key);
+            }
+            offset += 4 + length;
+        }
+        if (offset + 4 > (wrapped ? head : buffer.capacity())) {
+            reset();
+            return;
+        }
+        end = offset;
+        markEnd();
+
+        Iterator<Integer> offsets = index.values().iterator();
+        while (offsets.hasNext()) {
+            if (buffer.getLong(offsets.next() + 5) <= now) {
+                offsets.remove();
+            }
+        }
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    public static class Stored {
+
+        private final byte[] value;
+        private final long expiresAt;
+    }
+}
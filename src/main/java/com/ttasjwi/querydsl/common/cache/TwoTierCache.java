@@ -0,0 +1,162 @@
+package com.ttasjwi.querydsl.common.cache;
+
+import lombok.RequiredArgsConstructor;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 2단 캐시 - L1 힙(LRU, 최대 heapEntries 개) + L2 메모리 맵 파일(MappedFileStore)
+ * put은 두 단에 모두 쓴다. L1에서 밀려난 항목은 L2에만 남고(demote), L2에서 찾은 항목은 L1으로 올린다.(promote)
+ * L2는 힙 밖에 있고 재시작 후에도 남으므로, 힙보다 많은 항목을 담고 시작 직후 요청도 DB 대신 디스크에서 답한다.
+ * 항목은 ttl이 지나면 만료된다. 반환한 값 객체는 호출자끼리 공유하므로 읽기 전용으로 다뤄야 한다.
+ */
+public class TwoTierCache<V> implements AutoCloseable {
+
+    private final LinkedHashMap<String, HeapEntry<V>> heap;
+    private final MappedFileStore disk;
+    private final CacheCodec<V> codec;
+    private final long ttlMillis;
+
+    private final LongAdder heapHits = new LongAdder();
+    private final LongAdder diskHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public TwoTierCache(int heapEntries, MappedFileStore disk, CacheCodec<V> codec, Duration ttl) {
+        this.heap = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, HeapEntry<V>> eldest) {
+                return size() > heapEntries;
+            }
+        };
+        this.disk = disk;
+        this.codec = codec;
+        this.ttlMillis = ttl.toMillis();
+    }
+
+    /**
+     * L1 -> L2 순서로 찾는다. 없거나 만료되었으면 null
+     */
+    public V get(String key) {
+        long now = System.currentTimeMillis();
+        synchronized (heap) {
+            HeapEntry<V> entry = heap.get(key);
+            if (entry != null) {
+                if (entry.expiresAt > now) {
+                    heapHits.increment();
+                    return entry.value;
+                }
+                heap.remove(key);
+            }
+        }
+
+        MappedFileStore.Stored stored = disk.get(key, now);
+        V value = stored == null ? null : decode(key, stored.getValue());
+        if (value == null) {
+            misses.increment();
+            return null;
+        }
+        diskHits.increment();
+        synchronized (heap) {
+            heap.put(key, new HeapEntry<>(value, stored.getExpiresAt()));
+        }
+        return value;
+    }
+
+    public void put(String key, V value) {
+        long expiresAt = System.currentTimeMillis() + ttlMillis;
+        synchronized (heap) {
+            heap.put(key, new HeapEntry<>(value, expiresAt));
+        }
+        disk.put(key, encode(value), expiresAt);
+    }
+
+    public void remove(String key) {
+        synchronized (heap) {
+            heap.remove(key);
+        }
+        disk.remove(key);
+    }
+
+    public void clear() {
+        synchronized (heap) {
+            heap.clear();
+        }
+        disk.clear();
+    }
+
+    /**
+     * 디스크 파일에 남기는 watermark - 다시 열 때 파일 내용이 유효한지 판단하는 데 쓴다.
+     */
+    public long getWatermark() {
+        return disk.getWatermark();
+    }
+
+    public void setWatermark(long watermark) {
+        disk.setWatermark(watermark);
+    }
+
+    public int heapSize() {
+        synchronized (heap) {
+            return heap.size();
+        }
+    }
+
+    public int diskSize() {
+        return disk.size();
+    }
+
+    public long getHeapHits() {
+        return heapHits.sum();
+    }
+
+    public long getDiskHits() {
+        return diskHits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    @Override
+    public void close() throws IOException {
+        disk.close();
+    }
+
+    private byte[] encode(V value) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            codec.write(value, out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * 읽을 수 없는 값(형식이 바뀐 이전 버전 파일 등)은 지우고 없는 것으로 본다.
+     */
+    private V decode(String key, byte[] bytes) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes))) {
+            return codec.read(in);
+        } catch (IOException | RuntimeException e) {
+            disk.remove(key);
+            return null;
+        }
+    }
+
+    @RequiredArgsConstructor
+    private static class HeapEntry<V> {
+
+        private final V value;
+        private final long expiresAt;
+    }
+}
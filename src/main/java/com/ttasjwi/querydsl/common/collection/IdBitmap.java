@@ -0,0 +1,399 @@
+package com.ttasjwi.querydsl.common.collection;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * 음이 아닌 long 식별자 집합 (Roaring 비트맵 방식)
+ * 식별자를 상위 비트(청크 키)와 하위 16비트로 나누고, 청크마다 원소가 적으면 정렬된 char 배열에,
+ * 많으면(ARRAY_MAX 초과) 65536 비트 비트맵에 담는다. 원소 수가 ARRAY_MAX / 2 이하로 줄면 다시 배열로 바꾼다.
+ * 합집합(or), 교집합(and)은 청크끼리 계산하고, 원소는 항상 식별자 순으로 꺼낸다.
+ * 스레드 안전하지 않다.
+ */
+public class IdBitmap {
+
+    static final int ARRAY_MAX = 4096;
+
+    private final TreeMap<Long, Container> chunks = new TreeMap<>();
+    private long cardinality;
+
+    public boolean add(long id) {
+        checkId(id);
+        long key = id >>> 16;
+        Container container = chunks.get(key);
+        if (container == null) {
+            container = new ArrayContainer();
+            chunks.put(key, container);
+        }
+        if (!container.add((char) id)) {
+            return false;
+        }
+        chunks.put(key, container.optimize());
+        cardinality++;
+        return true;
+    }
+
+    public boolean remove(long id) {
+        if (id < 0) {
+            return false;
+        }
+        long key = id >>> 16;
+        Container container = chunks.get(key);
+        if (container == null || !container.remove((char) id)) {
+            return false;
+        }
+        if (container.size == 0) {
+            chunks.remove(key);
+        } else {
+            chunks.put(key, container.optimize());
+        }
+        cardinality--;
+        return true;
+    }
+
+    public boolean contains(long id) {
+        if (id < 0) {
+            return false;
+        }
+        Container container = chunks.get(id >>> 16);
+        return container != null && container.contains((char) id);
+    }
+
+    public long cardinality() {
+        return cardinality;
+    }
+
+    public boolean isEmpty() {
+        return cardinality == 0;
+    }
+
+    public void clear() {
+        chunks.clear();
+        cardinality = 0;
+    }
+
+    public IdBitmap copy() {
+        IdBitmap copy = new IdBitmap();
+        chunks.forEach((key, container) -> copy.chunks.put(key, container.copy()));
+        copy.cardinality = cardinality;
+        return copy;
+    }
+
+    /**
+     * 합집합으로 바꾼다. other는 바뀌지 않는다.
+     */
+    public void or(IdBitmap other) {
+        for (Map.Entry<Long, Container> entry : other.chunks.entrySet()) {
+            Container container = chunks.get(entry.getKey());
+            chunks.put(entry.getKey(), container == null
+                    ? entry.getValue().copy()
+                    : container.or(entry.getValue()).optimize());
+        }
+        recount();
+    }
+
+    /**
+     * 교집합으로 바꾼다. other는 바뀌지 않는다.
+     */
+    public void and(IdBitmap other) {
+        Iterator<Map.Entry<Long, Container>> iterator = chunks.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Long, Container> entry = iterator.next();
+            Container theirs = other.chunks.get(entry.getKey());
+            Container container = theirs == null ? null : entry.getValue().and(theirs);
+            if (container == null || container.size == 0) {
+                iterator.remove();
+            } else {
+                entry.setValue(container.optimize());
+            }
+        }
+        recount();
+    }
+
+    /**
+     * afterId 보다 큰 식별자를 오름차순으로 최대 limit 개
+     */
+    public long[] toArray(long afterId, int limit) {
+        long[] result = new long[(int) Math.min(limit, cardinality)];
+        NavigableMap<Long, Container> tail = afterId < 0 ? chunks : chunks.tailMap(afterId >>> 16, true);
+        int size = 0;
+        for (Map.Entry<Long, Container> entry : tail.entrySet()) {
+            if (size == result.length) {
+                break;
+            }
+            size = entry.getValue().fill(entry.getKey() << 16, afterId, result, size);
+        }
+        return size == result.length ? result : Arrays.copyOf(result, size);
+    }
+
+    private void recount() {
+        long count = 0;
+        for (Container container : chunks.values()) {
+            count += container.size;
+        }
+        cardinality = count;
+    }
+
+    private static void checkId(long id) {
+        if (id < 0) {
+            throw new IllegalArgumentException("식별자는 음수일 수 없습니다. id = " + id);
+        }
+    }
+
+    private abstract static class Container {
+
+        int size;
+
+        abstract boolean add(char low);
+
+        abstract boolean remove(char low);
+
+        abstract boolean contains(char low);
+
+        abstract Container copy();
+
+        abstract Container or(Container other);
+
+        abstract Container and(Container other);
+
+        /**
+         * 원소 수에 맞는 표현으로 바꾼다
+         */
+        abstract Container optimize();
+
+        /**
+         * high | low 가 afterId 보다 큰 원소를 out[pos] 부터 채우고 다음 위치를 반환
+         */
+        abstract int fill(long high, long afterId, long[] out, int pos);
+    }
+
+    private static final class ArrayContainer extends Container {
+
+        private char[] values = new char[4];
+
+        @Override
+        boolean add(char low) {
+            int index = Arrays.binarySearch(values, 0, size, low);
+            if (index >= 0) {
+                return false;
+            }
+            int insertAt = -index - 1;
+            if (size == values.length) {
+                values = Arrays.copyOf(values, Math.min(size * 2, ARRAY_MAX + 1));
+            }
+            System.arraycopy(values, insertAt, values, insertAt + 1, size - insertAt);
+            values[insertAt] = low;
+            size++;
+            return true;
+        }
+
+        @Override
+        boolean remove(char low) {
+            int index = Arrays.binarySearch(values, 0, size, low);
+            if (index < 0) {
+                return false;
+            }
+            System.arraycopy(values, index + 1, values, index, size - index - 1);
+            size--;
+            return true;
+        }
+
+        @Override
+        boolean contains(char low) {
+            return Arrays.binarySearch(values, 0, size, low) >= 0;
+        }
+
+        @Override
+        Container copy() {
+            ArrayContainer copy = new ArrayContainer();
+            copy.values = Arrays.copyOf(values, Math.max(size, 4));
+            copy.size = size;
+            return copy;
+        }
+
+        @Override
+        Container or(Container other) {
+            if (other instanceof BitmapContainer) {
+                return other.copy().or(this);
+            }
+            ArrayContainer theirs = (ArrayContainer) other;
+            char[] merged = new char[size + theirs.size];
+            int i = 0, j = 0, k = 0;
+            while (i < size && j < theirs.size) {
+                char a = values[i], b = theirs.values[j];
+                if (a < b) {
+                    merged[k++] = a;
+                    i++;
+                } else if (a > b) {
+                    merged[k++] = b;
+                    j++;
+                } else {
+                    merged[k++] = a;
+                    i++;
+                    j++;
+                }
+            }
+            while (i < size) {
+                merged[k++] = values[i++];
+            }
+            while (j < theirs.size) {
+                merged[k++] = theirs.values[j++];
+            }
+            values = merged;
+            size = k;
+            return this;
+        }
+
+        @Override
+        Container and(Container other) {
+            int k = 0;
+            for (int i = 0; i < size; i++) {
+                if (other.contains(values[i])) {
+                    values[k++] = values[i];
+                }
+            }
+            size = k;
+            return this;
+        }
+
+        @Override
+        Container optimize() {
+            if (size <= ARRAY_MAX) {
+                return this;
+            }
+            BitmapContainer bitmap = new BitmapContainer();
+            for (int i = 0; i < size; i++) {
+                bitmap.add(values[i]);
+            }
+            return bitmap;
+        }
+
+        @Override
+        int fill(long high, long afterId, long[] out, int pos) {
+            for (int i = 0; i < size && pos < out.length; i++) {
+                long id = high | values[i];
+                if (id > afterId) {
+                    out[pos++] = id;
+                }
+            }
+            return pos;
+        }
+    }
+
+    private static final class BitmapContainer extends Container {
+
+        private final long[] words = new long[1 << 10];
+
+        @Override
+        boolean add(char low) {
+            long bit = 1L << low;
+            int index = low >>> 6;
+            if ((words[index] & bit) != 0) {
+                return false;
+            }
+            words[index] |= bit;
+            size++;
+            return true;
+        }
+
+        @Override
+        boolean remove(char low) {
+            long bit = 1L << low;
+            int index = low >>> 6;
+            if ((words[index] & bit) == 0) {
+                return false;
+            }
+            words[index] &= ~bit;
+            size--;
+            return true;
+        }
+
+        @Override
+        boolean contains(char low) {
+            return (words[low >>> 6] & (1L << low)) != 0;
+        }
+
+        @Override
+        Container copy() {
+            BitmapContainer copy = new BitmapContainer();
+            System.arraycopy(words, 0, copy.words, 0, words.length);
+            copy.size = size;
+            return copy;
+        }
+
+        @Override
+        Container or(Container other) {
+            if (other instanceof ArrayContainer) {
+                ArrayContainer theirs = (ArrayContainer) other;
+                for (int i = 0; i < theirs.size; i++) {
+                    add(theirs.values[i]);
+                }
+                return this;
+            }
+            long[] theirs = ((BitmapContainer) other).words;
+            int count = 0;
+            for (int i = 0; i < words.length; i++) {
+                words[i] |= theirs[i];
+                count += Long.bitCount(words[i]);
+            }
+            size = count;
+            return this;
+        }
+
+        @Override
+        Container and(Container other) {
+            if (other instanceof ArrayContainer) {
+                return other.copy().and(this);
+            }
+            long[] theirs = ((BitmapContainer) other).words;
+            int count = 0;
+            for (int i = 0; i < words.length; i++) {
+                words[i] &= theirs[i];
+                count += Long.bitCount(words[i]);
+            }
+            size = count;
+            return this;
+        }
+
+        @Override
+        Container optimize() {
+            if (size > ARRAY_MAX / 2) {
+                return this;
+            }
+            ArrayContainer array = new ArrayContainer();
+            array.values = new char[Math.max(size, 4)];
+            fillLows(array.values);
+            array.size = size;
+            return array;
+        }
+
+        private void fillLows(char[] out) {
+            int pos = 0;
+            for (int i = 0; i < words.length; i++) {
+                long word = words[i];
+                while (word != 0) {
+                    out[pos++] = (char) ((i << 6) + Long.numberOfTrailingZeros(word));
+                    word &= word - 1;
+                }
+            }
+        }
+
+        @Override
+        int fill(long high, long afterId, long[] out, int pos) {
+            for (int i = 0; i < words.length && pos < out.length; i++) {
+                long word = words[i];
+                while (word != 0 && pos < out.length) {
+                    long id = high | ((i << 6) + Long.numberOfTrailingZeros(word));
+                    if (id > afterId) {
+                        out[pos++] = id;
+                    }
+                    word &= word - 1;
+                }
+            }
+            return pos;
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.ttasjwi.querydsl.common.collection;
+
+/**
+ * long 값 집합 (개방 주소법, 선형 탐사)
+ * HashSet<Long>과 달리 원소마다 Long 객체, 엔트리 객체를 만들지 않는다. 0은 빈 칸 표시로 쓰므로 따로 기록한다.
+ * 삭제는 지원하지 않는다. 스레드 안전하지 않다.
+ */
+public class LongHashSet {
+
+    private static final float LOAD_FACTOR = 0.5f;
+
+    private long[] keys;
+    private int mask;
+    private int size;
+    private boolean containsZero;
+
+    public LongHashSet() {
+        this(16);
+    }
+
+    public LongHashSet(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max((int) (expectedSize / LOAD_FACTOR), 2) - 1) << 1;
+        keys = new long[capacity];
+        mask = capacity - 1;
+    }
+
+    /**
+     * 없던 값이면 넣고 true
+     */
+    public boolean add(long value) {
+        if (value == 0) {
+            if (containsZero) {
+                return false;
+            }
+            containsZero = true;
+            size++;
+            return true;
+        }
+
+        int index = indexOf(value);
+        if (keys[index] == value) {
+            return false;
+        }
+        keys[index] = value;
+        size++;
+        if (size > keys.length * LOAD_FACTOR) {
+            rehash(keys.length << 1);
+        }
+        return true;
+    }
+
+    public boolean contains(long value) {
+        if (value == 0) {
+            return containsZero;
+        }
+        return keys[indexOf(value)] == value;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * value가 있는 칸, 없으면 넣을 빈 칸
+     */
+    private int indexOf(long value) {
+        int index = mix(value) & mask;
+        while (keys[index] != 0 && keys[index] != value) {
+            index = (index + 1) & mask;
+        }
+        return index;
+    }
+
+    private void rehash(int capacity) {
+        long[] oldKeys = keys;
+        keys = new long[capacity];
+        mask = capacity - 1;
+        for (long key : oldKeys) {
+            if (key != 0) {
+                keys[indexOf(key)] = key;
+            }
+        }
+    }
+
+    /**
+     * 연속된 식별자가 이웃 칸에 몰리지 않도록 비트를 섞는다. (murmur3 fmix64)
+     */
+    private static int mix(long value) {
+        long h = value;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return (int) h;
+    }
+}
@@ -0,0 +1,106 @@
+package com.ttasjwi.querydsl.common.concurrent;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * 같은 키로 동시에 들어온 요청을 하나의 실행으로 합치는 장치(single-flight)
+ * - 처음 들어온 요청(leader)이 자신의 스레드에서 직접 실행하고, 실행 중에 들어온 요청들은 그 결과를 기다렸다 공유한다.
+ * - 실행이 끝나면 키를 바로 제거하므로 결과를 보관하지 않는다. (캐시가 아님)
+ * - 대기 시간이 maxWait을 넘으면 기다리지 않고 직접 실행한다.
+ * 결과 객체는 모든 대기자가 공유하므로 읽기 전용으로 다뤄야 한다.
+ */
+public class SingleFlight<K, V> {
+
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder executions = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder waitTimeouts = new LongAdder();
+
+    public V execute(K key, Supplier<V> loader, Duration maxWait) {
+        requests.increment();
+
+        CompletableFuture<V> flight = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, flight);
+        if (existing == null) {
+            return lead(key, flight, loader);
+        }
+
+        // 공유받은 요청(coalesced)은 결과(예외 포함)를 받은 뒤에 센다. 기다리다 직접 실행하면 실행(executions)으로만 센다.
+        V result;
+        try {
+            result = existing.get(maxWait.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            waitTimeouts.increment();
+            executions.increment();
+            return loader.get();
+        } catch (ExecutionException e) {
+            coalesced.increment();
+            throw propagate(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("single-flight 대기 중 인터럽트 발생", e);
+        }
+        coalesced.increment();
+        return result;
+    }
+
+    private V lead(K key, CompletableFuture<V> flight, Supplier<V> loader) {
+        executions.increment();
+        try {
+            V result = loader.get();
+            flight.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    private static RuntimeException propagate(Throwable cause) {
+        if (cause instanceof RuntimeException) {
+            return (RuntimeException) cause;
+        }
+        if (cause instanceof Error) {
+            throw (Error) cause;
+        }
+        return new IllegalStateException(cause);
+    }
+
+    public long getRequests() {
+        return requests.sum();
+    }
+
+    public long getExecutions() {
+        return executions.sum();
+    }
+
+    public long getCoalesced() {
+        return coalesced.sum();
+    }
+
+    public long getWaitTimeouts() {
+        return waitTimeouts.sum();
+    }
+
+    /**
+     * 전체 요청 중 다른 요청의 실행 결과를 공유받은 비율
+     */
+    public double getCoalescingRatio() {
+        long requestCount = getRequests();
+        return requestCount == 0
+                ? 0.0
+                : (double) getCoalesced() / requestCount;
+    }
+}
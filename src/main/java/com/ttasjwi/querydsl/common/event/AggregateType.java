@@ -0,0 +1,6 @@
+package com.ttasjwi.querydsl.common.event;
+
+public enum AggregateType {
+    MEMBER,
+    TEAM
+}
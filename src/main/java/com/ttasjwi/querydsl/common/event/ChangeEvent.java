@@ -0,0 +1,55 @@
+package com.ttasjwi.querydsl.common.event;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * 회원/팀 변경 이벤트 (transactional outbox)
+ * 변경을 일으킨 트랜잭션 안에서 함께 저장되고(ChangeEventRecorder), 커밋 후 ChangeEventDispatcher가 식별자 순서대로 발행한다.
+ * 이벤트에는 변경된 대상의 식별자만 담으며, 구독자는 필요한 상태를 DB에서 다시 조회한다.
+ * 구독자 처리에 maxAttempts 번 실패한 이벤트는 parked로 표시하고 발행 대상에서 뺀다.
+ * (원인 확인 후 ChangeEventDispatcher.unpark로 실패 횟수와 함께 되돌리면 다시 발행)
+ * 발행 완료된 이벤트는 retention이 지나면 지운다. (ChangeEventDispatcher.purgeDispatched)
+ */
+@Entity
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@ToString(of = {"id", "aggregateType", "aggregateId", "changeType"})
+@Table(name = "change_event", indexes = @Index(name = "idx_change_event_published", columnList = "published, change_event_id"))
+public class ChangeEvent {
+
+    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "change_event_id")
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    private AggregateType aggregateType;
+
+    private Long aggregateId;
+
+    @Enumerated(EnumType.STRING)
+    private ChangeType changeType;
+
+    private LocalDateTime createdAt;
+
+    private boolean published;
+
+    /**
+     * 구독자 처리 실패 횟수
+     */
+    private int attempts;
+
+    private boolean parked;
+
+    public ChangeEvent(AggregateType aggregateType, Long aggregateId, ChangeType changeType) {
+        this.aggregateType = aggregateType;
+        this.aggregateId = aggregateId;
+        this.changeType = changeType;
+        this.createdAt = LocalDateTime.now();
+    }
+}
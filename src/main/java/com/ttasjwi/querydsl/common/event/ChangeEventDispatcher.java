@@ -0,0 +1,338 @@
+package com.ttasjwi.querydsl.common.event;
+
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.persistence.EntityManager;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+import static com.ttasjwi.querydsl.common.event.QChangeEvent.changeEvent;
+
+/**
+ * 변경 이벤트 비동기 발행
+ * 전용 스레드 하나에서 미발행 이벤트를 식별자 순서대로 batchSize 단위로 읽어 구독자들에게 전달하고 발행 완료로 표시한다.
+ * - 커밋 직후 ChangeEventRecorder가 wakeUp()으로 깨우고, 놓친 이벤트는 pollInterval 주기로 다시 찾는다.
+ * - IDENTITY 식별자는 커밋 순서가 아니다. 먼저 식별자를 받은 트랜잭션이 늦게 커밋될 수 있으므로,
+ *   발행한 마지막 식별자(watermark) 바로 다음이 비어 있으면 gapTimeout 동안 뒤 이벤트를 발행하지 않고 기다린다.
+ *   그 뒤에는 롤백으로 생긴 빈 식별자로 보고 건너뛰며, 건너뛴 식별자가 나중에 커밋되면 늦게라도 전달한다.
+ * - 구독자 처리 중 예외가 발생하면 그 묶음을 한 건씩 다시 전달한다. 실패한 이벤트 앞까지만 발행 완료로 표시하고
+ *   실패 횟수를 늘린 뒤 다음 주기에 다시 시도한다. maxAttempts 번 실패하면 parked로 옮기고 다음 이벤트로 넘어간다.
+ * - 발행 완료 후 retention이 지난 이벤트는 purgeInterval 주기로 purgeBatchSize 건씩 지운다.
+ *   발행 완료(또는 parked)된 가장 큰 식별자는 다시 시작할 때 발행 위치로 쓰므로 남긴다.
+ */
+@Slf4j
+@Component
+public class ChangeEventDispatcher {
+
+    private final JPAQueryFactory queryFactory;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectProvider<ChangeEventHandler> handlers;
+    private final ChangeEventProperties properties;
+
+    private final AtomicBoolean wakeUpScheduled = new AtomicBoolean();
+    private ScheduledExecutorService executor;
+
+    // 아래 상태는 발행 스레드(dispatchPending 동기화)에서만 사용
+    private Long watermark;
+    private long gapId;
+    private long gapSince;
+
+    public ChangeEventDispatcher(EntityManager em,
+                                 PlatformTransactionManager transactionManager,
+                                 ObjectProvider<ChangeEventHandler> handlers,
+                                 ChangeEventProperties properties) {
+        this.queryFactory = new JPAQueryFactory(em);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.handlers = handlers;
+        this.properties = properties;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!properties.isDispatchEnabled()) {
+            return;
+        }
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "change-event-dispatcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = properties.getPollInterval().toMillis();
+        executor.scheduleWithFixedDelay(this::dispatchQuietly, interval, interval, TimeUnit.MILLISECONDS);
+        if (isPurgeEnabled()) {
+            long purgeInterval = properties.getPurgeInterval().toMillis();
+            executor.scheduleWithFixedDelay(this::purgeQuietly, purgeInterval, purgeInterval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * 발행 스레드 깨우기. 이미 깨우기가 예약되어 있으면 무시한다.
+     */
+    public void wakeUp() {
+        if (executor == null || !wakeUpScheduled.compareAndSet(false, true)) {
+            return;
+        }
+        executor.execute(() -> {
+            wakeUpScheduled.set(false);
+            dispatchQuietly();
+        });
+    }
+
+    /**
+     * 발행할 수 있는 미발행 이벤트를 모두 발행하고 발행 완료(또는 parked)로 처리한 이벤트 수를 반환
+     * 빈 식별자를 기다리는 중이거나 구독자가 실패하면 그 앞까지만 처리한다.
+     */
+    public synchronized int dispatchPending() {
+        int total = 0;
+        int count;
+        do {
+            count = dispatchBatch();
+            total += count;
+        } while (count == properties.getBatchSize());
+        return total;
+    }
+
+    /**
+     * retention보다 오래된 발행 완료 이벤트를 purgeBatchSize 건씩 지우고 지운 수를 반환
+     * parked 이벤트와 발행 완료(또는 parked)된 가장 큰 식별자의 이벤트는 남긴다.
+     */
+    public int purgeDispatched() {
+        if (!isPurgeEnabled()) {
+            return 0;
+        }
+        int batchSize = Math.max(properties.getPurgeBatchSize(), 1);
+        LocalDateTime createdBefore = LocalDateTime.now().minus(properties.getRetention());
+        int total = 0;
+        int deleted;
+        do {
+            deleted = transactionTemplate.execute(status -> {
+                Long lastDispatchedId = selectLastDispatchedId();
+                if (lastDispatchedId == null) {
+                    return 0;
+                }
+                List<Long> ids = queryFactory
+                        .select(changeEvent.id)
+                        .from(changeEvent)
+                        .where(changeEvent.published.isTrue(),
+                                changeEvent.id.lt(lastDispatchedId),
+                                changeEvent.createdAt.lt(createdBefore))
+                        .orderBy(changeEvent.id.asc())
+                        .limit(batchSize)
+                        .fetch();
+                if (ids.isEmpty()) {
+                    return 0;
+                }
+                return (int) queryFactory
+                        .delete(changeEvent)
+                        .where(changeEvent.id.in(ids))
+                        .execute();
+            });
+            total += deleted;
+        } while (deleted == batchSize);
+        return total;
+    }
+
+    /**
+     * parked 이벤트를 실패 횟수와 함께 되돌려 다시 발행 대상으로 만든다. 되돌렸으면 true
+     * (실패 횟수를 그대로 두면 다음 실패 한 번에 다시 parked로 옮겨진다)
+     */
+    public boolean unpark(long eventId) {
+        long updated = transactionTemplate.execute(status -> queryFactory
+                .update(changeEvent)
+                .set(changeEvent.parked, false)
+                .set(changeEvent.attempts, 0)
+                .where(changeEvent.id.eq(eventId), changeEvent.parked.isTrue())
+                .execute());
+        if (updated == 0) {
+            return false;
+        }
+        wakeUp();
+        return true;
+    }
+
+    /**
+     * 발행 완료(또는 parked)로 처리된 마지막 이벤트 식별자. 없으면 0
+     * 구독자가 자신이 반영한 마지막 이벤트와 비교할 때 쓴다. 발행 스레드와 따로 호출할 수 있다.
+     */
+    public long findLastDispatchedId() {
+        Long id = transactionTemplate.execute(status -> selectLastDispatchedId());
+        return id == null ? 0 : id;
+    }
+
+    private int dispatchBatch() {
+        List<ChangeEvent> events = transactionTemplate.execute(status -> {
+            if (watermark == null) {
+                watermark = selectLastDispatchedId();
+            }
+            return queryFactory
+                    .selectFrom(changeEvent)
+                    .where(changeEvent.published.isFalse(), changeEvent.parked.isFalse())
+                    .orderBy(changeEvent.id.asc())
+                    .limit(properties.getBatchSize())
+                    .fetch();
+        });
+        if (events.isEmpty()) {
+            return 0;
+        }
+        if (watermark == null) {
+            // 처음 발행 : 처음 보이는 미발행 이벤트부터 시작
+            watermark = events.get(0).getId() - 1;
+        }
+
+        List<ChangeEvent> ready = takeReady(events);
+        if (ready.isEmpty()) {
+            return 0;
+        }
+        try {
+            deliver(ready);
+            advance(ready);
+            return ready.size();
+        } catch (RuntimeException e) {
+            log.warn("변경 이벤트 묶음 처리 실패. 한 건씩 다시 전달합니다. - events {} ~ {}",
+                    ready.get(0).getId(), ready.get(ready.size() - 1).getId(), e);
+        }
+
+        int processed = 0;
+        for (ChangeEvent event : ready) {
+            try {
+                deliver(List.of(event));
+            } catch (RuntimeException e) {
+                if (!recordFailure(event, e)) {
+                    break;
+                }
+            }
+            advance(List.of(event));
+            processed++;
+        }
+        return processed;
+    }
+
+    private Long selectLastDispatchedId() {
+        return queryFactory
+                .select(changeEvent.id.max())
+                .from(changeEvent)
+                .where(changeEvent.published.isTrue().or(changeEvent.parked.isTrue()))
+                .fetchOne();
+    }
+
+    /**
+     * watermark 다음부터 식별자가 이어지는 앞부분. 빈 식별자는 gapTimeout이 지나야 건너뛴다.
+     * watermark 이하의 미발행 이벤트는 건너뛴 뒤 늦게 커밋되었거나 unpark로 되돌린 것이므로 바로 전달한다.
+     */
+    private List<ChangeEvent> takeReady(List<ChangeEvent> events) {
+        List<ChangeEvent> ready = new ArrayList<>(events.size());
+        long next = watermark + 1;
+        for (ChangeEvent event : events) {
+            long id = event.getId();
+            if (id < next) {
+                log.warn("발행 위치보다 앞선 변경 이벤트를 전달합니다. (늦게 커밋되었거나 되돌린 이벤트) - {}", event);
+                ready.add(event);
+                continue;
+            }
+            if (id > next && !gapExpired(next, id)) {
+                break;
+            }
+            ready.add(event);
+            next = id + 1;
+        }
+        return ready;
+    }
+
+    private boolean gapExpired(long from, long to) {
+        long now = System.nanoTime();
+        if (gapId != from) {
+            gapId = from;
+            gapSince = now;
+        }
+        if (now - gapSince < properties.getGapTimeout().toNanos()) {
+            return false;
+        }
+        log.info("변경 이벤트 식별자 {} ~ {} 가 {} 동안 커밋되지 않아 건너뜁니다.", from, to - 1, properties.getGapTimeout());
+        return true;
+    }
+
+    private void deliver(List<ChangeEvent> events) {
+        List<ChangeEvent> batch = Collections.unmodifiableList(events);
+        List<Long> ids = events.stream()
+                .map(ChangeEvent::getId)
+                .collect(Collectors.toList());
+        transactionTemplate.executeWithoutResult(status -> {
+            handlers.orderedStream().forEach(handler -> handler.handle(batch));
+            queryFactory
+                    .update(changeEvent)
+                    .set(changeEvent.published, true)
+                    .where(changeEvent.id.in(ids))
+                    .execute();
+        });
+    }
+
+    private void advance(List<ChangeEvent> events) {
+        for (ChangeEvent event : events) {
+            watermark = Math.max(watermark, event.getId());
+        }
+    }
+
+    /**
+     * 실패 횟수를 늘리고, maxAttempts에 닿으면 parked로 옮긴다. parked로 옮겼으면 true
+     */
+    private boolean recordFailure(ChangeEvent event, RuntimeException e) {
+        boolean park = event.getAttempts() + 1 >= properties.getMaxAttempts();
+        transactionTemplate.executeWithoutResult(status -> queryFactory
+                .update(changeEvent)
+                .set(changeEvent.attempts, changeEvent.attempts.add(1))
+                .set(changeEvent.parked, park)
+                .where(changeEvent.id.eq(event.getId()))
+                .execute());
+        if (park) {
+            log.error("변경 이벤트 처리에 {}번 실패해서 parked로 옮깁니다. - {}", properties.getMaxAttempts(), event, e);
+        } else {
+            log.warn("변경 이벤트 처리 실패 ({}번째). 다음 주기에 다시 시도합니다. - {}", event.getAttempts() + 1, event, e);
+        }
+        return park;
+    }
+
+    private boolean isPurgeEnabled() {
+        return properties.getRetention().compareTo(Duration.ZERO) > 0;
+    }
+
+    private void purgeQuietly() {
+        try {
+            int deleted = purgeDispatched();
+            if (deleted > 0) {
+                log.debug("발행 완료된 변경 이벤트 {}건 삭제", deleted);
+            }
+        } catch (RuntimeException e) {
+            log.error("발행 완료된 변경 이벤트 삭제 실패. 다음 주기에 다시 시도합니다.", e);
+        }
+    }
+
+    private void dispatchQuietly() {
+        try {
+            dispatchPending();
+        } catch (RuntimeException e) {
+            log.error("변경 이벤트 발행 실패. 다음 주기에 다시 시도합니다.", e);
+        }
+    }
+}
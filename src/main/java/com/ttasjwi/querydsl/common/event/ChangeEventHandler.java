@@ -0,0 +1,14 @@
+package com.ttasjwi.querydsl.common.event;
+
+import java.util.List;
+
+/**
+ * 커밋된 변경 이벤트 구독자
+ * 이벤트는 식별자(발생) 순서대로 묶음 단위로 전달된다. (gapTimeout 안에 커밋되지 못한 이벤트는 나중에 늦게 전달될 수 있다)
+ * 처리 중 예외가 발생하면 해당 묶음을 한 건씩 다시 전달하므로 같은 이벤트를 여러 번 받을 수 있다. (at-least-once)
+ * maxAttempts 번 실패한 이벤트는 더 전달되지 않는다. (parked)
+ */
+public interface ChangeEventHandler {
+
+    void handle(List<ChangeEvent> events);
+}
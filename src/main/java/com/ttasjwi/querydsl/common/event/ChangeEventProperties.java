@@ -0,0 +1,57 @@
+package com.ttasjwi.querydsl.common.event;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * 변경 이벤트 발행 설정 (change-event.*)
+ */
+@Getter @Setter
+@ConfigurationProperties(prefix = "change-event")
+public class ChangeEventProperties {
+
+    /**
+     * 백그라운드 발행 여부
+     */
+    private boolean dispatchEnabled = true;
+
+    /**
+     * 한 번에 조회해서 구독자에게 전달할 이벤트 수
+     */
+    private int batchSize = 100;
+
+    /**
+     * 커밋 알림을 놓친 이벤트를 찾기 위한 조회 주기
+     */
+    private Duration pollInterval = Duration.ofSeconds(1);
+
+    /**
+     * 식별자 사이가 비어 있을 때(먼저 식별자를 받은 트랜잭션이 아직 커밋 전) 뒤 이벤트의 발행을 미루는 최대 시간
+     * 이 시간이 지나면 롤백으로 생긴 빈 식별자로 보고 건너뛴다. 가장 긴 쓰기 트랜잭션보다 길게 잡는다.
+     */
+    private Duration gapTimeout = Duration.ofSeconds(5);
+
+    /**
+     * 구독자 처리에 이 횟수만큼 실패한 이벤트는 parked로 옮기고 다음 이벤트로 넘어간다.
+     */
+    private int maxAttempts = 5;
+
+    /**
+     * 발행 완료된 이벤트 보관 시간. 지나면 purgeInterval 주기로 지운다. 0이면 지우지 않는다.
+     * parked 이벤트와 발행 완료된 가장 큰 식별자의 이벤트(마지막 발행 위치)는 남긴다.
+     */
+    private Duration retention = Duration.ofHours(1);
+
+    /**
+     * 보관 시간이 지난 발행 완료 이벤트를 지우는 주기
+     */
+    private Duration purgeInterval = Duration.ofMinutes(1);
+
+    /**
+     * 한 트랜잭션에서 지우는 최대 이벤트 수
+     */
+    private int purgeBatchSize = 1_000;
+}
@@ -0,0 +1,106 @@
+package com.ttasjwi.querydsl.common.event;
+
+import lombok.EqualsAndHashCode;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 변경 이벤트 기록
+ * 변경이 일어난 트랜잭션의 커넥션으로 outbox(change_event) 테이블에 바로 insert 한다.
+ * - 변경 감지(dirty checking)에 의한 수정은 커밋 시점 flush 중에 콜백되므로, 영속성 컨텍스트 대신 JDBC로 기록한다.
+ * - 한 트랜잭션 안에서 같은 대상의 같은 종류 변경은 한 번만 기록한다.
+ * - 롤백되면 함께 롤백되고, 커밋되면 ChangeEventDispatcher를 깨워 발행한다.
+ * - 트랜잭션 밖의 변경(자동 커밋)은 이미 반영된 것이므로 새 트랜잭션으로 바로 기록한다.
+ */
+@Component
+public class ChangeEventRecorder {
+
+    private static final String INSERT_SQL = "insert into change_event " +
+            "(aggregate_type, aggregate_id, change_type, created_at, published, attempts, parked)" +
+            " values (?, ?, ?, ?, false, 0, false)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ChangeEventDispatcher changeEventDispatcher;
+    private final TransactionTemplate transactionTemplate;
+
+    public ChangeEventRecorder(JdbcTemplate jdbcTemplate,
+                               ChangeEventDispatcher changeEventDispatcher,
+                               PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.changeEventDispatcher = changeEventDispatcher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public void record(AggregateType aggregateType, Long aggregateId, ChangeType changeType) {
+        recordAll(aggregateType, List.of(aggregateId), changeType);
+    }
+
+    /**
+     * 벌크 연산처럼 엔티티 콜백을 거치지 않는 변경 기록
+     */
+    public void recordAll(AggregateType aggregateType, Collection<Long> aggregateIds, ChangeType changeType) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            transactionTemplate.executeWithoutResult(status -> recordAll(aggregateType, aggregateIds, changeType));
+            return;
+        }
+        Set<RecordedEvent> recorded = currentTransactionEvents();
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        List<Object[]> rows = new ArrayList<>();
+        for (Long aggregateId : aggregateIds) {
+            if (recorded.add(new RecordedEvent(aggregateType, aggregateId, changeType))) {
+                rows.add(new Object[]{aggregateType.name(), aggregateId, changeType.name(), now});
+            }
+        }
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+        }
+    }
+
+    private Set<RecordedEvent> currentTransactionEvents() {
+        TransactionEvents events = (TransactionEvents) TransactionSynchronizationManager.getResource(this);
+        if (events == null) {
+            events = new TransactionEvents();
+            TransactionSynchronizationManager.bindResource(this, events);
+            TransactionSynchronizationManager.registerSynchronization(events);
+        }
+        return events.recorded;
+    }
+
+    @EqualsAndHashCode
+    @RequiredArgsConstructor
+    private static class RecordedEvent {
+
+        private final AggregateType aggregateType;
+        private final Long aggregateId;
+        private final ChangeType changeType;
+    }
+
+    private class TransactionEvents implements TransactionSynchronization {
+
+        private final Set<RecordedEvent> recorded = new HashSet<>();
+
+        @Override
+        public void afterCommit() {
+            changeEventDispatcher.wakeUp();
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(ChangeEventRecorder.this);
+        }
+    }
+}
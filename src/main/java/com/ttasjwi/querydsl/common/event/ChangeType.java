@@ -0,0 +1,7 @@
+package com.ttasjwi.querydsl.common.event;
+
+public enum ChangeType {
+    CREATED,
+    UPDATED,
+    DELETED
+}
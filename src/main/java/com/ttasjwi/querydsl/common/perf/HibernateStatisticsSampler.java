@@ -0,0 +1,180 @@
+package com.ttasjwi.querydsl.common.perf;
+
+import com.ttasjwi.querydsl.common.query.profile.QueryShapeProfiler;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.persistence.EntityManagerFactory;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hibernate 통계 구간 수집
+ * interval 주기로 누적 통계 스냅샷을 찍고, 직전 스냅샷과의 차이를 구간 기록으로 history 개까지 보관한다.
+ * 쿼리별 통계에는 쿼리 모양 지문을 붙여 QueryShapeProfiler, 리포지토리 메서드 통계와 맞춰 볼 수 있게 한다.
+ * 시작할 때는 perf.statistics-enabled 를 따르고, 실행 중에는 setEnabled 로 끄고 켠다. (POST /actuator/perf)
+ */
+@Slf4j
+@Component
+public class HibernateStatisticsSampler {
+
+    private final Statistics statistics;
+    private final PerfProperties properties;
+
+    private final Deque<StatisticsInterval> history = new ArrayDeque<>();
+    private StatisticsSnapshot previous;
+    private ScheduledExecutorService executor;
+
+    public HibernateStatisticsSampler(EntityManagerFactory emf, PerfProperties properties) {
+        this.statistics = emf.unwrap(SessionFactory.class).getStatistics();
+        this.properties = properties;
+    }
+
+    @PostConstruct
+    public void start() {
+        setEnabled(properties.isStatisticsEnabled());
+    }
+
+    @PreDestroy
+    public synchronized void stop() {
+        stopSchedule();
+    }
+
+    /**
+     * 실행 중에 통계 수집을 끄고 켠다.
+     * 끄기 전에 지금까지의 구간을 수집해 두고, 켤 때는 꺼져 있던 동안을 구간에 넣지 않도록 스냅샷을 새로 찍는다.
+     * 주기 수집 스레드도 함께 멈추고 다시 시작한다.
+     */
+    public synchronized void setEnabled(boolean enabled) {
+        if (previous != null && statistics.isStatisticsEnabled() == enabled) {
+            return;
+        }
+        if (!enabled && previous != null) {
+            sample();
+        }
+        statistics.setStatisticsEnabled(enabled);
+        previous = StatisticsSnapshot.capture(statistics);
+        if (enabled) {
+            startSchedule();
+        } else {
+            stopSchedule();
+        }
+    }
+
+    private void startSchedule() {
+        if (executor != null || properties.getInterval().isZero()) {
+            return;
+        }
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "hibernate-statistics-sampler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalMillis = properties.getInterval().toMillis();
+        executor.scheduleWithFixedDelay(this::sampleSafely, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private void stopSchedule() {
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+
+    private void sampleSafely() {
+        try {
+            sample();
+        } catch (Exception e) {
+            log.warn("Hibernate 통계 수집 실패", e);
+        }
+    }
+
+    /**
+     * 직전 스냅샷 이후 구간 기록을 만들어 보관하고 돌려준다
+     */
+    public synchronized StatisticsInterval sample() {
+        StatisticsSnapshot current = StatisticsSnapshot.capture(statistics);
+        StatisticsInterval interval = diff(previous, current);
+        previous = current;
+        history.addLast(interval);
+        while (history.size() > properties.getHistory()) {
+            history.removeFirst();
+        }
+        return interval;
+    }
+
+    /**
+     * 보관 중인 구간 기록, 최근 구간이 먼저
+     */
+    public synchronized List<StatisticsInterval> history() {
+        List<StatisticsInterval> intervals = new ArrayList<>(history);
+        Collections.reverse(intervals);
+        return intervals;
+    }
+
+    /**
+     * 통계 초기화 이후 누적 카운터
+     */
+    public Map<String, Long> cumulative() {
+        return StatisticsSnapshot.capture(statistics).getCounters();
+    }
+
+    public boolean isEnabled() {
+        return statistics.isStatisticsEnabled();
+    }
+
+    public synchronized void reset() {
+        statistics.clear();
+        history.clear();
+        previous = StatisticsSnapshot.capture(statistics);
+    }
+
+    private StatisticsInterval diff(StatisticsSnapshot from, StatisticsSnapshot to) {
+        Map<String, Long> counters = new LinkedHashMap<>();
+        to.getCounters().forEach((name, value) ->
+                counters.put(name, value - from.getCounters().getOrDefault(name, 0L)));
+
+        List<StatisticsInterval.QueryInterval> queries = new ArrayList<>();
+        to.getQueries().forEach((query, current) -> {
+            StatisticsSnapshot.QueryCounters before =
+                    from.getQueries().getOrDefault(query, StatisticsSnapshot.QueryCounters.ZERO);
+            long executions = current.getExecutions() - before.getExecutions();
+            if (executions <= 0) {
+                return;
+            }
+            long totalMillis = current.getTotalMillis() - before.getTotalMillis();
+            queries.add(new StatisticsInterval.QueryInterval(
+                    QueryShapeProfiler.fingerprint(QueryShapeProfiler.normalize(query)),
+                    QueryShapeProfiler.normalize(query),
+                    executions,
+                    totalMillis,
+                    (double) totalMillis / executions,
+                    current.getMaxMillis(),
+                    current.getRows() - before.getRows()));
+        });
+        queries.sort(Comparator.comparingLong(StatisticsInterval.QueryInterval::getTotalMillis)
+                .thenComparingLong(StatisticsInterval.QueryInterval::getExecutions)
+                .reversed());
+
+        return new StatisticsInterval(
+                from.getCapturedAt(),
+                to.getCapturedAt(),
+                counters,
+                queries.size() > properties.getTopQueries()
+                        ? new ArrayList<>(queries.subList(0, properties.getTopQueries()))
+                        : queries);
+    }
+}
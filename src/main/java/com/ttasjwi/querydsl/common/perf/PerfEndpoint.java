@@ -0,0 +1,57 @@
+package com.ttasjwi.querydsl.common.perf;
+
+import com.ttasjwi.querydsl.common.query.profile.QueryShapeProfiler;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * /actuator/perf?top=20 : Hibernate 누적 통계, 구간별 증가분, 리포지토리 메서드별 수행 시간
+ * POST /actuator/perf : 지금까지의 구간을 바로 수집
+ * POST /actuator/perf {"statisticsEnabled": false | true} : 지금까지의 구간을 수집하고 Hibernate 통계와 주기 수집을 끄거나 켬
+ * DELETE /actuator/perf : Hibernate 통계, 메서드 통계, 쿼리 모양 통계 초기화
+ */
+@Component
+@Endpoint(id = "perf")
+@RequiredArgsConstructor
+public class PerfEndpoint {
+
+    private final HibernateStatisticsSampler sampler;
+    private final RepositoryTimingAspect repositoryTiming;
+    private final QueryShapeProfiler profiler;
+    private final PerfProperties properties;
+
+    @ReadOperation
+    public Map<String, Object> report(@Nullable Integer top) {
+        int limit = top == null ? properties.getTopQueries() : top;
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("statisticsEnabled", sampler.isEnabled());
+        report.put("cumulative", sampler.cumulative());
+        report.put("intervals", sampler.history());
+        report.put("repositoryMethods", repositoryTiming.top(limit));
+        return report;
+    }
+
+    @WriteOperation
+    public StatisticsInterval sample(@Nullable Boolean statisticsEnabled) {
+        StatisticsInterval interval = sampler.sample();
+        if (statisticsEnabled != null) {
+            sampler.setEnabled(statisticsEnabled);
+        }
+        return interval;
+    }
+
+    @DeleteOperation
+    public void reset() {
+        sampler.reset();
+        repositoryTiming.reset();
+        profiler.reset();
+    }
+}
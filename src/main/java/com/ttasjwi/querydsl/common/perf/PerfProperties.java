@@ -0,0 +1,41 @@
+package com.ttasjwi.querydsl.common.perf;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * 성능 진단 설정 (perf.*)
+ */
+@Getter @Setter
+@ConfigurationProperties(prefix = "perf")
+public class PerfProperties {
+
+    /**
+     * 시작할 때의 Hibernate 통계 수집 여부. 시작한 뒤에 이 값을 바꿔도 반영되지 않고,
+     * 실행 중에는 POST /actuator/perf {"statisticsEnabled": false | true} 로 끄고 켠다.
+     */
+    private boolean statisticsEnabled = true;
+
+    /**
+     * 통계 스냅샷 주기. 0 이면 주기 수집을 하지 않는다.
+     */
+    private Duration interval = Duration.ofMinutes(1);
+
+    /**
+     * 보관할 구간 수
+     */
+    private int history = 60;
+
+    /**
+     * 구간별로 보고할 최대 쿼리 수 (누적 수행 시간 순)
+     */
+    private int topQueries = 20;
+
+    /**
+     * 리포지토리 메서드 수행 시간 측정 여부
+     */
+    private boolean repositoryTimingEnabled = true;
+}
@@ -0,0 +1,29 @@
+package com.ttasjwi.querydsl.common.perf;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 리포지토리 메서드별 수행 시간 보고
+ */
+@Data
+public class RepositoryMethodReport {
+
+    /**
+     * 클래스명.메서드명 (오버로딩된 메서드는 합산)
+     */
+    private final String method;
+    private final long count;
+    private final long failures;
+    private final double totalMillis;
+    private final double meanMillis;
+    private final double p50Millis;
+    private final double p99Millis;
+    private final double maxMillis;
+
+    /**
+     * 이 메서드가 실행한 쿼리 모양 지문 (/actuator/queryshapes, Hibernate 쿼리 통계와 같은 값)
+     */
+    private final List<String> shapes;
+}
@@ -0,0 +1,54 @@
+package com.ttasjwi.querydsl.common.perf;
+
+import com.ttasjwi.querydsl.common.query.profile.LatencyHistogram;
+
+import java.util.List;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 리포지토리 메서드 하나의 누적 수행 시간
+ */
+class RepositoryMethodStats {
+
+    private final String method;
+    private final LongAdder count = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder totalMicros = new LongAdder();
+    private final LongAccumulator maxMicros = new LongAccumulator(Math::max, 0);
+    private final LatencyHistogram histogram = new LatencyHistogram();
+
+    RepositoryMethodStats(String method) {
+        this.method = method;
+    }
+
+    void record(long elapsedNanos, boolean failed) {
+        long micros = elapsedNanos / 1_000;
+        count.increment();
+        if (failed) {
+            failures.increment();
+        }
+        totalMicros.add(micros);
+        maxMicros.accumulate(micros);
+        histogram.record(micros);
+    }
+
+    long totalMicros() {
+        return totalMicros.sum();
+    }
+
+    RepositoryMethodReport report(List<String> shapes) {
+        long count = this.count.sum();
+        long totalMicros = this.totalMicros.sum();
+        return new RepositoryMethodReport(
+                method,
+                count,
+                failures.sum(),
+                totalMicros / 1_000.0,
+                count == 0 ? 0 : totalMicros / 1_000.0 / count,
+                histogram.percentile(0.50) / 1_000.0,
+                histogram.percentile(0.99) / 1_000.0,
+                maxMicros.get() / 1_000.0,
+                shapes);
+    }
+}
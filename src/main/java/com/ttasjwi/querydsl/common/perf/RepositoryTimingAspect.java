@@ -0,0 +1,78 @@
+package com.ttasjwi.querydsl.common.perf;
+
+import com.ttasjwi.querydsl.common.query.profile.QueryCallContext;
+import com.ttasjwi.querydsl.common.query.profile.QueryShapeProfiler;
+import com.ttasjwi.querydsl.common.query.profile.QueryShapeReport;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Collectors;
+
+/**
+ * *JpaRepository 공개 메서드 수행 시간 측정
+ * 실행 중인 메서드를 QueryCallContext에 걸어 두어, 그 안에서 실행된 쿼리 모양에 호출 메서드가 기록되게 한다.
+ * 같은 리포지토리 안의 자기 호출은 프록시를 거치지 않으므로 바깥 메서드로 합산된다.
+ */
+@Aspect
+@Component
+@RequiredArgsConstructor
+public class RepositoryTimingAspect {
+
+    private final PerfProperties properties;
+    private final QueryShapeProfiler profiler;
+    private final ConcurrentMap<String, RepositoryMethodStats> methods = new ConcurrentHashMap<>();
+
+    @Around("execution(public * com.ttasjwi.querydsl..repository.*JpaRepository.*(..))")
+    public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (!properties.isRepositoryTimingEnabled()) {
+            return joinPoint.proceed();
+        }
+        String method = joinPoint.getSignature().getDeclaringType().getSimpleName()
+                + "." + joinPoint.getSignature().getName();
+        String previous = QueryCallContext.enter(method);
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            Object result = joinPoint.proceed();
+            failed = false;
+            return result;
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            QueryCallContext.exit(previous);
+            methods.computeIfAbsent(method, RepositoryMethodStats::new).record(elapsed, failed);
+        }
+    }
+
+    /**
+     * 누적 수행 시간 상위 limit 개 메서드와 각 메서드가 실행한 쿼리 모양
+     */
+    public List<RepositoryMethodReport> top(int limit) {
+        Map<String, List<String>> shapesByMethod = new HashMap<>();
+        for (QueryShapeReport shape : profiler.top(Integer.MAX_VALUE, QueryShapeProfiler.SortBy.TOTAL)) {
+            for (String caller : shape.getCallers()) {
+                shapesByMethod.computeIfAbsent(caller, key -> new ArrayList<>()).add(shape.getFingerprint());
+            }
+        }
+        return methods.entrySet().stream()
+                .sorted(Comparator.comparingLong(
+                        (Map.Entry<String, RepositoryMethodStats> entry) -> entry.getValue().totalMicros()).reversed())
+                .limit(limit)
+                .map(entry -> entry.getValue().report(
+                        shapesByMethod.getOrDefault(entry.getKey(), new ArrayList<>())))
+                .collect(Collectors.toList());
+    }
+
+    public void reset() {
+        methods.clear();
+    }
+}
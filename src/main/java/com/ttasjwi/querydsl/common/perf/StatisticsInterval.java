@@ -0,0 +1,46 @@
+package com.ttasjwi.querydsl.common.perf;
+
+import lombok.Data;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 두 스냅샷 사이 구간의 Hibernate 통계 증가분
+ */
+@Data
+public class StatisticsInterval {
+
+    private final Instant from;
+    private final Instant to;
+
+    /**
+     * 구간 동안 늘어난 전역 카운터 (쿼리 실행, 엔티티/컬렉션 로딩, 2차 캐시 적중 등)
+     */
+    private final Map<String, Long> counters;
+
+    /**
+     * 구간 동안 실행된 쿼리, 누적 수행 시간 순
+     */
+    private final List<QueryInterval> queries;
+
+    @Data
+    public static class QueryInterval {
+
+        /**
+         * /actuator/queryshapes 의 지문과 같은 값
+         */
+        private final String fingerprint;
+        private final String query;
+        private final long executions;
+        private final long totalMillis;
+        private final double meanMillis;
+
+        /**
+         * Hibernate가 구간별 최대값을 주지 않으므로 통계 초기화 이후 최대값
+         */
+        private final long maxMillis;
+        private final long rows;
+    }
+}
@@ -0,0 +1,68 @@
+package com.ttasjwi.querydsl.common.perf;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.stat.QueryStatistics;
+import org.hibernate.stat.Statistics;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 특정 시점의 Hibernate 누적 통계
+ */
+@Getter
+@RequiredArgsConstructor
+class StatisticsSnapshot {
+
+    private final Instant capturedAt;
+    private final Map<String, Long> counters;
+    private final Map<String, QueryCounters> queries;
+
+    static StatisticsSnapshot capture(Statistics statistics) {
+        Map<String, Long> counters = new LinkedHashMap<>();
+        counters.put("queryExecutions", statistics.getQueryExecutionCount());
+        counters.put("entityLoads", statistics.getEntityLoadCount());
+        counters.put("entityFetches", statistics.getEntityFetchCount());
+        counters.put("entityInserts", statistics.getEntityInsertCount());
+        counters.put("entityUpdates", statistics.getEntityUpdateCount());
+        counters.put("entityDeletes", statistics.getEntityDeleteCount());
+        counters.put("collectionLoads", statistics.getCollectionLoadCount());
+        counters.put("collectionFetches", statistics.getCollectionFetchCount());
+        counters.put("preparedStatements", statistics.getPrepareStatementCount());
+        counters.put("connects", statistics.getConnectCount());
+        counters.put("transactions", statistics.getTransactionCount());
+        counters.put("flushes", statistics.getFlushCount());
+        counters.put("optimisticFailures", statistics.getOptimisticFailureCount());
+        counters.put("secondLevelCacheHits", statistics.getSecondLevelCacheHitCount());
+        counters.put("secondLevelCacheMisses", statistics.getSecondLevelCacheMissCount());
+        counters.put("secondLevelCachePuts", statistics.getSecondLevelCachePutCount());
+        counters.put("queryCacheHits", statistics.getQueryCacheHitCount());
+        counters.put("queryCacheMisses", statistics.getQueryCacheMissCount());
+
+        Map<String, QueryCounters> queries = new HashMap<>();
+        for (String query : statistics.getQueries()) {
+            QueryStatistics queryStatistics = statistics.getQueryStatistics(query);
+            queries.put(query, new QueryCounters(
+                    queryStatistics.getExecutionCount(),
+                    queryStatistics.getExecutionTotalTime(),
+                    queryStatistics.getExecutionMaxTime(),
+                    queryStatistics.getExecutionRowCount()));
+        }
+        return new StatisticsSnapshot(Instant.now(), counters, queries);
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    static class QueryCounters {
+
+        static final QueryCounters ZERO = new QueryCounters(0, 0, 0, 0);
+
+        private final long executions;
+        private final long totalMillis;
+        private final long maxMillis;
+        private final long rows;
+    }
+}
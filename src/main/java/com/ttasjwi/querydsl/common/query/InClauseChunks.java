@@ -0,0 +1,61 @@
+package com.ttasjwi.querydsl.common.query;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+/**
+ * IN 절 파라미터 분할
+ * - 중복 값을 제거하고 최대 크기(maxChunkSize) 단위로 나눈다.
+ * - 각 청크의 크기를 2의 거듭제곱(최대 maxChunkSize)으로 맞추고, 모자란 자리는 마지막 값을 반복해서 채운다.
+ *   IN 절 파라미터 개수의 종류가 log2(maxChunkSize)개 정도로 줄어드므로 쿼리 플랜 캐시가 커지지 않는다.
+ */
+public final class InClauseChunks {
+
+    public static final int DEFAULT_MAX_CHUNK_SIZE = 512;
+
+    private InClauseChunks() {
+    }
+
+    public static <T> List<List<T>> split(Collection<T> values) {
+        return split(values, DEFAULT_MAX_CHUNK_SIZE);
+    }
+
+    public static <T> List<List<T>> split(Collection<T> values, int maxChunkSize) {
+        if (maxChunkSize < 1) {
+            throw new IllegalArgumentException("maxChunkSize는 1 이상이어야 합니다. maxChunkSize = " + maxChunkSize);
+        }
+        List<T> distinctValues = new ArrayList<>(new LinkedHashSet<>(values));
+        distinctValues.remove(null);
+
+        List<List<T>> chunks = new ArrayList<>();
+        for (int from = 0; from < distinctValues.size(); from += maxChunkSize) {
+            int to = Math.min(from + maxChunkSize, distinctValues.size());
+            chunks.add(pad(distinctValues.subList(from, to), maxChunkSize));
+        }
+        return chunks;
+    }
+
+    /**
+     * size 이상인 가장 작은 2의 거듭제곱 (maxChunkSize를 넘지 않음)
+     */
+    static int paddedSize(int size, int maxChunkSize) {
+        int padded = Integer.highestOneBit(size);
+        if (padded < size) {
+            padded <<= 1;
+        }
+        return Math.min(padded, maxChunkSize);
+    }
+
+    private static <T> List<T> pad(List<T> chunk, int maxChunkSize) {
+        int paddedSize = paddedSize(chunk.size(), maxChunkSize);
+        List<T> padded = new ArrayList<>(paddedSize);
+        padded.addAll(chunk);
+        T last = chunk.get(chunk.size() - 1);
+        while (padded.size() < paddedSize) {
+            padded.add(last);
+        }
+        return padded;
+    }
+}
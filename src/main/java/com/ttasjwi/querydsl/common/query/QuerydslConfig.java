@@ -0,0 +1,28 @@
+package com.ttasjwi.querydsl.common.query;
+
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import com.ttasjwi.querydsl.common.query.profile.ProfilingJPAQueryFactory;
+import com.ttasjwi.querydsl.common.query.profile.QueryProfilerProperties;
+import com.ttasjwi.querydsl.common.query.profile.QueryShapeProfiler;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.persistence.EntityManager;
+
+/**
+ * 리포지토리가 함께 쓰는 JPAQueryFactory
+ * 프로파일러가 켜져 있으면 조회 쿼리의 모양별 통계를 남긴다.
+ */
+@Configuration
+public class QuerydslConfig {
+
+    @Bean
+    public JPAQueryFactory jpaQueryFactory(EntityManager em,
+                                           QueryShapeProfiler queryShapeProfiler,
+                                           QueryProfilerProperties queryProfilerProperties) {
+        if (!queryProfilerProperties.isEnabled()) {
+            return new JPAQueryFactory(em);
+        }
+        return new ProfilingJPAQueryFactory(em, queryShapeProfiler);
+    }
+}
@@ -0,0 +1,43 @@
+package com.ttasjwi.querydsl.common.query.profile;
+
+import com.querydsl.jpa.impl.JPAQuery;
+
+import javax.persistence.EntityManager;
+import java.util.List;
+
+/**
+ * fetch, fetchOne 수행 시간과 조회 건수를 쿼리 모양별로 기록하는 JPAQuery
+ * 직렬화된 JPQL은 createQuery 과정에서 호출되는 logQuery 에서 받아서 다시 직렬화하지 않는다.
+ */
+public class ProfilingJPAQuery<T> extends JPAQuery<T> {
+
+    private final QueryShapeProfiler profiler;
+    private String jpql;
+
+    public ProfilingJPAQuery(EntityManager em, QueryShapeProfiler profiler) {
+        super(em);
+        this.profiler = profiler;
+    }
+
+    @Override
+    public List<T> fetch() {
+        long start = System.nanoTime();
+        List<T> result = super.fetch();
+        profiler.record(jpql, System.nanoTime() - start, result.size());
+        return result;
+    }
+
+    @Override
+    public T fetchOne() {
+        long start = System.nanoTime();
+        T result = super.fetchOne();
+        profiler.record(jpql, System.nanoTime() - start, result == null ? 0 : 1);
+        return result;
+    }
+
+    @Override
+    protected void logQuery(String queryString) {
+        super.logQuery(queryString);
+        this.jpql = queryString;
+    }
+}
@@ -0,0 +1,27 @@
+package com.ttasjwi.querydsl.common.query.profile;
+
+import com.querydsl.jpa.impl.JPAQuery;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+
+import javax.persistence.EntityManager;
+
+/**
+ * select, selectFrom, from 으로 만드는 조회 쿼리를 ProfilingJPAQuery로 만든다.
+ * (update, delete 절은 프로파일링하지 않음)
+ */
+public class ProfilingJPAQueryFactory extends JPAQueryFactory {
+
+    private final EntityManager em;
+    private final QueryShapeProfiler profiler;
+
+    public ProfilingJPAQueryFactory(EntityManager em, QueryShapeProfiler profiler) {
+        super(em);
+        this.em = em;
+        this.profiler = profiler;
+    }
+
+    @Override
+    public JPAQuery<?> query() {
+        return new ProfilingJPAQuery<Void>(em, profiler);
+    }
+}
@@ -0,0 +1,33 @@
+package com.ttasjwi.querydsl.common.query.profile;
+
+/**
+ * 현재 스레드에서 실행 중인 리포지토리 메서드 - 쿼리 모양을 어느 메서드가 실행했는지 연결하는 데 쓴다.
+ */
+public final class QueryCallContext {
+
+    private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
+
+    private QueryCallContext() {
+    }
+
+    /**
+     * 호출자 설정 - 이전 호출자를 돌려주므로 끝나면 exit(previous)로 되돌린다.
+     */
+    public static String enter(String caller) {
+        String previous = CURRENT.get();
+        CURRENT.set(caller);
+        return previous;
+    }
+
+    public static void exit(String previous) {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+
+    public static String current() {
+        return CURRENT.get();
+    }
+}
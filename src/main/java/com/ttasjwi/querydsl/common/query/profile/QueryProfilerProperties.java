@@ -0,0 +1,28 @@
+package com.ttasjwi.querydsl.common.query.profile;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 쿼리 모양 프로파일러 설정 (query-profiler.*)
+ */
+@Getter @Setter
+@ConfigurationProperties(prefix = "query-profiler")
+public class QueryProfilerProperties {
+
+    /**
+     * 프로파일링 여부. 끄면 JPAQueryFactory가 일반 쿼리를 만든다.
+     */
+    private boolean enabled = true;
+
+    /**
+     * 추적할 최대 쿼리 모양 수. 넘으면 새 모양은 기록하지 않고 버린 횟수만 센다.
+     */
+    private int maxShapes = 1_000;
+
+    /**
+     * 보고서 기본 항목 수
+     */
+    private int defaultTop = 20;
+}
@@ -0,0 +1,40 @@
+package com.ttasjwi.querydsl.common.query.profile;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * /actuator/queryshapes?top=20&sortBy=TOTAL : 쿼리 모양별 통계 상위 N개
+ * DELETE /actuator/queryshapes : 통계 초기화
+ */
+@Component
+@Endpoint(id = "queryshapes")
+@RequiredArgsConstructor
+public class QueryShapeEndpoint {
+
+    private final QueryShapeProfiler profiler;
+    private final QueryProfilerProperties properties;
+
+    @ReadOperation
+    public Map<String, Object> report(@Nullable Integer top, @Nullable QueryShapeProfiler.SortBy sortBy) {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("enabled", properties.isEnabled());
+        report.put("droppedShapes", profiler.getDroppedShapes());
+        report.put("shapes", profiler.top(
+                top == null ? properties.getDefaultTop() : top,
+                sortBy == null ? QueryShapeProfiler.SortBy.TOTAL : sortBy));
+        return report;
+    }
+
+    @DeleteOperation
+    public void reset() {
+        profiler.reset();
+    }
+}
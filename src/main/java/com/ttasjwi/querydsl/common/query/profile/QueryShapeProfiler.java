@@ -0,0 +1,95 @@
+package com.ttasjwi.querydsl.common.query.profile;
+
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Querydsl 쿼리 모양(shape)별 실행 통계
+ * Querydsl은 상수를 모두 바인딩 파라미터로 직렬화하므로, 공백만 정리한 JPQL이 곧 표현식 트리의 모양이 된다.
+ * (같은 where 절 파라미터 조합, 조인, 서브쿼리, case 식, 프로젝션이면 같은 모양)
+ * 모양별로 호출 수, 누적/백분위 수행 시간, 조회 건수를 모은다.
+ */
+@Component
+public class QueryShapeProfiler {
+
+    private final QueryProfilerProperties properties;
+    private final ConcurrentMap<String, QueryShapeStats> shapes = new ConcurrentHashMap<>();
+    private final LongAdder droppedShapes = new LongAdder();
+
+    public QueryShapeProfiler(QueryProfilerProperties properties) {
+        this.properties = properties;
+    }
+
+    public void record(String jpql, long elapsedNanos, long rowCount) {
+        if (jpql == null) {
+            return;
+        }
+        String normalized = normalize(jpql);
+        QueryShapeStats stats = shapes.get(normalized);
+        if (stats == null) {
+            if (shapes.size() >= properties.getMaxShapes()) {
+                droppedShapes.increment();
+                return;
+            }
+            stats = shapes.computeIfAbsent(normalized, key -> new QueryShapeStats(fingerprint(key), key));
+        }
+        stats.record(elapsedNanos, rowCount, QueryCallContext.current());
+    }
+
+    /**
+     * 정렬 기준 상위 limit 개 모양
+     */
+    public List<QueryShapeReport> top(int limit, SortBy sortBy) {
+        return shapes.values().stream()
+                .map(QueryShapeStats::report)
+                .sorted(sortBy.comparator.reversed())
+                .limit(limit)
+                .collect(Collectors.toList());
+    }
+
+    public long getDroppedShapes() {
+        return droppedShapes.sum();
+    }
+
+    public void reset() {
+        shapes.clear();
+        droppedShapes.reset();
+    }
+
+    public static String normalize(String jpql) {
+        return jpql.trim().replaceAll("\\s+", " ");
+    }
+
+    /**
+     * 64비트 FNV-1a 해시
+     */
+    public static String fingerprint(String normalizedJpql) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : normalizedJpql.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= (b & 0xff);
+            hash *= 0x100000001b3L;
+        }
+        return String.format("%016x", hash);
+    }
+
+    public enum SortBy {
+
+        TOTAL(Comparator.comparingDouble(QueryShapeReport::getTotalMillis)),
+        COUNT(Comparator.comparingLong(QueryShapeReport::getCount)),
+        P99(Comparator.comparingDouble(QueryShapeReport::getP99Millis)),
+        ROWS(Comparator.comparingLong(QueryShapeReport::getTotalRows));
+
+        private final Comparator<QueryShapeReport> comparator;
+
+        SortBy(Comparator<QueryShapeReport> comparator) {
+            this.comparator = comparator;
+        }
+    }
+}
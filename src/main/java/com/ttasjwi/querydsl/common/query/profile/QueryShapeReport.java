@@ -0,0 +1,29 @@
+package com.ttasjwi.querydsl.common.query.profile;
+
+import lombok.Data;
+
+import java.util.Set;
+
+/**
+ * 쿼리 모양별 통계 보고 (시간 단위 : 밀리초)
+ */
+@Data
+public class QueryShapeReport {
+
+    private final String fingerprint;
+    private final String jpql;
+    private final long count;
+    private final double totalMillis;
+    private final double meanMillis;
+    private final double p50Millis;
+    private final double p95Millis;
+    private final double p99Millis;
+    private final double maxMillis;
+    private final long totalRows;
+    private final double meanRows;
+
+    /**
+     * 이 모양을 실행한 리포지토리 메서드
+     */
+    private final Set<String> callers;
+}
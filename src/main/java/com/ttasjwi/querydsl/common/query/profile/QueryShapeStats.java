@@ -0,0 +1,58 @@
+package com.ttasjwi.querydsl.common.query.profile;
+
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 쿼리 모양 하나의 누적 통계 - 모든 필드가 LongAdder 계열이라 락 없이 기록한다.
+ */
+class QueryShapeStats {
+
+    private final String fingerprint;
+    private final String jpql;
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalMicros = new LongAdder();
+    private final LongAccumulator maxMicros = new LongAccumulator(Math::max, 0);
+    private final LongAdder rows = new LongAdder();
+    private final LatencyHistogram histogram = new LatencyHistogram();
+    private final Set<String> callers = ConcurrentHashMap.newKeySet();
+
+    QueryShapeStats(String fingerprint, String jpql) {
+        this.fingerprint = fingerprint;
+        this.jpql = jpql;
+    }
+
+    void record(long elapsedNanos, long rowCount, String caller) {
+        if (caller != null) {
+            callers.add(caller);
+        }
+        long micros = elapsedNanos / 1_000;
+        count.increment();
+        totalMicros.add(micros);
+        maxMicros.accumulate(micros);
+        rows.add(rowCount);
+        histogram.record(micros);
+    }
+
+    QueryShapeReport report() {
+        long count = this.count.sum();
+        long totalMicros = this.totalMicros.sum();
+        long rows = this.rows.sum();
+        return new QueryShapeReport(
+                fingerprint,
+                jpql,
+                count,
+                totalMicros / 1_000.0,
+                count == 0 ? 0 : totalMicros / 1_000.0 / count,
+                histogram.percentile(0.50) / 1_000.0,
+                histogram.percentile(0.95) / 1_000.0,
+                histogram.percentile(0.99) / 1_000.0,
+                maxMicros.get() / 1_000.0,
+                rows,
+                count == 0 ? 0 : (double) rows / count,
+                new TreeSet<>(callers));
+    }
+}
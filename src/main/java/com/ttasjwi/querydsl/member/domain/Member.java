@@ -2,21 +2,30 @@ package com.ttasjwi.querydsl.member.domain;
 
 import com.ttasjwi.querydsl.team.domain.Team;
 import lombok.*;
+import org.hibernate.Hibernate;
 
 import javax.persistence.*;
 
 import static javax.persistence.FetchType.*;
 
 @Entity
+@Table(indexes = @Index(name = "idx_member_team_id_member_id", columnList = "team_id, member_id"))
 @Getter @Setter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 @ToString(of = {"id", "name", "age"})
+@EntityListeners(MemberChangeListener.class)
 public class Member {
 
     @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
     @Column(name = "member_id")
     private Long id;
 
+    /**
+     * 낙관적 락 버전 - 동시 수정은 row lock 대기 대신 버전 충돌로 감지한다.
+     */
+    @Version
+    private Long version;
+
     private String name;
 
     private int age;
@@ -41,7 +50,16 @@ public class Member {
         }
     }
 
-    private void changeTeam(Team team) {
+    /**
+     * 이전 팀의 회원 목록이 이미 읽혀 있을 때만 목록에서 뺀다.
+     * (remove는 목록 전체를 읽어야 하고, 읽히지 않은 목록은 나중에 읽을 때 DB 기준으로 채워진다. add는 읽지 않고 쌓아 둔다)
+     */
+    public void changeTeam(Team team) {
+        if (this.team != null
+                && Hibernate.isInitialized(this.team)
+                && Hibernate.isInitialized(this.team.getMembers())) {
+            this.team.getMembers().remove(this);
+        }
         this.team = team;
         team.getMembers().add(this);
     }
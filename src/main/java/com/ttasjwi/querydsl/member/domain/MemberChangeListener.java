@@ -0,0 +1,36 @@
+package com.ttasjwi.querydsl.member.domain;
+
+import com.ttasjwi.querydsl.common.event.AggregateType;
+import com.ttasjwi.querydsl.common.event.ChangeEventRecorder;
+import com.ttasjwi.querydsl.common.event.ChangeType;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+
+import javax.persistence.PostPersist;
+import javax.persistence.PostRemove;
+import javax.persistence.PostUpdate;
+
+/**
+ * 회원 등록, 수정(팀 이동 포함), 삭제 시 변경 이벤트 기록
+ */
+@RequiredArgsConstructor
+public class MemberChangeListener {
+
+    // 리스너는 EntityManagerFactory 생성 중에 만들어지므로, 기록기는 사용 시점에 가져온다.
+    private final ObjectProvider<ChangeEventRecorder> changeEventRecorder;
+
+    @PostPersist
+    public void postPersist(Member member) {
+        changeEventRecorder.getObject().record(AggregateType.MEMBER, member.getId(), ChangeType.CREATED);
+    }
+
+    @PostUpdate
+    public void postUpdate(Member member) {
+        changeEventRecorder.getObject().record(AggregateType.MEMBER, member.getId(), ChangeType.UPDATED);
+    }
+
+    @PostRemove
+    public void postRemove(Member member) {
+        changeEventRecorder.getObject().record(AggregateType.MEMBER, member.getId(), ChangeType.DELETED);
+    }
+}
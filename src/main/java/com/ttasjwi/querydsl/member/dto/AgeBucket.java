@@ -0,0 +1,30 @@
+package com.ttasjwi.querydsl.member.dto;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 나이 구간
+ * rank : 정렬 우선순위 (큰 값이 먼저 정렬됨)
+ */
+@Getter
+@RequiredArgsConstructor
+public enum AgeBucket {
+
+    TWENTY_OR_UNDER("0~20살", 2),
+    TWENTIES("21~30살", 1),
+    ETC("기타", 3);
+
+    private final String label;
+    private final int rank;
+
+    public static AgeBucket of(int age) {
+        if (age >= 0 && age <= 20) {
+            return TWENTY_OR_UNDER;
+        }
+        if (age >= 21 && age <= 30) {
+            return TWENTIES;
+        }
+        return ETC;
+    }
+}
@@ -0,0 +1,26 @@
+package com.ttasjwi.querydsl.member.dto;
+
+import com.querydsl.core.annotations.QueryProjection;
+import lombok.Data;
+
+@Data
+public class MemberAgeRankDto {
+
+    private String memberName;
+    private int age;
+    private String ageBucket;
+    private int rank;
+
+    @QueryProjection
+    public MemberAgeRankDto(String memberName, int age, String ageBucket, int rank) {
+        this.memberName = memberName;
+        this.age = age;
+        this.ageBucket = ageBucket;
+        this.rank = rank;
+    }
+
+    public static MemberAgeRankDto of(MemberDto memberDto) {
+        AgeBucket bucket = AgeBucket.of(memberDto.getAge());
+        return new MemberAgeRankDto(memberDto.getName(), memberDto.getAge(), bucket.getLabel(), bucket.getRank());
+    }
+}
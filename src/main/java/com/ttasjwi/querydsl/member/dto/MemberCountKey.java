@@ -0,0 +1,23 @@
+package com.ttasjwi.querydsl.member.dto;
+
+import com.querydsl.core.annotations.QueryProjection;
+import lombok.Data;
+
+/**
+ * 회원 수 집계 기준 (소속 팀, 나이)
+ * teamId : 팀이 없으면 null
+ */
+@Data
+public class MemberCountKey {
+
+    private final Long memberId;
+    private final Long teamId;
+    private final int age;
+
+    @QueryProjection
+    public MemberCountKey(Long memberId, Long teamId, int age) {
+        this.memberId = memberId;
+        this.teamId = teamId;
+        this.age = age;
+    }
+}
@@ -0,0 +1,19 @@
+package com.ttasjwi.querydsl.member.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 회원 등록 요청 (단건 등록, 대량 등록 NDJSON 한 줄)
+ * teamId가 없으면 팀 없이 등록한다.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MemberCreateRequest {
+
+    private String name;
+    private Integer age;
+    private Long teamId;
+}
@@ -0,0 +1,28 @@
+package com.ttasjwi.querydsl.member.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 회원 내보내기 결과
+ * directory : 이번 실행의 디렉터리 (run-*)
+ * parts : 식별자 범위별 파일, 범위 순서대로 (회원이 없는 범위는 빠진다)
+ */
+@Data
+public class MemberExportResult {
+
+    private final String directory;
+    private final List<Part> parts;
+    private final long totalRows;
+    private final long elapsedMillis;
+
+    @Data
+    public static class Part {
+
+        private final String file;
+        private final long fromId;
+        private final long toId;
+        private final long rows;
+    }
+}
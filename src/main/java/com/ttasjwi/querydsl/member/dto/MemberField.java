@@ -0,0 +1,31 @@
+package com.ttasjwi.querydsl.member.dto;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.Arrays;
+
+/**
+ * 회원 검색에서 골라서 조회할 수 있는 필드 (이름은 MemberTeamDto의 JSON 필드명과 같다)
+ * teamJoinRequired : 팀을 조인해야 읽을 수 있는 필드인지 여부 (팀 식별자는 회원 테이블의 외래 키로 읽는다)
+ */
+@Getter
+@RequiredArgsConstructor
+public enum MemberField {
+
+    MEMBER_ID("memberId", false),
+    MEMBER_NAME("memberName", false),
+    AGE("age", false),
+    TEAM_ID("teamId", false),
+    TEAM_NAME("teamName", true);
+
+    private final String fieldName;
+    private final boolean teamJoinRequired;
+
+    public static MemberField fromFieldName(String fieldName) {
+        return Arrays.stream(values())
+                .filter(field -> field.fieldName.equals(fieldName))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("지원하지 않는 필드입니다. fieldName = " + fieldName));
+    }
+}
@@ -0,0 +1,24 @@
+package com.ttasjwi.querydsl.member.dto;
+
+import com.querydsl.core.annotations.QueryProjection;
+import lombok.Data;
+
+/**
+ * 회원 식별자 범위 (회원이 없으면 둘 다 null)
+ */
+@Data
+public class MemberIdRange {
+
+    private final Long minId;
+    private final Long maxId;
+
+    @QueryProjection
+    public MemberIdRange(Long minId, Long maxId) {
+        this.minId = minId;
+        this.maxId = maxId;
+    }
+
+    public boolean isEmpty() {
+        return minId == null || maxId == null;
+    }
+}
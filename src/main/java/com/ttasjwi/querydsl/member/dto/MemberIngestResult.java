@@ -0,0 +1,44 @@
+package com.ttasjwi.querydsl.member.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 회원 대량 등록 결과
+ * lines : 읽은 줄 수 (빈 줄 제외), batches : 커밋 단위 결과, 순서대로
+ * errors : 거부된 줄, 최대 maxErrors 개까지만 담는다.
+ */
+@Data
+public class MemberIngestResult {
+
+    private final long lines;
+    private final long inserted;
+    private final long rejected;
+    private final List<Batch> batches;
+    private final List<LineError> errors;
+    private final long elapsedMillis;
+
+    @Data
+    public static class Batch {
+
+        private final int index;
+        private final long fromLine;
+        private final long toLine;
+        private final int inserted;
+        private final int rejected;
+        private final long elapsedMillis;
+
+        /**
+         * 묶음 전체가 롤백된 경우 원인, 성공하면 null
+         */
+        private final String error;
+    }
+
+    @Data
+    public static class LineError {
+
+        private final long line;
+        private final String message;
+    }
+}
@@ -2,6 +2,8 @@ package com.ttasjwi.querydsl.member.dto;
 
 import lombok.Data;
 
+import static org.springframework.util.StringUtils.hasText;
+
 @Data
 public class MemberSearchCondition {
 
@@ -9,4 +11,31 @@ public class MemberSearchCondition {
     private String teamName;
     private Integer ageGoe;
     private Integer ageLoe;
+
+    /**
+     * 정규화된 검색 조건 반환
+     * - 이름 앞뒤 공백 제거, 빈 문자열은 null(조건 없음)로 변환
+     * 같은 의미의 조건은 같은 값(equals, hashCode)을 가지게 되므로 캐시 키로 사용할 수 있다.
+     */
+    public MemberSearchCondition normalize() {
+        MemberSearchCondition normalized = new MemberSearchCondition();
+        normalized.setMemberName(normalizeName(memberName));
+        normalized.setTeamName(normalizeName(teamName));
+        normalized.setAgeGoe(ageGoe);
+        normalized.setAgeLoe(ageLoe);
+        return normalized;
+    }
+
+    /**
+     * 나이 범위가 모순(ageGoe > ageLoe)되어 결과가 항상 비어있는 조건인지 여부
+     */
+    public boolean isUnsatisfiable() {
+        return ageGoe != null && ageLoe != null && ageGoe > ageLoe;
+    }
+
+    private static String normalizeName(String name) {
+        return hasText(name)
+                ? name.trim()
+                : null;
+    }
 }
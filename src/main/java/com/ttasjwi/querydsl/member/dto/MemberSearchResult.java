@@ -0,0 +1,22 @@
+package com.ttasjwi.querydsl.member.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 회원 검색 결과
+ * truncated : 최대 건수 제한으로 결과가 잘렸는지 여부
+ * nextAfterId : 잘렸을 때 마지막 회원 식별자 - 다음 요청의 afterId로 넘기면 이어서 조회한다. (잘리지 않았으면 null)
+ */
+@Data
+public class MemberSearchResult<T> {
+
+    private final List<T> content;
+    private final boolean truncated;
+    private final Long nextAfterId;
+
+    public static <T> MemberSearchResult<T> complete(List<T> content) {
+        return new MemberSearchResult<>(content, false, null);
+    }
+}
@@ -0,0 +1,22 @@
+package com.ttasjwi.querydsl.member.repository;
+
+/**
+ * 계산 컬럼(나이 구간, 정렬 순위)을 어디서 계산할 지
+ */
+public enum ComputeMode {
+
+    /**
+     * CaseBuilder로 DB에서 계산 및 정렬
+     */
+    DATABASE,
+
+    /**
+     * 원본 컬럼만 조회하고 애플리케이션에서 계산 및 정렬
+     */
+    APPLICATION,
+
+    /**
+     * 원본 컬럼만 조회하고 애플리케이션에서 병렬 스트림으로 계산 및 정렬 (대량 결과용)
+     */
+    APPLICATION_PARALLEL
+}
@@ -0,0 +1,34 @@
+package com.ttasjwi.querydsl.member.repository;
+
+import com.ttasjwi.querydsl.member.dto.MemberAgeRankDto;
+import com.ttasjwi.querydsl.member.dto.MemberDto;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * 조회된 원본 컬럼(이름, 나이)으로 나이 구간과 정렬 순위를 계산하는 후처리 단계
+ * DB에서 CaseBuilder로 계산할 때와 같은 결과, 같은 순서(rank desc, age desc)를 만든다.
+ */
+public final class MemberAgeRankProcessor {
+
+    private static final Comparator<MemberAgeRankDto> RANK_ORDER = Comparator
+            .comparingInt(MemberAgeRankDto::getRank).reversed()
+            .thenComparing(Comparator.comparingInt(MemberAgeRankDto::getAge).reversed());
+
+    private MemberAgeRankProcessor() {
+    }
+
+    public static List<MemberAgeRankDto> process(Stream<MemberDto> rows, boolean parallel) {
+        Stream<MemberDto> stream = parallel
+                ? rows.parallel()
+                : rows.sequential();
+
+        return stream
+                .map(MemberAgeRankDto::of)
+                .sorted(RANK_ORDER)
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,68 @@
+package com.ttasjwi.querydsl.member.repository;
+
+import com.ttasjwi.querydsl.common.event.AggregateType;
+import com.ttasjwi.querydsl.common.event.ChangeEventRecorder;
+import com.ttasjwi.querydsl.common.event.ChangeType;
+import com.ttasjwi.querydsl.member.dto.MemberCreateRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 회원 JDBC batch insert
+ * 영속성 컨텍스트를 거치지 않고 한 번의 batch로 넣고, 생성된 식별자를 입력 순서대로 반환한다.
+ * MemberBulkLoader와 달리 등록 이벤트를 함께 기록하므로 트랜잭션 안에서 호출해야 한다.
+ */
+@Component
+@RequiredArgsConstructor
+public class MemberBatchWriter {
+
+    private static final String INSERT_SQL = "insert into member (name, age, team_id, version) values (?, ?, ?, 0)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ChangeEventRecorder changeEventRecorder;
+
+    public List<Long> insert(List<MemberCreateRequest> members) {
+        if (members.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        List<Long> ids = jdbcTemplate.execute(
+                connection -> connection.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS),
+                (PreparedStatement ps) -> {
+                    for (MemberCreateRequest member : members) {
+                        ps.setString(1, member.getName());
+                        ps.setInt(2, member.getAge());
+                        if (member.getTeamId() == null) {
+                            ps.setNull(3, Types.BIGINT);
+                        } else {
+                            ps.setLong(3, member.getTeamId());
+                        }
+                        ps.addBatch();
+                    }
+                    ps.executeBatch();
+
+                    List<Long> generatedIds = new ArrayList<>(members.size());
+                    try (ResultSet keys = ps.getGeneratedKeys()) {
+                        while (keys.next()) {
+                            generatedIds.add(keys.getLong(1));
+                        }
+                    }
+                    return generatedIds;
+                });
+        if (ids == null || ids.size() != members.size()) {
+            throw new IllegalStateException("생성된 식별자 수가 등록한 회원 수와 다릅니다. members = "
+                    + members.size() + ", ids = " + (ids == null ? 0 : ids.size()));
+        }
+
+        changeEventRecorder.recordAll(AggregateType.MEMBER, ids, ChangeType.CREATED);
+        return ids;
+    }
+}
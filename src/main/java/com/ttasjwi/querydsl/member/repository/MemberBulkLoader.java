@@ -0,0 +1,61 @@
+package com.ttasjwi.querydsl.member.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 대량 테스트 데이터 적재
+ * 영속성 컨텍스트를 거치지 않고 JDBC batch insert로 바로 넣는다. (변경 이벤트를 남기지 않음)
+ * - 팀 : team0 ~ team{teamCount-1}
+ * - 회원 i : 이름 member{i}, 나이 i % 100, 팀 team{i % teamCount} (teamCount가 0이면 팀 없음)
+ */
+@Component
+@RequiredArgsConstructor
+public class MemberBulkLoader {
+
+    private static final int BATCH_SIZE = 1_000;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Transactional
+    public void load(int teamCount, int memberCount) {
+        List<Long> teamIds = insertTeams(teamCount);
+
+        for (int from = 0; from < memberCount; from += BATCH_SIZE) {
+            List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+            int to = Math.min(from + BATCH_SIZE, memberCount);
+            for (int i = from; i < to; i++) {
+                Long teamId = teamIds.isEmpty()
+                        ? null
+                        : teamIds.get(i % teamIds.size());
+                batch.add(new Object[]{"member" + i, i % 100, teamId});
+            }
+            jdbcTemplate.batchUpdate("insert into member (name, age, team_id, version) values (?, ?, ?, 0)", batch);
+        }
+    }
+
+    private List<Long> insertTeams(int teamCount) {
+        List<Long> teamIds = new ArrayList<>(teamCount);
+        for (int i = 0; i < teamCount; i++) {
+            String name = "team" + i;
+            KeyHolder keyHolder = new GeneratedKeyHolder();
+            jdbcTemplate.update(connection -> {
+                PreparedStatement ps = connection.prepareStatement(
+                        "insert into team (name, version) values (?, 0)", Statement.RETURN_GENERATED_KEYS);
+                ps.setString(1, name);
+                return ps;
+            }, keyHolder);
+            teamIds.add(keyHolder.getKey().longValue());
+        }
+        return teamIds;
+    }
+}
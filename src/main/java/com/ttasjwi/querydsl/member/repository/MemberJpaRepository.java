@@ -1,35 +1,66 @@
 package com.ttasjwi.querydsl.member.repository;
 
 import com.querydsl.core.BooleanBuilder;
+import com.querydsl.core.Tuple;
+import com.querydsl.core.types.Expression;
 import com.querydsl.core.types.Predicate;
 import com.querydsl.core.types.dsl.BooleanExpression;
+import com.querydsl.core.types.dsl.CaseBuilder;
+import com.querydsl.core.types.dsl.NumberExpression;
+import com.querydsl.core.types.dsl.StringExpression;
+import com.querydsl.jpa.impl.JPAQuery;
 import com.querydsl.jpa.impl.JPAQueryFactory;
+import com.ttasjwi.querydsl.common.event.AggregateType;
+import com.ttasjwi.querydsl.common.event.ChangeEventRecorder;
+import com.ttasjwi.querydsl.common.event.ChangeType;
+import com.ttasjwi.querydsl.common.query.InClauseChunks;
 import com.ttasjwi.querydsl.member.domain.Member;
+import com.ttasjwi.querydsl.member.dto.AgeBucket;
+import com.ttasjwi.querydsl.member.dto.MemberAgeRankDto;
+import com.ttasjwi.querydsl.member.dto.MemberCountKey;
+import com.ttasjwi.querydsl.member.dto.MemberDto;
+import com.ttasjwi.querydsl.member.dto.MemberField;
+import com.ttasjwi.querydsl.member.dto.MemberIdRange;
 import com.ttasjwi.querydsl.member.dto.MemberSearchCondition;
 import com.ttasjwi.querydsl.member.dto.MemberTeamDto;
+import com.ttasjwi.querydsl.member.dto.QMemberAgeRankDto;
+import com.ttasjwi.querydsl.member.dto.QMemberCountKey;
+import com.ttasjwi.querydsl.member.dto.QMemberDto;
+import com.ttasjwi.querydsl.member.dto.QMemberIdRange;
 import com.ttasjwi.querydsl.member.dto.QMemberTeamDto;
 import com.ttasjwi.querydsl.team.domain.QTeam;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Repository;
 import org.springframework.util.StringUtils;
 
 import javax.persistence.EntityManager;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static com.ttasjwi.querydsl.member.domain.QMember.member;
 import static com.ttasjwi.querydsl.team.domain.QTeam.*;
-import static org.springframework.util.StringUtils.*;
 
 @Repository
 public class MemberJpaRepository {
 
+    private static final String QUERY_TIMEOUT_HINT = "javax.persistence.query.timeout";
+
     private final EntityManager em;
     private final JPAQueryFactory queryFactory;
+    private final ChangeEventRecorder changeEventRecorder;
 
-
-    public MemberJpaRepository(EntityManager em) {
+    public MemberJpaRepository(EntityManager em, JPAQueryFactory queryFactory, ChangeEventRecorder changeEventRecorder) {
         this.em = em;
-        this.queryFactory = new JPAQueryFactory(em);
+        this.queryFactory = queryFactory;
+        this.changeEventRecorder = changeEventRecorder;
     }
 
     /**
@@ -87,24 +118,217 @@ public class MemberJpaRepository {
                 .fetch();
     }
 
+    /**
+     * 식별자 목록으로 회원 일괄 조회
+     * IN 절 청크 단위로 조회하며, 결과는 입력 순서대로 식별자를 키로 담는다. (없는 식별자는 포함되지 않음)
+     */
+    public Map<Long, Member> findAllByIds(Collection<Long> ids) {
+        Map<Long, Member> membersById = new HashMap<>();
+        for (List<Long> chunk : InClauseChunks.split(ids)) {
+            List<Member> members = queryFactory
+                    .selectFrom(member)
+                    .where(member.id.in(chunk))
+                    .fetch();
+            for (Member findMember : members) {
+                membersById.put(findMember.getId(), findMember);
+            }
+        }
+
+        Map<Long, Member> result = new LinkedHashMap<>();
+        for (Long id : ids) {
+            Member findMember = membersById.get(id);
+            if (findMember != null) {
+                result.put(id, findMember);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 회원 이름 목록으로 회원 일괄 조회
+     * IN 절 청크 단위로 조회하며, 결과는 입력 순서대로 이름을 키로 담는다. (없는 이름은 빈 리스트)
+     */
+    public Map<String, List<Member>> findAllByNames(Collection<String> names) {
+        Map<String, List<Member>> membersByName = new HashMap<>();
+        for (List<String> chunk : InClauseChunks.split(names)) {
+            List<Member> members = queryFactory
+                    .selectFrom(member)
+                    .where(member.name.in(chunk))
+                    .orderBy(member.id.asc())
+                    .fetch();
+            for (Member findMember : members) {
+                membersByName.computeIfAbsent(findMember.getName(), name -> new ArrayList<>())
+                        .add(findMember);
+            }
+        }
+
+        Map<String, List<Member>> result = new LinkedHashMap<>();
+        for (String name : names) {
+            result.put(name, membersByName.getOrDefault(name, new ArrayList<>()));
+        }
+        return result;
+    }
+
+    /**
+     * 나이가 가장 많은 회원 조회
+     * 상관 서브쿼리 대신 최대 나이를 먼저 구한 뒤, 그 값으로 동등 조건 조회
+     */
+    public List<Member> findOldestMembers() {
+        Integer maxAge = queryFactory
+                .select(member.age.max())
+                .from(member)
+                .fetchOne();
+
+        if (maxAge == null) {
+            return new ArrayList<>();
+        }
+        return queryFactory
+                .selectFrom(member)
+                .where(member.age.eq(maxAge))
+                .fetch();
+    }
+
+    /**
+     * 나이가 전체 평균 이상인 회원 조회
+     * 평균 나이를 먼저 구한 뒤, 그 값으로 범위 조건 조회
+     */
+    public List<Member> findMembersAgeGoeAverage() {
+        Double avgAge = queryFactory
+                .select(member.age.avg())
+                .from(member)
+                .fetchOne();
+
+        if (avgAge == null) {
+            return new ArrayList<>();
+        }
+        // age 컬럼이 정수형이므로 실수 평균값을 그대로 바인딩하면 소수점이 잘린다.
+        return queryFactory
+                .selectFrom(member)
+                .where(member.age.goe((int) Math.ceil(avgAge)))
+                .fetch();
+    }
+
+    /**
+     * 소속 팀의 평균 나이보다 나이가 많은 회원 조회
+     * JPQL은 from 절 서브쿼리를 지원하지 않으므로, 팀별 평균 나이를 구하는 파생 테이블과 조인하는 네이티브 쿼리로 DB에서 비교한다.
+     * (상관 서브쿼리처럼 회원마다 평균을 다시 구하지 않고, 조건을 만족하는 회원만 읽는다)
+     */
+    @SuppressWarnings("unchecked")
+    public List<Member> findMembersOlderThanTeamAverage() {
+        return em.createNativeQuery(
+                        "select m.* from member m"
+                                + " join (select team_id, avg(cast(age as double)) avg_age"
+                                + "       from member where team_id is not null group by team_id) t"
+                                + " on m.team_id = t.team_id"
+                                + " where m.age > t.avg_age", Member.class)
+                .getResultList();
+    }
+
+    /**
+     * 회원별 나이 구간, 정렬 순위 조회 (rank desc, age desc 정렬)
+     * DATABASE : CaseBuilder로 DB에서 계산
+     * APPLICATION, APPLICATION_PARALLEL : 이름, 나이만 조회하고 애플리케이션에서 계산
+     */
+    public List<MemberAgeRankDto> findAgeRanks(ComputeMode mode) {
+        if (mode == ComputeMode.DATABASE) {
+            return findAgeRanksByCase();
+        }
+        List<MemberDto> rows = queryFactory
+                .select(new QMemberDto(member.name, member.age))
+                .from(member)
+                .fetch();
+        return MemberAgeRankProcessor.process(rows.stream(), mode == ComputeMode.APPLICATION_PARALLEL);
+    }
+
+    private List<MemberAgeRankDto> findAgeRanksByCase() {
+        StringExpression ageBucket = new CaseBuilder()
+                .when(member.age.between(0, 20)).then(AgeBucket.TWENTY_OR_UNDER.getLabel())
+                .when(member.age.between(21, 30)).then(AgeBucket.TWENTIES.getLabel())
+                .otherwise(AgeBucket.ETC.getLabel());
+
+        NumberExpression<Integer> rank = new CaseBuilder()
+                .when(member.age.between(0, 20)).then(AgeBucket.TWENTY_OR_UNDER.getRank())
+                .when(member.age.between(21, 30)).then(AgeBucket.TWENTIES.getRank())
+                .otherwise(AgeBucket.ETC.getRank());
+
+        return queryFactory
+                .select(new QMemberAgeRankDto(member.name, member.age, ageBucket, rank))
+                .from(member)
+                .orderBy(rank.desc(), member.age.desc())
+                .fetch();
+    }
+
+    /**
+     * 벌크 수정 - 나이가 ageGoe 이상인 회원의 나이 +1
+     * 벌크 연산은 엔티티 콜백을 거치지 않으므로, 대상 식별자를 먼저 조회하고 그 식별자로만 수정하면서 변경 이벤트를 남긴다.
+     * 영속성 컨텍스트와 DB 상태가 달라지므로 수행 후 영속성 컨텍스트를 비운다.
+     * 버전도 함께 올려서, 벌크 수정 전에 읽은 엔티티로 수정하면 낙관적 락 충돌이 나도록 한다.
+     */
+    public long bulkAgePlus(int ageGoe) {
+        List<Long> ids = queryFactory
+                .select(member.id)
+                .from(member)
+                .where(member.age.goe(ageGoe))
+                .fetch();
+
+        long count = 0;
+        for (List<Long> chunk : InClauseChunks.split(ids)) {
+            count += queryFactory
+                    .update(member)
+                    .set(member.age, member.age.add(1))
+                    .set(member.version, member.version.add(1))
+                    .where(member.id.in(chunk))
+                    .execute();
+        }
+        em.clear();
+
+        changeEventRecorder.recordAll(AggregateType.MEMBER, ids, ChangeType.UPDATED);
+        return count;
+    }
+
+    /**
+     * 벌크 삭제 - 나이가 age 초과인 회원 삭제
+     * 대상 식별자를 먼저 조회하고 그 식별자로만 삭제하면서 변경 이벤트를 남긴다.
+     */
+    public long bulkDeleteByAgeGt(int age) {
+        List<Long> ids = queryFactory
+                .select(member.id)
+                .from(member)
+                .where(member.age.gt(age))
+                .fetch();
+
+        long count = 0;
+        for (List<Long> chunk : InClauseChunks.split(ids)) {
+            count += queryFactory
+                    .delete(member)
+                    .where(member.id.in(chunk))
+                    .execute();
+        }
+        em.clear();
+
+        changeEventRecorder.recordAll(AggregateType.MEMBER, ids, ChangeType.DELETED);
+        return count;
+    }
+
     /**
      * Builder를 사용한 동적 쿼리
      * 회원명, 팀명, 나이(ageGoe, ageLoe)
      */
     public List<MemberTeamDto> searchByBuilder(MemberSearchCondition condition) {
-        BooleanBuilder builder = new BooleanBuilder();
-        if (hasText(condition.getMemberName())) {
-            builder.and(member.name.eq(condition.getMemberName()));
-        }
-        if (hasText(condition.getTeamName())) {
-            builder.and(team.name.eq(condition.getTeamName()));
+        MemberSearchCondition normalized = condition.normalize();
+        if (normalized.isUnsatisfiable()) {
+            return new ArrayList<>();
         }
-        if (condition.getAgeGoe() != null) {
-            builder.and(member.age.goe(condition.getAgeGoe()));
+
+        BooleanBuilder builder = new BooleanBuilder();
+        if (normalized.getMemberName() != null) {
+            builder.and(member.name.eq(normalized.getMemberName()));
         }
-        if (condition.getAgeLoe() != null) {
-            builder.and(member.age.loe(condition.getAgeLoe()));
+        if (normalized.getTeamName() != null) {
+            builder.and(team.name.eq(normalized.getTeamName()));
         }
+        builder.and(ageBetween(normalized.getAgeGoe(), normalized.getAgeLoe()));
+
         return queryFactory.select(new QMemberTeamDto(
                 member.id, member.name, member.age, team.id, team.name))
                 .from(member)
@@ -116,29 +340,335 @@ public class MemberJpaRepository {
     /**
      * Builder를 사용한 동적 쿼리 - Where절 파라미터 사용
      * 회원명, 팀명, 나이(ageGoe, ageLoe)
+     * 나이 범위가 모순되는 조건은 DB 조회 없이 빈 결과 반환
      */
     public List<MemberTeamDto> search(MemberSearchCondition condition) {
+        return search(condition, null, null);
+    }
+
+    /**
+     * 결과 건수 제한과 쿼리 타임아웃을 적용한 검색
+     * limit : 최대 조회 건수, 회원 식별자 순으로 자른다. (null이면 제한 없음)
+     * queryTimeout : 쿼리 타임아웃 힌트 (null이면 적용하지 않음)
+     */
+    public List<MemberTeamDto> search(MemberSearchCondition condition, Long limit, Duration queryTimeout) {
+        return search(condition, null, limit, queryTimeout);
+    }
+
+    /**
+     * afterId 보다 큰 회원만 조회하는 검색 (afterId가 null이면 처음부터)
+     */
+    public List<MemberTeamDto> search(MemberSearchCondition condition, Long afterId, Long limit, Duration queryTimeout) {
+        MemberSearchCondition normalized = condition.normalize();
+        if (normalized.isUnsatisfiable()) {
+            return new ArrayList<>();
+        }
+
+        JPAQuery<MemberTeamDto> query = queryFactory
+                .select(new QMemberTeamDto(member.id, member.name, member.age, team.id, team.name))
+                .from(member)
+                .leftJoin(member.team, team)
+                .where(afterId == null ? null : member.id.gt(afterId))
+                .where(MemberSearchPredicates.of(normalized));
+        MemberSearchPredicates.bind(query, normalized);
+
+        applyLimitAndTimeout(query, limit, queryTimeout);
+        return query.fetch();
+    }
+
+    /**
+     * 식별자 기준 이어서 조회하는 검색 (keyset) - afterId 보다 큰 회원을 식별자 순으로 최대 limit 건
+     */
+    public List<MemberTeamDto> searchAfter(MemberSearchCondition condition, long afterId, int limit) {
+        MemberSearchCondition normalized = condition.normalize();
+        if (normalized.isUnsatisfiable()) {
+            return new ArrayList<>();
+        }
+
+        JPAQuery<MemberTeamDto> query = queryFactory
+                .select(new QMemberTeamDto(member.id, member.name, member.age, team.id, team.name))
+                .from(member)
+                .leftJoin(member.team, team)
+                .where(member.id.gt(afterId))
+                .where(MemberSearchPredicates.of(normalized))
+                .orderBy(member.id.asc())
+                .limit(limit);
+        MemberSearchPredicates.bind(query, normalized);
+        return query.fetch();
+    }
+
+    /**
+     * 식별자 목록 중 검색 조건에 맞는 회원 조회 - 식별자 순 (IN 절 청크 단위)
+     * 식별자를 인덱스 등 DB 밖에서 골랐을 때 사용하며, 그 사이 바뀐 회원을 거르기 위해 조건을 다시 적용한다.
+     */
+    public List<MemberTeamDto> searchByIds(MemberSearchCondition condition, Collection<Long> ids, Duration queryTimeout) {
+        MemberSearchCondition normalized = condition.normalize();
+        List<MemberTeamDto> result = new ArrayList<>();
+        if (normalized.isUnsatisfiable()) {
+            return result;
+        }
+
+        for (List<Long> chunk : InClauseChunks.split(ids)) {
+            JPAQuery<MemberTeamDto> query = queryFactory
+                    .select(new QMemberTeamDto(member.id, member.name, member.age, team.id, team.name))
+                    .from(member)
+                    .leftJoin(member.team, team)
+                    .where(member.id.in(chunk))
+                    .where(MemberSearchPredicates.of(normalized))
+                    .orderBy(member.id.asc());
+            MemberSearchPredicates.bind(query, normalized);
+            if (queryTimeout != null) {
+                query.setHint(QUERY_TIMEOUT_HINT, (int) queryTimeout.toMillis());
+            }
+            result.addAll(query.fetch());
+        }
+        return result;
+    }
+
+    /**
+     * 필요한 필드만 조회하는 검색 (fields가 비어 있으면 전체 필드)
+     * 팀명 필드나 팀명 조건이 없으면 팀을 조인하지 않는다.
+     * 결과 행은 필드명 -> 값, 필드 순서는 MemberField 선언 순서
+     */
+    public List<Map<String, Object>> searchFields(MemberSearchCondition condition, Set<MemberField> fields,
+                                                  Long limit, Duration queryTimeout) {
+        return searchFields(condition, fields, null, limit, queryTimeout);
+    }
+
+    /**
+     * afterId 보다 큰 회원만 조회하는 필드 선택 검색 (afterId가 null이면 처음부터)
+     */
+    public List<Map<String, Object>> searchFields(MemberSearchCondition condition, Set<MemberField> fields,
+                                                  Long afterId, Long limit, Duration queryTimeout) {
+        MemberSearchCondition normalized = condition.normalize();
+        if (normalized.isUnsatisfiable()) {
+            return new ArrayList<>();
+        }
+
+        List<MemberField> selectedFields = new ArrayList<>(fields.isEmpty()
+                ? EnumSet.allOf(MemberField.class)
+                : EnumSet.copyOf(fields));
+        Expression<?>[] expressions = selectedFields.stream()
+                .map(this::fieldExpression)
+                .toArray(Expression<?>[]::new);
+
+        JPAQuery<Tuple> query = queryFactory
+                .select(expressions)
+                .from(member);
+        boolean teamJoinRequired = normalized.getTeamName() != null
+                || selectedFields.stream().anyMatch(MemberField::isTeamJoinRequired);
+        if (teamJoinRequired) {
+            query.leftJoin(member.team, team);
+        }
+        query.where(afterId == null ? null : member.id.gt(afterId))
+                .where(MemberSearchPredicates.of(normalized));
+        MemberSearchPredicates.bind(query, normalized);
+        applyLimitAndTimeout(query, limit, queryTimeout);
+
+        List<Map<String, Object>> result = new ArrayList<>();
+        for (Tuple row : query.fetch()) {
+            Map<String, Object> values = new LinkedHashMap<>();
+            for (int i = 0; i < selectedFields.size(); i++) {
+                values.put(selectedFields.get(i).getFieldName(), row.get(i, Object.class));
+            }
+            result.add(values);
+        }
+        return result;
+    }
+
+    private Expression<?> fieldExpression(MemberField field) {
+        switch (field) {
+            case MEMBER_ID:
+                return member.id;
+            case MEMBER_NAME:
+                return member.name;
+            case AGE:
+                return member.age;
+            case TEAM_ID:
+                return member.team.id;
+            case TEAM_NAME:
+                return team.name;
+            default:
+                throw new IllegalArgumentException("지원하지 않는 필드입니다. field = " + field);
+        }
+    }
+
+    private void applyLimitAndTimeout(JPAQuery<?> query, Long limit, Duration queryTimeout) {
+        if (limit != null) {
+            query.orderBy(member.id.asc())
+                    .limit(limit);
+        }
+        if (queryTimeout != null) {
+            query.setHint(QUERY_TIMEOUT_HINT, (int) queryTimeout.toMillis());
+        }
+    }
+
+    /**
+     * 페이징 검색 - 회원 식별자 순으로 offset, limit 적용
+     */
+    public List<MemberTeamDto> searchPage(MemberSearchCondition condition, Pageable pageable) {
+        MemberSearchCondition normalized = condition.normalize();
+        if (normalized.isUnsatisfiable()) {
+            return new ArrayList<>();
+        }
+
+        JPAQuery<MemberTeamDto> query = queryFactory
+                .select(new QMemberTeamDto(member.id, member.name, member.age, team.id, team.name))
+                .from(member)
+                .leftJoin(member.team, team)
+                .where(MemberSearchPredicates.of(normalized))
+                .orderBy(member.id.asc())
+                .offset(pageable.getOffset())
+                .limit(pageable.getPageSize());
+        MemberSearchPredicates.bind(query, normalized);
+        return query.fetch();
+    }
+
+    /**
+     * 검색 조건에 맞는 회원 수
+     * 팀명 조건이 없으면 팀을 조인하지 않는다.
+     */
+    public long countBySearch(MemberSearchCondition condition) {
+        MemberSearchCondition normalized = condition.normalize();
+        if (normalized.isUnsatisfiable()) {
+            return 0;
+        }
+
+        JPAQuery<Long> query = queryFactory
+                .select(member.count())
+                .from(member);
+        if (normalized.getTeamName() != null) {
+            query.join(member.team, team);
+        }
+        query.where(MemberSearchPredicates.of(normalized));
+        MemberSearchPredicates.bind(query, normalized);
+        Long count = query.fetchOne();
+        return count == null ? 0 : count;
+    }
+
+    /**
+     * 소속 팀별, 나이별 회원 수 - 팀 식별자 -> (나이 -> 회원 수), 팀이 없는 회원은 null 키
+     * 팀을 조인하지 않고 외래 키로 묶는다.
+     */
+    public Map<Long, Map<Integer, Long>> countByTeamAndAge() {
+        List<Tuple> rows = queryFactory
+                .select(member.team.id, member.age, member.count())
+                .from(member)
+                .groupBy(member.team.id, member.age)
+                .fetch();
+
+        Map<Long, Map<Integer, Long>> result = new HashMap<>();
+        for (Tuple row : rows) {
+            result.computeIfAbsent(row.get(member.team.id), teamId -> new HashMap<>())
+                    .put(row.get(member.age), row.get(member.count()));
+        }
+        return result;
+    }
+
+    /**
+     * 전체 회원의 (소속 팀, 나이) 조회 - 팀을 조인하지 않고 외래 키만 읽는다.
+     */
+    public List<MemberCountKey> findAllCountKeys() {
+        return queryFactory
+                .select(new QMemberCountKey(member.id, member.team.id, member.age))
+                .from(member)
+                .fetch();
+    }
+
+    /**
+     * 식별자 목록으로 회원의 (소속 팀, 나이) 조회 (IN 절 청크 단위)
+     */
+    public Map<Long, MemberCountKey> findCountKeysByIds(Collection<Long> ids) {
+        Map<Long, MemberCountKey> result = new HashMap<>();
+        for (List<Long> chunk : InClauseChunks.split(ids)) {
+            List<MemberCountKey> keys = queryFactory
+                    .select(new QMemberCountKey(member.id, member.team.id, member.age))
+                    .from(member)
+                    .where(member.id.in(chunk))
+                    .fetch();
+            for (MemberCountKey key : keys) {
+                result.put(key.getMemberId(), key);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 회원 식별자 최솟값, 최댓값
+     */
+    public MemberIdRange findIdRange() {
+        return queryFactory
+                .select(new QMemberIdRange(member.id.min(), member.id.max()))
+                .from(member)
+                .fetchOne();
+    }
+
+    /**
+     * fromId 이상인 가장 작은 회원 식별자 (없으면 null)
+     */
+    public Long findMinIdFrom(long fromId) {
+        return queryFactory
+                .select(member.id.min())
+                .from(member)
+                .where(member.id.goe(fromId))
+                .fetchOne();
+    }
+
+    /**
+     * 식별자 범위 (afterId, toId) 의 회원, 팀 조회 - 식별자 순으로 최대 limit 건
+     * 엔티티가 아닌 DTO로 조회하므로 영속성 컨텍스트에 쌓이지 않는다.
+     */
+    public List<MemberTeamDto> findMemberTeamsInIdRange(long afterId, long toId, int limit) {
         return queryFactory
                 .select(new QMemberTeamDto(member.id, member.name, member.age, team.id, team.name))
                 .from(member)
                 .leftJoin(member.team, team)
-                .where(
-                        memberNameEq(condition.getMemberName()),
-                        teamNameEq(condition.getTeamName()),
-                        ageGoe(condition.getAgeGoe()),
-                        ageLoe(condition.getAgeLoe()))
+                .where(member.id.gt(afterId), member.id.lt(toId))
+                .orderBy(member.id.asc())
+                .limit(limit)
                 .fetch();
     }
 
-    private BooleanExpression memberNameEq(String memberNameCond) {
-        return hasText(memberNameCond)
-                ? member.name.eq(memberNameCond)
-                : null;
+    /**
+     * 나이별 회원 수
+     */
+    public Map<Integer, Long> countByAge() {
+        List<Tuple> rows = queryFactory
+                .select(member.age, member.count())
+                .from(member)
+                .groupBy(member.age)
+                .fetch();
+
+        Map<Integer, Long> result = new HashMap<>();
+        for (Tuple row : rows) {
+            result.put(row.get(member.age), row.get(member.count()));
+        }
+        return result;
     }
-    private BooleanExpression teamNameEq(String teamNameCond) {
-        return hasText(teamNameCond)
-                ? team.name.eq(teamNameCond)
-                : null;
+
+    /**
+     * 서로 다른 회원 이름 수
+     */
+    public long countDistinctNames() {
+        Long count = queryFactory
+                .select(member.name.countDistinct())
+                .from(member)
+                .fetchOne();
+        return count == null ? 0 : count;
+    }
+
+    /**
+     * 나이 범위 조건. 상한과 하한이 같으면 동등 조건으로 합친다.
+     */
+    private BooleanExpression ageBetween(Integer ageGoeCond, Integer ageLoeCond) {
+        if (ageGoeCond != null && ageGoeCond.equals(ageLoeCond)) {
+            return member.age.eq(ageGoeCond);
+        }
+        BooleanExpression ageGoe = ageGoe(ageGoeCond);
+        BooleanExpression ageLoe = ageLoe(ageLoeCond);
+        return ageGoe != null
+                ? ageGoe.and(ageLoe)
+                : ageLoe;
     }
 
     private BooleanExpression ageGoe(Integer ageGoeCond) {
@@ -0,0 +1,114 @@
+package com.ttasjwi.querydsl.member.repository;
+
+import com.querydsl.core.support.QueryBase;
+import com.querydsl.core.types.Predicate;
+import com.querydsl.core.types.dsl.Param;
+import com.ttasjwi.querydsl.member.dto.MemberSearchCondition;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.ttasjwi.querydsl.member.domain.QMember.member;
+import static com.ttasjwi.querydsl.team.domain.QTeam.team;
+
+/**
+ * 회원 검색 조건 술어 (Param 템플릿)
+ * 조건 형태(회원명, 팀명, 나이 하한, 나이 상한 유무, 나이 상하한이 같은지)마다 술어 배열을 처음 한 번만 만들어 두고,
+ * 실행할 때는 bind로 값만 넣는다. 검색할 때마다 BooleanExpression 트리와 상수 표현식을 새로 만들지 않는다.
+ * 술어, Param은 불변이므로 모든 쿼리가 공유한다. (반환한 배열은 수정하지 않는다)
+ */
+public final class MemberSearchPredicates {
+
+    public static final Param<String> MEMBER_NAME = new Param<>(String.class, "memberName");
+    public static final Param<String> TEAM_NAME = new Param<>(String.class, "teamName");
+    public static final Param<Integer> AGE_GOE = new Param<>(Integer.class, "ageGoe");
+    public static final Param<Integer> AGE_LOE = new Param<>(Integer.class, "ageLoe");
+    public static final Param<Integer> AGE = new Param<>(Integer.class, "age");
+
+    private static final int MEMBER_NAME_BIT = 1;
+    private static final int TEAM_NAME_BIT = 1 << 1;
+    private static final int AGE_GOE_BIT = 1 << 2;
+    private static final int AGE_LOE_BIT = 1 << 3;
+    private static final int AGE_EQ_BIT = 1 << 4;
+
+    private static final Predicate[][] SHAPES = new Predicate[1 << 5][];
+
+    static {
+        for (int shape = 0; shape < SHAPES.length; shape++) {
+            List<Predicate> predicates = new ArrayList<>();
+            if ((shape & MEMBER_NAME_BIT) != 0) {
+                predicates.add(member.name.eq(MEMBER_NAME));
+            }
+            if ((shape & TEAM_NAME_BIT) != 0) {
+                predicates.add(team.name.eq(TEAM_NAME));
+            }
+            if ((shape & AGE_GOE_BIT) != 0) {
+                predicates.add(member.age.goe(AGE_GOE));
+            }
+            if ((shape & AGE_LOE_BIT) != 0) {
+                predicates.add(member.age.loe(AGE_LOE));
+            }
+            if ((shape & AGE_EQ_BIT) != 0) {
+                predicates.add(member.age.eq(AGE));
+            }
+            SHAPES[shape] = predicates.toArray(new Predicate[0]);
+        }
+    }
+
+    private MemberSearchPredicates() {
+    }
+
+    /**
+     * 정규화된 검색 조건 형태의 술어 - where에 넘기고 같은 쿼리에 bind 해야 한다.
+     */
+    public static Predicate[] of(MemberSearchCondition normalized) {
+        return SHAPES[shape(normalized)];
+    }
+
+    /**
+     * of로 고른 술어의 Param에 조건 값을 넣는다.
+     */
+    public static void bind(QueryBase<?> query, MemberSearchCondition normalized) {
+        int shape = shape(normalized);
+        if ((shape & MEMBER_NAME_BIT) != 0) {
+            query.set(MEMBER_NAME, normalized.getMemberName());
+        }
+        if ((shape & TEAM_NAME_BIT) != 0) {
+            query.set(TEAM_NAME, normalized.getTeamName());
+        }
+        if ((shape & AGE_GOE_BIT) != 0) {
+            query.set(AGE_GOE, normalized.getAgeGoe());
+        }
+        if ((shape & AGE_LOE_BIT) != 0) {
+            query.set(AGE_LOE, normalized.getAgeLoe());
+        }
+        if ((shape & AGE_EQ_BIT) != 0) {
+            query.set(AGE, normalized.getAgeGoe());
+        }
+    }
+
+    /**
+     * 나이 상한과 하한이 같으면 동등 조건 하나로 합친다.
+     */
+    private static int shape(MemberSearchCondition normalized) {
+        int shape = 0;
+        if (normalized.getMemberName() != null) {
+            shape |= MEMBER_NAME_BIT;
+        }
+        if (normalized.getTeamName() != null) {
+            shape |= TEAM_NAME_BIT;
+        }
+        Integer ageGoe = normalized.getAgeGoe();
+        Integer ageLoe = normalized.getAgeLoe();
+        if (ageGoe != null && ageGoe.equals(ageLoe)) {
+            return shape | AGE_EQ_BIT;
+        }
+        if (ageGoe != null) {
+            shape |= AGE_GOE_BIT;
+        }
+        if (ageLoe != null) {
+            shape |= AGE_LOE_BIT;
+        }
+        return shape;
+    }
+}
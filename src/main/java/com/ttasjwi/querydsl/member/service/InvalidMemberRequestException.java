@@ -0,0 +1,15 @@
+package com.ttasjwi.querydsl.member.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * 회원 등록 요청이 검증을 통과하지 못함
+ */
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class InvalidMemberRequestException extends IllegalArgumentException {
+
+    public InvalidMemberRequestException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,373 @@
+package com.ttasjwi.querydsl.member.service;
+
+import com.ttasjwi.querydsl.common.collection.IdBitmap;
+import com.ttasjwi.querydsl.common.collection.LongLongHashMap;
+import com.ttasjwi.querydsl.common.event.AggregateType;
+import com.ttasjwi.querydsl.common.event.ChangeEvent;
+import com.ttasjwi.querydsl.common.event.ChangeEventHandler;
+import com.ttasjwi.querydsl.member.dto.MemberCountKey;
+import com.ttasjwi.querydsl.member.dto.MemberSearchCondition;
+import com.ttasjwi.querydsl.member.repository.MemberJpaRepository;
+import com.ttasjwi.querydsl.team.domain.Team;
+import com.ttasjwi.querydsl.team.repository.TeamJpaRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 회원 나이, 소속 팀 비트맵 인덱스 (기본으로 꺼져 있다)
+ * 나이 값마다, 팀마다 회원 식별자 비트맵을 두고 팀명 + 나이 범위 조건을 비트맵 합집합/교집합으로 계산한다.
+ * 전체 회원의 (팀, 나이)는 전용 스레드에서 별도 읽기 전용 트랜잭션으로 읽어 새 인덱스를 만든 뒤 바꿔 끼운다.
+ * 다 읽기 전에는 null을 돌려줘 호출자가 DB에서 거르게 하고, 읽는 동안 들어온 변경 이벤트는 모아 두었다가 다 읽은 뒤 반영한다.
+ * 이후에는 변경 이벤트로 바뀐 회원만 다시 읽어서 반영한다. 회원마다 현재 (팀, 나이) 위치를 기록해 두므로 뺄 때 다른 비트맵을 뒤지지 않는다.
+ * 이벤트 발행이 커밋보다 늦으므로 그 사이에는 근사값이다.
+ * - 조건에서 벗어난 회원 : 조회할 때 조건을 다시 적용해서 거른다.
+ * - 새로 조건에 맞게 된 회원 (등록, 팀 이동, 나이 변경) : 발행될 때까지 결과에서 빠진다.
+ * 그래서 발행 지연만큼의 누락을 받아들일 수 있는 경우에만 켠다. 회원명 조건은 답하지 않는다.
+ */
+@Slf4j
+@Component
+public class MemberBitmapIndex implements ChangeEventHandler {
+
+    private final MemberJpaRepository memberJpaRepository;
+    private final TeamJpaRepository teamJpaRepository;
+    private final MemberSearchProperties properties;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ExecutorService loader = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "member-bitmap-index-loader");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // 아래 상태는 lock으로 보호
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private Index index;
+    private CompletableFuture<Void> loading;
+    private long generation;
+    private final Set<Long> pendingMemberIds = new HashSet<>();
+    private final Set<Long> pendingTeamIds = new HashSet<>();
+
+    private final Counter hitCounter;
+
+    public MemberBitmapIndex(MemberJpaRepository memberJpaRepository,
+                             TeamJpaRepository teamJpaRepository,
+                             MemberSearchProperties properties,
+                             PlatformTransactionManager transactionManager,
+                             MeterRegistry meterRegistry) {
+        this.memberJpaRepository = memberJpaRepository;
+        this.teamJpaRepository = teamJpaRepository;
+        this.properties = properties;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.readOnlyTransaction.setReadOnly(true);
+
+        this.hitCounter = Counter.builder("member.search.bitmap.hits")
+                .description("비트맵 인덱스로 대상 회원을 고른 검색 수")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        loader.shutdownNow();
+    }
+
+    /**
+     * 정규화된 검색 조건에 맞는 회원 식별자 - 인덱스로 답할 수 없으면(회원명 조건, 인덱스 꺼짐, 아직 읽는 중) null
+     * 인덱스가 없으면 읽기를 시작만 하고 기다리지 않는다. 반환한 비트맵은 호출자 소유이다.
+     */
+    public IdBitmap match(MemberSearchCondition normalized) {
+        if (!properties.getBitmapIndex().isEnabled() || normalized.getMemberName() != null) {
+            return null;
+        }
+        if (normalized.isUnsatisfiable()) {
+            hitCounter.increment();
+            return new IdBitmap();
+        }
+
+        lock.readLock().lock();
+        try {
+            if (index != null) {
+                hitCounter.increment();
+                return index.match(normalized);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        load();
+        return null;
+    }
+
+    /**
+     * 인덱스가 없으면 전용 스레드에서 읽기 시작한다. 이미 있거나 읽는 중이면 그 결과를 돌려준다.
+     */
+    public CompletableFuture<Void> load() {
+        lock.writeLock().lock();
+        try {
+            if (index != null) {
+                return CompletableFuture.completedFuture(null);
+            }
+            if (loading == null) {
+                long loadGeneration = generation;
+                loading = CompletableFuture.runAsync(() -> loadIndex(loadGeneration), loader);
+            }
+            return loading;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 이벤트 없이 데이터가 바뀌었을 때(벌크 적재 등) 호출 - 다음 조회 때 전체를 다시 읽는다.
+     * 읽는 중이던 결과는 버린다.
+     */
+    public void invalidate() {
+        lock.writeLock().lock();
+        try {
+            index = null;
+            loading = null;
+            generation++;
+            pendingMemberIds.clear();
+            pendingTeamIds.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 변경된 회원, 팀의 현재 상태를 다시 읽어서 이전 위치에서 빼고 현재 위치에 넣는다.
+     * 현재 상태 기준으로 맞추므로 같은 이벤트가 다시 전달되어도 결과가 같다.
+     * 인덱스를 읽는 중이면 대상만 모아 두고, 읽기를 마친 뒤 반영한다.
+     */
+    @Override
+    public void handle(List<ChangeEvent> events) {
+        Set<Long> memberIds = new HashSet<>();
+        Set<Long> teamIds = new HashSet<>();
+        for (ChangeEvent event : events) {
+            if (event.getAggregateType() == AggregateType.MEMBER) {
+                memberIds.add(event.getAggregateId());
+            } else if (event.getAggregateType() == AggregateType.TEAM) {
+                teamIds.add(event.getAggregateId());
+            }
+        }
+
+        lock.writeLock().lock();
+        try {
+            if (index == null) {
+                if (loading != null) {
+                    pendingMemberIds.addAll(memberIds);
+                    pendingTeamIds.addAll(teamIds);
+                }
+                return;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        Changes changes = readChanges(memberIds, teamIds);
+        lock.writeLock().lock();
+        try {
+            if (index != null) {
+                index.apply(changes);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void loadIndex(long loadGeneration) {
+        try {
+            Index loaded = readOnlyTransaction.execute(status -> {
+                Index created = new Index();
+                for (MemberCountKey key : memberJpaRepository.findAllCountKeys()) {
+                    created.addMember(key);
+                }
+                created.teamNames.putAll(teamJpaRepository.findAllNames());
+                return created;
+            });
+
+            // 읽는 동안 모아 둔 변경을 반영하고, 더 없으면 바꿔 끼운다. (공개 전이므로 loaded는 이 스레드만 쓴다)
+            while (true) {
+                Set<Long> memberIds;
+                Set<Long> teamIds;
+                lock.writeLock().lock();
+                try {
+                    if (generation != loadGeneration) {
+                        return;
+                    }
+                    if (pendingMemberIds.isEmpty() && pendingTeamIds.isEmpty()) {
+                        index = loaded;
+                        return;
+                    }
+                    memberIds = new HashSet<>(pendingMemberIds);
+                    teamIds = new HashSet<>(pendingTeamIds);
+                    pendingMemberIds.clear();
+                    pendingTeamIds.clear();
+                } finally {
+                    lock.writeLock().unlock();
+                }
+                loaded.apply(readOnlyTransaction.execute(status -> readChanges(memberIds, teamIds)));
+            }
+        } catch (RuntimeException e) {
+            log.warn("회원 비트맵 인덱스 읽기 실패 - 다음 조회 때 다시 읽습니다.", e);
+            throw e;
+        } finally {
+            lock.writeLock().lock();
+            try {
+                if (generation == loadGeneration) {
+                    loading = null;
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    private Changes readChanges(Set<Long> memberIds, Set<Long> teamIds) {
+        return new Changes(
+                memberIds,
+                memberIds.isEmpty() ? Map.of() : memberJpaRepository.findCountKeysByIds(memberIds),
+                teamIds,
+                teamIds.isEmpty() ? Map.of() : teamJpaRepository.findAllByIds(teamIds));
+    }
+
+    /**
+     * 변경 대상과 그 현재 상태 (없어진 회원, 팀은 current에 없다)
+     */
+    private static class Changes {
+
+        private final Set<Long> memberIds;
+        private final Map<Long, MemberCountKey> currentKeys;
+        private final Set<Long> teamIds;
+        private final Map<Long, Team> currentTeams;
+
+        Changes(Set<Long> memberIds, Map<Long, MemberCountKey> currentKeys, Set<Long> teamIds, Map<Long, Team> currentTeams) {
+            this.memberIds = memberIds;
+            this.currentKeys = currentKeys;
+            this.teamIds = teamIds;
+            this.currentTeams = currentTeams;
+        }
+    }
+
+    /**
+     * 비트맵과 회원별 위치 - 스레드 안전하지 않다.
+     * 회원 위치는 (팀 번호 << 32 | 나이)로 보관한다. 팀 번호는 팀 식별자마다 1부터 붙이고, 팀이 없으면 0이다.
+     * 위치 기록에 회원당 약 32바이트(LongLongHashMap, 채움률 0.5)가 더 든다.
+     */
+    private static class Index {
+
+        private final IdBitmap all = new IdBitmap();
+        private final TreeMap<Integer, IdBitmap> byAge = new TreeMap<>();
+        private final Map<Long, IdBitmap> byTeam = new HashMap<>();
+        private final Map<Long, String> teamNames = new HashMap<>();
+        private final LongLongHashMap positions = new LongLongHashMap();
+        private final Map<Long, Integer> teamSlots = new HashMap<>();
+        private final List<Long> slotTeamIds = new ArrayList<>();
+
+        IdBitmap match(MemberSearchCondition normalized) {
+            IdBitmap result = null;
+            if (normalized.getTeamName() != null) {
+                result = new IdBitmap();
+                for (Map.Entry<Long, String> entry : teamNames.entrySet()) {
+                    IdBitmap members = byTeam.get(entry.getKey());
+                    if (members != null && normalized.getTeamName().equals(entry.getValue())) {
+                        result.or(members);
+                    }
+                }
+                if (result.isEmpty()) {
+                    return result;
+                }
+            }
+            if (normalized.getAgeGoe() != null || normalized.getAgeLoe() != null) {
+                IdBitmap ages = new IdBitmap();
+                int from = normalized.getAgeGoe() == null ? Integer.MIN_VALUE : normalized.getAgeGoe();
+                int to = normalized.getAgeLoe() == null ? Integer.MAX_VALUE : normalized.getAgeLoe();
+                for (IdBitmap members : byAge.subMap(from, true, to, true).values()) {
+                    ages.or(members);
+                }
+                if (result == null) {
+                    result = ages;
+                } else {
+                    result.and(ages);
+                }
+            }
+            return result == null ? all.copy() : result;
+        }
+
+        void apply(Changes changes) {
+            for (Long teamId : changes.teamIds) {
+                Team team = changes.currentTeams.get(teamId);
+                if (team == null) {
+                    teamNames.remove(teamId);
+                } else {
+                    teamNames.put(teamId, team.getName());
+                }
+            }
+            for (Long memberId : changes.memberIds) {
+                removeMember(memberId);
+                MemberCountKey current = changes.currentKeys.get(memberId);
+                if (current != null) {
+                    addMember(current);
+                }
+            }
+        }
+
+        void addMember(MemberCountKey key) {
+            long memberId = key.getMemberId();
+            int age = key.getAge();
+            all.add(memberId);
+            byAge.computeIfAbsent(age, value -> new IdBitmap()).add(memberId);
+            int slot = 0;
+            if (key.getTeamId() != null) {
+                byTeam.computeIfAbsent(key.getTeamId(), teamId -> new IdBitmap()).add(memberId);
+                slot = teamSlot(key.getTeamId());
+            }
+            positions.put(memberId, ((long) slot << 32) | (age & 0xffffffffL));
+        }
+
+        void removeMember(long memberId) {
+            if (!positions.containsKey(memberId)) {
+                return;
+            }
+            long position = positions.get(memberId, 0);
+            positions.remove(memberId);
+            all.remove(memberId);
+            removeFrom(byAge, (int) position, memberId);
+            int slot = (int) (position >>> 32);
+            if (slot != 0) {
+                removeFrom(byTeam, slotTeamIds.get(slot - 1), memberId);
+            }
+        }
+
+        private int teamSlot(Long teamId) {
+            return teamSlots.computeIfAbsent(teamId, id -> {
+                slotTeamIds.add(id);
+                return slotTeamIds.size();
+            });
+        }
+
+        private static <K> void removeFrom(Map<K, IdBitmap> bitmaps, K key, long memberId) {
+            IdBitmap bitmap = bitmaps.get(key);
+            if (bitmap != null && bitmap.remove(memberId) && bitmap.isEmpty()) {
+                bitmaps.remove(key);
+            }
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package com.ttasjwi.querydsl.member.service;
+
+import com.ttasjwi.querydsl.common.event.ChangeEvent;
+import com.ttasjwi.querydsl.common.event.ChangeEventHandler;
+import com.ttasjwi.querydsl.member.dto.MemberSearchCondition;
+import com.ttasjwi.querydsl.member.repository.MemberJpaRepository;
+import com.ttasjwi.querydsl.team.repository.TeamJpaRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 회원 검색 결과 수 캐시
+ * - 회원명 조건이 없는 검색 : (팀, 나이)별 회원 수 집계를 메모리에 두고 합산한다. (회원 수가 아니라 팀 수 x 나이 수만큼만 보관)
+ *   집계는 group by 한 번으로 읽고, 변경 이벤트를 받으면 낡은 것으로 표시했다가 refreshInterval이 지난 뒤 첫 조회 때 다시 읽는다.
+ *   호출자 트랜잭션의 커밋 전 변경이 섞이지 않도록 별도 읽기 전용 트랜잭션에서 읽는다.
+ *   다시 읽기 전까지는 근사값이다.
+ * - 회원명 조건이 있는 검색 : DB 집계 결과를 정규화된 조건별로 nameCountTtl 동안 보관한다.
+ *   maxNameCounts를 넘으면 가장 오래 쓰지 않은 조건부터 뺀다.
+ */
+@Component
+public class MemberCountCache implements ChangeEventHandler {
+
+    private final MemberJpaRepository memberJpaRepository;
+    private final TeamJpaRepository teamJpaRepository;
+    private final MemberSearchProperties properties;
+    private final TransactionTemplate readOnlyTransaction;
+
+    private volatile AggregateCounts counts;
+    private volatile boolean stale;
+
+    // 접근 순서 LRU, nameCounts로 동기화
+    private final Map<MemberSearchCondition, NameCount> nameCounts = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<MemberSearchCondition, NameCount> eldest) {
+            return size() > properties.getCountCache().getMaxNameCounts();
+        }
+    };
+
+    private final Counter memoryCounter;
+    private final Counter nameHitCounter;
+    private final Counter nameMissCounter;
+
+    public MemberCountCache(MemberJpaRepository memberJpaRepository,
+                            TeamJpaRepository teamJpaRepository,
+                            MemberSearchProperties properties,
+                            PlatformTransactionManager transactionManager,
+                            MeterRegistry meterRegistry) {
+        this.memberJpaRepository = memberJpaRepository;
+        this.teamJpaRepository = teamJpaRepository;
+        this.properties = properties;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.readOnlyTransaction.setReadOnly(true);
+
+        this.memoryCounter = Counter.builder("member.count.cache.memory")
+                .description("메모리 집계로 계산한 회원 수 조회 수")
+                .register(meterRegistry);
+        this.nameHitCounter = Counter.builder("member.count.cache.name.hits")
+                .description("보관된 DB 집계 결과를 쓴 회원명 조건 조회 수")
+                .register(meterRegistry);
+        this.nameMissCounter = Counter.builder("member.count.cache.name.misses")
+                .description("DB에서 다시 센 회원명 조건 조회 수")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 검색 조건에 맞는 회원 수
+     */
+    public long count(MemberSearchCondition condition) {
+        MemberSearchCondition normalized = condition.normalize();
+        if (normalized.isUnsatisfiable()) {
+            return 0;
+        }
+        if (!properties.getCountCache().isEnabled()) {
+            return memberJpaRepository.countBySearch(normalized);
+        }
+        if (normalized.getMemberName() != null) {
+            return countByName(normalized);
+        }
+        memoryCounter.increment();
+        return currentCounts().count(normalized);
+    }
+
+    /**
+     * 이벤트 없이 데이터가 바뀌었을 때(벌크 적재 등) 호출 - 다음 조회 때 전체를 다시 읽는다.
+     */
+    public void invalidate() {
+        counts = null;
+        synchronized (nameCounts) {
+            nameCounts.clear();
+        }
+    }
+
+    /**
+     * 회원, 팀이 바뀌면 집계를 낡은 것으로 표시만 한다. (다시 읽기는 refreshInterval 단위로 모아서)
+     */
+    @Override
+    public void handle(List<ChangeEvent> events) {
+        if (!events.isEmpty()) {
+            stale = true;
+        }
+    }
+
+    private long countByName(MemberSearchCondition normalized) {
+        long now = System.currentTimeMillis();
+        synchronized (nameCounts) {
+            NameCount cached = nameCounts.get(normalized);
+            if (cached != null && cached.expiresAt > now) {
+                nameHitCounter.increment();
+                return cached.count;
+            }
+        }
+
+        nameMissCounter.increment();
+        long count = memberJpaRepository.countBySearch(normalized);
+        long expiresAt = now + properties.getCountCache().getNameCountTtl().toMillis();
+        synchronized (nameCounts) {
+            nameCounts.put(normalized, new NameCount(count, expiresAt));
+        }
+        return count;
+    }
+
+    private AggregateCounts currentCounts() {
+        AggregateCounts current = counts;
+        if (current == null || (stale && current.isRefreshDue())) {
+            synchronized (this) {
+                current = counts;
+                if (current == null || (stale && current.isRefreshDue())) {
+                    // 읽는 동안 들어온 이벤트는 다시 낡은 것으로 표시하도록 먼저 지운다.
+                    stale = false;
+                    current = readOnlyTransaction.execute(status -> new AggregateCounts(
+                            memberJpaRepository.countByTeamAndAge(),
+                            teamJpaRepository.findAllNames(),
+                            System.currentTimeMillis() + properties.getCountCache().getRefreshInterval().toMillis()));
+                    counts = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * (팀, 나이)별 회원 수 집계 - 만든 뒤에는 바뀌지 않는다.
+     */
+    private static class AggregateCounts {
+
+        private final Map<Long, Map<Integer, Long>> countsByTeam;
+        private final Map<Long, String> teamNames;
+        private final long refreshAfter;
+
+        AggregateCounts(Map<Long, Map<Integer, Long>> countsByTeam, Map<Long, String> teamNames, long refreshAfter) {
+            this.countsByTeam = countsByTeam;
+            this.teamNames = teamNames;
+            this.refreshAfter = refreshAfter;
+        }
+
+        boolean isRefreshDue() {
+            return System.currentTimeMillis() >= refreshAfter;
+        }
+
+        long count(MemberSearchCondition normalized) {
+            Integer ageGoe = normalized.getAgeGoe();
+            Integer ageLoe = normalized.getAgeLoe();
+            long count = 0;
+            for (Map.Entry<Long, Map<Integer, Long>> entry : countsByTeam.entrySet()) {
+                if (normalized.getTeamName() != null
+                        && (entry.getKey() == null || !normalized.getTeamName().equals(teamNames.get(entry.getKey())))) {
+                    continue;
+                }
+                for (Map.Entry<Integer, Long> ageCount : entry.getValue().entrySet()) {
+                    int age = ageCount.getKey();
+                    if ((ageGoe == null || age >= ageGoe) && (ageLoe == null || age <= ageLoe)) {
+                        count += ageCount.getValue();
+                    }
+                }
+            }
+            return count;
+        }
+    }
+
+    private static class NameCount {
+
+        private final long count;
+        private final long expiresAt;
+
+        NameCount(long count, long expiresAt) {
+            this.count = count;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
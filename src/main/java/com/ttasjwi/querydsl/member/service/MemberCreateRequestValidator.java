@@ -0,0 +1,40 @@
+package com.ttasjwi.querydsl.member.service;
+
+import com.ttasjwi.querydsl.member.dto.MemberCreateRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import static org.springframework.util.StringUtils.hasText;
+
+/**
+ * 회원 등록 요청 검증 - 한 건 등록(MemberGroupCommitWriter)과 대량 등록(MemberIngestService)이 같은 규칙을 쓴다.
+ * 이름 최대 길이는 member.ingest.max-name-length 를 따른다.
+ */
+@Component
+@RequiredArgsConstructor
+public class MemberCreateRequestValidator {
+
+    private final MemberIngestProperties properties;
+
+    /**
+     * 검증 실패 사유 - 통과하면 null
+     */
+    public String validate(MemberCreateRequest request) {
+        if (request == null) {
+            return "요청이 비어 있습니다.";
+        }
+        if (!hasText(request.getName())) {
+            return "이름이 없습니다.";
+        }
+        if (request.getName().length() > properties.getMaxNameLength()) {
+            return "이름이 너무 깁니다. 최대 길이 = " + properties.getMaxNameLength();
+        }
+        if (request.getAge() == null) {
+            return "나이가 없습니다.";
+        }
+        if (request.getAge() < 0) {
+            return "나이는 0 이상이어야 합니다. age = " + request.getAge();
+        }
+        return null;
+    }
+}
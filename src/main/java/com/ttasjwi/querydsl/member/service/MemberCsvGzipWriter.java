@@ -0,0 +1,80 @@
+package com.ttasjwi.querydsl.member.service;
+
+import com.ttasjwi.querydsl.member.dto.MemberTeamDto;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.zip.GZIPOutputStream;
+
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * 회원, 팀 행을 gzip 압축 CSV로 쓴다.
+ * FileChannel 위에 고정 크기 버퍼(문자 버퍼, 압축 버퍼)만 두므로 행 수와 관계없이 메모리 사용량이 일정하다.
+ */
+class MemberCsvGzipWriter implements Closeable {
+
+    static final String HEADER = "member_id,member_name,age,team_id,team_name";
+
+    private final Writer writer;
+
+    MemberCsvGzipWriter(Path path, int bufferSize) throws IOException {
+        FileChannel channel = FileChannel.open(path, CREATE, TRUNCATE_EXISTING, WRITE);
+        try {
+            GZIPOutputStream gzip = new GZIPOutputStream(Channels.newOutputStream(channel), bufferSize);
+            this.writer = new BufferedWriter(new OutputStreamWriter(gzip, StandardCharsets.UTF_8), bufferSize);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+        writer.write(HEADER);
+        writer.write('\n');
+    }
+
+    void write(MemberTeamDto row) throws IOException {
+        writer.write(String.valueOf(row.getMemberId()));
+        writer.write(',');
+        writeText(row.getMemberName());
+        writer.write(',');
+        writer.write(Integer.toString(row.getAge()));
+        writer.write(',');
+        if (row.getTeamId() != null) {
+            writer.write(String.valueOf(row.getTeamId()));
+        }
+        writer.write(',');
+        writeText(row.getTeamName());
+        writer.write('\n');
+    }
+
+    /**
+     * 쉼표, 따옴표, 줄바꿈이 있으면 따옴표로 감싸고 따옴표는 두 번 쓴다. (RFC 4180)
+     */
+    private void writeText(String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        boolean quote = value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+        if (!quote) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+}
@@ -0,0 +1,15 @@
+package com.ttasjwi.querydsl.member.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * 이미 실행 중인 회원 내보내기가 있어 새 실행을 받지 않음
+ */
+@ResponseStatus(HttpStatus.CONFLICT)
+public class MemberExportInProgressException extends RuntimeException {
+
+    public MemberExportInProgressException() {
+        super("이미 회원 내보내기가 실행 중입니다.");
+    }
+}
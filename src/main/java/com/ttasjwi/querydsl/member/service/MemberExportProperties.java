@@ -0,0 +1,43 @@
+package com.ttasjwi.querydsl.member.service;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 회원 내보내기 설정 (member.export.*)
+ */
+@Getter @Setter
+@ConfigurationProperties(prefix = "member.export")
+public class MemberExportProperties {
+
+    /**
+     * 실행 디렉터리(run-*)를 만들 디렉터리
+     */
+    private String directory = "export/members";
+
+    /**
+     * 남겨 둘 완성된 실행 수 (이보다 오래된 실행 디렉터리는 새 실행이 끝날 때 지운다)
+     */
+    private int keepRuns = 3;
+
+    /**
+     * 파일 하나가 담당하는 회원 식별자 범위 크기
+     */
+    private long rangeSize = 1_000_000;
+
+    /**
+     * 동시에 내보내는 범위 수
+     */
+    private int threads = 4;
+
+    /**
+     * 한 번에 조회하는 건수 (범위 안에서 식별자 기준으로 이어서 조회)
+     */
+    private int pageSize = 5_000;
+
+    /**
+     * 파일 쓰기 버퍼 크기 (압축 전, 압축 후 각각)
+     */
+    private int bufferSize = 64 * 1024;
+}
@@ -0,0 +1,268 @@
+package com.ttasjwi.querydsl.member.service;
+
+import com.ttasjwi.querydsl.member.dto.MemberExportResult;
+import com.ttasjwi.querydsl.member.dto.MemberIdRange;
+import com.ttasjwi.querydsl.member.dto.MemberTeamDto;
+import com.ttasjwi.querydsl.member.repository.MemberJpaRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * 회원, 팀 내보내기 (분석용)
+ * 회원 식별자 공간을 rangeSize 단위 범위로 나누고, 범위마다 파일 하나(part-00000.csv.gz)를 병렬로 쓴다.
+ * 회원이 없는 범위는 건너뛴다. (다음 범위는 남은 가장 작은 식별자에서 시작)
+ * 범위 안에서는 식별자 기준으로 pageSize 건씩 이어서 DTO로 조회하므로, 힙에는 스레드당 한 페이지만 올라온다.
+ * 실행마다 run-yyyyMMdd-HHmmss-SSS.tmp 디렉터리에 쓰고, 다 쓰면 run-yyyyMMdd-HHmmss-SSS 로 이름을 바꾼다.
+ * 이전 실행의 파일과 섞이지 않고, 이름에 .tmp가 없는 디렉터리는 항상 완성된 결과다.
+ * 완성된 실행은 최근 keepRuns개만 남긴다. 한 번에 하나만 실행한다.
+ */
+@Slf4j
+@Service
+public class MemberExportService {
+
+    private static final String RUN_PREFIX = "run-";
+    private static final String TEMP_SUFFIX = ".tmp";
+    private static final DateTimeFormatter RUN_NAME_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS");
+
+    private final MemberJpaRepository memberJpaRepository;
+    private final MemberExportProperties properties;
+    private final TransactionTemplate readOnlyTemplate;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public MemberExportService(MemberJpaRepository memberJpaRepository,
+                               MemberExportProperties properties,
+                               PlatformTransactionManager transactionManager) {
+        this.memberJpaRepository = memberJpaRepository;
+        this.properties = properties;
+        this.readOnlyTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTemplate.setReadOnly(true);
+    }
+
+    /**
+     * 설정된 디렉터리로 내보내기
+     */
+    public MemberExportResult export() {
+        return export(Paths.get(properties.getDirectory()));
+    }
+
+    /**
+     * directory 아래 새 실행 디렉터리로 내보내기
+     * @throws MemberExportInProgressException 이미 실행 중일 때
+     */
+    public MemberExportResult export(Path directory) {
+        if (!running.compareAndSet(false, true)) {
+            throw new MemberExportInProgressException();
+        }
+        try {
+            return exportRun(directory);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private MemberExportResult exportRun(Path directory) {
+        long start = System.currentTimeMillis();
+        Path runDirectory;
+        Path tempDirectory;
+        try {
+            Files.createDirectories(directory);
+            deleteTempRuns(directory);
+            runDirectory = newRunDirectory(directory);
+            tempDirectory = runDirectory.resolveSibling(runDirectory.getFileName() + TEMP_SUFFIX);
+            Files.createDirectory(tempDirectory);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        try {
+            List<long[]> ranges = splitRanges();
+            List<MemberExportResult.Part> parts = ranges.isEmpty() ? List.of() : exportRanges(tempDirectory, ranges);
+            Files.move(tempDirectory, runDirectory, StandardCopyOption.ATOMIC_MOVE);
+            deleteOldRuns(directory);
+
+            List<MemberExportResult.Part> movedParts = new ArrayList<>();
+            long totalRows = 0;
+            for (MemberExportResult.Part part : parts) {
+                Path file = runDirectory.resolve(Paths.get(part.getFile()).getFileName());
+                movedParts.add(new MemberExportResult.Part(file.toString(), part.getFromId(), part.getToId(), part.getRows()));
+                totalRows += part.getRows();
+            }
+
+            long elapsed = System.currentTimeMillis() - start;
+            log.info("회원 내보내기 완료 directory = {}, files = {}, rows = {} ({}ms)", runDirectory, movedParts.size(), totalRows, elapsed);
+            return new MemberExportResult(runDirectory.toString(), movedParts, totalRows, elapsed);
+        } catch (IOException e) {
+            deleteQuietly(tempDirectory);
+            throw new UncheckedIOException(e);
+        } catch (RuntimeException e) {
+            deleteQuietly(tempDirectory);
+            throw e;
+        }
+    }
+
+    private List<MemberExportResult.Part> exportRanges(Path tempDirectory, List<long[]> ranges) {
+        ExecutorService executor = Executors.newFixedThreadPool(
+                Math.min(Math.max(properties.getThreads(), 1), ranges.size()), exportThreadFactory());
+        try {
+            List<Future<MemberExportResult.Part>> futures = new ArrayList<>();
+            for (int i = 0; i < ranges.size(); i++) {
+                Path file = tempDirectory.resolve(String.format("part-%05d.csv.gz", i));
+                long[] range = ranges.get(i);
+                futures.add(executor.submit(() -> exportRange(file, range[0], range[1])));
+            }
+
+            List<MemberExportResult.Part> parts = new ArrayList<>();
+            for (Future<MemberExportResult.Part> future : futures) {
+                parts.add(future.get());
+            }
+            return parts;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("회원 내보내기 중 인터럽트", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IllegalStateException("회원 내보내기 실패", cause);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * 회원이 있는 [fromId, toId) 범위 목록
+     * 범위 경계는 최소 식별자부터 rangeSize 간격이고, 회원이 없는 범위는 다음 식별자로 건너뛴다.
+     */
+    private List<long[]> splitRanges() {
+        List<long[]> ranges = new ArrayList<>();
+        MemberIdRange idRange = readOnlyTemplate.execute(status -> memberJpaRepository.findIdRange());
+        if (idRange == null || idRange.isEmpty()) {
+            return ranges;
+        }
+        long rangeSize = Math.max(properties.getRangeSize(), 1);
+        long minId = idRange.getMinId();
+        long maxId = idRange.getMaxId();
+        Long nextId = minId;
+        while (nextId != null && nextId <= maxId) {
+            long from = minId + (nextId - minId) / rangeSize * rangeSize;
+            long to = Math.min(from + rangeSize, maxId + 1);
+            ranges.add(new long[]{from, to});
+            nextId = to > maxId ? null : readOnlyTemplate.execute(status -> memberJpaRepository.findMinIdFrom(to));
+        }
+        return ranges;
+    }
+
+    private MemberExportResult.Part exportRange(Path file, long fromId, long toId) throws IOException {
+        int pageSize = Math.max(properties.getPageSize(), 1);
+        long rows = 0;
+        try (MemberCsvGzipWriter writer = new MemberCsvGzipWriter(file, properties.getBufferSize())) {
+            long afterId = fromId - 1;
+            while (true) {
+                long lastId = afterId;
+                List<MemberTeamDto> page = readOnlyTemplate.execute(status ->
+                        memberJpaRepository.findMemberTeamsInIdRange(lastId, toId, pageSize));
+                for (MemberTeamDto row : page) {
+                    writer.write(row);
+                }
+                rows += page.size();
+                if (page.size() < pageSize) {
+                    break;
+                }
+                afterId = page.get(page.size() - 1).getMemberId();
+            }
+        }
+        return new MemberExportResult.Part(file.toString(), fromId, toId, rows);
+    }
+
+    /**
+     * 같은 밀리초에 끝난 이전 실행과 겹치지 않는 실행 디렉터리 이름
+     */
+    private Path newRunDirectory(Path directory) {
+        LocalDateTime now = LocalDateTime.now();
+        Path runDirectory = directory.resolve(RUN_PREFIX + RUN_NAME_FORMAT.format(now));
+        while (Files.exists(runDirectory) || Files.exists(runDirectory.resolveSibling(runDirectory.getFileName() + TEMP_SUFFIX))) {
+            now = now.plusNanos(1_000_000);
+            runDirectory = directory.resolve(RUN_PREFIX + RUN_NAME_FORMAT.format(now));
+        }
+        return runDirectory;
+    }
+
+    /**
+     * 중단된 이전 실행이 남긴 임시 디렉터리 정리 (한 번에 하나만 실행하므로 지금 쓰는 중인 디렉터리는 없다)
+     */
+    private void deleteTempRuns(Path directory) throws IOException {
+        for (Path run : listRuns(directory, true)) {
+            deleteQuietly(run);
+        }
+    }
+
+    /**
+     * 완성된 실행 중 최근 keepRuns개만 남긴다. (이름이 시각 순이므로 이름 순 정렬)
+     */
+    private void deleteOldRuns(Path directory) throws IOException {
+        List<Path> runs = listRuns(directory, false);
+        int keepRuns = Math.max(properties.getKeepRuns(), 1);
+        for (int i = 0; i < runs.size() - keepRuns; i++) {
+            deleteQuietly(runs.get(i));
+        }
+    }
+
+    private List<Path> listRuns(Path directory, boolean temp) throws IOException {
+        try (Stream<Path> entries = Files.list(directory)) {
+            return entries
+                    .filter(Files::isDirectory)
+                    .filter(path -> {
+                        String name = path.getFileName().toString();
+                        return name.startsWith(RUN_PREFIX) && name.endsWith(TEMP_SUFFIX) == temp;
+                    })
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+
+    private void deleteQuietly(Path path) {
+        if (!Files.exists(path)) {
+            return;
+        }
+        try (Stream<Path> entries = Files.walk(path)) {
+            for (Path entry : entries.sorted(Comparator.reverseOrder()).collect(Collectors.toList())) {
+                Files.deleteIfExists(entry);
+            }
+        } catch (IOException e) {
+            log.warn("회원 내보내기 디렉터리 삭제 실패 path = {}", path, e);
+        }
+    }
+
+    private static ThreadFactory exportThreadFactory() {
+        AtomicInteger sequence = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "member-export-" + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,35 @@
+package com.ttasjwi.querydsl.member.service;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * 회원 등록 그룹 커밋 설정 (member.group-commit.*)
+ */
+@Getter @Setter
+@ConfigurationProperties(prefix = "member.group-commit")
+public class MemberGroupCommitProperties {
+
+    /**
+     * 동시에 들어온 등록을 모아서 한 트랜잭션으로 넣을 지 여부. 끄면 요청마다 커밋한다.
+     */
+    private boolean enabled = false;
+
+    /**
+     * 첫 건을 받은 뒤 다른 등록을 기다리는 최대 시간
+     */
+    private Duration maxDelay = Duration.ofMillis(5);
+
+    /**
+     * 한 트랜잭션으로 넣는 최대 건수
+     */
+    private int maxBatchSize = 200;
+
+    /**
+     * 쓰기 스레드로 넘기는 큐 크기. 가득 차면 요청 스레드에서 바로 커밋한다.
+     */
+    private int queueCapacity = 10_000;
+}
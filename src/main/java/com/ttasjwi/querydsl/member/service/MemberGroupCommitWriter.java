@@ -0,0 +1,203 @@
+package com.ttasjwi.querydsl.member.service;
+
+import com.ttasjwi.querydsl.member.dto.MemberCreateRequest;
+import com.ttasjwi.querydsl.member.repository.MemberBatchWriter;
+import com.ttasjwi.querydsl.team.repository.TeamJpaRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 회원 등록 그룹 커밋
+ * 요청마다 커밋하면 등록이 몰릴 때 커밋 비용이 건수만큼 든다.
+ * 켜져 있으면(enabled) 동시에 들어온 등록을 큐로 쓰기 스레드에 넘기고, 쓰기 스레드는 첫 건을 받은 뒤 maxDelay 동안
+ * (최대 maxBatchSize 건) 더 모아서 한 트랜잭션으로 JDBC batch insert 한 뒤, 커밋이 끝나면 각 호출자의 future를 식별자로 완료한다.
+ * 요청마다 최대 maxDelay 만큼 늦어지는 대신 커밋 횟수가 줄어든다.
+ * 묶음 중 한 건 때문에 insert가 실패하면 묶음을 한 건씩 다시 커밋해서 실패한 건만 실패로 완료한다.
+ * 호출 측 트랜잭션과 별개로(REQUIRES_NEW) 커밋된다.
+ */
+@Slf4j
+@Service
+public class MemberGroupCommitWriter {
+
+    private final MemberBatchWriter memberBatchWriter;
+    private final TeamJpaRepository teamJpaRepository;
+    private final MemberCreateRequestValidator validator;
+    private final MemberGroupCommitProperties properties;
+    private final TransactionTemplate transactionTemplate;
+
+    private final DistributionSummary batchSizeSummary;
+    private final Counter directCounter;
+
+    private BlockingQueue<PendingSave> queue;
+    private Thread writer;
+
+    public MemberGroupCommitWriter(MemberBatchWriter memberBatchWriter,
+                                   TeamJpaRepository teamJpaRepository,
+                                   MemberCreateRequestValidator validator,
+                                   MemberGroupCommitProperties properties,
+                                   PlatformTransactionManager transactionManager,
+                                   MeterRegistry meterRegistry) {
+        this.memberBatchWriter = memberBatchWriter;
+        this.teamJpaRepository = teamJpaRepository;
+        this.validator = validator;
+        this.properties = properties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        this.batchSizeSummary = DistributionSummary.builder("member.group.commit.batch.size")
+                .description("그룹 커밋 한 번에 넣은 회원 수")
+                .register(meterRegistry);
+        this.directCounter = Counter.builder("member.group.commit.direct")
+                .description("그룹 커밋을 거치지 않고 요청 스레드에서 바로 커밋한 등록 수")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        queue = new ArrayBlockingQueue<>(Math.max(properties.getQueueCapacity(), 1));
+        writer = new Thread(this::writeLoop, "member-group-commit-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        writer.interrupt();
+        List<PendingSave> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        for (PendingSave pending : remaining) {
+            pending.future.completeExceptionally(new IllegalStateException("회원 등록 쓰기 스레드가 종료되었습니다."));
+        }
+    }
+
+    /**
+     * 회원 등록 - 커밋되면 생성된 식별자로 완료된다.
+     * 꺼져 있거나 큐가 가득 차면 호출한 스레드에서 바로 커밋하고 완료된 future를 반환한다.
+     * 검증에 실패하면 InvalidMemberRequestException(400), 팀이 없으면 TeamNotFoundException(404)으로 실패한다.
+     */
+    public CompletableFuture<Long> save(MemberCreateRequest request) {
+        CompletableFuture<Long> future = new CompletableFuture<>();
+        String error = validator.validate(request);
+        if (error != null) {
+            future.completeExceptionally(new InvalidMemberRequestException(error));
+            return future;
+        }
+
+        PendingSave pending = new PendingSave(request, future);
+        if (!properties.isEnabled() || !queue.offer(pending)) {
+            directCounter.increment();
+            commit(List.of(pending));
+        }
+        return future;
+    }
+
+    private void writeLoop() {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                List<PendingSave> batch = new ArrayList<>();
+                batch.add(queue.take());
+
+                int maxBatchSize = Math.max(properties.getMaxBatchSize(), 1);
+                long deadline = System.nanoTime() + properties.getMaxDelay().toNanos();
+                while (batch.size() < maxBatchSize) {
+                    PendingSave next = queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                commitQuietly(batch);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void commitQuietly(List<PendingSave> batch) {
+        try {
+            commit(batch);
+        } catch (RuntimeException e) {
+            log.error("회원 그룹 커밋 실패", e);
+            for (PendingSave pending : batch) {
+                pending.future.completeExceptionally(e);
+            }
+        }
+    }
+
+    /**
+     * 묶음 하나를 한 트랜잭션으로 넣고, 커밋된 뒤에 future를 완료한다. 없는 팀을 가리키는 건은 넣지 않고 실패로 완료한다.
+     */
+    private void commit(List<PendingSave> batch) {
+        List<PendingSave> unknownTeams = new ArrayList<>();
+        List<PendingSave> inserted = new ArrayList<>();
+        List<Long> ids;
+        try {
+            ids = transactionTemplate.execute(status -> {
+                unknownTeams.clear();
+                inserted.clear();
+                Set<Long> teamIds = new HashSet<>();
+                for (PendingSave pending : batch) {
+                    if (pending.request.getTeamId() != null) {
+                        teamIds.add(pending.request.getTeamId());
+                    }
+                }
+                Set<Long> existingTeamIds = teamIds.isEmpty() ? Set.of() : teamJpaRepository.findExistingIds(teamIds);
+
+                List<MemberCreateRequest> members = new ArrayList<>(batch.size());
+                for (PendingSave pending : batch) {
+                    Long teamId = pending.request.getTeamId();
+                    if (teamId != null && !existingTeamIds.contains(teamId)) {
+                        unknownTeams.add(pending);
+                    } else {
+                        inserted.add(pending);
+                        members.add(pending.request);
+                    }
+                }
+                return memberBatchWriter.insert(members);
+            });
+        } catch (RuntimeException e) {
+            if (batch.size() == 1) {
+                batch.get(0).future.completeExceptionally(e);
+                return;
+            }
+            log.warn("회원 그룹 커밋 실패 - 한 건씩 다시 커밋합니다. size = {}", batch.size(), e);
+            for (PendingSave pending : batch) {
+                commit(List.of(pending));
+            }
+            return;
+        }
+
+        batchSizeSummary.record(inserted.size());
+        for (PendingSave pending : unknownTeams) {
+            pending.future.completeExceptionally(new TeamNotFoundException(pending.request.getTeamId()));
+        }
+        for (int i = 0; i < inserted.size(); i++) {
+            inserted.get(i).future.complete(ids.get(i));
+        }
+    }
+
+    @RequiredArgsConstructor
+    private static class PendingSave {
+
+        private final MemberCreateRequest request;
+        private final CompletableFuture<Long> future;
+    }
+}
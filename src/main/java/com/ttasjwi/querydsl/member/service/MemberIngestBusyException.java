@@ -0,0 +1,16 @@
+package com.ttasjwi.querydsl.member.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * 동시에 실행할 수 있는 대량 등록 수(maxConcurrentIngests)를 넘어 새 등록을 받지 않음
+ */
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class MemberIngestBusyException extends RuntimeException {
+
+    public MemberIngestBusyException(int maxConcurrentIngests) {
+        super("동시에 실행 중인 회원 대량 등록이 너무 많습니다. 잠시 후 다시 시도해주세요. maxConcurrentIngests = "
+                + maxConcurrentIngests);
+    }
+}
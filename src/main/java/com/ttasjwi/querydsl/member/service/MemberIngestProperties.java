@@ -0,0 +1,51 @@
+package com.ttasjwi.querydsl.member.service;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * 회원 대량 등록 설정 (member.ingest.*)
+ */
+@Getter @Setter
+@ConfigurationProperties(prefix = "member.ingest")
+public class MemberIngestProperties {
+
+    /**
+     * 한 트랜잭션으로 넣는 최대 건수
+     */
+    private int batchSize = 1_000;
+
+    /**
+     * 묶음이 batchSize 만큼 차지 않아도 첫 건을 받은 뒤 이 시간이 지나면 커밋한다. (업로드가 느릴 때)
+     */
+    private Duration commitInterval = Duration.ofSeconds(1);
+
+    /**
+     * 읽은 줄을 쓰기 스레드로 넘기는 큐 크기. 가득 차면 요청 본문 읽기를 멈춘다.
+     */
+    private int queueCapacity = 10_000;
+
+    /**
+     * 결과에 담는 거부된 줄 최대 수
+     */
+    private int maxErrors = 100;
+
+    /**
+     * 회원 이름 최대 길이 - 한 건 등록(POST /v1/members)에도 같이 적용된다.
+     */
+    private int maxNameLength = 255;
+
+    /**
+     * 한 줄 최대 길이 (문자 수). 넘는 줄은 나머지를 버리며 읽고 거부한다.
+     */
+    private int maxLineLength = 8 * 1024;
+
+    /**
+     * 동시에 실행할 수 있는 대량 등록 수 (쓰기 스레드 수). 넘으면 503으로 거부한다.
+     * 시작할 때만 읽는다.
+     */
+    private int maxConcurrentIngests = 4;
+}
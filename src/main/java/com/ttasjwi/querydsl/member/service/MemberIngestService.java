@@ -0,0 +1,378 @@
+package com.ttasjwi.querydsl.member.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.ttasjwi.querydsl.member.dto.MemberCreateRequest;
+import com.ttasjwi.querydsl.member.dto.MemberIngestResult;
+import com.ttasjwi.querydsl.member.repository.MemberBatchWriter;
+import com.ttasjwi.querydsl.team.repository.TeamJpaRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PreDestroy;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 회원 대량 등록 (NDJSON)
+ * 요청 본문을 한 줄씩 읽어 검증하고, 통과한 줄은 크기가 정해진 큐로 쓰기 스레드에 넘긴다.
+ * 쓰기 스레드는 batchSize 건이 모이거나 commitInterval이 지나면 한 트랜잭션으로 JDBC batch insert 한다.
+ * 큐가 가득 차면 본문 읽기가 멈추므로 업로드 전체를 메모리에 올리지 않는다. maxLineLength를 넘는 줄은 끝까지 담지 않고 거부한다.
+ * 쓰기 스레드는 maxConcurrentIngests 개로 정해진 공용 풀에서 빌리고, 모두 쓰는 중이면 등록을 거부한다.
+ * 묶음 단위로 커밋하므로 중간에 실패해도 앞서 커밋한 묶음은 남는다.
+ */
+@Slf4j
+@Service
+public class MemberIngestService {
+
+    private static final IngestLine END = new IngestLine(-1, null);
+
+    private final MemberBatchWriter memberBatchWriter;
+    private final TeamJpaRepository teamJpaRepository;
+    private final MemberCreateRequestValidator validator;
+    private final MemberIngestProperties properties;
+    private final ObjectReader requestReader;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService writerExecutor;
+    private final Semaphore writerPermits;
+
+    private final Counter insertedCounter;
+    private final Counter rejectedCounter;
+
+    public MemberIngestService(MemberBatchWriter memberBatchWriter,
+                               TeamJpaRepository teamJpaRepository,
+                               MemberCreateRequestValidator validator,
+                               MemberIngestProperties properties,
+                               ObjectMapper objectMapper,
+                               PlatformTransactionManager transactionManager,
+                               MeterRegistry meterRegistry) {
+        this.memberBatchWriter = memberBatchWriter;
+        this.teamJpaRepository = teamJpaRepository;
+        this.validator = validator;
+        this.properties = properties;
+        this.requestReader = objectMapper.readerFor(MemberCreateRequest.class);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+
+        // 쓰기 스레드 수만큼만 허가를 두어, 빈 스레드가 없으면 요청 스레드가 기다리지 않고 바로 거부한다.
+        int writers = Math.max(properties.getMaxConcurrentIngests(), 1);
+        AtomicInteger sequence = new AtomicInteger();
+        this.writerPermits = new Semaphore(writers);
+        this.writerExecutor = Executors.newFixedThreadPool(writers, runnable -> {
+            Thread thread = new Thread(runnable, "member-ingest-writer-" + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        this.insertedCounter = Counter.builder("member.ingest.inserted")
+                .description("대량 등록으로 넣은 회원 수")
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("member.ingest.rejected")
+                .description("대량 등록에서 거부된 줄 수")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        writerExecutor.shutdownNow();
+    }
+
+    /**
+     * @throws MemberIngestBusyException 쓰기 스레드가 모두 다른 등록에 쓰이고 있을 때
+     */
+    public MemberIngestResult ingest(InputStream in) throws IOException {
+        long start = System.currentTimeMillis();
+        IngestProgress progress = new IngestProgress(properties.getMaxErrors());
+        BlockingQueue<IngestLine> queue = new ArrayBlockingQueue<>(Math.max(properties.getQueueCapacity(), 1));
+
+        if (!writerPermits.tryAcquire()) {
+            throw new MemberIngestBusyException(properties.getMaxConcurrentIngests());
+        }
+        Future<?> writer = null;
+        try {
+            writer = writerExecutor.submit(() -> {
+                write(queue, progress);
+                return null;
+            });
+
+            // 읽기가 실패해도 이미 받은 줄은 쓰기 스레드가 마저 커밋하도록 끝 표시를 넣고 기다린다.
+            Exception readFailure = null;
+            try {
+                read(in, queue, writer, progress);
+            } catch (IOException | RuntimeException e) {
+                readFailure = e;
+            }
+            if (!writer.isDone()) {
+                enqueue(queue, END, writer);
+            }
+            try {
+                writer.get();
+            } catch (ExecutionException e) {
+                if (readFailure == null) {
+                    throw new IllegalStateException("회원 대량 등록 쓰기 실패", e.getCause());
+                }
+                readFailure.addSuppressed(e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("회원 대량 등록 대기 중 인터럽트", e);
+            }
+
+            if (readFailure instanceof IOException) {
+                throw (IOException) readFailure;
+            }
+            if (readFailure != null) {
+                throw (RuntimeException) readFailure;
+            }
+        } finally {
+            // 끝 표시를 넣지 못하고 나온 경우 쓰기 스레드가 큐에서 계속 기다리지 않도록 풀로 돌려보낸다.
+            if (writer != null) {
+                writer.cancel(true);
+            }
+            writerPermits.release();
+        }
+        return progress.result(System.currentTimeMillis() - start);
+    }
+
+    private void read(InputStream in, BlockingQueue<IngestLine> queue, Future<?> writer,
+                      IngestProgress progress) throws IOException {
+        LineReader reader = new LineReader(
+                new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8)), properties.getMaxLineLength());
+        long lineNumber = 0;
+        String line;
+        while ((line = reader.next()) != null) {
+            lineNumber++;
+            if (!reader.tooLong && line.isBlank()) {
+                continue;
+            }
+            progress.lines++;
+
+            if (reader.tooLong) {
+                reject(progress, lineNumber, "줄이 너무 깁니다. 최대 길이 = " + properties.getMaxLineLength());
+                continue;
+            }
+            MemberCreateRequest request;
+            try {
+                request = requestReader.readValue(line);
+            } catch (JsonProcessingException e) {
+                reject(progress, lineNumber, "JSON 형식이 아닙니다. " + e.getOriginalMessage());
+                continue;
+            }
+            String error = validator.validate(request);
+            if (error != null) {
+                reject(progress, lineNumber, error);
+                continue;
+            }
+            enqueue(queue, new IngestLine(lineNumber, request), writer);
+        }
+    }
+
+    /**
+     * 큐에 자리가 날 때까지 기다린다. 그 사이 쓰기 스레드가 끝나면(실패) 더 읽지 않는다.
+     */
+    private void enqueue(BlockingQueue<IngestLine> queue, IngestLine line, Future<?> writer) {
+        try {
+            while (!queue.offer(line, 100, TimeUnit.MILLISECONDS)) {
+                if (writer.isDone()) {
+                    throw new IllegalStateException("회원 대량 등록 쓰기 스레드가 종료되었습니다.");
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("회원 대량 등록 읽기 중 인터럽트", e);
+        }
+    }
+
+    private void write(BlockingQueue<IngestLine> queue, IngestProgress progress) throws InterruptedException {
+        int batchSize = Math.max(properties.getBatchSize(), 1);
+        long commitIntervalNanos = properties.getCommitInterval().toNanos();
+
+        List<IngestLine> batch = new ArrayList<>(batchSize);
+        long deadline = 0;
+        while (true) {
+            IngestLine line = batch.isEmpty()
+                    ? queue.take()
+                    : queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+            if (line == END) {
+                flush(batch, progress);
+                return;
+            }
+            if (line != null) {
+                if (batch.isEmpty()) {
+                    deadline = System.nanoTime() + commitIntervalNanos;
+                }
+                batch.add(line);
+            }
+            if (batch.size() >= batchSize || (!batch.isEmpty() && System.nanoTime() - deadline >= 0)) {
+                flush(batch, progress);
+                batch = new ArrayList<>(batchSize);
+            }
+        }
+    }
+
+    /**
+     * 묶음 하나를 한 트랜잭션으로 넣는다. 없는 팀을 가리키는 줄은 거부하고, DB 오류면 묶음 전체를 거부로 기록한다.
+     */
+    private void flush(List<IngestLine> batch, IngestProgress progress) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        int index = progress.batches.size();
+        long fromLine = batch.get(0).number;
+        long toLine = batch.get(batch.size() - 1).number;
+
+        List<MemberIngestResult.LineError> unknownTeams = new ArrayList<>();
+        int inserted;
+        try {
+            inserted = transactionTemplate.execute(status -> {
+                unknownTeams.clear();
+                Set<Long> teamIds = new HashSet<>();
+                for (IngestLine line : batch) {
+                    if (line.request.getTeamId() != null) {
+                        teamIds.add(line.request.getTeamId());
+                    }
+                }
+                Set<Long> existingTeamIds = teamIds.isEmpty() ? Set.of() : teamJpaRepository.findExistingIds(teamIds);
+
+                List<MemberCreateRequest> members = new ArrayList<>(batch.size());
+                for (IngestLine line : batch) {
+                    Long teamId = line.request.getTeamId();
+                    if (teamId != null && !existingTeamIds.contains(teamId)) {
+                        unknownTeams.add(new MemberIngestResult.LineError(
+                                line.number, "존재하지 않는 팀입니다. teamId = " + teamId));
+                    } else {
+                        members.add(line.request);
+                    }
+                }
+                return memberBatchWriter.insert(members).size();
+            });
+        } catch (RuntimeException e) {
+            log.warn("회원 대량 등록 묶음 실패 - lines {} ~ {}", fromLine, toLine, e);
+            rejectedCounter.increment(batch.size());
+            progress.addBatch(new MemberIngestResult.Batch(index, fromLine, toLine, 0, batch.size(),
+                    System.currentTimeMillis() - start, e.getMessage()));
+            return;
+        }
+
+        for (MemberIngestResult.LineError error : unknownTeams) {
+            reject(progress, error.getLine(), error.getMessage());
+        }
+        insertedCounter.increment(inserted);
+        progress.addBatch(new MemberIngestResult.Batch(index, fromLine, toLine, inserted, unknownTeams.size(),
+                System.currentTimeMillis() - start, null));
+    }
+
+    private void reject(IngestProgress progress, long lineNumber, String message) {
+        rejectedCounter.increment();
+        progress.reject(new MemberIngestResult.LineError(lineNumber, message));
+    }
+
+    /**
+     * 줄 단위 읽기 - maxLength 자를 넘는 줄은 앞부분만 담고 나머지는 버리며 읽는다.
+     * (BufferedReader.readLine은 줄 전체를 메모리에 올린다)
+     */
+    private static class LineReader {
+
+        private final Reader reader;
+        private final int maxLength;
+        private final StringBuilder line = new StringBuilder();
+        private boolean tooLong;
+
+        LineReader(Reader reader, int maxLength) {
+            this.reader = reader;
+            this.maxLength = Math.max(maxLength, 1);
+        }
+
+        /**
+         * 다음 줄(줄 끝 문자 제외), 본문이 끝났으면 null. maxLength를 넘었으면 tooLong이 true이다.
+         */
+        String next() throws IOException {
+            line.setLength(0);
+            tooLong = false;
+            int c = reader.read();
+            if (c == -1) {
+                return null;
+            }
+            while (c != -1 && c != '\n') {
+                if (line.length() < maxLength) {
+                    line.append((char) c);
+                } else if (c != '\r') {
+                    tooLong = true;
+                }
+                c = reader.read();
+            }
+            if (line.length() > 0 && line.charAt(line.length() - 1) == '\r') {
+                line.setLength(line.length() - 1);
+            }
+            return line.toString();
+        }
+    }
+
+    @RequiredArgsConstructor
+    private static class IngestLine {
+
+        private final long number;
+        private final MemberCreateRequest request;
+    }
+
+    /**
+     * 읽기 스레드와 쓰기 스레드가 함께 기록하는 진행 상황 (lines는 읽기 스레드만 쓴다)
+     */
+    private static class IngestProgress {
+
+        private final int maxErrors;
+        private long lines;
+        private long inserted;
+        private long rejected;
+        private final List<MemberIngestResult.Batch> batches = new ArrayList<>();
+        private final List<MemberIngestResult.LineError> errors = new ArrayList<>();
+
+        IngestProgress(int maxErrors) {
+            this.maxErrors = maxErrors;
+        }
+
+        synchronized void reject(MemberIngestResult.LineError error) {
+            rejected++;
+            if (errors.size() < maxErrors) {
+                errors.add(error);
+            }
+        }
+
+        synchronized void addBatch(MemberIngestResult.Batch batch) {
+            inserted += batch.getInserted();
+            if (batch.getError() != null) {
+                rejected += batch.getRejected();
+            }
+            batches.add(batch);
+        }
+
+        synchronized MemberIngestResult result(long elapsedMillis) {
+            errors.sort(Comparator.comparingLong(MemberIngestResult.LineError::getLine));
+            return new MemberIngestResult(lines, inserted, rejected,
+                    new ArrayList<>(batches), new ArrayList<>(errors), elapsedMillis);
+        }
+    }
+}
@@ -0,0 +1,371 @@
+package com.ttasjwi.querydsl.member.service;
+
+import com.ttasjwi.querydsl.common.cache.CacheCodec;
+import com.ttasjwi.querydsl.common.cache.MappedFileStore;
+import com.ttasjwi.querydsl.common.cache.TwoTierCache;
+import com.ttasjwi.querydsl.common.event.AggregateType;
+import com.ttasjwi.querydsl.common.event.ChangeEvent;
+import com.ttasjwi.querydsl.common.event.ChangeEventDispatcher;
+import com.ttasjwi.querydsl.common.event.ChangeEventHandler;
+import com.ttasjwi.querydsl.member.dto.MemberSearchCondition;
+import com.ttasjwi.querydsl.member.dto.MemberSearchResult;
+import com.ttasjwi.querydsl.member.dto.MemberTeamDto;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+
+/**
+ * 회원 조회 결과 캐시 - 검색 결과(정규화된 조건별), 회원별 조회 결과를 각각 TwoTierCache(힙 + 메모리 맵 파일)에 담는다.
+ * 디스크 캐시는 재시작 후에도 남으므로 시작 직후 요청이 한꺼번에 DB로 몰리지 않는다.
+ * 변경 이벤트로 무효화한다.
+ * - 회원 변경 : 그 회원 항목을 지우고, 검색 결과는 모두 지운다. (handle 참고)
+ * - 팀 변경 : 결과에 팀명이 들어 있으므로 모두 지운다.
+ * 이벤트 발행이 커밋보다 늦으므로 그 사이에는 이전 결과를 줄 수 있다.
+ * 조회하는 동안 무효화되었으면 그 조회 결과는 담지 않는다. (조회 전에 읽은 세대 번호와 비교)
+ * 파일은 켜진 상태에서 처음 사용하거나 이벤트를 받을 때 연다.
+ * 반영한 마지막 이벤트 식별자를 파일에 watermark로 남기고, 열 때 발행 완료된 마지막 이벤트 식별자와 다르면
+ * (꺼져 있는 동안 바뀌었거나 DB가 새로 만들어졌으면) 비우고 시작한다.
+ */
+@Slf4j
+@Component
+public class MemberReadCache implements ChangeEventHandler {
+
+    private final MemberSearchProperties properties;
+    private final ChangeEventDispatcher changeEventDispatcher;
+
+    // 아래 상태는 lock으로 보호 - 읽기와 담기는 read lock, 무효화와 열고 닫기는 write lock
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private long generation;
+    private TwoTierCache<MemberSearchResult<MemberTeamDto>> searches;
+    private TwoTierCache<MemberTeamDto> members;
+    private boolean openFailed;
+
+    public MemberReadCache(MemberSearchProperties properties,
+                           ChangeEventDispatcher changeEventDispatcher,
+                           MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.changeEventDispatcher = changeEventDispatcher;
+
+        registerCounter(meterRegistry, "member.read.cache.heap.hits", "힙 캐시에서 찾은 조회 수", TwoTierCache::getHeapHits);
+        registerCounter(meterRegistry, "member.read.cache.disk.hits", "디스크 캐시에서 찾은 조회 수", TwoTierCache::getDiskHits);
+        registerCounter(meterRegistry, "member.read.cache.misses", "캐시에 없어 DB에서 읽은 조회 수", TwoTierCache::getMisses);
+    }
+
+    /**
+     * 조회 전에 읽어 두었다가 put에 넘긴다.
+     */
+    public long generation() {
+        lock.readLock().lock();
+        try {
+            return generation;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public MemberSearchResult<MemberTeamDto> getSearch(MemberSearchCondition normalized) {
+        return get(() -> searches, searchKey(normalized));
+    }
+
+    public void putSearch(MemberSearchCondition normalized, MemberSearchResult<MemberTeamDto> result, long generation) {
+        put(() -> searches, searchKey(normalized), result, generation);
+    }
+
+    public MemberTeamDto getMember(Long memberId) {
+        return get(() -> members, memberId.toString());
+    }
+
+    public void putMember(MemberTeamDto member, long generation) {
+        put(() -> members, member.getMemberId().toString(), member, generation);
+    }
+
+    /**
+     * 이벤트 없이 데이터가 바뀌었을 때(벌크 적재 등) 호출 - 모두 지운다.
+     */
+    public void invalidate() {
+        lock.writeLock().lock();
+        try {
+            generation++;
+            if (searches != null) {
+                searches.clear();
+                members.clear();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 이벤트에는 회원 식별자만 있어 바뀌기 전후의 나이, 팀을 알 수 없으므로, 회원이 하나라도 바뀌면
+     * 그 회원이 새로 들어가거나 빠질 수 있는 검색 결과를 가려내지 못하고 검색 결과를 모두 지운다.
+     * 회원 변경이 잦으면 검색 결과는 거의 캐시에서 답하지 못하고(회원별 조회 결과는 그 회원만 지우므로 남는다),
+     * 그런 환경에서는 검색 결과 캐시의 효과가 작다.
+     */
+    @Override
+    public void handle(List<ChangeEvent> events) {
+        lock.writeLock().lock();
+        try {
+            generation++;
+            // 닫혀 있는 동안 받은 이벤트를 놓치지 않도록 먼저 연다. (열 때 watermark로 이전 파일을 쓸 지 판단)
+            if (searches == null && !openFailed && properties.getReadCache().isEnabled()) {
+                open();
+            }
+            if (searches == null) {
+                return;
+            }
+            boolean teamChanged = false;
+            long lastEventId = searches.getWatermark();
+            List<Long> memberIds = new ArrayList<>();
+            for (ChangeEvent event : events) {
+                lastEventId = Math.max(lastEventId, event.getId());
+                if (event.getAggregateType() == AggregateType.MEMBER) {
+                    memberIds.add(event.getAggregateId());
+                } else if (event.getAggregateType() == AggregateType.TEAM) {
+                    teamChanged = true;
+                }
+            }
+            if (teamChanged) {
+                members.clear();
+            } else {
+                memberIds.forEach(memberId -> members.remove(memberId.toString()));
+            }
+            if (teamChanged || !memberIds.isEmpty()) {
+                searches.clear();
+            }
+            searches.setWatermark(lastEventId);
+            members.setWatermark(lastEventId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 파일을 닫는다. 다음 사용 때 다시 연다.
+     */
+    @PreDestroy
+    public void close() {
+        lock.writeLock().lock();
+        try {
+            closeQuietly(searches);
+            closeQuietly(members);
+            searches = null;
+            members = null;
+            openFailed = false;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 디스크에서 찾으면 힙으로 올리므로, 무효화(write lock)와 겹쳐 지운 값을 다시 올리지 않도록 read lock 안에서 읽는다.
+     */
+    private <V> V get(Supplier<TwoTierCache<V>> cache, String key) {
+        if (!ensureOpen()) {
+            return null;
+        }
+        lock.readLock().lock();
+        try {
+            TwoTierCache<V> opened = cache.get();
+            return opened == null ? null : opened.get(key);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private <V> void put(Supplier<TwoTierCache<V>> cache, String key, V value, long generation) {
+        if (!ensureOpen()) {
+            return;
+        }
+        lock.readLock().lock();
+        try {
+            TwoTierCache<V> opened = cache.get();
+            if (opened != null && this.generation == generation) {
+                opened.put(key, value);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private boolean ensureOpen() {
+        if (!properties.getReadCache().isEnabled()) {
+            return false;
+        }
+        lock.readLock().lock();
+        try {
+            if (searches != null) {
+                return true;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        lock.writeLock().lock();
+        try {
+            if (searches == null && !openFailed) {
+                open();
+            }
+            return searches != null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void open() {
+        MemberSearchProperties.ReadCache readCache = properties.getReadCache();
+        Path directory = Path.of(readCache.getDirectory());
+        int capacity = (int) Math.min(readCache.getDiskCapacity().toBytes(), Integer.MAX_VALUE);
+        TwoTierCache<MemberSearchResult<MemberTeamDto>> openedSearches = null;
+        TwoTierCache<MemberTeamDto> openedMembers = null;
+        try {
+            openedSearches = new TwoTierCache<>(readCache.getHeapEntries(),
+                    new MappedFileStore(directory.resolve("searches.cache"), capacity, readCache.isReuseOnStartup()),
+                    new SearchResultCodec(), readCache.getTtl());
+            openedMembers = new TwoTierCache<>(readCache.getHeapEntries(),
+                    new MappedFileStore(directory.resolve("members.cache"), capacity, readCache.isReuseOnStartup()),
+                    new MemberTeamDtoCodec(), readCache.getTtl());
+
+            long lastDispatchedId = changeEventDispatcher.findLastDispatchedId();
+            if (openedSearches.getWatermark() != lastDispatchedId || openedMembers.getWatermark() != lastDispatchedId) {
+                log.info("회원 조회 캐시 파일이 마지막 변경 이벤트와 맞지 않아 비웁니다. watermark = {}, lastDispatchedId = {}",
+                        openedSearches.getWatermark(), lastDispatchedId);
+                openedSearches.clear();
+                openedMembers.clear();
+                openedSearches.setWatermark(lastDispatchedId);
+                openedMembers.setWatermark(lastDispatchedId);
+            }
+            searches = openedSearches;
+            members = openedMembers;
+            log.info("회원 조회 캐시 열기 - directory = {}, searches = {}, members = {}",
+                    directory.toAbsolutePath(), searches.diskSize(), members.diskSize());
+        } catch (IOException | RuntimeException e) {
+            log.warn("회원 조회 캐시 파일을 열 수 없어 캐시 없이 진행합니다. directory = {}", directory.toAbsolutePath(), e);
+            closeQuietly(openedSearches);
+            closeQuietly(openedMembers);
+            openFailed = true;
+        }
+    }
+
+    private static void closeQuietly(TwoTierCache<?> cache) {
+        if (cache == null) {
+            return;
+        }
+        try {
+            cache.close();
+        } catch (IOException e) {
+            log.warn("회원 조회 캐시 파일 닫기 실패", e);
+        }
+    }
+
+    private void registerCounter(MeterRegistry meterRegistry, String name, String description,
+                                 ToLongFunction<TwoTierCache<?>> count) {
+        FunctionCounter.builder(name, this, cache -> cache.sum(count))
+                .description(description)
+                .register(meterRegistry);
+    }
+
+    private double sum(ToLongFunction<TwoTierCache<?>> count) {
+        lock.readLock().lock();
+        try {
+            return searches == null ? 0 : count.applyAsLong(searches) + count.applyAsLong(members);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 정규화된 조건 필드를 길이와 함께 이어 붙인다. (값에 구분자가 들어 있어도 키가 겹치지 않도록)
+     */
+    private static String searchKey(MemberSearchCondition normalized) {
+        StringBuilder key = new StringBuilder();
+        appendField(key, normalized.getMemberName());
+        appendField(key, normalized.getTeamName());
+        appendField(key, normalized.getAgeGoe());
+        appendField(key, normalized.getAgeLoe());
+        return key.toString();
+    }
+
+    private static void appendField(StringBuilder key, Object value) {
+        if (value == null) {
+            key.append('-');
+        } else {
+            String text = value.toString();
+            key.append(text.length()).append(':').append(text);
+        }
+    }
+
+    private static class MemberTeamDtoCodec implements CacheCodec<MemberTeamDto> {
+
+        @Override
+        public void write(MemberTeamDto value, DataOutput out) throws IOException {
+            out.writeLong(value.getMemberId());
+            writeNullableString(value.getMemberName(), out);
+            out.writeInt(value.getAge());
+            out.writeBoolean(value.getTeamId() != null);
+            if (value.getTeamId() != null) {
+                out.writeLong(value.getTeamId());
+            }
+            writeNullableString(value.getTeamName(), out);
+        }
+
+        @Override
+        public MemberTeamDto read(DataInput in) throws IOException {
+            long memberId = in.readLong();
+            String memberName = readNullableString(in);
+            int age = in.readInt();
+            Long teamId = in.readBoolean() ? in.readLong() : null;
+            String teamName = readNullableString(in);
+            return new MemberTeamDto(memberId, memberName, age, teamId, teamName);
+        }
+
+        private static void writeNullableString(String value, DataOutput out) throws IOException {
+            out.writeBoolean(value != null);
+            if (value != null) {
+                out.writeUTF(value);
+            }
+        }
+
+        private static String readNullableString(DataInput in) throws IOException {
+            return in.readBoolean() ? in.readUTF() : null;
+        }
+    }
+
+    private static class SearchResultCodec implements CacheCodec<MemberSearchResult<MemberTeamDto>> {
+
+        private final MemberTeamDtoCodec rowCodec = new MemberTeamDtoCodec();
+
+        @Override
+        public void write(MemberSearchResult<MemberTeamDto> value, DataOutput out) throws IOException {
+            out.writeBoolean(value.isTruncated());
+            out.writeInt(value.getContent().size());
+            for (MemberTeamDto row : value.getContent()) {
+                rowCodec.write(row, out);
+            }
+        }
+
+        @Override
+        public MemberSearchResult<MemberTeamDto> read(DataInput in) throws IOException {
+            boolean truncated = in.readBoolean();
+            int size = in.readInt();
+            List<MemberTeamDto> content = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                content.add(rowCodec.read(in));
+            }
+            Long nextAfterId = truncated && !content.isEmpty() ? content.get(size - 1).getMemberId() : null;
+            return new MemberSearchResult<>(content, truncated, nextAfterId);
+        }
+    }
+}
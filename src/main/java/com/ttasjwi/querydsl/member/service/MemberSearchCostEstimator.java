@@ -0,0 +1,108 @@
+package com.ttasjwi.querydsl.member.service;
+
+import com.ttasjwi.querydsl.member.dto.MemberSearchCondition;
+import com.ttasjwi.querydsl.member.repository.MemberJpaRepository;
+import com.ttasjwi.querydsl.team.repository.TeamJpaRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * 검색 조건의 예상 결과 건수 계산
+ * 테이블 통계(전체 회원 수, 나이별 회원 수, 서로 다른 회원/팀 이름 수)를 statisticsTtl 동안 보관하고,
+ * 조건별 선택도를 곱해서 예상 건수를 구한다. (조건끼리 독립이라고 가정)
+ * - 나이 범위 : 범위에 속한 나이별 회원 수 합 / 전체 회원 수
+ * - 회원명, 팀명 동등 조건 : 1 / 서로 다른 이름 수
+ */
+@Component
+@RequiredArgsConstructor
+public class MemberSearchCostEstimator {
+
+    private final MemberJpaRepository memberJpaRepository;
+    private final TeamJpaRepository teamJpaRepository;
+    private final MemberSearchProperties properties;
+
+    private volatile TableStatistics statistics;
+
+    /**
+     * 정규화된 검색 조건의 예상 결과 건수
+     */
+    public long estimate(MemberSearchCondition normalized) {
+        TableStatistics current = currentStatistics();
+
+        double rows = normalized.getAgeGoe() == null && normalized.getAgeLoe() == null
+                ? current.totalRows
+                : current.countAgeBetween(normalized.getAgeGoe(), normalized.getAgeLoe());
+
+        if (normalized.getMemberName() != null) {
+            rows /= Math.max(current.distinctMemberNames, 1);
+        }
+        if (normalized.getTeamName() != null) {
+            rows /= Math.max(current.distinctTeamNames, 1);
+        }
+        return (long) Math.ceil(rows);
+    }
+
+    /**
+     * 보관한 통계를 버린다. 다음 예상 때 다시 읽는다. (롤백할 데이터가 섞인 통계를 버릴 때 등)
+     */
+    public void invalidate() {
+        statistics = null;
+    }
+
+    private TableStatistics currentStatistics() {
+        TableStatistics current = statistics;
+        if (current == null || current.isExpired()) {
+            synchronized (this) {
+                current = statistics;
+                if (current == null || current.isExpired()) {
+                    current = loadStatistics();
+                    statistics = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    private TableStatistics loadStatistics() {
+        long expiresAt = System.currentTimeMillis() + properties.getGuardrail().getStatisticsTtl().toMillis();
+        return new TableStatistics(
+                memberJpaRepository.countByAge(),
+                memberJpaRepository.countDistinctNames(),
+                teamJpaRepository.countDistinctNames(),
+                expiresAt);
+    }
+
+    private static class TableStatistics {
+
+        private final Map<Integer, Long> countByAge;
+        private final long totalRows;
+        private final long distinctMemberNames;
+        private final long distinctTeamNames;
+        private final long expiresAt;
+
+        TableStatistics(Map<Integer, Long> countByAge, long distinctMemberNames, long distinctTeamNames, long expiresAt) {
+            this.countByAge = countByAge;
+            this.totalRows = countByAge.values().stream().mapToLong(Long::longValue).sum();
+            this.distinctMemberNames = distinctMemberNames;
+            this.distinctTeamNames = distinctTeamNames;
+            this.expiresAt = expiresAt;
+        }
+
+        long countAgeBetween(Integer ageGoe, Integer ageLoe) {
+            long count = 0;
+            for (Map.Entry<Integer, Long> entry : countByAge.entrySet()) {
+                int age = entry.getKey();
+                if ((ageGoe == null || age >= ageGoe) && (ageLoe == null || age <= ageLoe)) {
+                    count += entry.getValue();
+                }
+            }
+            return count;
+        }
+
+        boolean isExpired() {
+            return System.currentTimeMillis() >= expiresAt;
+        }
+    }
+}
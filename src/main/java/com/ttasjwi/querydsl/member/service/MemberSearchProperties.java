@@ -0,0 +1,184 @@
+package com.ttasjwi.querydsl.member.service;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * 회원 검색 설정 (member.search.*)
+ */
+@Getter @Setter
+@ConfigurationProperties(prefix = "member.search")
+public class MemberSearchProperties {
+
+    private final Coalescing coalescing = new Coalescing();
+    private final Guardrail guardrail = new Guardrail();
+    private final CountCache countCache = new CountCache();
+    private final Stream stream = new Stream();
+    private final BitmapIndex bitmapIndex = new BitmapIndex();
+    private final WarmUp warmUp = new WarmUp();
+    private final ReadCache readCache = new ReadCache();
+
+    @Getter @Setter
+    public static class Coalescing {
+
+        /**
+         * 같은 조건의 검색을 하나의 DB 조회로 합칠 지 여부
+         */
+        private boolean enabled = true;
+
+        /**
+         * 먼저 실행 중인 검색 결과를 기다리는 최대 시간. 초과하면 직접 조회한다.
+         */
+        private Duration maxWait = Duration.ofSeconds(3);
+    }
+
+    @Getter @Setter
+    public static class Guardrail {
+
+        private boolean enabled = true;
+
+        /**
+         * 검색 쿼리 타임아웃
+         */
+        private Duration queryTimeout = Duration.ofSeconds(3);
+
+        /**
+         * 한 번에 반환하는 최대 건수. 넘으면 잘라서 반환하고 truncated로 표시한다.
+         */
+        private int maxRows = 1_000;
+
+        /**
+         * 예상 결과 건수가 이 값을 넘는 조건은 선택도가 낮은 조건으로 본다.
+         */
+        private long maxEstimatedRows = 10_000;
+
+        /**
+         * 선택도가 낮은 조건 처리 방식
+         */
+        private UnselectiveAction unselectiveAction = UnselectiveAction.PAGINATE;
+
+        /**
+         * PAGINATE 일 때 강제로 적용하는 페이지 크기 (다음 페이지는 nextAfterId로 이어서 조회)
+         */
+        private int forcedPageSize = 100;
+
+        /**
+         * 예상 건수 계산에 쓰는 테이블 통계 갱신 주기
+         */
+        private Duration statisticsTtl = Duration.ofMinutes(1);
+    }
+
+    @Getter @Setter
+    public static class CountCache {
+
+        /**
+         * 검색 결과 수를 메모리 집계로 계산할 지 여부. 끄면 매번 DB에서 센다.
+         */
+        private boolean enabled = true;
+
+        /**
+         * 회원명 조건이 있는 검색의 DB 집계 결과 보관 시간
+         */
+        private Duration nameCountTtl = Duration.ofSeconds(30);
+
+        /**
+         * 보관하는 회원명 조건 집계 결과 최대 수. 넘으면 가장 오래 쓰지 않은 것부터 뺀다.
+         */
+        private int maxNameCounts = 10_000;
+
+        /**
+         * 변경 이벤트를 받은 뒤 (팀, 나이)별 집계를 다시 읽는 최소 간격 (group by 전체 집계 비용을 이 간격으로 묶는다)
+         */
+        private Duration refreshInterval = Duration.ofSeconds(5);
+    }
+
+    @Getter @Setter
+    public static class Stream {
+
+        /**
+         * 스트리밍 검색에서 한 번에 조회하는 건수
+         */
+        private int pageSize = 500;
+    }
+
+    @Getter @Setter
+    public static class BitmapIndex {
+
+        /**
+         * 회원명 조건이 없는 검색 대상을 나이, 팀 비트맵 인덱스로 고를 지 여부. 끄면 DB에서 조건을 거른다.
+         * 인덱스는 변경 이벤트 발행 뒤에 반영되므로, 그 사이 새로 조건에 맞게 된 회원은 결과에서 빠진다. (기본 꺼짐)
+         */
+        private boolean enabled = false;
+    }
+
+    @Getter @Setter
+    public static class WarmUp {
+
+        /**
+         * 시작할 때(readiness 전) 검색 조건 형태, 조회 경로를 미리 실행할 지 여부
+         */
+        private boolean enabled = true;
+
+        /**
+         * 조건 형태마다 반복 실행 횟수
+         */
+        private int iterations = 10;
+
+        /**
+         * 최대 실행 시간. 넘으면 남은 반복을 건너뛴다.
+         */
+        private Duration maxDuration = Duration.ofSeconds(30);
+    }
+
+    @Getter @Setter
+    public static class ReadCache {
+
+        /**
+         * 검색 결과, 회원별 조회 결과를 힙 + 디스크 2단 캐시에 담을 지 여부. 디스크에 파일을 쓰므로 기본은 끔
+         */
+        private boolean enabled = false;
+
+        /**
+         * 디스크 캐시 파일 디렉토리
+         */
+        private String directory = "cache/members";
+
+        /**
+         * 캐시마다 힙에 두는 최대 항목 수. 넘으면 오래 사용하지 않은 항목부터 디스크에만 남긴다.
+         */
+        private int heapEntries = 1_000;
+
+        /**
+         * 캐시마다 디스크 파일 크기 (최대 2GB)
+         */
+        private DataSize diskCapacity = DataSize.ofMegabytes(64);
+
+        /**
+         * 항목 보관 시간
+         */
+        private Duration ttl = Duration.ofMinutes(10);
+
+        /**
+         * 시작할 때 이전 실행의 디스크 캐시를 다시 쓸 지 여부. 끄면 비우고 시작한다.
+         * 켜 두어도 파일에 남긴 마지막 변경 이벤트 식별자가 발행 완료된 마지막 이벤트와 다르면 비운다.
+         */
+        private boolean reuseOnStartup = true;
+    }
+
+    public enum UnselectiveAction {
+
+        /**
+         * 요청 거부
+         */
+        REJECT,
+
+        /**
+         * forcedPageSize 만큼씩 나눠서 반환 - 잘린 결과에 다음 페이지 위치(nextAfterId)를 준다.
+         */
+        PAGINATE
+    }
+}
@@ -0,0 +1,346 @@
+package com.ttasjwi.querydsl.member.service;
+
+import com.ttasjwi.querydsl.common.collection.IdBitmap;
+import com.ttasjwi.querydsl.common.concurrent.SingleFlight;
+import com.ttasjwi.querydsl.common.query.InClauseChunks;
+import com.ttasjwi.querydsl.member.dto.MemberField;
+import com.ttasjwi.querydsl.member.dto.MemberSearchCondition;
+import com.ttasjwi.querydsl.member.dto.MemberSearchResult;
+import com.ttasjwi.querydsl.member.dto.MemberTeamDto;
+import com.ttasjwi.querydsl.member.repository.MemberJpaRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Value;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * 회원 검색
+ * 동시에 들어온 같은 조건(정규화 기준)의 검색은 하나의 DB 조회로 합쳐서 결과를 공유한다.
+ * 가드레일 : 예상 결과 건수가 너무 많은 조건은 거부하거나 forcedPageSize 건씩 나눠 주고,
+ * 모든 검색에 최대 건수와 쿼리 타임아웃을 적용한다.
+ * 결과가 잘리면 마지막 회원 식별자(nextAfterId)를 함께 반환하고, 다음 요청은 afterId로 이어서 조회한다. (식별자 순 keyset)
+ * 비트맵 인덱스를 켜면 회원명 조건이 없는 검색은 인덱스로 대상 회원 식별자를 고르고 그 식별자만 DB에서 조건을 다시 적용해 읽는다.
+ * (가드레일도 예상 건수 대신 고른 식별자 수를 쓴다. 발행 전 변경은 빠질 수 있으므로 MemberBitmapIndex 참고)
+ * 읽기 캐시가 켜져 있으면 검색 결과, 회원별 조회 결과를 MemberReadCache에서 먼저 찾는다.
+ */
+@Service
+public class MemberSearchService {
+
+    private final MemberJpaRepository memberJpaRepository;
+    private final MemberSearchCostEstimator costEstimator;
+    private final MemberCountCache memberCountCache;
+    private final MemberBitmapIndex bitmapIndex;
+    private final MemberReadCache readCache;
+    private final MemberSearchProperties properties;
+    private final SingleFlight<SearchKey, List<MemberTeamDto>> searchFlight = new SingleFlight<>();
+
+    private Counter rejectedCounter;
+    private Counter forcedPaginationCounter;
+    private Counter truncatedCounter;
+    private Counter timeoutCounter;
+    private DistributionSummary estimatedRowsSummary;
+
+    public MemberSearchService(MemberJpaRepository memberJpaRepository,
+                               MemberSearchCostEstimator costEstimator,
+                               MemberCountCache memberCountCache,
+                               MemberBitmapIndex bitmapIndex,
+                               MemberReadCache readCache,
+                               MemberSearchProperties properties,
+                               MeterRegistry meterRegistry) {
+        this.memberJpaRepository = memberJpaRepository;
+        this.costEstimator = costEstimator;
+        this.memberCountCache = memberCountCache;
+        this.bitmapIndex = bitmapIndex;
+        this.readCache = readCache;
+        this.properties = properties;
+        registerMetrics(meterRegistry);
+    }
+
+    public MemberSearchResult<MemberTeamDto> search(MemberSearchCondition condition) {
+        return search(condition, null);
+    }
+
+    /**
+     * afterId 보다 큰 회원부터 이어서 검색 (afterId가 null이면 처음부터) - 읽기 캐시는 첫 페이지만 쓴다.
+     */
+    public MemberSearchResult<MemberTeamDto> search(MemberSearchCondition condition, Long afterId) {
+        return search(condition, afterId, true);
+    }
+
+    /**
+     * useCache가 false면 읽기 캐시를 보지도 채우지도 않고, 같은 조건의 다른 요청과 결과를 공유하지도 않는다.
+     * (롤백할 데이터로 조회 경로를 미리 실행하는 워밍업용)
+     */
+    MemberSearchResult<MemberTeamDto> search(MemberSearchCondition condition, Long afterId, boolean useCache) {
+        MemberSearchCondition normalized = condition.normalize();
+        if (!useCache) {
+            return searchUncached(normalized, afterId, false);
+        }
+        if (afterId != null) {
+            return searchUncached(normalized, afterId, true);
+        }
+        long generation = readCache.generation();
+        MemberSearchResult<MemberTeamDto> cached = readCache.getSearch(normalized);
+        if (cached != null) {
+            return cached;
+        }
+
+        MemberSearchResult<MemberTeamDto> result = searchUncached(normalized, null, true);
+        readCache.putSearch(normalized, result, generation);
+        return result;
+    }
+
+    /**
+     * 회원 한 명 조회
+     */
+    public Optional<MemberTeamDto> findMember(Long memberId) {
+        return findMember(memberId, true);
+    }
+
+    Optional<MemberTeamDto> findMember(Long memberId, boolean useCache) {
+        long generation = readCache.generation();
+        MemberTeamDto cached = useCache ? readCache.getMember(memberId) : null;
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+
+        List<MemberTeamDto> rows = memberJpaRepository.searchByIds(new MemberSearchCondition(), List.of(memberId), null);
+        if (rows.isEmpty()) {
+            return Optional.empty();
+        }
+        if (useCache) {
+            readCache.putMember(rows.get(0), generation);
+        }
+        return Optional.of(rows.get(0));
+    }
+
+    private MemberSearchResult<MemberTeamDto> searchUncached(MemberSearchCondition normalized, Long afterId,
+                                                             boolean coalesce) {
+        IdBitmap matched = bitmapIndex.match(normalized);
+        if (matched != null) {
+            return searchByIndex(normalized, matched, afterId);
+        }
+
+        MemberSearchProperties.Guardrail guardrail = properties.getGuardrail();
+        if (!guardrail.isEnabled()) {
+            return MemberSearchResult.complete(fetch(normalized, afterId, null, null, coalesce));
+        }
+
+        int maxRows = resolveMaxRows(normalized, guardrail);
+        return limitRows(() -> fetch(normalized, afterId, maxRows + 1L, guardrail.getQueryTimeout(), coalesce),
+                maxRows, MemberTeamDto::getMemberId);
+    }
+
+    /**
+     * 인덱스로 고른 식별자 중 앞에서부터 maxRows + 1 건을 읽는다. 식별자 조회는 가벼우므로 결과를 공유하지 않는다.
+     */
+    private MemberSearchResult<MemberTeamDto> searchByIndex(MemberSearchCondition normalized, IdBitmap matched,
+                                                            Long afterId) {
+        MemberSearchProperties.Guardrail guardrail = properties.getGuardrail();
+        if (!guardrail.isEnabled()) {
+            return MemberSearchResult.complete(fetchByIndex(normalized, matched, afterId, Long.MAX_VALUE, null));
+        }
+
+        int maxRows = resolveMaxRows(matched.cardinality(), guardrail);
+        return limitRows(() -> fetchByIndex(normalized, matched, afterId, maxRows + 1L, guardrail.getQueryTimeout()),
+                maxRows, MemberTeamDto::getMemberId);
+    }
+
+    /**
+     * 인덱스로 고른 식별자를 앞에서부터 IN 절 청크 크기씩 꺼내 DB에서 조건을 다시 적용해 읽는다.
+     * 이벤트 발행 전에 조건에서 벗어난 회원이 걸러져도 limit 건을 채우거나 식별자가 떨어질 때까지 이어서 읽으므로,
+     * 잘린 결과인지는 걸러진 뒤의 건수로 판단한다. 식별자는 한 번에 청크 크기만큼만 꺼낸다.
+     */
+    private List<MemberTeamDto> fetchByIndex(MemberSearchCondition normalized, IdBitmap matched, Long afterId,
+                                             long limit, Duration queryTimeout) {
+        List<MemberTeamDto> rows = new ArrayList<>();
+        long lastId = afterId == null ? -1 : afterId;
+        while (rows.size() < limit) {
+            int chunkSize = (int) Math.min(limit - rows.size(), InClauseChunks.DEFAULT_MAX_CHUNK_SIZE);
+            long[] ids = matched.toArray(lastId, chunkSize);
+            if (ids.length == 0) {
+                break;
+            }
+            rows.addAll(memberJpaRepository.searchByIds(
+                    normalized, Arrays.stream(ids).boxed().collect(Collectors.toList()), queryTimeout));
+            if (ids.length < chunkSize) {
+                break;
+            }
+            lastId = ids[ids.length - 1];
+        }
+        return rows;
+    }
+
+    /**
+     * 필요한 필드만 조회하는 검색 - 가드레일은 search와 같게 적용하고, 조회 결과 공유(single-flight)는 하지 않는다.
+     */
+    public MemberSearchResult<Map<String, Object>> searchFields(MemberSearchCondition condition, Set<MemberField> fields) {
+        return searchFields(condition, fields, null);
+    }
+
+    /**
+     * afterId 보다 큰 회원부터 이어서 조회하는 필드 선택 검색
+     * 다음 afterId를 알아야 하므로 회원 식별자는 항상 조회하고, 요청하지 않았으면 응답에서 뺀다.
+     */
+    public MemberSearchResult<Map<String, Object>> searchFields(MemberSearchCondition condition, Set<MemberField> fields,
+                                                                Long afterId) {
+        MemberSearchCondition normalized = condition.normalize();
+        MemberSearchProperties.Guardrail guardrail = properties.getGuardrail();
+        if (!guardrail.isEnabled()) {
+            return MemberSearchResult.complete(memberJpaRepository.searchFields(normalized, fields, afterId, null, null));
+        }
+
+        boolean memberIdRequested = fields.isEmpty() || fields.contains(MemberField.MEMBER_ID);
+        Set<MemberField> queryFields = fields;
+        if (!memberIdRequested) {
+            queryFields = EnumSet.copyOf(fields);
+            queryFields.add(MemberField.MEMBER_ID);
+        }
+        Set<MemberField> selectedFields = queryFields;
+
+        int maxRows = resolveMaxRows(normalized, guardrail);
+        MemberSearchResult<Map<String, Object>> result = limitRows(() -> memberJpaRepository.searchFields(
+                        normalized, selectedFields, afterId, maxRows + 1L, guardrail.getQueryTimeout()),
+                maxRows, row -> (Long) row.get(MemberField.MEMBER_ID.getFieldName()));
+        if (!memberIdRequested) {
+            result.getContent().forEach(row -> row.remove(MemberField.MEMBER_ID.getFieldName()));
+        }
+        return result;
+    }
+
+    /**
+     * 페이징 검색 - 전체 건수는 MemberCountCache에서 구하고, 마지막 페이지처럼 전체 건수를 알 수 있으면 세지 않는다.
+     */
+    public Page<MemberTeamDto> searchPage(MemberSearchCondition condition, Pageable pageable) {
+        return searchPage(condition, pageable, true);
+    }
+
+    /**
+     * useCache가 false면 전체 건수를 MemberCountCache 대신 DB에서 바로 센다. (워밍업용)
+     */
+    Page<MemberTeamDto> searchPage(MemberSearchCondition condition, Pageable pageable, boolean useCache) {
+        MemberSearchCondition normalized = condition.normalize();
+        List<MemberTeamDto> content = memberJpaRepository.searchPage(normalized, pageable);
+        return PageableExecutionUtils.getPage(content, pageable, () -> useCache
+                ? memberCountCache.count(normalized)
+                : memberJpaRepository.countBySearch(normalized));
+    }
+
+    /**
+     * 최대 건수 - 예상 결과 건수가 너무 많으면 거부하거나(REJECT) forcedPageSize로 줄인다.(PAGINATE)
+     * PAGINATE는 잘린 결과에 nextAfterId를 주므로 클라이언트가 다음 페이지를 이어서 받을 수 있다.
+     */
+    private int resolveMaxRows(MemberSearchCondition normalized, MemberSearchProperties.Guardrail guardrail) {
+        if (normalized.isUnsatisfiable()) {
+            return guardrail.getMaxRows();
+        }
+        return resolveMaxRows(costEstimator.estimate(normalized), guardrail);
+    }
+
+    private int resolveMaxRows(long estimatedRows, MemberSearchProperties.Guardrail guardrail) {
+        int maxRows = guardrail.getMaxRows();
+        estimatedRowsSummary.record(estimatedRows);
+        if (estimatedRows > guardrail.getMaxEstimatedRows()) {
+            if (guardrail.getUnselectiveAction() == MemberSearchProperties.UnselectiveAction.REJECT) {
+                rejectedCounter.increment();
+                throw new UnselectiveSearchException(estimatedRows, guardrail.getMaxEstimatedRows());
+            }
+            forcedPaginationCounter.increment();
+            maxRows = Math.min(maxRows, guardrail.getForcedPageSize());
+        }
+        return maxRows;
+    }
+
+    /**
+     * maxRows + 1 건을 조회한 결과로 잘린 결과인지 판단하고, 잘렸으면 마지막 행의 회원 식별자를 다음 afterId로 준다.
+     */
+    private <T> MemberSearchResult<T> limitRows(Supplier<List<T>> query, int maxRows, Function<T, Long> memberId) {
+        List<T> rows;
+        try {
+            rows = query.get();
+        } catch (QueryTimeoutException e) {
+            timeoutCounter.increment();
+            throw e;
+        }
+
+        if (rows.size() > maxRows) {
+            truncatedCounter.increment();
+            List<T> content = rows.subList(0, maxRows);
+            Long nextAfterId = maxRows == 0 ? null : memberId.apply(content.get(maxRows - 1));
+            return new MemberSearchResult<>(content, true, nextAfterId);
+        }
+        return MemberSearchResult.complete(rows);
+    }
+
+    private List<MemberTeamDto> fetch(MemberSearchCondition normalized, Long afterId, Long limit, Duration queryTimeout,
+                                      boolean coalesce) {
+        MemberSearchProperties.Coalescing coalescing = properties.getCoalescing();
+        if (!coalesce || !coalescing.isEnabled()) {
+            return memberJpaRepository.search(normalized, afterId, limit, queryTimeout);
+        }
+        return searchFlight.execute(new SearchKey(normalized, afterId, limit),
+                () -> Collections.unmodifiableList(memberJpaRepository.search(normalized, afterId, limit, queryTimeout)),
+                coalescing.getMaxWait());
+    }
+
+    private void registerMetrics(MeterRegistry meterRegistry) {
+        FunctionCounter.builder("member.search.coalescing.requests", searchFlight, SingleFlight::getRequests)
+                .description("single-flight를 거친 검색 요청 수")
+                .register(meterRegistry);
+        FunctionCounter.builder("member.search.coalescing.executions", searchFlight, SingleFlight::getExecutions)
+                .description("실제 DB 검색 실행 수")
+                .register(meterRegistry);
+        FunctionCounter.builder("member.search.coalescing.wait.timeouts", searchFlight, SingleFlight::getWaitTimeouts)
+                .description("대기 시간 초과로 직접 검색한 수")
+                .register(meterRegistry);
+        Gauge.builder("member.search.coalescing.ratio", searchFlight, SingleFlight::getCoalescingRatio)
+                .description("다른 요청의 검색 결과를 공유받은 비율")
+                .register(meterRegistry);
+
+        rejectedCounter = Counter.builder("member.search.guardrail.rejected")
+                .description("선택도가 낮아 거부한 검색 수")
+                .register(meterRegistry);
+        forcedPaginationCounter = Counter.builder("member.search.guardrail.forced.pagination")
+                .description("선택도가 낮아 강제로 건수를 제한한 검색 수")
+                .register(meterRegistry);
+        truncatedCounter = Counter.builder("member.search.guardrail.truncated")
+                .description("최대 건수를 넘어 결과를 자른 검색 수")
+                .register(meterRegistry);
+        timeoutCounter = Counter.builder("member.search.guardrail.timeouts")
+                .description("쿼리 타임아웃으로 실패한 검색 수")
+                .register(meterRegistry);
+        estimatedRowsSummary = DistributionSummary.builder("member.search.guardrail.estimated.rows")
+                .description("검색 조건별 예상 결과 건수")
+                .register(meterRegistry);
+    }
+
+    /**
+     * single-flight 키 : 같은 조건이라도 시작 위치나 조회 건수 제한이 다르면 결과를 공유하지 않는다.
+     */
+    @Value
+    private static class SearchKey {
+        MemberSearchCondition condition;
+        Long afterId;
+        Long limit;
+    }
+}
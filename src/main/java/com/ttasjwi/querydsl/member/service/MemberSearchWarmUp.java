@@ -0,0 +1,164 @@
+package com.ttasjwi.querydsl.member.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ttasjwi.querydsl.member.domain.Member;
+import com.ttasjwi.querydsl.member.dto.MemberField;
+import com.ttasjwi.querydsl.member.dto.MemberSearchCondition;
+import com.ttasjwi.querydsl.member.repository.MemberJpaRepository;
+import com.ttasjwi.querydsl.team.domain.Team;
+import com.ttasjwi.querydsl.team.repository.TeamJpaRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 회원 검색 워밍업
+ * 배포 직후 첫 요청들은 Hibernate 쿼리 계획 캐시, Q 타입 클래스 초기화, Jackson 직렬화기, JIT가 비어 있어 느리다.
+ * ApplicationRunner는 readiness(ACCEPTING_TRAFFIC) 전에 실행되므로, 그 사이 검색 조건 형태(회원명, 팀명, 나이 범위 유무 16가지)마다
+ * 요청과 같은 MemberSearchService 경로(search, 이어서 search, searchFields, searchPage, findMember)와 응답 직렬화를 미리 실행한다.
+ * 조회 결과가 있도록 워밍업용 팀, 회원을 넣고 조회하는데, 매 반복을 롤백 전용 트랜잭션으로 실행하므로 남지 않는다.
+ * 롤백할 데이터가 캐시에 남지 않도록 읽기 캐시, 회원 수 캐시, single-flight는 거치지 않고, 끝나면 예상 건수 통계를 버린다.
+ */
+@Slf4j
+@Component
+public class MemberSearchWarmUp implements ApplicationRunner {
+
+    private static final String WARM_UP_NAME = "warm-up";
+
+    private static final List<Set<MemberField>> FIELD_SETS = List.of(
+            EnumSet.allOf(MemberField.class),
+            EnumSet.of(MemberField.MEMBER_ID, MemberField.MEMBER_NAME, MemberField.AGE));
+
+    private final MemberSearchService memberSearchService;
+    private final MemberSearchCostEstimator costEstimator;
+    private final MemberJpaRepository memberJpaRepository;
+    private final TeamJpaRepository teamJpaRepository;
+    private final MemberSearchProperties properties;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final Timer warmUpTimer;
+
+    public MemberSearchWarmUp(MemberSearchService memberSearchService,
+                              MemberSearchCostEstimator costEstimator,
+                              MemberJpaRepository memberJpaRepository,
+                              TeamJpaRepository teamJpaRepository,
+                              MemberSearchProperties properties,
+                              ObjectMapper objectMapper,
+                              PlatformTransactionManager transactionManager,
+                              MeterRegistry meterRegistry) {
+        this.memberSearchService = memberSearchService;
+        this.costEstimator = costEstimator;
+        this.memberJpaRepository = memberJpaRepository;
+        this.teamJpaRepository = teamJpaRepository;
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+
+        this.warmUpTimer = Timer.builder("member.search.warmup")
+                .description("시작할 때 회원 검색 워밍업에 걸린 시간")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (properties.getWarmUp().isEnabled()) {
+            warmUp();
+        }
+    }
+
+    /**
+     * 워밍업 실행 - 호출한 조회 수를 반환한다. 실패해도 시작을 막지 않는다.
+     */
+    public int warmUp() {
+        MemberSearchProperties.WarmUp warmUp = properties.getWarmUp();
+        List<MemberSearchCondition> shapes = conditionShapes();
+        long start = System.nanoTime();
+        long deadline = start + warmUp.getMaxDuration().toNanos();
+
+        int calls = 0;
+        int iterations = 0;
+        try {
+            while (iterations < warmUp.getIterations() && System.nanoTime() - deadline < 0) {
+                calls += transactionTemplate.execute(status -> {
+                    status.setRollbackOnly();
+                    return runShapes(shapes);
+                });
+                iterations++;
+            }
+        } catch (RuntimeException e) {
+            log.warn("회원 검색 워밍업 실패 - 워밍업 없이 계속 진행합니다.", e);
+        } finally {
+            // 워밍업 트랜잭션 안에서 읽은 통계에는 롤백된 워밍업 회원이 들어 있다.
+            costEstimator.invalidate();
+        }
+
+        long elapsed = System.nanoTime() - start;
+        warmUpTimer.record(Duration.ofNanos(elapsed));
+        log.info("회원 검색 워밍업 완료 - shapes = {}, iterations = {}, calls = {} ({}ms)",
+                shapes.size(), iterations, calls, Duration.ofNanos(elapsed).toMillis());
+        return calls;
+    }
+
+    private int runShapes(List<MemberSearchCondition> shapes) {
+        Team team = new Team(WARM_UP_NAME);
+        teamJpaRepository.save(team);
+        Member member = new Member(WARM_UP_NAME, 20, team);
+        memberJpaRepository.save(member);
+
+        int calls = 0;
+        for (MemberSearchCondition condition : shapes) {
+            try {
+                serialize(memberSearchService.search(condition, null, false));
+                serialize(memberSearchService.search(condition, 0L, false));
+                serialize(memberSearchService.searchPage(condition, PageRequest.of(0, 1), false));
+                for (Set<MemberField> fields : FIELD_SETS) {
+                    serialize(memberSearchService.searchFields(condition, fields));
+                }
+            } catch (UnselectiveSearchException e) {
+                // 가드레일이 거부하는 형태도 예상 건수 계산까지는 실행된 것이다.
+                log.debug("워밍업 검색 거부 - condition = {}", condition);
+            }
+            calls += 3 + FIELD_SETS.size();
+        }
+
+        serialize(memberSearchService.findMember(member.getId(), false).orElse(null));
+        return calls + 1;
+    }
+
+    private void serialize(Object value) {
+        try {
+            objectMapper.writeValueAsBytes(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("워밍업 응답 직렬화 실패", e);
+        }
+    }
+
+    /**
+     * 회원명, 팀명, 나이 하한, 나이 상한 조건 유무의 모든 조합 - 워밍업 데이터와 맞는 값으로 채운다.
+     */
+    private static List<MemberSearchCondition> conditionShapes() {
+        List<MemberSearchCondition> shapes = new ArrayList<>();
+        for (int mask = 0; mask < 16; mask++) {
+            MemberSearchCondition condition = new MemberSearchCondition();
+            condition.setMemberName((mask & 1) != 0 ? WARM_UP_NAME : null);
+            condition.setTeamName((mask & 2) != 0 ? WARM_UP_NAME : null);
+            condition.setAgeGoe((mask & 4) != 0 ? 10 : null);
+            condition.setAgeLoe((mask & 8) != 0 ? 30 : null);
+            shapes.add(condition);
+        }
+        return shapes;
+    }
+}
@@ -0,0 +1,90 @@
+package com.ttasjwi.querydsl.member.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ttasjwi.querydsl.member.dto.MemberSearchCondition;
+import com.ttasjwi.querydsl.member.dto.MemberTeamDto;
+import com.ttasjwi.querydsl.member.repository.MemberJpaRepository;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManagerFactory;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * 회원 검색 결과 스트리밍 (NDJSON, 한 줄에 회원 하나)
+ * 식별자 기준으로 pageSize 건씩 이어서 조회하고, 페이지마다 짧은 읽기 전용 트랜잭션을 쓴다.
+ * 커넥션은 페이지를 조회하는 동안만 쓰고, 느린 클라이언트에게 쓰는 동안에는 반납해 둔다.
+ * 클라이언트가 느리면 응답 쓰기가 막혀서 다음 페이지 조회도 늦어지므로, 메모리에는 한 페이지만 올라온다.
+ */
+@Service
+public class MemberStreamService {
+
+    private static final byte[] NEW_LINE = {'\n'};
+
+    private final MemberJpaRepository memberJpaRepository;
+    private final MemberSearchProperties properties;
+    private final ObjectMapper objectMapper;
+    private final EntityManagerFactory entityManagerFactory;
+    private final TransactionTemplate readOnlyTemplate;
+
+    public MemberStreamService(MemberJpaRepository memberJpaRepository,
+                               MemberSearchProperties properties,
+                               ObjectMapper objectMapper,
+                               EntityManagerFactory entityManagerFactory,
+                               PlatformTransactionManager transactionManager) {
+        this.memberJpaRepository = memberJpaRepository;
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        this.entityManagerFactory = entityManagerFactory;
+        this.readOnlyTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTemplate.setReadOnly(true);
+    }
+
+    /**
+     * 검색 결과를 out에 쓰고 쓴 건수를 돌려준다.
+     */
+    public long stream(MemberSearchCondition condition, OutputStream out) throws IOException {
+        MemberSearchCondition normalized = condition.normalize();
+        int pageSize = Math.max(properties.getStream().getPageSize(), 1);
+
+        long rows = 0;
+        long afterId = 0;
+        while (true) {
+            long lastId = afterId;
+            List<MemberTeamDto> page = withoutRequestEntityManager(() -> readOnlyTemplate.execute(status ->
+                    memberJpaRepository.searchAfter(normalized, lastId, pageSize)));
+            for (MemberTeamDto row : page) {
+                out.write(objectMapper.writeValueAsBytes(row));
+                out.write(NEW_LINE);
+            }
+            out.flush();
+            rows += page.size();
+            if (page.size() < pageSize) {
+                return rows;
+            }
+            afterId = page.get(page.size() - 1).getMemberId();
+        }
+    }
+
+    /**
+     * open-in-view 로 요청 스레드에 묶인 EntityManager는 한 번 얻은 커넥션을 요청이 끝날 때까지 붙잡는다.
+     * 페이지 조회 동안만 묶음을 풀어서, 트랜잭션마다 새 EntityManager(커넥션)를 쓰고 바로 반납하게 한다.
+     */
+    private <T> T withoutRequestEntityManager(Supplier<T> query) {
+        EntityManagerHolder holder = (EntityManagerHolder)
+                TransactionSynchronizationManager.unbindResourceIfPossible(entityManagerFactory);
+        try {
+            return query.get();
+        } finally {
+            if (holder != null) {
+                TransactionSynchronizationManager.bindResource(entityManagerFactory, holder);
+            }
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.ttasjwi.querydsl.member.service;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * 회원 수정 재시도 설정 (member.update.*)
+ */
+@Getter @Setter
+@ConfigurationProperties(prefix = "member.update")
+public class MemberUpdateProperties {
+
+    /**
+     * 버전 충돌 시 최대 시도 횟수 (첫 시도 포함)
+     */
+    private int maxAttempts = 10;
+
+    /**
+     * 첫 재시도 대기 시간 상한. 재시도마다 두 배씩 늘린다.
+     */
+    private Duration initialBackoff = Duration.ofMillis(5);
+
+    /**
+     * 재시도 대기 시간 상한의 최댓값
+     */
+    private Duration maxBackoff = Duration.ofMillis(200);
+}
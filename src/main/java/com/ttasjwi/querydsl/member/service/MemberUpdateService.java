@@ -0,0 +1,120 @@
+package com.ttasjwi.querydsl.member.service;
+
+import com.ttasjwi.querydsl.member.domain.Member;
+import com.ttasjwi.querydsl.member.repository.MemberJpaRepository;
+import com.ttasjwi.querydsl.team.domain.Team;
+import com.ttasjwi.querydsl.team.repository.TeamJpaRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.NoSuchElementException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+
+/**
+ * 회원 수정
+ * row lock(select for update) 없이 낙관적 락(@Version)으로 동시 수정을 감지하고,
+ * 충돌하면 새 트랜잭션에서 최신 상태를 다시 읽어 수정을 재시도한다.
+ * 재시도 대기 시간은 지수적으로 늘어나는 상한 안에서 무작위로 정한다. (경합하는 요청끼리 재시도 시점이 겹치지 않도록)
+ * 매 시도는 별도 트랜잭션(REQUIRES_NEW)에서 실행되므로, 호출 측 트랜잭션 안에서 이미 읽은 회원 엔티티에는 반영되지 않는다.
+ */
+@Service
+public class MemberUpdateService {
+
+    private final MemberJpaRepository memberJpaRepository;
+    private final TeamJpaRepository teamJpaRepository;
+    private final MemberUpdateProperties properties;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Counter conflictCounter;
+    private final Counter exhaustedCounter;
+
+    public MemberUpdateService(MemberJpaRepository memberJpaRepository,
+                               TeamJpaRepository teamJpaRepository,
+                               MemberUpdateProperties properties,
+                               PlatformTransactionManager transactionManager,
+                               MeterRegistry meterRegistry) {
+        this.memberJpaRepository = memberJpaRepository;
+        this.teamJpaRepository = teamJpaRepository;
+        this.properties = properties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        this.conflictCounter = Counter.builder("member.update.conflicts")
+                .description("버전 충돌로 재시도한 회원 수정 수")
+                .register(meterRegistry);
+        this.exhaustedCounter = Counter.builder("member.update.conflicts.exhausted")
+                .description("최대 시도 횟수를 넘겨 실패한 회원 수정 수")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 나이 변경
+     */
+    public Member changeAge(Long memberId, int age) {
+        return update(memberId, member -> member.setAge(age));
+    }
+
+    /**
+     * 나이 증감 - 읽은 시점의 나이 기준으로 더하므로, 충돌하면 최신 나이를 다시 읽어 더한다.
+     */
+    public Member addAge(Long memberId, int delta) {
+        return update(memberId, member -> member.setAge(member.getAge() + delta));
+    }
+
+    /**
+     * 팀 이동
+     */
+    public Member changeTeam(Long memberId, Long teamId) {
+        return update(memberId, member -> {
+            Team team = teamJpaRepository.findById(teamId)
+                    .orElseThrow(() -> new NoSuchElementException("팀이 존재하지 않습니다. teamId = " + teamId));
+            member.changeTeam(team);
+        });
+    }
+
+    /**
+     * 회원 수정 - 버전 충돌이면 maxAttempts 까지 재시도하고, 그래도 실패하면 마지막 충돌 예외를 던진다.
+     * modifier는 재시도마다 다시 호출되므로 부수 효과 없이 회원 상태만 바꿔야 한다.
+     */
+    public Member update(Long memberId, Consumer<Member> modifier) {
+        int maxAttempts = Math.max(properties.getMaxAttempts(), 1);
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> {
+                    Member member = memberJpaRepository.findById(memberId)
+                            .orElseThrow(() -> new NoSuchElementException("회원이 존재하지 않습니다. memberId = " + memberId));
+                    modifier.accept(member);
+                    return member;
+                });
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt >= maxAttempts) {
+                    exhaustedCounter.increment();
+                    throw e;
+                }
+                conflictCounter.increment();
+                backoff(attempt);
+            }
+        }
+    }
+
+    private void backoff(int attempt) {
+        long initial = properties.getInitialBackoff().toMillis();
+        long max = properties.getMaxBackoff().toMillis();
+        long bound = Math.min(max, initial << Math.min(attempt - 1, 20));
+        if (bound <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(bound + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("회원 수정 재시도 대기 중 인터럽트", e);
+        }
+    }
+}
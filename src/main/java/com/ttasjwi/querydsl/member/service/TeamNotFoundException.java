@@ -0,0 +1,17 @@
+package com.ttasjwi.querydsl.member.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+import java.util.NoSuchElementException;
+
+/**
+ * 회원 등록 요청이 가리키는 팀이 없음
+ */
+@ResponseStatus(HttpStatus.NOT_FOUND)
+public class TeamNotFoundException extends NoSuchElementException {
+
+    public TeamNotFoundException(Long teamId) {
+        super("팀이 존재하지 않습니다. teamId = " + teamId);
+    }
+}
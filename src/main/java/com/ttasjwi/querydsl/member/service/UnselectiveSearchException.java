@@ -0,0 +1,21 @@
+package com.ttasjwi.querydsl.member.service;
+
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * 예상 결과 건수가 너무 많은 검색 조건
+ */
+@Getter
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class UnselectiveSearchException extends RuntimeException {
+
+    private final long estimatedRows;
+
+    public UnselectiveSearchException(long estimatedRows, long maxEstimatedRows) {
+        super("검색 조건의 예상 결과 건수가 너무 많습니다. 조건을 좁혀주세요. estimatedRows = "
+                + estimatedRows + ", maxEstimatedRows = " + maxEstimatedRows);
+        this.estimatedRows = estimatedRows;
+    }
+}
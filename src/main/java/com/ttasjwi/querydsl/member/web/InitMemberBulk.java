@@ -0,0 +1,38 @@
+package com.ttasjwi.querydsl.member.web;
+
+import com.ttasjwi.querydsl.member.repository.MemberBulkLoader;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+
+/**
+ * 인메모리(embedded) DB에 대량 데이터 적재
+ */
+@Slf4j
+@Profile("embedded")
+@Component
+@RequiredArgsConstructor
+public class InitMemberBulk {
+
+    private final MemberBulkLoader memberBulkLoader;
+
+    @Value("${member.seed.team-count:0}")
+    private int teamCount;
+
+    @Value("${member.seed.member-count:0}")
+    private int memberCount;
+
+    @PostConstruct
+    public void init() {
+        if (memberCount <= 0) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        memberBulkLoader.load(teamCount, memberCount);
+        log.info("teams = {}, members = {} 적재 완료 ({}ms)", teamCount, memberCount, System.currentTimeMillis() - start);
+    }
+}
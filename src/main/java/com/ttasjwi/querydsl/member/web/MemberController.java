@@ -1,23 +1,123 @@
 package com.ttasjwi.querydsl.member.web;
 
+import com.ttasjwi.querydsl.member.dto.MemberCreateRequest;
+import com.ttasjwi.querydsl.member.dto.MemberField;
+import com.ttasjwi.querydsl.member.dto.MemberIngestResult;
 import com.ttasjwi.querydsl.member.dto.MemberSearchCondition;
+import com.ttasjwi.querydsl.member.dto.MemberSearchResult;
 import com.ttasjwi.querydsl.member.dto.MemberTeamDto;
-import com.ttasjwi.querydsl.member.repository.MemberJpaRepository;
+import com.ttasjwi.querydsl.member.service.MemberGroupCommitWriter;
+import com.ttasjwi.querydsl.member.service.MemberIngestService;
+import com.ttasjwi.querydsl.member.service.MemberSearchService;
+import com.ttasjwi.querydsl.member.service.MemberStreamService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.ModelAttribute;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequiredArgsConstructor
 public class MemberController {
 
-    private final MemberJpaRepository memberJpaRepository;
+    /**
+     * 최대 건수 제한으로 결과가 잘렸을 때 붙는 응답 헤더
+     */
+    public static final String TRUNCATED_HEADER = "X-Result-Truncated";
 
+    /**
+     * 잘린 결과의 마지막 회원 식별자 - 다음 요청에 afterId로 넘기면 이어서 조회한다.
+     */
+    public static final String NEXT_AFTER_ID_HEADER = "X-Next-After-Id";
+
+    private final MemberSearchService memberSearchService;
+    private final MemberStreamService memberStreamService;
+    private final MemberIngestService memberIngestService;
+    private final MemberGroupCommitWriter memberGroupCommitWriter;
+
+    /**
+     * 회원 검색 - 결과가 잘리면 X-Next-After-Id 헤더의 값을 afterId로 넘겨 다음 페이지를 받는다.
+     */
     @GetMapping("/v1/members")
-    public List<MemberTeamDto> searchMemberV1(@ModelAttribute MemberSearchCondition condition) {
-        return memberJpaRepository.search(condition);
+    public ResponseEntity<List<MemberTeamDto>> searchMemberV1(@ModelAttribute MemberSearchCondition condition,
+                                                              @RequestParam(required = false) Long afterId) {
+        return toResponse(memberSearchService.search(condition, afterId));
+    }
+
+    /**
+     * 회원 한 명 조회 - 없으면 404
+     */
+    @GetMapping("/v1/members/{memberId}")
+    public ResponseEntity<MemberTeamDto> findMemberV1(@PathVariable Long memberId) {
+        return ResponseEntity.of(memberSearchService.findMember(memberId));
+    }
+
+    /**
+     * 필요한 필드만 조회 - /v1/members?fields=memberId,memberName
+     * fields가 비어 있으면 전체 필드
+     */
+    @GetMapping(value = "/v1/members", params = "fields")
+    public ResponseEntity<List<Map<String, Object>>> searchMemberFieldsV1(@ModelAttribute MemberSearchCondition condition,
+                                                                          @RequestParam Set<MemberField> fields,
+                                                                          @RequestParam(required = false) Long afterId) {
+        return toResponse(memberSearchService.searchFields(condition, fields, afterId));
+    }
+
+    /**
+     * 검색 결과 전체를 NDJSON으로 스트리밍 - 결과를 모아서 응답하지 않으므로 최대 건수 제한이 없다.
+     */
+    @GetMapping(value = "/v1/members/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamMemberV1(@ModelAttribute MemberSearchCondition condition) {
+        StreamingResponseBody body = out -> memberStreamService.stream(condition, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    /**
+     * 회원 등록 - 생성된 회원 식별자를 반환한다. 그룹 커밋이 켜져 있으면 다른 요청의 등록과 함께 커밋된 뒤 응답한다.
+     */
+    @PostMapping("/v1/members")
+    public CompletableFuture<Long> createMemberV1(@RequestBody MemberCreateRequest request) {
+        return memberGroupCommitWriter.save(request);
+    }
+
+    /**
+     * 회원 대량 등록 - 요청 본문을 NDJSON(한 줄에 {"name", "age", "teamId"})으로 받아 읽는 대로 묶음 단위로 커밋한다.
+     */
+    @PostMapping(value = "/v1/members:bulk", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public MemberIngestResult bulkCreateMemberV1(InputStream body) throws IOException {
+        return memberIngestService.ingest(body);
+    }
+
+    @GetMapping("/v2/members")
+    public Page<MemberTeamDto> searchMemberV2(@ModelAttribute MemberSearchCondition condition, Pageable pageable) {
+        return memberSearchService.searchPage(condition, pageable);
+    }
+
+    private <T> ResponseEntity<List<T>> toResponse(MemberSearchResult<T> result) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (result.isTruncated()) {
+            response.header(TRUNCATED_HEADER, "true");
+        }
+        if (result.getNextAfterId() != null) {
+            response.header(NEXT_AFTER_ID_HEADER, String.valueOf(result.getNextAfterId()));
+        }
+        return response.body(result.getContent());
     }
 }
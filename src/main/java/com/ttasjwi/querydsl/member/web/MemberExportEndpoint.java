@@ -0,0 +1,27 @@
+package com.ttasjwi.querydsl.member.web;
+
+import com.ttasjwi.querydsl.member.dto.MemberExportResult;
+import com.ttasjwi.querydsl.member.service.MemberExportService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+/**
+ * POST /actuator/memberexport : 설정된 디렉터리로 회원 내보내기 (주기 실행은 외부 스케줄러에서 호출)
+ * 쓰기 작업이므로 기본으로 꺼져 있다. 인증이 걸린 관리 포트에서만
+ * management.endpoint.memberexport.enabled=true 와 노출 목록(management.endpoints.web.exposure.include)에 추가해서 쓴다.
+ * 실행 중에 다시 호출하면 409 Conflict
+ */
+@Component
+@Endpoint(id = "memberexport", enableByDefault = false)
+@RequiredArgsConstructor
+public class MemberExportEndpoint {
+
+    private final MemberExportService memberExportService;
+
+    @WriteOperation
+    public MemberExportResult export() {
+        return memberExportService.export();
+    }
+}
@@ -0,0 +1,18 @@
+package com.ttasjwi.querydsl.member.web;
+
+import com.ttasjwi.querydsl.member.dto.MemberField;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.stereotype.Component;
+
+/**
+ * 요청 파라미터의 필드명(memberId, teamName 등)을 MemberField로 변환
+ * 지원하지 않는 필드명은 400 응답
+ */
+@Component
+public class MemberFieldConverter implements Converter<String, MemberField> {
+
+    @Override
+    public MemberField convert(String source) {
+        return MemberField.fromFieldName(source.trim());
+    }
+}
@@ -2,6 +2,10 @@ package com.ttasjwi.querydsl.team.domain;
 
 import com.ttasjwi.querydsl.member.domain.Member;
 import lombok.*;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.LazyCollection;
+import org.hibernate.annotations.LazyCollectionOption;
+import org.hibernate.annotations.OptimisticLock;
 
 import javax.persistence.*;
 import java.util.ArrayList;
@@ -11,14 +15,30 @@ import java.util.List;
 @Getter @Setter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 @ToString(of = {"id", "name"})
+@EntityListeners(TeamChangeListener.class)
 public class Team {
 
     @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
     @Column(name = "team_id")
     private Long id;
 
+    /**
+     * 낙관적 락 버전
+     */
+    @Version
+    private Long version;
+
     private String name;
 
+    /**
+     * 회원의 팀 이동은 팀 버전을 올리지 않는다. (한 팀에 회원 이동이 몰릴 때 팀 행이 경합 지점이 되지 않도록)
+     * EXTRA : size(), isEmpty()는 전체를 읽지 않고 count 쿼리로 답한다.
+     * BatchSize : 한 팀의 목록을 초기화할 때 영속성 컨텍스트의 다른 팀 목록도 함께 IN 쿼리 한 번으로 읽는다. (팀마다 쿼리하지 않도록)
+     * 회원이 많은 팀은 전체를 초기화하지 말고 TeamJpaRepository.findMembers로 나눠 읽는다. (TeamMembersLoadGuard가 경고)
+     */
+    @OptimisticLock(excluded = true)
+    @LazyCollection(LazyCollectionOption.EXTRA)
+    @BatchSize(size = 100)
     @OneToMany(mappedBy = "team")
     private final List<Member> members = new ArrayList<>();
 
@@ -0,0 +1,36 @@
+package com.ttasjwi.querydsl.team.domain;
+
+import com.ttasjwi.querydsl.common.event.AggregateType;
+import com.ttasjwi.querydsl.common.event.ChangeEventRecorder;
+import com.ttasjwi.querydsl.common.event.ChangeType;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+
+import javax.persistence.PostPersist;
+import javax.persistence.PostRemove;
+import javax.persistence.PostUpdate;
+
+/**
+ * 팀 등록, 수정, 삭제 시 변경 이벤트 기록
+ */
+@RequiredArgsConstructor
+public class TeamChangeListener {
+
+    // 리스너는 EntityManagerFactory 생성 중에 만들어지므로, 기록기는 사용 시점에 가져온다.
+    private final ObjectProvider<ChangeEventRecorder> changeEventRecorder;
+
+    @PostPersist
+    public void postPersist(Team team) {
+        changeEventRecorder.getObject().record(AggregateType.TEAM, team.getId(), ChangeType.CREATED);
+    }
+
+    @PostUpdate
+    public void postUpdate(Team team) {
+        changeEventRecorder.getObject().record(AggregateType.TEAM, team.getId(), ChangeType.UPDATED);
+    }
+
+    @PostRemove
+    public void postRemove(Team team) {
+        changeEventRecorder.getObject().record(AggregateType.TEAM, team.getId(), ChangeType.DELETED);
+    }
+}
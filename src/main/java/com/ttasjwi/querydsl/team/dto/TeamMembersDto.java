@@ -0,0 +1,35 @@
+package com.ttasjwi.querydsl.team.dto;
+
+import com.querydsl.core.annotations.QueryProjection;
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 팀과 소속 회원 목록 (회원은 식별자 순)
+ * nextAfterMemberId : 회원이 한도보다 많아 잘렸으면 마지막 회원 식별자, 다 담았으면 null
+ */
+@Data
+public class TeamMembersDto {
+
+    private final Long teamId;
+    private final String teamName;
+    private final List<TeamMember> members = new ArrayList<>();
+    private Long nextAfterMemberId;
+
+    @Data
+    public static class TeamMember {
+
+        private final Long memberId;
+        private final String name;
+        private final int age;
+
+        @QueryProjection
+        public TeamMember(Long memberId, String name, int age) {
+            this.memberId = memberId;
+            this.name = name;
+            this.age = age;
+        }
+    }
+}
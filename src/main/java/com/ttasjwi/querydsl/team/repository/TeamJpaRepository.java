@@ -0,0 +1,341 @@
+package com.ttasjwi.querydsl.team.repository;
+
+import com.querydsl.core.Tuple;
+import com.querydsl.jpa.impl.JPAQuery;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import com.ttasjwi.querydsl.common.collection.LongHashSet;
+import com.ttasjwi.querydsl.common.query.InClauseChunks;
+import com.ttasjwi.querydsl.member.domain.Member;
+import com.ttasjwi.querydsl.member.dto.MemberSearchCondition;
+import com.ttasjwi.querydsl.member.repository.MemberSearchPredicates;
+import com.ttasjwi.querydsl.team.domain.Team;
+import com.ttasjwi.querydsl.team.dto.QTeamMembersDto_TeamMember;
+import com.ttasjwi.querydsl.team.dto.TeamMembersDto;
+import org.springframework.stereotype.Repository;
+
+import javax.persistence.EntityManager;
+import javax.persistence.Query;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static com.ttasjwi.querydsl.member.domain.QMember.member;
+import static com.ttasjwi.querydsl.team.domain.QTeam.team;
+
+@Repository
+public class TeamJpaRepository {
+
+    private final EntityManager em;
+    private final JPAQueryFactory queryFactory;
+    private final TeamMembersProperties properties;
+
+    public TeamJpaRepository(EntityManager em, JPAQueryFactory queryFactory, TeamMembersProperties properties) {
+        this.em = em;
+        this.queryFactory = queryFactory;
+        this.properties = properties;
+    }
+
+    /**
+     * 팀 등록
+     */
+    public void save(Team team) {
+        em.persist(team);
+    }
+
+    /**
+     * 식별자로 팀 조회
+     */
+    public Optional<Team> findById(Long id) {
+        return Optional.ofNullable(em.find(Team.class, id));
+    }
+
+    /**
+     * 팀 회원을 식별자 순으로 나눠 읽기 (keyset) - afterMemberId 보다 큰 회원을 최대 limit 명
+     * 회원이 많은 팀은 Team.getMembers()로 전체를 초기화하지 말고 이 메서드로 읽는다. (member(team_id, member_id) 인덱스 사용)
+     */
+    public List<Member> findMembers(Long teamId, long afterMemberId, int limit) {
+        return queryFactory
+                .selectFrom(member)
+                .where(
+                        member.team.id.eq(teamId),
+                        member.id.gt(afterMemberId))
+                .orderBy(member.id.asc())
+                .limit(limit)
+                .fetch();
+    }
+
+    /**
+     * 팀 회원 수 - 회원 테이블만 센다.
+     */
+    public long countMembers(Long teamId) {
+        Long count = queryFactory
+                .select(member.count())
+                .from(member)
+                .where(member.team.id.eq(teamId))
+                .fetchOne();
+        return count == null ? 0 : count;
+    }
+
+    /**
+     * 팀과 회원 목록을 팀 식별자 순으로 나눠 읽기 - afterTeamId 보다 큰 팀 최대 limit 개
+     * 팀-회원 fetch join은 팀 행이 회원 수만큼 늘어나 DB에서 페이징할 수 없으므로(메모리 페이징) 두 단계로 읽는다.
+     * 1. 팀 식별자 한 페이지 - 회원 조건(회원명, 나이)이 있으면 맞는 회원이 있는 팀만
+     * 2. 페이지의 팀 회원을 팀마다 식별자 순으로 maxMembersPerTeam 명까지 한 번에 읽는다. (회원 조건이 있으면 맞는 회원만)
+     *    더 있으면 nextAfterMemberId를 채우므로, 나머지는 findTeamMembers(teamId, condition, nextAfterMemberId, limit)로 이어서 읽는다.
+     * 회원 테이블에서 팀 식별자를 고를 때 생기는 중복은 DB DISTINCT 대신 LongHashSet으로 거른다.
+     * 조건 술어는 회원 검색과 같은 MemberSearchPredicates 템플릿을 쓰므로 조건 형태마다 같은 JPQL이 된다.
+     */
+    public List<TeamMembersDto> findTeamsWithMembers(MemberSearchCondition condition, long afterTeamId, int limit) {
+        MemberSearchCondition normalized = condition.normalize();
+        if (normalized.isUnsatisfiable() || limit <= 0) {
+            return new ArrayList<>();
+        }
+
+        Map<Long, TeamMembersDto> teams = hasMemberCondition(normalized)
+                ? findTeamsHavingMembers(normalized, afterTeamId, limit)
+                : findTeamPage(normalized, afterTeamId, limit);
+
+        int maxMembers = Math.max(properties.getMaxMembersPerTeam(), 1);
+        Map<Long, List<TeamMembersDto.TeamMember>> membersByTeam =
+                findFirstMembersByTeam(teams.keySet(), withoutTeamName(normalized), maxMembers + 1);
+        for (TeamMembersDto teamMembers : teams.values()) {
+            List<TeamMembersDto.TeamMember> members =
+                    membersByTeam.getOrDefault(teamMembers.getTeamId(), Collections.emptyList());
+            if (members.size() > maxMembers) {
+                members = members.subList(0, maxMembers);
+                teamMembers.setNextAfterMemberId(members.get(maxMembers - 1).getMemberId());
+            }
+            teamMembers.getMembers().addAll(members);
+        }
+        return new ArrayList<>(teams.values());
+    }
+
+    /**
+     * 팀 회원을 식별자 순으로 나눠 읽기 (keyset) - 회원 조건(회원명, 나이)에 맞고 afterMemberId 보다 큰 회원을 최대 limit 명
+     * findTeamsWithMembers가 nextAfterMemberId를 준 팀의 나머지 회원을 읽을 때 쓴다. (팀명 조건은 보지 않는다)
+     */
+    public List<TeamMembersDto.TeamMember> findTeamMembers(Long teamId, MemberSearchCondition condition,
+                                                          long afterMemberId, int limit) {
+        MemberSearchCondition normalized = condition.normalize();
+        if (normalized.isUnsatisfiable() || limit <= 0) {
+            return new ArrayList<>();
+        }
+        // 팀이 이미 정해졌으므로 팀명 조건은 빼고 team 조인 없이 읽는다.
+        MemberSearchCondition memberCondition = withoutTeamName(normalized);
+        JPAQuery<TeamMembersDto.TeamMember> query = queryFactory
+                .select(new QTeamMembersDto_TeamMember(member.id, member.name, member.age))
+                .from(member)
+                .where(
+                        member.team.id.eq(teamId),
+                        member.id.gt(afterMemberId))
+                .where(MemberSearchPredicates.of(memberCondition))
+                .orderBy(member.id.asc())
+                .limit(limit);
+        MemberSearchPredicates.bind(query, memberCondition);
+        return query.fetch();
+    }
+
+    /**
+     * 회원 조건이 없을 때의 팀 한 페이지 - 검색 조건에는 팀명만 남아 있으므로 team 테이블만 읽는다.
+     */
+    private Map<Long, TeamMembersDto> findTeamPage(MemberSearchCondition normalized, long afterTeamId, int limit) {
+        JPAQuery<Tuple> query = queryFactory
+                .select(team.id, team.name)
+                .from(team)
+                .where(team.id.gt(afterTeamId))
+                .where(MemberSearchPredicates.of(normalized))
+                .orderBy(team.id.asc())
+                .limit(limit);
+        MemberSearchPredicates.bind(query, normalized);
+        List<Tuple> rows = query.fetch();
+
+        Map<Long, TeamMembersDto> teams = new LinkedHashMap<>();
+        for (Tuple row : rows) {
+            teams.put(row.get(team.id), new TeamMembersDto(row.get(team.id), row.get(team.name)));
+        }
+        return teams;
+    }
+
+    /**
+     * 조건에 맞는 회원이 있는 팀을 회원 테이블의 (team_id, member_id) 인덱스 순으로 훑어서 limit 개 고른다.
+     * 한 번에 scanSize 행씩 읽고, 마지막으로 본 팀 다음부터 이어서 읽는다.
+     */
+    private Map<Long, TeamMembersDto> findTeamsHavingMembers(MemberSearchCondition normalized, long afterTeamId, int limit) {
+        int scanSize = Math.max(limit * 4, 100);
+        LongHashSet seen = new LongHashSet(limit);
+        List<Long> teamIds = new ArrayList<>(limit);
+        long cursor = afterTeamId;
+        while (teamIds.size() < limit) {
+            JPAQuery<Long> query = queryFactory
+                    .select(member.team.id)
+                    .from(member);
+            if (normalized.getTeamName() != null) {
+                query.join(member.team, team);
+            }
+            query.where(member.team.id.gt(cursor))
+                    .where(MemberSearchPredicates.of(normalized))
+                    .orderBy(member.team.id.asc())
+                    .limit(scanSize);
+            MemberSearchPredicates.bind(query, normalized);
+            List<Long> rows = query.fetch();
+            for (Long teamId : rows) {
+                if (seen.add(teamId)) {
+                    teamIds.add(teamId);
+                    if (teamIds.size() == limit) {
+                        break;
+                    }
+                }
+            }
+            if (rows.size() < scanSize) {
+                break;
+            }
+            cursor = rows.get(rows.size() - 1);
+        }
+
+        Map<Long, String> names = new HashMap<>();
+        for (List<Long> chunk : InClauseChunks.split(teamIds)) {
+            for (Tuple row : queryFactory
+                    .select(team.id, team.name)
+                    .from(team)
+                    .where(team.id.in(chunk))
+                    .fetch()) {
+                names.put(row.get(team.id), row.get(team.name));
+            }
+        }
+
+        Map<Long, TeamMembersDto> teams = new LinkedHashMap<>();
+        for (Long teamId : teamIds) {
+            teams.put(teamId, new TeamMembersDto(teamId, names.get(teamId)));
+        }
+        return teams;
+    }
+
+    /**
+     * 팀마다 회원 조건에 맞는 회원을 식별자 순으로 최대 limit 명 (팀 식별자 -> 회원 목록)
+     * 팀별 LIMIT은 JPQL로 표현할 수 없으므로 ROW_NUMBER() 윈도 함수를 쓰는 네이티브 쿼리로 IN 절 청크마다 한 번씩 읽는다.
+     * (팀마다 쿼리하지 않고, 회원이 많은 팀도 한도까지만 읽는다)
+     */
+    @SuppressWarnings("unchecked")
+    private Map<Long, List<TeamMembersDto.TeamMember>> findFirstMembersByTeam(Collection<Long> teamIds,
+                                                                              MemberSearchCondition memberCondition,
+                                                                              int limit) {
+        StringBuilder sql = new StringBuilder()
+                .append("select team_id, member_id, name, age from (")
+                .append(" select m.team_id, m.member_id, m.name, m.age,")
+                .append("        row_number() over (partition by m.team_id order by m.member_id) rn")
+                .append(" from member m")
+                .append(" where m.team_id in (:teamIds)");
+        if (memberCondition.getMemberName() != null) {
+            sql.append(" and m.name = :memberName");
+        }
+        if (memberCondition.getAgeGoe() != null) {
+            sql.append(" and m.age >= :ageGoe");
+        }
+        if (memberCondition.getAgeLoe() != null) {
+            sql.append(" and m.age <= :ageLoe");
+        }
+        sql.append(") ranked where rn <= :limit order by team_id, member_id");
+
+        Map<Long, List<TeamMembersDto.TeamMember>> result = new HashMap<>();
+        for (List<Long> chunk : InClauseChunks.split(teamIds)) {
+            Query query = em.createNativeQuery(sql.toString())
+                    .setParameter("teamIds", chunk)
+                    .setParameter("limit", limit);
+            if (memberCondition.getMemberName() != null) {
+                query.setParameter("memberName", memberCondition.getMemberName());
+            }
+            if (memberCondition.getAgeGoe() != null) {
+                query.setParameter("ageGoe", memberCondition.getAgeGoe());
+            }
+            if (memberCondition.getAgeLoe() != null) {
+                query.setParameter("ageLoe", memberCondition.getAgeLoe());
+            }
+            for (Object[] row : (List<Object[]>) query.getResultList()) {
+                result.computeIfAbsent(((Number) row[0]).longValue(), teamId -> new ArrayList<>())
+                        .add(new TeamMembersDto.TeamMember(
+                                ((Number) row[1]).longValue(), (String) row[2], ((Number) row[3]).intValue()));
+            }
+        }
+        return result;
+    }
+
+    private boolean hasMemberCondition(MemberSearchCondition normalized) {
+        return normalized.getMemberName() != null
+                || normalized.getAgeGoe() != null
+                || normalized.getAgeLoe() != null;
+    }
+
+    private MemberSearchCondition withoutTeamName(MemberSearchCondition normalized) {
+        MemberSearchCondition memberCondition = new MemberSearchCondition();
+        memberCondition.setMemberName(normalized.getMemberName());
+        memberCondition.setAgeGoe(normalized.getAgeGoe());
+        memberCondition.setAgeLoe(normalized.getAgeLoe());
+        return memberCondition;
+    }
+
+    /**
+     * 식별자 목록 중 존재하는 팀 식별자 (IN 절 청크 단위)
+     */
+    public Set<Long> findExistingIds(Collection<Long> ids) {
+        Set<Long> result = new HashSet<>();
+        for (List<Long> chunk : InClauseChunks.split(ids)) {
+            result.addAll(queryFactory
+                    .select(team.id)
+                    .from(team)
+                    .where(team.id.in(chunk))
+                    .fetch());
+        }
+        return result;
+    }
+
+    /**
+     * 식별자 목록으로 팀 일괄 조회 (IN 절 청크 단위)
+     */
+    public Map<Long, Team> findAllByIds(Collection<Long> ids) {
+        Map<Long, Team> result = new HashMap<>();
+        for (List<Long> chunk : InClauseChunks.split(ids)) {
+            List<Team> teams = queryFactory
+                    .selectFrom(team)
+                    .where(team.id.in(chunk))
+                    .fetch();
+            for (Team findTeam : teams) {
+                result.put(findTeam.getId(), findTeam);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 서로 다른 팀 이름 수
+     */
+    public long countDistinctNames() {
+        Long count = queryFactory
+                .select(team.name.countDistinct())
+                .from(team)
+                .fetchOne();
+        return count == null ? 0 : count;
+    }
+
+    /**
+     * 전체 팀 이름 (팀 식별자 -> 이름)
+     */
+    public Map<Long, String> findAllNames() {
+        List<Tuple> rows = queryFactory
+                .select(team.id, team.name)
+                .from(team)
+                .fetch();
+
+        Map<Long, String> result = new HashMap<>();
+        for (Tuple row : rows) {
+            result.put(row.get(team.id), row.get(team.name));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,66 @@
+package com.ttasjwi.querydsl.team.repository;
+
+import com.ttasjwi.querydsl.team.domain.Team;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.collection.spi.PersistentCollection;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.InitializeCollectionEvent;
+import org.hibernate.event.spi.InitializeCollectionEventListener;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManagerFactory;
+import java.util.Collection;
+
+/**
+ * Team.getMembers() 전체 초기화 감시
+ * 기본 초기화 리스너 뒤에 붙어서, 초기화된 팀 회원 목록이 warnThreshold 이상이면 호출 위치와 함께 경고를 남긴다.
+ * (fetch join으로 함께 읽은 목록은 초기화 이벤트를 거치지 않으므로 대상이 아니다)
+ */
+@Slf4j
+@Component
+public class TeamMembersLoadGuard implements InitializeCollectionEventListener {
+
+    private static final String MEMBERS_ROLE = Team.class.getName() + ".members";
+
+    private final EntityManagerFactory emf;
+    private final TeamMembersProperties properties;
+    private final Counter largeLoadCounter;
+
+    public TeamMembersLoadGuard(EntityManagerFactory emf,
+                                TeamMembersProperties properties,
+                                MeterRegistry meterRegistry) {
+        this.emf = emf;
+        this.properties = properties;
+        this.largeLoadCounter = Counter.builder("team.members.large.loads")
+                .description("warnThreshold 이상인 팀 회원 목록 전체 초기화 수")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void register() {
+        emf.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class)
+                .appendListeners(EventType.INIT_COLLECTION, this);
+    }
+
+    @Override
+    public void onInitializeCollection(InitializeCollectionEvent event) {
+        PersistentCollection collection = event.getCollection();
+        if (!properties.isLoadGuardEnabled() || !MEMBERS_ROLE.equals(collection.getRole())) {
+            return;
+        }
+
+        int size = ((Collection<?>) collection).size();
+        if (size >= properties.getWarnThreshold()) {
+            largeLoadCounter.increment();
+            log.warn("팀 회원 목록 전체를 읽었습니다. teamId = {}, size = {} - TeamJpaRepository.findMembers로 나눠 읽으세요.",
+                    collection.getKey(), size, new IllegalStateException("Team.getMembers() 초기화 위치"));
+        }
+    }
+}
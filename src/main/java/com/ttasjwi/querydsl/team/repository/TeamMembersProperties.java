@@ -0,0 +1,28 @@
+package com.ttasjwi.querydsl.team.repository;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 팀 회원 목록 설정 (team.members.*)
+ */
+@Getter @Setter
+@ConfigurationProperties(prefix = "team.members")
+public class TeamMembersProperties {
+
+    /**
+     * Team.getMembers() 전체 초기화 감시 여부
+     */
+    private boolean loadGuardEnabled = true;
+
+    /**
+     * 초기화한 회원 목록 크기가 이 값 이상이면 경고한다.
+     */
+    private int warnThreshold = 10_000;
+
+    /**
+     * 팀 목록 조회(findTeamsWithMembers)에서 팀마다 담는 최대 회원 수. 나머지는 findTeamMembers로 이어서 읽는다.
+     */
+    private int maxMembersPerTeam = 100;
+}
@@ -0,0 +1,125 @@
+package com.ttasjwi.querydsl.common.cache;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MappedFileStoreTest {
+
+    private static final long NEVER = Long.MAX_VALUE;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("다시 열면 파일을 읽어 저장, 삭제 결과를 복원한다")
+    public void reopen() throws IOException {
+        Path path = directory.resolve("store.cache");
+        try (MappedFileStore store = new MappedFileStore(path, 4096, true)) {
+            store.put("a", bytes("1"), NEVER);
+            store.put("b", bytes("2"), NEVER);
+            store.put("a", bytes("3"), NEVER);
+            store.remove("b");
+            store.put("expired", bytes("4"), 1);
+        }
+
+        try (MappedFileStore store = new MappedFileStore(path, 4096, true)) {
+            assertThat(store.size()).isEqualTo(1);
+            assertThat(store.get("a", 0).getValue()).isEqualTo(bytes("3"));
+            assertThat(store.get("b", 0)).isNull();
+            assertThat(store.get("expired", System.currentTimeMillis())).isNull();
+        }
+
+        try (MappedFileStore store = new MappedFileStore(path, 4096, false)) {
+            assertThat(store.size()).isZero();
+            assertThat(store.get("a", 0)).isNull();
+        }
+    }
+
+    @Test
+    @DisplayName("가득 차면 앞에서부터 이어 쓰며 가장 오래된 레코드부터 밀어낸다")
+    public void evictOldest() throws IOException {
+        Path path = directory.resolve("store.cache");
+        try (MappedFileStore store = new MappedFileStore(path, 1024, true)) {
+            for (int i = 0; i < 1_000; i++) {
+                assertThat(store.put("key" + (i % 5), bytes("value" + i), NEVER)).isTrue();
+            }
+            assertThat(store.size()).isEqualTo(5);
+            assertThat(store.get("key4", 0).getValue()).isEqualTo(bytes("value999"));
+
+            for (int i = 0; i < 100; i++) {
+                assertThat(store.put("distinct" + i, bytes("value" + i), NEVER)).isTrue();
+            }
+            assertThat(store.size()).isLessThan(100);
+            assertThat(store.get("distinct0", 0)).isNull();
+            assertThat(store.get("distinct99", 0).getValue()).isEqualTo(bytes("value99"));
+
+            assertThat(store.put("large", new byte[2048], NEVER)).isFalse();
+            assertThat(store.get("large", 0)).isNull();
+        }
+
+        try (MappedFileStore store = new MappedFileStore(path, 1024, true)) {
+            assertThat(store.get("distinct0", 0)).isNull();
+            assertThat(store.get("distinct99", 0).getValue()).isEqualTo(bytes("value99"));
+            for (int i = 100; i < 200; i++) {
+                assertThat(store.put("distinct" + i, bytes("value" + i), NEVER)).isTrue();
+            }
+            assertThat(store.get("distinct199", 0).getValue()).isEqualTo(bytes("value199"));
+        }
+    }
+
+    @Test
+    @DisplayName("앞에서부터 이어 쓰는 중에 다시 열어도 남아 있는 레코드를 순서대로 복원한다")
+    public void reopenAfterWrap() throws IOException {
+        Path path = directory.resolve("store.cache");
+        int size;
+        try (MappedFileStore store = new MappedFileStore(path, 1024, true)) {
+            for (int i = 0; i < 60; i++) {
+                store.put("key" + i, bytes("value" + i), NEVER);
+            }
+            store.put("key59", bytes("last"), NEVER);
+            store.remove("key58");
+            size = store.size();
+        }
+
+        try (MappedFileStore store = new MappedFileStore(path, 1024, true)) {
+            assertThat(store.size()).isEqualTo(size);
+            assertThat(store.get("key59", 0).getValue()).isEqualTo(bytes("last"));
+            assertThat(store.get("key58", 0)).isNull();
+            assertThat(store.get("key57", 0).getValue()).isEqualTo(bytes("value57"));
+            assertThat(store.get("key0", 0)).isNull();
+        }
+    }
+
+    @Test
+    @DisplayName("watermark는 다시 열어도 남고, 비워도 그대로이며, 다시 쓰지 않고 열면 0이다")
+    public void watermark() throws IOException {
+        Path path = directory.resolve("store.cache");
+        try (MappedFileStore store = new MappedFileStore(path, 4096, true)) {
+            assertThat(store.getWatermark()).isZero();
+            store.setWatermark(42);
+            store.put("a", bytes("1"), NEVER);
+        }
+
+        try (MappedFileStore store = new MappedFileStore(path, 4096, true)) {
+            assertThat(store.getWatermark()).isEqualTo(42);
+            store.clear();
+            assertThat(store.getWatermark()).isEqualTo(42);
+            assertThat(store.size()).isZero();
+        }
+
+        try (MappedFileStore store = new MappedFileStore(path, 4096, false)) {
+            assertThat(store.getWatermark()).isZero();
+        }
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
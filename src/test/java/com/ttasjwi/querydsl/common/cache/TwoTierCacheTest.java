@@ -0,0 +1,70 @@
+package com.ttasjwi.querydsl.common.cache;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TwoTierCacheTest {
+
+    private static final CacheCodec<String> CODEC = new CacheCodec<>() {
+        @Override
+        public void write(String value, DataOutput out) throws IOException {
+            out.writeUTF(value);
+        }
+
+        @Override
+        public String read(DataInput in) throws IOException {
+            return in.readUTF();
+        }
+    };
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("힙에서 밀려난 항목은 디스크에서 찾아 다시 힙으로 올린다")
+    public void demoteAndPromote() throws IOException {
+        try (TwoTierCache<String> cache = create()) {
+            cache.put("a", "1");
+            cache.put("b", "2");
+            cache.put("c", "3");
+            assertThat(cache.heapSize()).isEqualTo(2);
+            assertThat(cache.diskSize()).isEqualTo(3);
+
+            assertThat(cache.get("a")).isEqualTo("1");
+            assertThat(cache.getDiskHits()).isEqualTo(1);
+            assertThat(cache.get("a")).isEqualTo("1");
+            assertThat(cache.getHeapHits()).isEqualTo(1);
+
+            cache.remove("b");
+            assertThat(cache.get("b")).isNull();
+            assertThat(cache.getMisses()).isEqualTo(1);
+        }
+    }
+
+    @Test
+    @DisplayName("다시 열면 디스크에 남은 항목을 읽는다")
+    public void reopen() throws IOException {
+        try (TwoTierCache<String> cache = create()) {
+            cache.put("a", "1");
+        }
+        try (TwoTierCache<String> cache = create()) {
+            assertThat(cache.heapSize()).isZero();
+            assertThat(cache.get("a")).isEqualTo("1");
+            assertThat(cache.getDiskHits()).isEqualTo(1);
+        }
+    }
+
+    private TwoTierCache<String> create() throws IOException {
+        MappedFileStore disk = new MappedFileStore(directory.resolve("cache"), 4096, true);
+        return new TwoTierCache<>(2, disk, CODEC, Duration.ofMinutes(1));
+    }
+}
@@ -0,0 +1,95 @@
+package com.ttasjwi.querydsl.common.collection;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class IdBitmapTest {
+
+    @Test
+    @DisplayName("추가, 삭제 - 배열과 비트맵 표현이 바뀌어도 원소가 같다")
+    public void addAndRemove() {
+        Random random = new Random(42);
+        IdBitmap bitmap = new IdBitmap();
+        TreeSet<Long> expected = new TreeSet<>();
+
+        // 한 청크에 ARRAY_MAX를 넘게 넣었다가 다시 줄인다
+        for (int i = 0; i < 20_000; i++) {
+            long id = random.nextInt(3 * 65_536);
+            assertThat(bitmap.add(id)).isEqualTo(expected.add(id));
+        }
+        assertThat(bitmap.cardinality()).isEqualTo(expected.size());
+        assertThat(bitmap.toArray(-1, Integer.MAX_VALUE)).containsExactly(toArray(expected));
+
+        for (int i = 0; i < 30_000; i++) {
+            long id = random.nextInt(3 * 65_536);
+            assertThat(bitmap.remove(id)).isEqualTo(expected.remove(id));
+        }
+        assertThat(bitmap.cardinality()).isEqualTo(expected.size());
+        assertThat(bitmap.toArray(-1, Integer.MAX_VALUE)).containsExactly(toArray(expected));
+        for (long id = 0; id < 3 * 65_536; id += 97) {
+            assertThat(bitmap.contains(id)).isEqualTo(expected.contains(id));
+        }
+    }
+
+    @Test
+    @DisplayName("합집합, 교집합")
+    public void orAndAnd() {
+        Random random = new Random(7);
+        IdBitmap dense = new IdBitmap();
+        IdBitmap sparse = new IdBitmap();
+        TreeSet<Long> denseIds = new TreeSet<>();
+        TreeSet<Long> sparseIds = new TreeSet<>();
+        for (int i = 0; i < 30_000; i++) {
+            long id = random.nextInt(2 * 65_536);
+            dense.add(id);
+            denseIds.add(id);
+        }
+        for (int i = 0; i < 500; i++) {
+            long id = random.nextInt(4 * 65_536);
+            sparse.add(id);
+            sparseIds.add(id);
+        }
+
+        IdBitmap union = dense.copy();
+        union.or(sparse);
+        TreeSet<Long> expectedUnion = new TreeSet<>(denseIds);
+        expectedUnion.addAll(sparseIds);
+        assertThat(union.cardinality()).isEqualTo(expectedUnion.size());
+        assertThat(union.toArray(-1, Integer.MAX_VALUE)).containsExactly(toArray(expectedUnion));
+
+        IdBitmap intersection = sparse.copy();
+        intersection.and(dense);
+        TreeSet<Long> expectedIntersection = new TreeSet<>(sparseIds);
+        expectedIntersection.retainAll(denseIds);
+        assertThat(intersection.cardinality()).isEqualTo(expectedIntersection.size());
+        assertThat(intersection.toArray(-1, Integer.MAX_VALUE)).containsExactly(toArray(expectedIntersection));
+
+        // 원본은 바뀌지 않는다
+        assertThat(dense.cardinality()).isEqualTo(denseIds.size());
+        assertThat(sparse.cardinality()).isEqualTo(sparseIds.size());
+    }
+
+    @Test
+    @DisplayName("afterId 이후 limit 개를 식별자 순으로 꺼낸다")
+    public void toArrayAfter() {
+        IdBitmap bitmap = new IdBitmap();
+        for (long id : new long[]{70_000, 3, 65_535, 65_536, 1, 200_000}) {
+            bitmap.add(id);
+        }
+
+        assertThat(bitmap.toArray(-1, 3)).containsExactly(1, 3, 65_535);
+        assertThat(bitmap.toArray(65_535, 10)).containsExactly(65_536, 70_000, 200_000);
+        assertThat(bitmap.toArray(200_000, 10)).isEmpty();
+        assertThatThrownBy(() -> bitmap.add(-1)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static long[] toArray(TreeSet<Long> ids) {
+        return ids.stream().mapToLong(Long::longValue).toArray();
+    }
+}
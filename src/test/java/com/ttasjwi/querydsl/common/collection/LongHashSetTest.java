@@ -0,0 +1,43 @@
+package com.ttasjwi.querydsl.common.collection;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LongHashSetTest {
+
+    @Test
+    @DisplayName("추가 - 용량이 늘어나도 HashSet과 결과가 같다")
+    public void add() {
+        Random random = new Random(42);
+        LongHashSet set = new LongHashSet(4);
+        Set<Long> expected = new HashSet<>();
+
+        for (int i = 0; i < 50_000; i++) {
+            long value = random.nextInt(20_000) - 10_000;
+            assertThat(set.add(value)).isEqualTo(expected.add(value));
+        }
+        assertThat(set.size()).isEqualTo(expected.size());
+        for (long value = -10_000; value < 10_000; value += 7) {
+            assertThat(set.contains(value)).isEqualTo(expected.contains(value));
+        }
+    }
+
+    @Test
+    @DisplayName("0은 빈 칸 표시와 별개로 기록한다")
+    public void zero() {
+        LongHashSet set = new LongHashSet();
+        assertThat(set.isEmpty()).isTrue();
+        assertThat(set.contains(0)).isFalse();
+
+        assertThat(set.add(0)).isTrue();
+        assertThat(set.add(0)).isFalse();
+        assertThat(set.contains(0)).isTrue();
+        assertThat(set.size()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,54 @@
+package com.ttasjwi.querydsl.common.collection;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LongLongHashMapTest {
+
+    @Test
+    @DisplayName("추가, 덮어쓰기, 삭제를 섞어도 HashMap과 결과가 같다")
+    public void putAndRemove() {
+        Random random = new Random(42);
+        LongLongHashMap map = new LongLongHashMap(4);
+        Map<Long, Long> expected = new HashMap<>();
+
+        for (int i = 0; i < 100_000; i++) {
+            long key = random.nextInt(5_000) - 2_500;
+            if (random.nextInt(3) == 0) {
+                assertThat(map.remove(key)).isEqualTo(expected.remove(key) != null);
+            } else {
+                long value = random.nextLong();
+                map.put(key, value);
+                expected.put(key, value);
+            }
+        }
+        assertThat(map.size()).isEqualTo(expected.size());
+        for (long key = -2_500; key < 2_500; key++) {
+            assertThat(map.containsKey(key)).isEqualTo(expected.containsKey(key));
+            assertThat(map.get(key, -1)).isEqualTo(expected.getOrDefault(key, -1L));
+        }
+    }
+
+    @Test
+    @DisplayName("키 0은 빈 칸 표시와 별개로 기록한다")
+    public void zero() {
+        LongLongHashMap map = new LongLongHashMap();
+        assertThat(map.containsKey(0)).isFalse();
+        assertThat(map.get(0, -1)).isEqualTo(-1);
+
+        map.put(0, 7);
+        map.put(0, 8);
+        assertThat(map.get(0, -1)).isEqualTo(8);
+        assertThat(map.size()).isEqualTo(1);
+
+        assertThat(map.remove(0)).isTrue();
+        assertThat(map.remove(0)).isFalse();
+        assertThat(map.isEmpty()).isTrue();
+    }
+}
@@ -0,0 +1,114 @@
+package com.ttasjwi.querydsl.common.concurrent;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SingleFlightTest {
+
+    @Test
+    @DisplayName("실행 중인 같은 키의 요청은 하나의 실행 결과를 공유한다")
+    public void coalesceTest() throws Exception {
+        SingleFlight<String, Integer> singleFlight = new SingleFlight<>();
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        int threadCount = 10;
+
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        List<Future<Integer>> futures = new ArrayList<>();
+        for (int i = 0; i < threadCount; i++) {
+            futures.add(executor.submit(() -> singleFlight.execute("key", () -> {
+                loads.incrementAndGet();
+                await(release);
+                return 42;
+            }, Duration.ofSeconds(5))));
+        }
+
+        while (singleFlight.getRequests() < threadCount) {
+            Thread.sleep(10);
+        }
+        release.countDown();
+
+        for (Future<Integer> future : futures) {
+            assertThat(future.get(5, TimeUnit.SECONDS)).isEqualTo(42);
+        }
+        executor.shutdown();
+
+        assertThat(loads.get()).isEqualTo(1);
+        assertThat(singleFlight.getExecutions()).isEqualTo(1);
+        assertThat(singleFlight.getCoalesced()).isEqualTo(threadCount - 1);
+        assertThat(singleFlight.getCoalescingRatio()).isEqualTo(0.9);
+    }
+
+    @Test
+    @DisplayName("대기 시간을 넘겨 직접 실행한 요청은 공유받은 요청으로 세지 않는다")
+    public void waitTimeoutTest() throws Exception {
+        SingleFlight<String, Integer> singleFlight = new SingleFlight<>();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        Future<Integer> leader = executor.submit(() -> singleFlight.execute("key", () -> {
+            started.countDown();
+            await(release);
+            return 1;
+        }, Duration.ofSeconds(5)));
+        await(started);
+
+        assertThat(singleFlight.execute("key", () -> 2, Duration.ofMillis(10))).isEqualTo(2);
+        release.countDown();
+        assertThat(leader.get(5, TimeUnit.SECONDS)).isEqualTo(1);
+        executor.shutdown();
+
+        assertThat(singleFlight.getRequests()).isEqualTo(2);
+        assertThat(singleFlight.getExecutions()).isEqualTo(2);
+        assertThat(singleFlight.getWaitTimeouts()).isEqualTo(1);
+        assertThat(singleFlight.getCoalesced()).isZero();
+        assertThat(singleFlight.getCoalescingRatio()).isZero();
+    }
+
+    @Test
+    @DisplayName("실행이 끝난 키는 다시 실행한다 (결과를 보관하지 않음)")
+    public void noCachingTest() {
+        SingleFlight<String, Integer> singleFlight = new SingleFlight<>();
+        AtomicInteger loads = new AtomicInteger();
+
+        singleFlight.execute("key", loads::incrementAndGet, Duration.ofSeconds(1));
+        singleFlight.execute("key", loads::incrementAndGet, Duration.ofSeconds(1));
+
+        assertThat(loads.get()).isEqualTo(2);
+        assertThat(singleFlight.getCoalesced()).isZero();
+    }
+
+    @Test
+    @DisplayName("실행 중 발생한 예외는 호출자에게 전파된다")
+    public void exceptionTest() {
+        SingleFlight<String, Integer> singleFlight = new SingleFlight<>();
+
+        assertThatThrownBy(() -> singleFlight.execute("key", () -> {
+            throw new IllegalArgumentException("fail");
+        }, Duration.ofSeconds(1))).isInstanceOf(IllegalArgumentException.class);
+
+        assertThat(singleFlight.execute("key", () -> 1, Duration.ofSeconds(1))).isEqualTo(1);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
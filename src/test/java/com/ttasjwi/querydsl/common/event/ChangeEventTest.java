@@ -0,0 +1,318 @@
+package com.ttasjwi.querydsl.common.event;
+
+import com.ttasjwi.querydsl.member.domain.Member;
+import com.ttasjwi.querydsl.member.repository.MemberJpaRepository;
+import com.ttasjwi.querydsl.team.domain.Team;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * 커밋된 변경만 outbox에 남고, 발생 순서대로 발행되는지 확인
+ * 커밋이 필요하므로 테스트 트랜잭션을 쓰지 않고 직접 정리한다.
+ */
+@SpringBootTest
+class ChangeEventTest {
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MemberJpaRepository memberJpaRepository;
+
+    @Autowired
+    private ChangeEventRecorder changeEventRecorder;
+
+    @Autowired
+    private ChangeEventProperties properties;
+
+    private TransactionTemplate transactionTemplate;
+    private final List<ChangeEvent> handled = new ArrayList<>();
+    private final Set<Long> failingAggregateIds = new HashSet<>();
+    private ChangeEventDispatcher dispatcher;
+    private Duration gapTimeout;
+    private int maxAttempts;
+    private Duration retention;
+    private int purgeBatchSize;
+
+    @BeforeEach
+    void before() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        gapTimeout = properties.getGapTimeout();
+        maxAttempts = properties.getMaxAttempts();
+        retention = properties.getRetention();
+        purgeBatchSize = properties.getPurgeBatchSize();
+        deleteAll();
+
+        StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+        beanFactory.addBean("recordingHandler", (ChangeEventHandler) events -> {
+            if (events.stream().anyMatch(event -> failingAggregateIds.contains(event.getAggregateId()))) {
+                throw new IllegalStateException("처리 실패");
+            }
+            handled.addAll(events);
+        });
+        dispatcher = new ChangeEventDispatcher(em, transactionManager,
+                beanFactory.getBeanProvider(ChangeEventHandler.class), properties);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        properties.setGapTimeout(gapTimeout);
+        properties.setMaxAttempts(maxAttempts);
+        properties.setRetention(retention);
+        properties.setPurgeBatchSize(purgeBatchSize);
+        deleteAll();
+    }
+
+    private void deleteAll() {
+        transactionTemplate.executeWithoutResult(status -> {
+            em.createQuery("delete from ChangeEvent").executeUpdate();
+            em.createQuery("delete from Member").executeUpdate();
+            em.createQuery("delete from Team").executeUpdate();
+        });
+    }
+
+    @Test
+    @DisplayName("등록, 변경 감지, 팀 이동, 벌크 수정, 삭제 이벤트가 순서대로 발행된다")
+    public void dispatchInOrder() {
+        Long[] ids = transactionTemplate.execute(status -> {
+            Team teamA = new Team("teamA");
+            Team teamB = new Team("teamB");
+            em.persist(teamA);
+            em.persist(teamB);
+            Member member = new Member("member1", 10, teamA);
+            em.persist(member);
+            return new Long[]{teamA.getId(), teamB.getId(), member.getId()};
+        });
+        Long teamAId = ids[0];
+        Long teamBId = ids[1];
+        Long memberId = ids[2];
+
+        transactionTemplate.executeWithoutResult(status -> {
+            Member member = em.find(Member.class, memberId);
+            member.setAge(11);
+            member.changeTeam(em.find(Team.class, teamBId));
+        });
+        transactionTemplate.executeWithoutResult(status -> memberJpaRepository.bulkAgePlus(0));
+        transactionTemplate.executeWithoutResult(status -> memberJpaRepository.bulkDeleteByAgeGt(0));
+
+        int dispatched = dispatcher.dispatchPending();
+        assertThat(handled).extracting("aggregateType", "aggregateId", "changeType")
+                .containsExactly(
+                        tuple(AggregateType.TEAM, teamAId, ChangeType.CREATED),
+                        tuple(AggregateType.TEAM, teamBId, ChangeType.CREATED),
+                        tuple(AggregateType.MEMBER, memberId, ChangeType.CREATED),
+                        tuple(AggregateType.MEMBER, memberId, ChangeType.UPDATED),
+                        tuple(AggregateType.MEMBER, memberId, ChangeType.UPDATED),
+                        tuple(AggregateType.MEMBER, memberId, ChangeType.DELETED));
+        assertThat(dispatched).isEqualTo(6);
+
+        assertThat(dispatcher.dispatchPending()).isZero();
+    }
+
+    @Test
+    @DisplayName("롤백된 변경은 이벤트가 남지 않는다")
+    public void rollback() {
+        transactionTemplate.executeWithoutResult(status -> {
+            em.persist(new Team("teamA"));
+            status.setRollbackOnly();
+        });
+
+        assertThat(dispatcher.dispatchPending()).isZero();
+        assertThat(handled).isEmpty();
+    }
+
+    @Test
+    @DisplayName("먼저 식별자를 받은 트랜잭션이 늦게 커밋되어도 식별자 순서대로 발행된다")
+    public void waitForEarlierCommit() throws Exception {
+        properties.setGapTimeout(Duration.ofMinutes(1));
+        record(1L);
+        assertThat(dispatcher.dispatchPending()).isEqualTo(1);
+
+        CountDownLatch recorded = new CountDownLatch(1);
+        CountDownLatch commit = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> slow = executor.submit(() -> transactionTemplate.executeWithoutResult(status -> {
+                changeEventRecorder.record(AggregateType.MEMBER, 2L, ChangeType.CREATED);
+                recorded.countDown();
+                await(commit);
+            }));
+            await(recorded);
+            record(3L);
+
+            assertThat(dispatcher.dispatchPending()).isZero();
+
+            commit.countDown();
+            slow.get(5, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(dispatcher.dispatchPending()).isEqualTo(2);
+        assertThat(handled).extracting("aggregateId").containsExactly(1L, 2L, 3L);
+    }
+
+    @Test
+    @DisplayName("롤백으로 빈 식별자는 gapTimeout이 지나면 건너뛴다")
+    public void skipRolledBackGap() throws InterruptedException {
+        properties.setGapTimeout(Duration.ofMillis(100));
+        record(1L);
+        assertThat(dispatcher.dispatchPending()).isEqualTo(1);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            changeEventRecorder.record(AggregateType.MEMBER, 2L, ChangeType.CREATED);
+            status.setRollbackOnly();
+        });
+        record(3L);
+
+        assertThat(dispatcher.dispatchPending()).isZero();
+        Thread.sleep(150);
+        assertThat(dispatcher.dispatchPending()).isEqualTo(1);
+        assertThat(handled).extracting("aggregateId").containsExactly(1L, 3L);
+    }
+
+    @Test
+    @DisplayName("처리에 계속 실패하는 이벤트는 maxAttempts 번 뒤 parked로 옮기고 다음 이벤트를 발행한다")
+    public void parkPoisonEvent() {
+        properties.setMaxAttempts(2);
+        failingAggregateIds.add(2L);
+        record(1L);
+        record(2L);
+        record(3L);
+
+        assertThat(dispatcher.dispatchPending()).isEqualTo(1);
+        assertThat(handled).extracting("aggregateId").containsExactly(1L);
+
+        assertThat(dispatcher.dispatchPending()).isEqualTo(2);
+        assertThat(handled).extracting("aggregateId").containsExactly(1L, 3L);
+        assertThat(dispatcher.dispatchPending()).isZero();
+
+        ChangeEvent parked = transactionTemplate.execute(status -> em
+                .createQuery("select e from ChangeEvent e where e.aggregateId = 2", ChangeEvent.class)
+                .getSingleResult());
+        assertThat(parked.isParked()).isTrue();
+        assertThat(parked.isPublished()).isFalse();
+        assertThat(parked.getAttempts()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("되돌린 parked 이벤트는 실패 횟수가 초기화되어 다시 발행된다")
+    public void unparkRedelivers() {
+        properties.setMaxAttempts(2);
+        failingAggregateIds.add(2L);
+        record(1L);
+        record(2L);
+        record(3L);
+        dispatcher.dispatchPending();
+        dispatcher.dispatchPending();
+        Long parkedId = findEvent(2L).getId();
+        assertThat(findEvent(2L).isParked()).isTrue();
+
+        assertThat(dispatcher.unpark(parkedId)).isTrue();
+        assertThat(dispatcher.unpark(parkedId)).isFalse();
+
+        // 한 번 더 실패해도 바로 parked로 옮겨지지 않는다
+        assertThat(dispatcher.dispatchPending()).isZero();
+        ChangeEvent retried = findEvent(2L);
+        assertThat(retried.isParked()).isFalse();
+        assertThat(retried.getAttempts()).isEqualTo(1);
+
+        failingAggregateIds.clear();
+        assertThat(dispatcher.dispatchPending()).isEqualTo(1);
+        assertThat(handled).extracting("aggregateId").containsExactly(1L, 3L, 2L);
+        assertThat(findEvent(2L).isPublished()).isTrue();
+    }
+
+    @Test
+    @DisplayName("보관 시간이 지난 발행 완료 이벤트를 지우고, parked와 미발행, 마지막 발행 이벤트는 남긴다")
+    public void purgeDispatched() throws InterruptedException {
+        properties.setMaxAttempts(1);
+        properties.setPurgeBatchSize(2);
+        failingAggregateIds.add(2L);
+        for (long memberId = 1; memberId <= 5; memberId++) {
+            record(memberId);
+        }
+        assertThat(dispatcher.dispatchPending()).isEqualTo(5);
+        record(6L);
+        long lastDispatchedId = dispatcher.findLastDispatchedId();
+
+        // 보관 시간이 지나지 않았으면 지우지 않는다
+        assertThat(dispatcher.purgeDispatched()).isZero();
+
+        properties.setRetention(Duration.ofMillis(1));
+        Thread.sleep(10);
+        assertThat(dispatcher.purgeDispatched()).isEqualTo(3);
+        assertThat(dispatcher.purgeDispatched()).isZero();
+
+        List<ChangeEvent> remaining = transactionTemplate.execute(status -> em
+                .createQuery("select e from ChangeEvent e order by e.id", ChangeEvent.class)
+                .getResultList());
+        assertThat(remaining).extracting("aggregateId", "published", "parked")
+                .containsExactly(
+                        tuple(2L, false, true),
+                        tuple(5L, true, false),
+                        tuple(6L, false, false));
+        assertThat(dispatcher.findLastDispatchedId()).isEqualTo(lastDispatchedId);
+
+        // 남은 이벤트는 이어서 발행된다
+        assertThat(dispatcher.dispatchPending()).isEqualTo(1);
+        assertThat(handled).extracting("aggregateId").containsExactly(1L, 3L, 4L, 5L, 6L);
+    }
+
+    @Test
+    @DisplayName("트랜잭션 밖에서 기록하면 새 트랜잭션으로 바로 기록한다")
+    public void recordWithoutTransaction() {
+        changeEventRecorder.recordAll(AggregateType.MEMBER, List.of(1L, 2L), ChangeType.UPDATED);
+
+        assertThat(dispatcher.dispatchPending()).isEqualTo(2);
+        assertThat(handled).extracting("aggregateId").containsExactly(1L, 2L);
+    }
+
+    private void record(Long memberId) {
+        transactionTemplate.executeWithoutResult(status ->
+                changeEventRecorder.record(AggregateType.MEMBER, memberId, ChangeType.CREATED));
+    }
+
+    private ChangeEvent findEvent(Long aggregateId) {
+        return transactionTemplate.execute(status -> em
+                .createQuery("select e from ChangeEvent e where e.aggregateId = :aggregateId", ChangeEvent.class)
+                .setParameter("aggregateId", aggregateId)
+                .getSingleResult());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            if (!latch.await(5, TimeUnit.SECONDS)) {
+                throw new IllegalStateException("대기 시간 초과");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.ttasjwi.querydsl.common.perf;
+
+import com.ttasjwi.querydsl.common.query.profile.QueryShapeProfiler;
+import com.ttasjwi.querydsl.common.query.profile.QueryShapeReport;
+import com.ttasjwi.querydsl.member.domain.Member;
+import com.ttasjwi.querydsl.member.repository.MemberJpaRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+@SpringBootTest
+@Transactional
+class PerfEndpointTest {
+
+    @Autowired
+    private MemberJpaRepository memberJpaRepository;
+
+    @Autowired
+    private PerfEndpoint perfEndpoint;
+
+    @Autowired
+    private HibernateStatisticsSampler sampler;
+
+    @Autowired
+    private RepositoryTimingAspect repositoryTiming;
+
+    @Autowired
+    private QueryShapeProfiler profiler;
+
+    @BeforeEach
+    void before() {
+        for (int i = 0; i < 10; i++) {
+            memberJpaRepository.save(new Member("member" + i, i));
+        }
+        perfEndpoint.reset();
+    }
+
+    @Test
+    @DisplayName("구간 통계의 쿼리 지문이 쿼리 모양, 리포지토리 메서드와 연결된다")
+    public void correlate() {
+        for (int i = 0; i < 3; i++) {
+            memberJpaRepository.findByName_Querydsl("member" + i);
+        }
+        memberJpaRepository.findAll_Querydsl();
+
+        StatisticsInterval interval = sampler.sample();
+        assertThat(interval.getCounters().get("queryExecutions")).isEqualTo(4);
+        assertThat(interval.getQueries())
+                .extracting("executions", "rows")
+                .containsExactlyInAnyOrder(
+                        tuple(3L, 3L),
+                        tuple(1L, 10L));
+
+        List<String> shapeFingerprints = profiler.top(10, QueryShapeProfiler.SortBy.TOTAL).stream()
+                .map(QueryShapeReport::getFingerprint)
+                .collect(Collectors.toList());
+        assertThat(interval.getQueries())
+                .extracting(StatisticsInterval.QueryInterval::getFingerprint)
+                .containsExactlyInAnyOrderElementsOf(shapeFingerprints);
+
+        List<RepositoryMethodReport> methods = repositoryTiming.top(10);
+        assertThat(methods)
+                .extracting(RepositoryMethodReport::getMethod, RepositoryMethodReport::getCount)
+                .containsExactlyInAnyOrder(
+                        tuple("MemberJpaRepository.findByName_Querydsl", 3L),
+                        tuple("MemberJpaRepository.findAll_Querydsl", 1L));
+        for (RepositoryMethodReport method : methods) {
+            assertThat(method.getShapes()).hasSize(1);
+            assertThat(shapeFingerprints).contains(method.getShapes().get(0));
+        }
+    }
+
+    @Test
+    @DisplayName("다음 구간은 직전 스냅샷 이후 증가분만 담는다")
+    public void intervalDiff() {
+        memberJpaRepository.findAll_Querydsl();
+        sampler.sample();
+
+        memberJpaRepository.findAll_Querydsl();
+        memberJpaRepository.findAll_Querydsl();
+        StatisticsInterval interval = sampler.sample();
+
+        assertThat(interval.getCounters().get("queryExecutions")).isEqualTo(2);
+        assertThat(interval.getQueries()).hasSize(1);
+        assertThat(interval.getQueries().get(0).getExecutions()).isEqualTo(2);
+        assertThat(sampler.history()).hasSize(2).first().isEqualTo(interval);
+    }
+
+    @Test
+    @DisplayName("실행 중에 통계를 끄면 꺼진 동안의 쿼리는 세지 않고, 다시 켜면 이어서 센다")
+    public void toggleStatistics() {
+        memberJpaRepository.findAll_Querydsl();
+        try {
+            StatisticsInterval beforeOff = perfEndpoint.sample(false);
+            assertThat(beforeOff.getCounters().get("queryExecutions")).isEqualTo(1);
+            assertThat(sampler.isEnabled()).isFalse();
+
+            memberJpaRepository.findAll_Querydsl();
+            perfEndpoint.sample(true);
+            assertThat(sampler.isEnabled()).isTrue();
+
+            memberJpaRepository.findAll_Querydsl();
+            assertThat(sampler.sample().getCounters().get("queryExecutions")).isEqualTo(1);
+        } finally {
+            sampler.setEnabled(true);
+        }
+    }
+}
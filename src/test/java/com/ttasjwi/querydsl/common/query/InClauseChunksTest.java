@@ -0,0 +1,44 @@
+package com.ttasjwi.querydsl.common.query;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InClauseChunksTest {
+
+    @Test
+    @DisplayName("청크 크기는 2의 거듭제곱으로 패딩되고 최대 크기를 넘지 않는다")
+    public void paddedSizeTest() {
+        assertThat(InClauseChunks.paddedSize(1, 512)).isEqualTo(1);
+        assertThat(InClauseChunks.paddedSize(3, 512)).isEqualTo(4);
+        assertThat(InClauseChunks.paddedSize(64, 512)).isEqualTo(64);
+        assertThat(InClauseChunks.paddedSize(65, 512)).isEqualTo(128);
+        assertThat(InClauseChunks.paddedSize(90, 100)).isEqualTo(100);
+    }
+
+    @Test
+    @DisplayName("중복 제거 후 분할하고, 모자란 자리는 마지막 값으로 채운다")
+    public void splitTest() {
+        List<Long> ids = LongStream.rangeClosed(1, 11).boxed().collect(Collectors.toList());
+        ids.add(1L);
+
+        List<List<Long>> chunks = InClauseChunks.split(ids, 8);
+
+        assertThat(chunks).hasSize(2);
+        assertThat(chunks.get(0)).containsExactly(1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L);
+        assertThat(chunks.get(1)).containsExactly(9L, 10L, 11L, 11L);
+    }
+
+    @Test
+    @DisplayName("null과 빈 입력")
+    public void emptyTest() {
+        assertThat(InClauseChunks.split(Arrays.asList(null, null), 8)).isEmpty();
+        assertThat(InClauseChunks.split(List.of(), 8)).isEmpty();
+    }
+}
@@ -0,0 +1,36 @@
+package com.ttasjwi.querydsl.common.query.profile;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LatencyHistogramTest {
+
+    @Test
+    @DisplayName("모든 값은 상한이 값 이상이고 오차 25% 이내인 버킷에 들어간다")
+    public void bucketBounds() {
+        for (long value = 0; value < 100_000; value++) {
+            int bucket = LatencyHistogram.bucketOf(value);
+            long upperBound = LatencyHistogram.upperBoundOf(bucket);
+            assertThat(upperBound).isGreaterThanOrEqualTo(value);
+            assertThat(upperBound).isLessThanOrEqualTo((long) (value * 1.25) + 1);
+        }
+        assertThat(LatencyHistogram.bucketOf(Long.MAX_VALUE)).isEqualTo(LatencyHistogram.BUCKET_COUNT - 1);
+        assertThat(LatencyHistogram.upperBoundOf(LatencyHistogram.BUCKET_COUNT - 1)).isEqualTo(LatencyHistogram.MAX_VALUE);
+    }
+
+    @Test
+    @DisplayName("백분위 값")
+    public void percentile() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertThat(histogram.percentile(0.5)).isZero();
+
+        for (int i = 1; i <= 1_000; i++) {
+            histogram.record(i);
+        }
+        assertThat(histogram.percentile(0.50)).isBetween(500L, 625L);
+        assertThat(histogram.percentile(0.99)).isBetween(990L, 1_238L);
+        assertThat(histogram.percentile(1.0)).isBetween(1_000L, 1_250L);
+    }
+}
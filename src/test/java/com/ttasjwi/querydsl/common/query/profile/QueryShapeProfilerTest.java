@@ -0,0 +1,81 @@
+package com.ttasjwi.querydsl.common.query.profile;
+
+import com.ttasjwi.querydsl.member.domain.Member;
+import com.ttasjwi.querydsl.member.dto.MemberSearchCondition;
+import com.ttasjwi.querydsl.member.repository.MemberJpaRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+@SpringBootTest
+@Transactional
+class QueryShapeProfilerTest {
+
+    @Autowired
+    private MemberJpaRepository memberJpaRepository;
+
+    @Autowired
+    private QueryShapeProfiler profiler;
+
+    @BeforeEach
+    void before() {
+        for (int i = 0; i < 10; i++) {
+            memberJpaRepository.save(new Member("member" + i, i));
+        }
+        profiler.reset();
+    }
+
+    @Test
+    @DisplayName("파라미터 값만 다른 쿼리는 같은 모양으로 모인다")
+    public void sameShape() {
+        for (int i = 0; i < 3; i++) {
+            memberJpaRepository.findByName_Querydsl("member" + i);
+        }
+        memberJpaRepository.findAll_Querydsl();
+
+        List<QueryShapeReport> reports = profiler.top(10, QueryShapeProfiler.SortBy.COUNT);
+        assertThat(reports).hasSize(2);
+        assertThat(reports.get(0).getCount()).isEqualTo(3);
+        assertThat(reports.get(0).getTotalRows()).isEqualTo(3);
+        assertThat(reports.get(1).getCount()).isEqualTo(1);
+        assertThat(reports.get(1).getTotalRows()).isEqualTo(10);
+        assertThat(reports.get(0).getFingerprint()).isNotEqualTo(reports.get(1).getFingerprint());
+    }
+
+    @Test
+    @DisplayName("where 절 파라미터 조합이 다르면 다른 모양")
+    public void differentWhereShape() {
+        MemberSearchCondition byName = new MemberSearchCondition();
+        byName.setMemberName("member1");
+        MemberSearchCondition byAge = new MemberSearchCondition();
+        byAge.setAgeGoe(5);
+
+        memberJpaRepository.search(byName);
+        memberJpaRepository.search(byAge);
+        memberJpaRepository.search(byAge);
+
+        List<QueryShapeReport> reports = profiler.top(10, QueryShapeProfiler.SortBy.ROWS);
+        assertThat(reports).extracting("count", "totalRows")
+                .containsExactly(
+                        tuple(2L, 10L),
+                        tuple(1L, 1L));
+    }
+
+    @Test
+    @DisplayName("공백 정규화와 지문")
+    public void normalize() {
+        String normalized = QueryShapeProfiler.normalize(" select member\n from Member member ");
+        assertThat(normalized).isEqualTo("select member from Member member");
+        assertThat(QueryShapeProfiler.fingerprint(normalized))
+                .hasSize(16)
+                .isEqualTo(QueryShapeProfiler.fingerprint("select member from Member member"));
+    }
+}
@@ -0,0 +1,41 @@
+package com.ttasjwi.querydsl.member.dto;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MemberSearchConditionTest {
+
+    @Test
+    @DisplayName("정규화 - 이름 공백 제거, 빈 문자열은 조건 없음")
+    public void normalizeTest() {
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setMemberName("  member1 ");
+        condition.setTeamName("   ");
+        condition.setAgeGoe(10);
+
+        MemberSearchCondition expected = new MemberSearchCondition();
+        expected.setMemberName("member1");
+        expected.setAgeGoe(10);
+
+        MemberSearchCondition normalized = condition.normalize();
+        assertThat(normalized).isEqualTo(expected);
+        assertThat(normalized.hashCode()).isEqualTo(expected.hashCode());
+        assertThat(condition.getMemberName()).isEqualTo("  member1 ");
+    }
+
+    @Test
+    @DisplayName("나이 범위 모순 판별")
+    public void unsatisfiableTest() {
+        MemberSearchCondition condition = new MemberSearchCondition();
+        assertThat(condition.isUnsatisfiable()).isFalse();
+
+        condition.setAgeGoe(30);
+        condition.setAgeLoe(30);
+        assertThat(condition.isUnsatisfiable()).isFalse();
+
+        condition.setAgeLoe(29);
+        assertThat(condition.isUnsatisfiable()).isTrue();
+    }
+}
@@ -0,0 +1,118 @@
+package com.ttasjwi.querydsl.member.repository;
+
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import com.ttasjwi.querydsl.member.domain.Member;
+import com.ttasjwi.querydsl.member.domain.QMember;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static com.querydsl.jpa.JPAExpressions.select;
+import static com.ttasjwi.querydsl.member.domain.QMember.member;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 상관 서브쿼리 조회와 집계값 선계산 조회의 수행 시간 비교
+ * ./gradlew benchmark 로 실행
+ */
+@Slf4j
+@Tag("benchmark")
+@SpringBootTest
+@Transactional
+class MemberAggregateQueryBenchmarkTest {
+
+    private static final int TEAM_COUNT = 20;
+    private static final int MEMBER_COUNT = 5_000;
+    private static final int WARMUP = 3;
+    private static final int ITERATIONS = 10;
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private MemberJpaRepository memberJpaRepository;
+
+    @Autowired
+    private MemberBulkLoader memberBulkLoader;
+
+    private JPAQueryFactory queryFactory;
+
+    @BeforeEach
+    void before() {
+        queryFactory = new JPAQueryFactory(em);
+        memberBulkLoader.load(TEAM_COUNT, MEMBER_COUNT);
+    }
+
+    @Test
+    @DisplayName("최고령 회원 조회 - 서브쿼리 vs 선계산")
+    public void oldestMembers() {
+        QMember memberSub = new QMember("memberSub");
+        compare(() -> queryFactory
+                        .selectFrom(member)
+                        .where(member.age.eq(
+                                select(memberSub.age.max())
+                                        .from(memberSub)))
+                        .fetch(),
+                memberJpaRepository::findOldestMembers);
+    }
+
+    @Test
+    @DisplayName("평균 나이 이상 회원 조회 - 서브쿼리 vs 선계산")
+    public void membersAgeGoeAverage() {
+        QMember memberSub = new QMember("memberSub");
+        compare(() -> queryFactory
+                        .selectFrom(member)
+                        .where(member.age.goe(
+                                select(memberSub.age.avg())
+                                        .from(memberSub)))
+                        .fetch(),
+                memberJpaRepository::findMembersAgeGoeAverage);
+    }
+
+    @Test
+    @DisplayName("팀 평균 나이 초과 회원 조회 - 상관 서브쿼리 vs 팀별 집계")
+    public void membersOlderThanTeamAverage() {
+        QMember memberSub = new QMember("memberSub");
+        compare(() -> queryFactory
+                        .selectFrom(member)
+                        .where(member.age.gt(
+                                select(memberSub.age.avg())
+                                        .from(memberSub)
+                                        .where(memberSub.team.eq(member.team))))
+                        .fetch(),
+                memberJpaRepository::findMembersOlderThanTeamAverage);
+    }
+
+    private void compare(Supplier<List<Member>> subQuery, Supplier<List<Member>> aggregate) {
+        List<Member> expected = subQuery.get();
+        List<Member> actual = aggregate.get();
+        assertThat(actual).containsExactlyInAnyOrderElementsOf(expected);
+
+        long subQueryNanos = measure(subQuery);
+        long aggregateNanos = measure(aggregate);
+        log.info("rows = {} // subQuery = {}us // aggregate = {}us",
+                expected.size(), subQueryNanos / 1_000, aggregateNanos / 1_000);
+    }
+
+    private long measure(Supplier<List<Member>> query) {
+        for (int i = 0; i < WARMUP; i++) {
+            query.get();
+            em.clear();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            query.get();
+            em.clear();
+        }
+        return (System.nanoTime() - start) / ITERATIONS;
+    }
+}
@@ -0,0 +1,85 @@
+package com.ttasjwi.querydsl.member.repository;
+
+import com.sun.management.OperatingSystemMXBean;
+import com.ttasjwi.querydsl.member.dto.MemberAgeRankDto;
+import lombok.extern.slf4j.Slf4j;
+import org.assertj.core.groups.Tuple;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * 나이 구간, 정렬 순위를 DB(CaseBuilder)에서 계산할 때와 애플리케이션에서 계산할 때의 비용 비교
+ * wall : 전체 소요 시간, process cpu : 프로세스 전체 CPU 시간 (APPLICATION_PARALLEL의 ForkJoin 작업 스레드 포함),
+ * caller cpu : 호출 스레드 CPU 시간
+ * 테스트 DB(H2)는 같은 프로세스에서 실행되므로 process cpu에는 DB 쪽 계산도 들어 있다. (DB 서버 CPU는 따로 재야 한다)
+ */
+@Slf4j
+@Tag("benchmark")
+@SpringBootTest
+@Transactional
+class MemberComputeModeBenchmarkTest {
+
+    private static final int MEMBER_COUNT = 20_000;
+    private static final int WARMUP = 3;
+    private static final int ITERATIONS = 10;
+
+    @Autowired
+    private MemberJpaRepository memberJpaRepository;
+
+    @Autowired
+    private MemberBulkLoader memberBulkLoader;
+
+    @BeforeEach
+    void before() {
+        memberBulkLoader.load(0, MEMBER_COUNT);
+    }
+
+    @Test
+    @DisplayName("나이 구간, 정렬 순위 계산 - DB vs 애플리케이션")
+    public void computeModes() {
+        List<MemberAgeRankDto> expected = memberJpaRepository.findAgeRanks(ComputeMode.DATABASE);
+
+        for (ComputeMode mode : ComputeMode.values()) {
+            List<MemberAgeRankDto> result = memberJpaRepository.findAgeRanks(mode);
+            assertThat(result).extracting("rank", "age")
+                    .containsExactlyElementsOf(extractRankAndAge(expected));
+
+            ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+            OperatingSystemMXBean osMXBean = ManagementFactory.getPlatformMXBean(OperatingSystemMXBean.class);
+            for (int i = 0; i < WARMUP; i++) {
+                memberJpaRepository.findAgeRanks(mode);
+            }
+            long wallStart = System.nanoTime();
+            long processCpuStart = osMXBean.getProcessCpuTime();
+            long callerCpuStart = threadMXBean.getCurrentThreadCpuTime();
+            for (int i = 0; i < ITERATIONS; i++) {
+                memberJpaRepository.findAgeRanks(mode);
+            }
+            long wall = (System.nanoTime() - wallStart) / ITERATIONS;
+            long processCpu = (osMXBean.getProcessCpuTime() - processCpuStart) / ITERATIONS;
+            long callerCpu = (threadMXBean.getCurrentThreadCpuTime() - callerCpuStart) / ITERATIONS;
+
+            log.info("mode = {} // rows = {} // wall = {}us // process cpu = {}us // caller cpu = {}us",
+                    mode, result.size(), wall / 1_000, processCpu / 1_000, callerCpu / 1_000);
+        }
+    }
+
+    private List<Tuple> extractRankAndAge(List<MemberAgeRankDto> rows) {
+        return rows.stream()
+                .map(row -> tuple(row.getRank(), row.getAge()))
+                .collect(Collectors.toList());
+    }
+}
@@ -1,6 +1,9 @@
 package com.ttasjwi.querydsl.member.repository;
 
+import com.ttasjwi.querydsl.common.query.profile.QueryShapeProfiler;
 import com.ttasjwi.querydsl.member.domain.Member;
+import com.ttasjwi.querydsl.member.dto.MemberAgeRankDto;
+import com.ttasjwi.querydsl.member.dto.MemberField;
 import com.ttasjwi.querydsl.member.dto.MemberSearchCondition;
 import com.ttasjwi.querydsl.member.dto.MemberTeamDto;
 import com.ttasjwi.querydsl.team.domain.Team;
@@ -12,8 +15,11 @@ import org.springframework.boot.test.context.SpringBootTest;
 import javax.persistence.EntityManager;
 import javax.transaction.Transactional;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
 
 @SpringBootTest
 @Transactional
@@ -25,6 +31,9 @@ class MemberJpaRepositoryTest {
     @Autowired
     private MemberJpaRepository memberJpaRepository;
 
+    @Autowired
+    private QueryShapeProfiler queryShapeProfiler;
+
     @Test
     @DisplayName("순수 JPA 회원 조회 테스트")
     public void basicTest() {
@@ -83,4 +92,131 @@ class MemberJpaRepositoryTest {
         List<MemberTeamDto> result = memberJpaRepository.searchByBuilder(condition);
         assertThat(result).extracting("memberName").containsExactly("member4");
     }
+
+    @Test
+    @DisplayName("집계값 선계산 조회 테스트")
+    public void aggregateTest() {
+        Team teamA = new Team("teamA");
+        Team teamB = new Team("teamB");
+        em.persist(teamA);
+        em.persist(teamB);
+
+        em.persist(new Member("member1", 10, teamA));
+        em.persist(new Member("member2", 20, teamA));
+        em.persist(new Member("member3", 30, teamB));
+        em.persist(new Member("member4", 40, teamB));
+
+        assertThat(memberJpaRepository.findOldestMembers())
+                .extracting("name").containsExactly("member4");
+
+        assertThat(memberJpaRepository.findMembersAgeGoeAverage())
+                .extracting("name").containsExactlyInAnyOrder("member3", "member4");
+
+        // 평균이 소수(20.5)인 팀, 팀이 없는 회원
+        Team teamC = new Team("teamC");
+        em.persist(teamC);
+        em.persist(new Member("member5", 20, teamC));
+        em.persist(new Member("member6", 21, teamC));
+        em.persist(new Member("member7", 99));
+
+        assertThat(memberJpaRepository.findMembersOlderThanTeamAverage())
+                .extracting("name").containsExactlyInAnyOrder("member2", "member4", "member6");
+    }
+
+    @Test
+    @DisplayName("나이 구간, 정렬 순위 - DB 계산과 애플리케이션 계산 결과 비교")
+    public void ageRankTest() {
+        em.persist(new Member("member1", 10));
+        em.persist(new Member("member2", 20));
+        em.persist(new Member("member3", 30));
+        em.persist(new Member("member4", 40));
+
+        List<MemberAgeRankDto> byDatabase = memberJpaRepository.findAgeRanks(ComputeMode.DATABASE);
+        assertThat(byDatabase).extracting("memberName")
+                .containsExactly("member4", "member2", "member1", "member3");
+        assertThat(byDatabase).extracting("ageBucket")
+                .containsExactly("기타", "0~20살", "0~20살", "21~30살");
+
+        assertThat(memberJpaRepository.findAgeRanks(ComputeMode.APPLICATION))
+                .containsExactlyElementsOf(byDatabase);
+        assertThat(memberJpaRepository.findAgeRanks(ComputeMode.APPLICATION_PARALLEL))
+                .containsExactlyElementsOf(byDatabase);
+    }
+
+    @Test
+    @DisplayName("검색 조건 정규화 - 모순 범위, 같은 상하한, 이름 공백")
+    public void normalizedSearchTest() {
+        Team teamA = new Team("teamA");
+        em.persist(teamA);
+        em.persist(new Member("member1", 10, teamA));
+        em.persist(new Member("member2", 20, teamA));
+
+        MemberSearchCondition contradictory = new MemberSearchCondition();
+        contradictory.setAgeGoe(30);
+        contradictory.setAgeLoe(10);
+        assertThat(memberJpaRepository.search(contradictory)).isEmpty();
+        assertThat(memberJpaRepository.searchByBuilder(contradictory)).isEmpty();
+
+        MemberSearchCondition sameBounds = new MemberSearchCondition();
+        sameBounds.setAgeGoe(20);
+        sameBounds.setAgeLoe(20);
+        sameBounds.setTeamName(" teamA ");
+        assertThat(memberJpaRepository.search(sameBounds))
+                .extracting("memberName").containsExactly("member2");
+        assertThat(memberJpaRepository.searchByBuilder(sameBounds))
+                .extracting("memberName").containsExactly("member2");
+    }
+
+    @Test
+    @DisplayName("필요한 필드만 조회 - 팀명 필드, 팀명 조건이 없으면 팀을 조인하지 않는다")
+    public void searchFieldsTest() {
+        Team teamA = new Team("teamA");
+        em.persist(teamA);
+        em.persist(new Member("member1", 10, teamA));
+        em.persist(new Member("member2", 20));
+
+        queryShapeProfiler.reset();
+        List<Map<String, Object>> idAndNames = memberJpaRepository.searchFields(
+                new MemberSearchCondition(), Set.of(MemberField.MEMBER_NAME, MemberField.TEAM_ID), null, null);
+        assertThat(idAndNames).extracting(Map::keySet)
+                .containsOnly(Set.of("memberName", "teamId"));
+        assertThat(idAndNames).extracting(row -> row.get("memberName"), row -> row.get("teamId"))
+                .containsExactlyInAnyOrder(tuple("member1", teamA.getId()), tuple("member2", null));
+        assertThat(queryShapeProfiler.top(1, QueryShapeProfiler.SortBy.COUNT).get(0).getJpql())
+                .doesNotContainIgnoringCase("join");
+
+        MemberSearchCondition byTeamName = new MemberSearchCondition();
+        byTeamName.setTeamName("teamA");
+        List<Map<String, Object>> byTeam = memberJpaRepository.searchFields(
+                byTeamName, Set.of(MemberField.AGE), null, null);
+        assertThat(byTeam).containsExactly(Map.of("age", 10));
+
+        List<Map<String, Object>> allFields = memberJpaRepository.searchFields(
+                byTeamName, Set.of(), null, null);
+        assertThat(allFields).hasSize(1);
+        assertThat(allFields.get(0)).containsKeys("memberId", "memberName", "age", "teamId", "teamName")
+                .containsEntry("teamName", "teamA");
+    }
+
+    @Test
+    @DisplayName("식별자, 이름 목록으로 일괄 조회")
+    public void findAllByIdsAndNamesTest() {
+        Member member1 = new Member("member1", 10);
+        Member member2 = new Member("member2", 20);
+        Member member3 = new Member("member2", 30);
+        memberJpaRepository.save(member1);
+        memberJpaRepository.save(member2);
+        memberJpaRepository.save(member3);
+
+        Map<Long, Member> byIds = memberJpaRepository.findAllByIds(
+                List.of(member3.getId(), -1L, member1.getId(), member3.getId()));
+        assertThat(byIds.keySet()).containsExactly(member3.getId(), member1.getId());
+        assertThat(byIds.get(member1.getId())).isEqualTo(member1);
+
+        Map<String, List<Member>> byNames = memberJpaRepository.findAllByNames(List.of("member2", "none", "member1"));
+        assertThat(byNames.keySet()).containsExactly("member2", "none", "member1");
+        assertThat(byNames.get("member2")).containsExactly(member2, member3);
+        assertThat(byNames.get("none")).isEmpty();
+        assertThat(byNames.get("member1")).containsExactly(member1);
+    }
 }
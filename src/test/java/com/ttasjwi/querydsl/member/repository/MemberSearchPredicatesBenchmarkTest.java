@@ -0,0 +1,123 @@
+package com.ttasjwi.querydsl.member.repository;
+
+import com.querydsl.core.types.Predicate;
+import com.querydsl.core.types.dsl.BooleanExpression;
+import com.querydsl.jpa.impl.JPAQuery;
+import com.ttasjwi.querydsl.member.dto.MemberSearchCondition;
+import com.ttasjwi.querydsl.member.dto.MemberTeamDto;
+import com.ttasjwi.querydsl.member.dto.QMemberTeamDto;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.function.Function;
+
+import static com.ttasjwi.querydsl.member.domain.QMember.member;
+import static com.ttasjwi.querydsl.team.domain.QTeam.team;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 검색 쿼리 조립 단계의 할당량 비교 - 호출마다 술어를 만드는 방식(기존 헬퍼) vs Param 템플릿(MemberSearchPredicates)
+ * JMH 대신 스레드 할당 바이트(com.sun.management.ThreadMXBean)로 잰다. DB는 쓰지 않는다.
+ * predicates : 술어만 만들기, query : JPAQuery 조립 + JPQL 직렬화까지
+ */
+@Slf4j
+@Tag("benchmark")
+class MemberSearchPredicatesBenchmarkTest {
+
+    private static final int WARMUP = 200_000;
+    private static final int ITERATIONS = 1_000_000;
+
+    private static final MemberSearchCondition[] CONDITIONS = {
+            condition("member1", "teamA", 10, 20),
+            condition(null, "teamB", 30, null),
+            condition("member2", null, 40, 40),
+            condition(null, null, null, 50),
+    };
+
+    @Test
+    @DisplayName("술어 만들기 - 호출마다 생성 vs Param 템플릿")
+    public void predicates() {
+        long dynamic = measure("predicates/dynamic", i -> dynamicPredicates(CONDITIONS[i & 3]));
+        long template = measure("predicates/template", i -> MemberSearchPredicates.of(CONDITIONS[i & 3]));
+        assertThat(template).isLessThan(dynamic);
+    }
+
+    @Test
+    @DisplayName("쿼리 조립 + JPQL 직렬화 - 호출마다 생성 vs Param 템플릿")
+    public void query() {
+        long dynamic = measure("query/dynamic", i -> {
+            MemberSearchCondition condition = CONDITIONS[i & 3];
+            return searchQuery().where(dynamicPredicates(condition)).toString();
+        });
+        long template = measure("query/template", i -> {
+            MemberSearchCondition condition = CONDITIONS[i & 3];
+            JPAQuery<MemberTeamDto> query = searchQuery().where(MemberSearchPredicates.of(condition));
+            MemberSearchPredicates.bind(query, condition);
+            return query.toString();
+        });
+        assertThat(template).isLessThanOrEqualTo(dynamic);
+    }
+
+    /**
+     * 반복당 평균 할당 바이트
+     */
+    private long measure(String name, Function<Integer, Object> task) {
+        com.sun.management.ThreadMXBean threadMXBean =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long sink = 0;
+        for (int i = 0; i < WARMUP; i++) {
+            sink += task.apply(i).hashCode();
+        }
+
+        long threadId = Thread.currentThread().getId();
+        long allocatedStart = threadMXBean.getThreadAllocatedBytes(threadId);
+        long wallStart = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            sink += task.apply(i).hashCode();
+        }
+        long wall = (System.nanoTime() - wallStart) / ITERATIONS;
+        long allocated = (threadMXBean.getThreadAllocatedBytes(threadId) - allocatedStart) / ITERATIONS;
+
+        log.info("{} // allocated = {} B/op // wall = {} ns/op // sink = {}", name, allocated, wall, sink);
+        return allocated;
+    }
+
+    private JPAQuery<MemberTeamDto> searchQuery() {
+        return new JPAQuery<>()
+                .select(new QMemberTeamDto(member.id, member.name, member.age, team.id, team.name))
+                .from(member)
+                .leftJoin(member.team, team);
+    }
+
+    /**
+     * MemberJpaRepository의 이전 헬퍼(memberNameEq, teamNameEq, ageBetween)와 같은 방식
+     */
+    private static Predicate[] dynamicPredicates(MemberSearchCondition condition) {
+        return new Predicate[]{
+                condition.getMemberName() != null ? member.name.eq(condition.getMemberName()) : null,
+                condition.getTeamName() != null ? team.name.eq(condition.getTeamName()) : null,
+                ageBetween(condition.getAgeGoe(), condition.getAgeLoe())
+        };
+    }
+
+    private static BooleanExpression ageBetween(Integer ageGoe, Integer ageLoe) {
+        if (ageGoe != null && ageGoe.equals(ageLoe)) {
+            return member.age.eq(ageGoe);
+        }
+        BooleanExpression goe = ageGoe != null ? member.age.goe(ageGoe) : null;
+        BooleanExpression loe = ageLoe != null ? member.age.loe(ageLoe) : null;
+        return goe != null ? goe.and(loe) : loe;
+    }
+
+    private static MemberSearchCondition condition(String memberName, String teamName, Integer ageGoe, Integer ageLoe) {
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setMemberName(memberName);
+        condition.setTeamName(teamName);
+        condition.setAgeGoe(ageGoe);
+        condition.setAgeLoe(ageLoe);
+        return condition.normalize();
+    }
+}
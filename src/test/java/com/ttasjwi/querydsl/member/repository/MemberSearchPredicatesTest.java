@@ -0,0 +1,67 @@
+package com.ttasjwi.querydsl.member.repository;
+
+import com.querydsl.jpa.impl.JPAQuery;
+import com.ttasjwi.querydsl.member.domain.Member;
+import com.ttasjwi.querydsl.member.dto.MemberSearchCondition;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static com.ttasjwi.querydsl.member.domain.QMember.member;
+import static com.ttasjwi.querydsl.team.domain.QTeam.team;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+class MemberSearchPredicatesTest {
+
+    @Test
+    @DisplayName("같은 조건 형태는 값이 달라도 같은 술어를 쓰고, 값은 쿼리마다 바인딩한다")
+    public void sameShapeSharesPredicates() {
+        MemberSearchCondition first = condition("member1", null, 10, 20);
+        MemberSearchCondition second = condition("member2", null, 30, 40);
+
+        assertThat(MemberSearchPredicates.of(second)).isSameAs(MemberSearchPredicates.of(first));
+
+        JPAQuery<Member> query = query(second);
+        assertThat(query.toString()).contains("member1.name = ?1", "member1.age >= ?2", "member1.age <= ?3");
+        assertThat(query.getMetadata().getParams()).containsOnly(
+                entry(MemberSearchPredicates.MEMBER_NAME, "member2"),
+                entry(MemberSearchPredicates.AGE_GOE, 30),
+                entry(MemberSearchPredicates.AGE_LOE, 40));
+    }
+
+    @Test
+    @DisplayName("나이 상한과 하한이 같으면 동등 조건 하나로 합친다")
+    public void ageEq() {
+        JPAQuery<Member> query = query(condition(null, "teamA", 20, 20));
+
+        assertThat(query.toString()).contains("team.name = ?1", "member1.age = ?2");
+        assertThat(query.getMetadata().getParams()).containsOnly(
+                entry(MemberSearchPredicates.TEAM_NAME, "teamA"),
+                entry(MemberSearchPredicates.AGE, 20));
+    }
+
+    @Test
+    @DisplayName("조건이 없으면 술어가 없다")
+    public void noCondition() {
+        assertThat(MemberSearchPredicates.of(new MemberSearchCondition().normalize())).isEmpty();
+    }
+
+    private JPAQuery<Member> query(MemberSearchCondition normalized) {
+        JPAQuery<Member> query = new JPAQuery<Member>()
+                .select(member)
+                .from(member)
+                .leftJoin(member.team, team)
+                .where(MemberSearchPredicates.of(normalized));
+        MemberSearchPredicates.bind(query, normalized);
+        return query;
+    }
+
+    private MemberSearchCondition condition(String memberName, String teamName, Integer ageGoe, Integer ageLoe) {
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setMemberName(memberName);
+        condition.setTeamName(teamName);
+        condition.setAgeGoe(ageGoe);
+        condition.setAgeLoe(ageLoe);
+        return condition.normalize();
+    }
+}
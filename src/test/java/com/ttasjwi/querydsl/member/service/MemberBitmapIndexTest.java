@@ -0,0 +1,238 @@
+package com.ttasjwi.querydsl.member.service;
+
+import com.ttasjwi.querydsl.common.collection.IdBitmap;
+import com.ttasjwi.querydsl.common.event.ChangeEventDispatcher;
+import com.ttasjwi.querydsl.member.domain.Member;
+import com.ttasjwi.querydsl.member.dto.MemberSearchCondition;
+import com.ttasjwi.querydsl.member.dto.MemberSearchResult;
+import com.ttasjwi.querydsl.member.dto.MemberTeamDto;
+import com.ttasjwi.querydsl.member.repository.MemberJpaRepository;
+import com.ttasjwi.querydsl.team.domain.Team;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 변경 이벤트로 갱신한 비트맵 인덱스가 DB 검색 결과와 같은지 확인
+ * 커밋이 필요하므로 테스트 트랜잭션을 쓰지 않고 직접 정리한다.
+ */
+@SpringBootTest
+class MemberBitmapIndexTest {
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MemberJpaRepository memberJpaRepository;
+
+    @Autowired
+    private MemberUpdateService memberUpdateService;
+
+    @Autowired
+    private MemberSearchService memberSearchService;
+
+    @Autowired
+    private ChangeEventDispatcher changeEventDispatcher;
+
+    @Autowired
+    private MemberBitmapIndex memberBitmapIndex;
+
+    @Autowired
+    private MemberSearchProperties properties;
+
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void before() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        cleanUp();
+        properties.getBitmapIndex().setEnabled(true);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        properties.getBitmapIndex().setEnabled(false);
+        transactionTemplate.executeWithoutResult(status -> {
+            em.createQuery("delete from ChangeEvent").executeUpdate();
+            em.createQuery("delete from Member").executeUpdate();
+            em.createQuery("delete from Team").executeUpdate();
+        });
+        memberBitmapIndex.invalidate();
+    }
+
+    @Test
+    @DisplayName("등록, 팀 이동, 나이 변경, 벌크 수정, 삭제 후에도 DB 검색 결과와 같다")
+    public void matchAfterChanges() {
+        Long[] ids = transactionTemplate.execute(status -> {
+            Team teamA = new Team("teamA");
+            Team teamB = new Team("teamB");
+            em.persist(teamA);
+            em.persist(teamB);
+            for (int i = 0; i < 20; i++) {
+                em.persist(new Member("member" + i, i * 5, i % 2 == 0 ? teamA : teamB));
+            }
+            em.persist(new Member("noTeam", 30));
+            Member target = new Member("target", 25, teamA);
+            em.persist(target);
+            return new Long[]{teamA.getId(), teamB.getId(), target.getId()};
+        });
+        changeEventDispatcher.dispatchPending();
+        memberBitmapIndex.load().join();
+        assertMatchesDatabase();
+
+        Long teamBId = ids[1];
+        Long targetId = ids[2];
+        memberUpdateService.changeTeam(targetId, teamBId);
+        memberUpdateService.addAge(targetId, 40);
+        transactionTemplate.executeWithoutResult(status -> {
+            Team teamC = new Team("teamA");
+            em.persist(teamC);
+            em.persist(new Member("newMember", 50, teamC));
+            memberJpaRepository.bulkAgePlus(80);
+        });
+        transactionTemplate.executeWithoutResult(status ->
+                em.remove(em.find(Member.class, targetId)));
+
+        changeEventDispatcher.dispatchPending();
+        assertMatchesDatabase();
+    }
+
+    @Test
+    @DisplayName("이벤트 발행 전 바뀐 회원은 조회할 때 조건을 다시 적용해서 거른다")
+    public void filterStaleMatches() {
+        Long memberId = transactionTemplate.execute(status -> {
+            Member member = new Member("member", 20);
+            em.persist(member);
+            return member.getId();
+        });
+        changeEventDispatcher.dispatchPending();
+        memberBitmapIndex.load().join();
+
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setAgeLoe(25);
+        assertThat(memberSearchService.search(condition).getContent()).hasSize(1);
+
+        memberUpdateService.changeAge(memberId, 30);
+        assertThat(memberBitmapIndex.match(condition.normalize()).cardinality()).isEqualTo(1);
+        assertThat(memberSearchService.search(condition).getContent()).isEmpty();
+
+        changeEventDispatcher.dispatchPending();
+        assertThat(memberBitmapIndex.match(condition.normalize()).isEmpty()).isTrue();
+    }
+
+    @Test
+    @DisplayName("인덱스는 호출자 트랜잭션과 따로 읽고, 다 읽기 전에는 답하지 않는다")
+    public void loadOutsideCallerTransaction() {
+        transactionTemplate.executeWithoutResult(status -> em.persist(new Member("member1", 10)));
+        MemberSearchCondition condition = new MemberSearchCondition();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            em.persist(new Member("uncommitted", 20));
+            em.flush();
+            IdBitmap beforeLoad = memberBitmapIndex.match(condition.normalize());
+            memberBitmapIndex.load().join();
+            assertThat(beforeLoad).isNull();
+            assertThat(memberBitmapIndex.match(condition.normalize()).cardinality()).isEqualTo(1);
+            status.setRollbackOnly();
+        });
+    }
+
+    @Test
+    @DisplayName("인덱스를 읽는 동안 발행된 변경도 다 읽은 뒤 반영한다")
+    public void applyChangesDuringLoad() throws Exception {
+        Long memberId = transactionTemplate.execute(status -> {
+            Member member = new Member("member", 20);
+            em.persist(member);
+            return member.getId();
+        });
+        changeEventDispatcher.dispatchPending();
+
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setAgeGoe(30);
+        var loading = memberBitmapIndex.load();
+        memberUpdateService.changeAge(memberId, 40);
+        changeEventDispatcher.dispatchPending();
+        loading.join();
+
+        assertThat(memberBitmapIndex.match(condition.normalize()).toArray(-1, 10)).containsExactly(memberId);
+    }
+
+    @Test
+    @DisplayName("조건에서 벗어난 회원이 걸러져도 최대 건수를 채워서 잘린 결과인지 판단한다")
+    public void truncateAfterFilteringStaleMatches() {
+        transactionTemplate.executeWithoutResult(status -> {
+            for (int i = 0; i < 10; i++) {
+                em.persist(new Member("member" + i, 20));
+            }
+        });
+        changeEventDispatcher.dispatchPending();
+        memberBitmapIndex.load().join();
+
+        int maxRows = properties.getGuardrail().getMaxRows();
+        properties.getGuardrail().setMaxRows(3);
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                    em.createQuery("update Member m set m.age = 30 where m.name in ('member0', 'member1', 'member2', 'member3')")
+                            .executeUpdate());
+            MemberSearchCondition condition = new MemberSearchCondition();
+            condition.setAgeLoe(25);
+            assertThat(memberBitmapIndex.match(condition.normalize()).cardinality()).isEqualTo(10);
+
+            MemberSearchResult<MemberTeamDto> result = memberSearchService.search(condition);
+            assertThat(result.getContent()).extracting(MemberTeamDto::getMemberName)
+                    .containsExactly("member4", "member5", "member6");
+            assertThat(result.isTruncated()).isTrue();
+        } finally {
+            properties.getGuardrail().setMaxRows(maxRows);
+        }
+    }
+
+    @Test
+    @DisplayName("회원명 조건은 인덱스로 답하지 않는다")
+    public void memberNameNotIndexed() {
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setMemberName("member1");
+        assertThat(memberBitmapIndex.match(condition.normalize())).isNull();
+    }
+
+    private void assertMatchesDatabase() {
+        for (MemberSearchCondition condition : conditions()) {
+            IdBitmap matched = memberBitmapIndex.match(condition.normalize());
+            long[] expected = memberJpaRepository.search(condition).stream()
+                    .mapToLong(MemberTeamDto::getMemberId)
+                    .sorted()
+                    .toArray();
+            assertThat(matched.toArray(-1, Integer.MAX_VALUE))
+                    .as("condition = %s", condition)
+                    .containsExactly(expected);
+        }
+    }
+
+    private List<MemberSearchCondition> conditions() {
+        List<MemberSearchCondition> conditions = new ArrayList<>();
+        for (String teamName : new String[]{null, "teamA", "teamB", "teamC"}) {
+            for (Integer[] ages : new Integer[][]{{null, null}, {20, null}, {null, 40}, {25, 60}, {90, null}, {60, 20}}) {
+                MemberSearchCondition condition = new MemberSearchCondition();
+                condition.setTeamName(teamName);
+                condition.setAgeGoe(ages[0]);
+                condition.setAgeLoe(ages[1]);
+                conditions.add(condition);
+            }
+        }
+        return conditions;
+    }
+}
@@ -0,0 +1,179 @@
+package com.ttasjwi.querydsl.member.service;
+
+import com.ttasjwi.querydsl.common.event.ChangeEventDispatcher;
+import com.ttasjwi.querydsl.member.domain.Member;
+import com.ttasjwi.querydsl.member.dto.MemberSearchCondition;
+import com.ttasjwi.querydsl.member.repository.MemberJpaRepository;
+import com.ttasjwi.querydsl.team.domain.Team;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 변경 이벤트로 갱신한 메모리 집계가 DB 집계와 같은지 확인
+ * 커밋이 필요하므로 테스트 트랜잭션을 쓰지 않고 직접 정리한다.
+ */
+@SpringBootTest
+class MemberCountCacheTest {
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MemberJpaRepository memberJpaRepository;
+
+    @Autowired
+    private MemberUpdateService memberUpdateService;
+
+    @Autowired
+    private ChangeEventDispatcher changeEventDispatcher;
+
+    @Autowired
+    private MemberCountCache memberCountCache;
+
+    @Autowired
+    private MemberSearchProperties properties;
+
+    private TransactionTemplate transactionTemplate;
+    private Duration refreshInterval;
+
+    @BeforeEach
+    void before() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        refreshInterval = properties.getCountCache().getRefreshInterval();
+        properties.getCountCache().setRefreshInterval(Duration.ZERO);
+        deleteAll();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        properties.getCountCache().setRefreshInterval(refreshInterval);
+        deleteAll();
+    }
+
+    private void deleteAll() {
+        transactionTemplate.executeWithoutResult(status -> {
+            em.createQuery("delete from ChangeEvent").executeUpdate();
+            em.createQuery("delete from Member").executeUpdate();
+            em.createQuery("delete from Team").executeUpdate();
+        });
+        memberCountCache.invalidate();
+    }
+
+    @Test
+    @DisplayName("등록, 팀 이동, 나이 변경, 벌크 수정, 삭제 후에도 DB 집계와 같다")
+    public void countAfterChanges() {
+        Long[] ids = transactionTemplate.execute(status -> {
+            Team teamA = new Team("teamA");
+            Team teamB = new Team("teamB");
+            em.persist(teamA);
+            em.persist(teamB);
+            for (int i = 0; i < 20; i++) {
+                em.persist(new Member("member" + i, i * 5, i % 2 == 0 ? teamA : teamB));
+            }
+            em.persist(new Member("noTeam", 30));
+            Member target = new Member("target", 25, teamA);
+            em.persist(target);
+            return new Long[]{teamA.getId(), teamB.getId(), target.getId()};
+        });
+        changeEventDispatcher.dispatchPending();
+        assertCountsMatchDatabase();
+
+        Long teamBId = ids[1];
+        Long targetId = ids[2];
+        memberUpdateService.changeTeam(targetId, teamBId);
+        memberUpdateService.addAge(targetId, 40);
+        transactionTemplate.executeWithoutResult(status -> {
+            Team teamC = new Team("teamA");
+            em.persist(teamC);
+            em.persist(new Member("newMember", 50, teamC));
+            memberJpaRepository.bulkAgePlus(80);
+        });
+        transactionTemplate.executeWithoutResult(status ->
+                em.remove(em.find(Member.class, targetId)));
+
+        changeEventDispatcher.dispatchPending();
+        assertCountsMatchDatabase();
+    }
+
+    @Test
+    @DisplayName("회원명 조건은 DB 집계 결과를 보관해서 쓴다")
+    public void countByName() {
+        transactionTemplate.executeWithoutResult(status ->
+                em.persist(new Member("member1", 10)));
+
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setMemberName(" member1 ");
+        assertThat(memberCountCache.count(condition)).isEqualTo(1);
+
+        transactionTemplate.executeWithoutResult(status ->
+                em.persist(new Member("member1", 20)));
+        assertThat(memberCountCache.count(condition)).isEqualTo(1);
+
+        memberCountCache.invalidate();
+        assertThat(memberCountCache.count(condition)).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("집계는 호출자 트랜잭션과 따로 읽으므로 커밋 전 변경이 섞이지 않고, refreshInterval 동안은 다시 읽지 않는다")
+    public void loadOutsideCallerTransaction() {
+        transactionTemplate.executeWithoutResult(status -> em.persist(new Member("member1", 10)));
+        MemberSearchCondition condition = new MemberSearchCondition();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            em.persist(new Member("uncommitted", 20));
+            em.flush();
+            assertThat(memberCountCache.count(condition)).isEqualTo(1);
+            status.setRollbackOnly();
+        });
+
+        properties.getCountCache().setRefreshInterval(Duration.ofMinutes(1));
+        memberCountCache.invalidate();
+        assertThat(memberCountCache.count(condition)).isEqualTo(1);
+        transactionTemplate.executeWithoutResult(status -> em.persist(new Member("member2", 20)));
+        changeEventDispatcher.dispatchPending();
+        assertThat(memberCountCache.count(condition)).isEqualTo(1);
+
+        properties.getCountCache().setRefreshInterval(Duration.ZERO);
+        memberCountCache.invalidate();
+        assertThat(memberCountCache.count(condition)).isEqualTo(2);
+    }
+
+    private void assertCountsMatchDatabase() {
+        for (MemberSearchCondition condition : conditions()) {
+            assertThat(memberCountCache.count(condition))
+                    .as("condition = %s", condition)
+                    .isEqualTo(memberJpaRepository.countBySearch(condition));
+        }
+    }
+
+    private List<MemberSearchCondition> conditions() {
+        List<MemberSearchCondition> conditions = new ArrayList<>();
+        conditions.add(new MemberSearchCondition());
+        for (String teamName : new String[]{null, "teamA", "teamB", "teamC"}) {
+            for (Integer[] ages : new Integer[][]{{null, null}, {20, null}, {null, 40}, {25, 60}, {90, null}}) {
+                MemberSearchCondition condition = new MemberSearchCondition();
+                condition.setTeamName(teamName);
+                condition.setAgeGoe(ages[0]);
+                condition.setAgeLoe(ages[1]);
+                conditions.add(condition);
+            }
+        }
+        return conditions;
+    }
+}
@@ -0,0 +1,186 @@
+package com.ttasjwi.querydsl.member.service;
+
+import com.ttasjwi.querydsl.member.domain.Member;
+import com.ttasjwi.querydsl.member.dto.MemberExportResult;
+import com.ttasjwi.querydsl.member.repository.MemberBulkLoader;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 병렬 범위 내보내기 결과 파일 확인
+ * 내보내기 스레드가 커밋된 데이터를 읽어야 하므로 테스트 트랜잭션을 쓰지 않고 직접 정리한다.
+ */
+@SpringBootTest
+class MemberExportServiceTest {
+
+    private static final int MEMBER_COUNT = 1_000;
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MemberBulkLoader memberBulkLoader;
+
+    @Autowired
+    private MemberExportService memberExportService;
+
+    @Autowired
+    private MemberExportProperties properties;
+
+    @TempDir
+    Path directory;
+
+    @AfterEach
+    void cleanUp() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            em.createQuery("delete from ChangeEvent").executeUpdate();
+            em.createQuery("delete from Member").executeUpdate();
+            em.createQuery("delete from Team").executeUpdate();
+        });
+    }
+
+    @Test
+    @DisplayName("식별자 범위별 파일로 나누어 모든 회원을 한 번씩 내보낸다")
+    public void exportInRanges() throws IOException {
+        memberBulkLoader.load(3, MEMBER_COUNT);
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                em.persist(new Member("kim, \"the\" member", 20)));
+
+        long rangeSize = properties.getRangeSize();
+        int pageSize = properties.getPageSize();
+        properties.setRangeSize(300);
+        properties.setPageSize(70);
+        MemberExportResult result;
+        try {
+            result = memberExportService.export(directory);
+        } finally {
+            properties.setRangeSize(rangeSize);
+            properties.setPageSize(pageSize);
+        }
+
+        assertThat(result.getParts()).hasSize(4);
+        assertThat(result.getTotalRows()).isEqualTo(MEMBER_COUNT + 1);
+        try (var runs = Files.list(directory)) {
+            assertThat(runs).containsExactly(Paths.get(result.getDirectory()));
+        }
+        try (var files = Files.list(Paths.get(result.getDirectory()))) {
+            assertThat(files).allMatch(file -> file.toString().endsWith(".csv.gz"));
+        }
+
+        List<String> lines = new ArrayList<>();
+        for (MemberExportResult.Part part : result.getParts()) {
+            List<String> partLines = readGzip(Paths.get(part.getFile()));
+            assertThat(partLines.get(0)).isEqualTo(MemberCsvGzipWriter.HEADER);
+            assertThat(partLines).hasSize((int) part.getRows() + 1);
+            lines.addAll(partLines.subList(1, partLines.size()));
+        }
+
+        assertThat(lines).hasSize(MEMBER_COUNT + 1);
+        assertThat(lines).filteredOn(line -> line.contains(",member0,0,")).hasSize(1);
+        assertThat(lines).filteredOn(line -> line.matches("\\d+,member\\d+,\\d+,\\d+,team\\d")).hasSize(MEMBER_COUNT);
+        assertThat(lines.get(lines.size() - 1)).endsWith(",\"kim, \"\"the\"\" member\",20,,");
+    }
+
+    @Test
+    @DisplayName("회원이 없는 식별자 범위는 파일을 만들지 않는다")
+    public void skipEmptyRanges() {
+        Long[] ids = new TransactionTemplate(transactionManager).execute(status -> {
+            Long[] result = new Long[10];
+            for (int i = 0; i < result.length; i++) {
+                Member member = new Member("member" + i, i);
+                em.persist(member);
+                result[i] = member.getId();
+            }
+            return result;
+        });
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                em.createQuery("delete from Member m where m.id > :from and m.id < :to")
+                        .setParameter("from", ids[1])
+                        .setParameter("to", ids[8])
+                        .executeUpdate());
+
+        long rangeSize = properties.getRangeSize();
+        properties.setRangeSize(2);
+        MemberExportResult result;
+        try {
+            result = memberExportService.export(directory);
+        } finally {
+            properties.setRangeSize(rangeSize);
+        }
+
+        assertThat(result.getTotalRows()).isEqualTo(4);
+        assertThat(result.getParts()).hasSize(2);
+        assertThat(result.getParts()).allMatch(part -> part.getRows() == 2);
+    }
+
+    @Test
+    @DisplayName("실행마다 새 디렉터리에 쓰고, 중단된 실행과 오래된 실행은 지운다")
+    public void replaceRuns() throws IOException {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                em.persist(new Member("member1", 10)));
+        Path abandoned = Files.createDirectories(directory.resolve("run-20000101-000000-000.tmp"));
+        Files.createFile(abandoned.resolve("part-00000.csv.gz"));
+
+        int keepRuns = properties.getKeepRuns();
+        properties.setKeepRuns(2);
+        List<Path> runs = new ArrayList<>();
+        try {
+            for (int i = 0; i < 3; i++) {
+                runs.add(Paths.get(memberExportService.export(directory).getDirectory()));
+            }
+        } finally {
+            properties.setKeepRuns(keepRuns);
+        }
+
+        assertThat(runs).doesNotHaveDuplicates();
+        try (var entries = Files.list(directory)) {
+            assertThat(entries).containsExactlyInAnyOrder(runs.get(1), runs.get(2));
+        }
+        try (var files = Files.list(runs.get(2))) {
+            assertThat(files).containsExactly(runs.get(2).resolve("part-00000.csv.gz"));
+        }
+    }
+
+    @Test
+    @DisplayName("회원이 없으면 파일을 만들지 않는다")
+    public void exportEmpty() {
+        MemberExportResult result = memberExportService.export(directory);
+        assertThat(result.getParts()).isEmpty();
+        assertThat(result.getTotalRows()).isZero();
+    }
+
+    private List<String> readGzip(Path file) throws IOException {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(Files.newInputStream(file)), StandardCharsets.UTF_8))) {
+            List<String> lines = new ArrayList<>();
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lines.add(line);
+            }
+            return lines;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.ttasjwi.querydsl.member.service;
+
+import com.ttasjwi.querydsl.member.dto.MemberCreateRequest;
+import com.ttasjwi.querydsl.support.LoadTestHarness;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 동시 단건 등록 - 요청마다 커밋할 때와 그룹 커밋할 때의 처리량, 응답 시간 비교
+ */
+@Slf4j
+@Tag("benchmark")
+@SpringBootTest
+class MemberGroupCommitBenchmarkTest {
+
+    private static final int THREAD_COUNT = 32;
+    private static final int SAVES_PER_THREAD = 200;
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MemberGroupCommitWriter memberGroupCommitWriter;
+
+    @Autowired
+    private MemberGroupCommitProperties properties;
+
+    @AfterEach
+    void cleanUp() {
+        properties.setEnabled(false);
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            em.createQuery("delete from ChangeEvent").executeUpdate();
+            em.createQuery("delete from Member").executeUpdate();
+        });
+    }
+
+    @Test
+    @DisplayName("요청마다 커밋 vs 그룹 커밋")
+    public void groupCommit() throws Exception {
+        LoadTestHarness harness = new LoadTestHarness(THREAD_COUNT, SAVES_PER_THREAD);
+
+        for (boolean enabled : new boolean[]{false, true}) {
+            properties.setEnabled(enabled);
+            harness.run("warmup", this::save);
+            LoadTestHarness.Report report = harness.run(enabled ? "group-commit" : "commit-per-save", this::save);
+
+            log.info("{}", report);
+            assertThat(report.getErrors()).isZero();
+        }
+    }
+
+    private boolean save(int sequence) throws Exception {
+        return memberGroupCommitWriter.save(new MemberCreateRequest("member" + sequence, sequence % 100, null))
+                .get() != null;
+    }
+}
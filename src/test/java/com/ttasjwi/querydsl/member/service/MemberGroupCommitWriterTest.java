@@ -0,0 +1,219 @@
+package com.ttasjwi.querydsl.member.service;
+
+import com.ttasjwi.querydsl.member.dto.MemberCreateRequest;
+import com.ttasjwi.querydsl.team.domain.Team;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 커밋이 필요하므로 테스트 트랜잭션을 쓰지 않고 직접 정리한다.
+ */
+@SpringBootTest
+class MemberGroupCommitWriterTest {
+
+    private static final int THREAD_COUNT = 20;
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MemberGroupCommitWriter memberGroupCommitWriter;
+
+    @Autowired
+    private MemberGroupCommitProperties properties;
+
+    @Autowired
+    private MemberIngestProperties ingestProperties;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private TransactionTemplate transactionTemplate;
+    private boolean enabled;
+    private Duration maxDelay;
+    private int maxNameLength;
+    private Long teamId;
+
+    @BeforeEach
+    void before() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        enabled = properties.isEnabled();
+        maxDelay = properties.getMaxDelay();
+        maxNameLength = ingestProperties.getMaxNameLength();
+        teamId = transactionTemplate.execute(status -> {
+            Team team = new Team("teamA");
+            em.persist(team);
+            return team.getId();
+        });
+    }
+
+    @AfterEach
+    void cleanUp() {
+        properties.setEnabled(enabled);
+        properties.setMaxDelay(maxDelay);
+        ingestProperties.setMaxNameLength(maxNameLength);
+        transactionTemplate.executeWithoutResult(status -> {
+            em.createQuery("delete from ChangeEvent").executeUpdate();
+            em.createQuery("delete from Member").executeUpdate();
+            em.createQuery("delete from Team").executeUpdate();
+        });
+    }
+
+    @Test
+    @DisplayName("동시에 들어온 등록을 모아서 커밋하고 각 호출자에게 식별자를 돌려준다")
+    public void groupCommit() throws Exception {
+        properties.setEnabled(true);
+        properties.setMaxDelay(Duration.ofMillis(200));
+        DistributionSummary batchSize = meterRegistry.summary("member.group.commit.batch.size");
+        long commitsBefore = batchSize.count();
+
+        List<CompletableFuture<Long>> futures = saveConcurrently(index ->
+                new MemberCreateRequest("member" + index, index, index % 2 == 0 ? teamId : null));
+
+        Set<Long> ids = new HashSet<>();
+        for (CompletableFuture<Long> future : futures) {
+            ids.add(future.get(5, TimeUnit.SECONDS));
+        }
+        assertThat(ids).hasSize(THREAD_COUNT);
+        assertThat(batchSize.count() - commitsBefore).isLessThan(THREAD_COUNT);
+        assertThat(count("select count(m) from Member m")).isEqualTo(THREAD_COUNT);
+        assertThat(count("select count(m) from Member m where m.team.id = " + teamId)).isEqualTo(THREAD_COUNT / 2);
+        assertThat(count("select count(e) from ChangeEvent e"
+                + " where e.aggregateType = com.ttasjwi.querydsl.common.event.AggregateType.MEMBER")).isEqualTo(THREAD_COUNT);
+    }
+
+    @Test
+    @DisplayName("없는 팀을 가리키는 등록만 실패하고 같은 묶음의 다른 등록은 커밋된다")
+    public void unknownTeam() throws Exception {
+        properties.setEnabled(true);
+        properties.setMaxDelay(Duration.ofMillis(200));
+
+        List<CompletableFuture<Long>> futures = saveConcurrently(index ->
+                new MemberCreateRequest("member" + index, index, index == 0 ? -1L : teamId));
+
+        int failed = 0;
+        for (CompletableFuture<Long> future : futures) {
+            try {
+                future.get(5, TimeUnit.SECONDS);
+            } catch (ExecutionException e) {
+                assertThat(e.getCause()).isInstanceOf(TeamNotFoundException.class);
+                failed++;
+            }
+        }
+        assertThat(failed).isEqualTo(1);
+        assertThat(count("select count(m) from Member m")).isEqualTo(THREAD_COUNT - 1);
+    }
+
+    @Test
+    @DisplayName("묶음 insert가 실패하면 한 건씩 다시 커밋해서 실패한 등록만 실패로 완료한다")
+    public void retryOneByOne() throws Exception {
+        properties.setEnabled(true);
+        properties.setMaxDelay(Duration.ofMillis(200));
+        // 검증은 통과하지만 컬럼 길이(255)를 넘어 insert가 실패하는 이름
+        ingestProperties.setMaxNameLength(1_000);
+        String tooLongName = "a".repeat(300);
+
+        List<CompletableFuture<Long>> futures = saveConcurrently(index ->
+                new MemberCreateRequest(index == 0 ? tooLongName : "member" + index, index, teamId));
+
+        int failed = 0;
+        for (CompletableFuture<Long> future : futures) {
+            try {
+                assertThat(future.get(5, TimeUnit.SECONDS)).isNotNull();
+            } catch (ExecutionException e) {
+                assertThat(e.getCause()).isInstanceOf(DataIntegrityViolationException.class);
+                failed++;
+            }
+        }
+        assertThat(failed).isEqualTo(1);
+        assertThat(count("select count(m) from Member m")).isEqualTo(THREAD_COUNT - 1);
+        assertThat(count("select count(e) from ChangeEvent e"
+                + " where e.aggregateType = com.ttasjwi.querydsl.common.event.AggregateType.MEMBER")).isEqualTo(THREAD_COUNT - 1);
+    }
+
+    @Test
+    @DisplayName("이름 최대 길이는 대량 등록과 같은 설정으로 검증한다")
+    public void rejectLongName() {
+        ingestProperties.setMaxNameLength(5);
+
+        assertThatThrownBy(() -> memberGroupCommitWriter.save(new MemberCreateRequest("member1", 10, teamId)).get())
+                .hasCauseInstanceOf(InvalidMemberRequestException.class)
+                .hasMessageContaining("최대 길이 = 5");
+        assertThat(count("select count(m) from Member m")).isZero();
+    }
+
+    @Test
+    @DisplayName("꺼져 있으면 호출한 스레드에서 바로 커밋한다")
+    public void disabled() throws Exception {
+        properties.setEnabled(false);
+
+        CompletableFuture<Long> future = memberGroupCommitWriter.save(new MemberCreateRequest("member1", 10, teamId));
+
+        assertThat(future).isDone();
+        assertThat(future.get()).isNotNull();
+        assertThat(count("select count(m) from Member m")).isEqualTo(1);
+        assertThatThrownBy(() -> memberGroupCommitWriter.save(new MemberCreateRequest("member2", null, teamId)).get())
+                .hasCauseInstanceOf(InvalidMemberRequestException.class);
+    }
+
+    private List<CompletableFuture<Long>> saveConcurrently(IntFunction<MemberCreateRequest> requests)
+            throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(THREAD_COUNT);
+        CountDownLatch start = new CountDownLatch(1);
+        List<CompletableFuture<Long>> futures = new ArrayList<>();
+        try {
+            List<CompletableFuture<CompletableFuture<Long>>> submitted = new ArrayList<>();
+            for (int i = 0; i < THREAD_COUNT; i++) {
+                MemberCreateRequest request = requests.apply(i);
+                submitted.add(CompletableFuture.supplyAsync(() -> {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return memberGroupCommitWriter.save(request);
+                }, executor));
+            }
+            start.countDown();
+            for (CompletableFuture<CompletableFuture<Long>> future : submitted) {
+                futures.add(future.join());
+            }
+        } finally {
+            executor.shutdown();
+        }
+        return futures;
+    }
+
+    private long count(String jpql) {
+        return transactionTemplate.execute(status -> em.createQuery(jpql, Long.class).getSingleResult());
+    }
+}
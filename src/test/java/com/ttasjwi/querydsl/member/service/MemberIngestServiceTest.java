@@ -0,0 +1,208 @@
+package com.ttasjwi.querydsl.member.service;
+
+import com.ttasjwi.querydsl.member.dto.MemberIngestResult;
+import com.ttasjwi.querydsl.team.domain.Team;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * 커밋이 필요하므로 테스트 트랜잭션을 쓰지 않고 직접 정리한다.
+ */
+@SpringBootTest
+class MemberIngestServiceTest {
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MemberIngestService memberIngestService;
+
+    @Autowired
+    private MemberIngestProperties properties;
+
+    private TransactionTemplate transactionTemplate;
+    private int batchSize;
+    private int queueCapacity;
+    private Duration commitInterval;
+
+    @BeforeEach
+    void before() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        batchSize = properties.getBatchSize();
+        queueCapacity = properties.getQueueCapacity();
+        commitInterval = properties.getCommitInterval();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        properties.setBatchSize(batchSize);
+        properties.setQueueCapacity(queueCapacity);
+        properties.setCommitInterval(commitInterval);
+        transactionTemplate.executeWithoutResult(status -> {
+            em.createQuery("delete from ChangeEvent").executeUpdate();
+            em.createQuery("delete from Member").executeUpdate();
+            em.createQuery("delete from Team").executeUpdate();
+        });
+    }
+
+    @Test
+    @DisplayName("batchSize 단위로 커밋하고, 잘못된 줄은 줄 번호와 함께 거부한다")
+    public void ingest() throws IOException {
+        properties.setBatchSize(100);
+        properties.setQueueCapacity(10);
+        Long teamId = transactionTemplate.execute(status -> {
+            Team team = new Team("teamA");
+            em.persist(team);
+            return team.getId();
+        });
+
+        StringBuilder body = new StringBuilder();
+        for (int i = 0; i < 250; i++) {
+            body.append("{\"name\":\"member").append(i).append("\",\"age\":").append(i % 100)
+                    .append(i % 2 == 0 ? ",\"teamId\":" + teamId : "").append("}\n");
+        }
+        body.append("\n");                                     // 251 : 빈 줄은 건너뛴다
+        body.append("{\"name\":\"\",\"age\":10}\n");            // 252
+        body.append("{\"name\":\"noAge\"}\n");                  // 253
+        body.append("{\"name\":\"minus\",\"age\":-1}\n");       // 254
+        body.append("not json\n");                             // 255
+        body.append("{\"name\":\"unknownTeam\",\"age\":1,\"teamId\":-1}\n"); // 256
+
+        MemberIngestResult result = memberIngestService.ingest(
+                new ByteArrayInputStream(body.toString().getBytes(StandardCharsets.UTF_8)));
+
+        assertThat(result.getLines()).isEqualTo(255);
+        assertThat(result.getInserted()).isEqualTo(250);
+        assertThat(result.getRejected()).isEqualTo(5);
+        assertThat(result.getBatches()).extracting("inserted", "rejected")
+                .containsExactly(tuple(100, 0), tuple(100, 0), tuple(50, 1));
+        assertThat(result.getErrors()).extracting("line")
+                .containsExactly(252L, 253L, 254L, 255L, 256L);
+
+        assertThat(count("select count(m) from Member m")).isEqualTo(250);
+        assertThat(count("select count(m) from Member m where m.team.id = " + teamId)).isEqualTo(125);
+        assertThat(count("select count(e) from ChangeEvent e"
+                + " where e.aggregateType = com.ttasjwi.querydsl.common.event.AggregateType.MEMBER")).isEqualTo(250);
+    }
+
+    @Test
+    @DisplayName("본문이 끝나지 않아도 commitInterval이 지나면 받은 만큼 커밋한다")
+    public void commitInterval() throws Exception {
+        properties.setCommitInterval(Duration.ofMillis(50));
+        PipedOutputStream upload = new PipedOutputStream();
+        PipedInputStream body = new PipedInputStream(upload);
+
+        CompletableFuture<MemberIngestResult> future = CompletableFuture.supplyAsync(() -> {
+            try {
+                return memberIngestService.ingest(body);
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        write(upload, "{\"name\":\"member1\",\"age\":10}\n{\"name\":\"member2\",\"age\":20}\n");
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (count("select count(m) from Member m") < 2 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(count("select count(m) from Member m")).isEqualTo(2);
+
+        write(upload, "{\"name\":\"member3\",\"age\":30}\n");
+        upload.close();
+
+        MemberIngestResult result = future.get();
+        assertThat(result.getInserted()).isEqualTo(3);
+        assertThat(result.getBatches()).hasSize(2);
+    }
+
+    @Test
+    @DisplayName("maxLineLength를 넘는 줄은 끝까지 담지 않고 거부한 뒤 다음 줄부터 이어서 읽는다")
+    public void rejectLongLine() throws IOException {
+        String longName = "a".repeat(properties.getMaxLineLength() * 4);
+        String body = "{\"name\":\"member1\",\"age\":10}\r\n"
+                + "{\"name\":\"" + longName + "\",\"age\":10}\n"
+                + "{\"name\":\"member2\",\"age\":20}";
+
+        MemberIngestResult result = memberIngestService.ingest(
+                new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+
+        assertThat(result.getLines()).isEqualTo(3);
+        assertThat(result.getInserted()).isEqualTo(2);
+        assertThat(result.getErrors()).extracting("line", "message")
+                .containsExactly(tuple(2L, "줄이 너무 깁니다. 최대 길이 = " + properties.getMaxLineLength()));
+    }
+
+    @Test
+    @DisplayName("공용 쓰기 스레드가 모두 쓰이고 있으면 새 등록을 거부한다")
+    public void rejectWhenBusy() throws Exception {
+        properties.setCommitInterval(Duration.ofMillis(10));
+        int writers = properties.getMaxConcurrentIngests();
+        ExecutorService uploaders = Executors.newFixedThreadPool(writers);
+        List<PipedOutputStream> uploads = new ArrayList<>();
+        List<Future<MemberIngestResult>> futures = new ArrayList<>();
+        try {
+            for (int i = 0; i < writers; i++) {
+                PipedOutputStream upload = new PipedOutputStream();
+                PipedInputStream body = new PipedInputStream(upload);
+                uploads.add(upload);
+                futures.add(uploaders.submit(() -> memberIngestService.ingest(body)));
+                write(upload, "{\"name\":\"member\",\"age\":10}\n");
+            }
+
+            // 업로드마다 첫 줄이 커밋되면 모든 쓰기 스레드가 본문이 끝나기를 기다리는 중이다.
+            long deadline = System.currentTimeMillis() + 5_000;
+            while (count("select count(m) from Member m") < writers && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            assertThat(count("select count(m) from Member m")).isEqualTo(writers);
+            assertThatThrownBy(() -> memberIngestService.ingest(new ByteArrayInputStream(new byte[0])))
+                    .isInstanceOf(MemberIngestBusyException.class);
+        } finally {
+            for (PipedOutputStream upload : uploads) {
+                upload.close();
+            }
+            for (Future<MemberIngestResult> future : futures) {
+                assertThat(future.get().getInserted()).isEqualTo(1);
+            }
+            uploaders.shutdownNow();
+        }
+        assertThat(memberIngestService.ingest(new ByteArrayInputStream(new byte[0])).getLines()).isZero();
+    }
+
+    private void write(OutputStream out, String lines) throws IOException {
+        out.write(lines.getBytes(StandardCharsets.UTF_8));
+        out.flush();
+    }
+
+    private long count(String jpql) {
+        return transactionTemplate.execute(status -> em.createQuery(jpql, Long.class).getSingleResult());
+    }
+}
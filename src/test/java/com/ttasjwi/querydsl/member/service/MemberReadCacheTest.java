@@ -0,0 +1,171 @@
+package com.ttasjwi.querydsl.member.service;
+
+import com.ttasjwi.querydsl.common.event.ChangeEventDispatcher;
+import com.ttasjwi.querydsl.member.domain.Member;
+import com.ttasjwi.querydsl.member.dto.MemberSearchCondition;
+import com.ttasjwi.querydsl.member.dto.MemberSearchResult;
+import com.ttasjwi.querydsl.member.dto.MemberTeamDto;
+import com.ttasjwi.querydsl.team.domain.Team;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 변경 이벤트로 무효화하므로 테스트 트랜잭션을 쓰지 않고 직접 정리한다.
+ * 캐시는 테스트에서만 켜고, 파일은 임시 디렉토리에 둔다.
+ */
+@SpringBootTest
+class MemberReadCacheTest {
+
+    @TempDir
+    Path directory;
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MemberSearchService memberSearchService;
+
+    @Autowired
+    private MemberUpdateService memberUpdateService;
+
+    @Autowired
+    private ChangeEventDispatcher changeEventDispatcher;
+
+    @Autowired
+    private MemberReadCache memberReadCache;
+
+    @Autowired
+    private MemberSearchProperties properties;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private TransactionTemplate transactionTemplate;
+    private Long memberId;
+
+    @BeforeEach
+    void before() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        properties.getReadCache().setEnabled(true);
+        properties.getReadCache().setDirectory(directory.toString());
+        properties.getReadCache().setReuseOnStartup(true);
+
+        memberId = transactionTemplate.execute(status -> {
+            Team team = new Team("teamA");
+            em.persist(team);
+            Member member = new Member("member1", 10, team);
+            em.persist(member);
+            em.persist(new Member("member2", 20, team));
+            return member.getId();
+        });
+        changeEventDispatcher.dispatchPending();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        memberReadCache.close();
+        properties.getReadCache().setEnabled(false);
+        properties.getReadCache().setDirectory(new MemberSearchProperties.ReadCache().getDirectory());
+        properties.getReadCache().setReuseOnStartup(new MemberSearchProperties.ReadCache().isReuseOnStartup());
+        transactionTemplate.executeWithoutResult(status -> {
+            em.createQuery("delete from ChangeEvent").executeUpdate();
+            em.createQuery("delete from Member").executeUpdate();
+            em.createQuery("delete from Team").executeUpdate();
+        });
+    }
+
+    @Test
+    @DisplayName("검색 결과는 캐시에서 답하고, 회원이 바뀌면 다시 읽는다")
+    public void searchInvalidatedByMemberChange() {
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setTeamName("teamA");
+        double heapHits = meterRegistry.get("member.read.cache.heap.hits").functionCounter().count();
+
+        assertThat(memberSearchService.search(condition).getContent()).extracting("age").containsExactly(10, 20);
+        assertThat(memberSearchService.search(condition).getContent()).extracting("age").containsExactly(10, 20);
+        assertThat(meterRegistry.get("member.read.cache.heap.hits").functionCounter().count()).isEqualTo(heapHits + 1);
+
+        memberUpdateService.changeAge(memberId, 30);
+        assertThat(memberSearchService.search(condition).getContent()).extracting("age").containsExactly(10, 20);
+
+        changeEventDispatcher.dispatchPending();
+        assertThat(memberSearchService.search(condition).getContent()).extracting("age").containsExactly(30, 20);
+        assertThat(memberSearchService.findMember(memberId)).get().extracting("age").isEqualTo(30);
+    }
+
+    @Test
+    @DisplayName("다시 열어도 디스크 캐시에서 답한다")
+    public void survivesReopen() {
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setAgeGoe(15);
+        MemberSearchResult<MemberTeamDto> first = memberSearchService.search(condition);
+        MemberTeamDto member = memberSearchService.findMember(memberId).orElseThrow();
+
+        memberReadCache.close();
+        double diskHits = meterRegistry.get("member.read.cache.disk.hits").functionCounter().count();
+
+        assertThat(memberSearchService.search(condition)).isEqualTo(first);
+        assertThat(memberSearchService.findMember(memberId)).contains(member);
+        assertThat(meterRegistry.get("member.read.cache.disk.hits").functionCounter().count()).isEqualTo(diskHits + 2);
+    }
+
+    @Test
+    @DisplayName("꺼져 있는 동안 발행된 변경이 있으면 다시 열 때 디스크 캐시를 비운다")
+    public void clearOnWatermarkMismatch() {
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setTeamName("teamA");
+        assertThat(memberSearchService.search(condition).getContent()).extracting("age").containsExactly(10, 20);
+        assertThat(memberSearchService.findMember(memberId)).get().extracting("age").isEqualTo(10);
+
+        memberReadCache.close();
+        properties.getReadCache().setEnabled(false);
+        memberUpdateService.changeAge(memberId, 30);
+        changeEventDispatcher.dispatchPending();
+        properties.getReadCache().setEnabled(true);
+
+        assertThat(memberSearchService.search(condition).getContent()).extracting("age").containsExactly(30, 20);
+        assertThat(memberSearchService.findMember(memberId)).get().extracting("age").isEqualTo(30);
+    }
+
+    @Test
+    @DisplayName("닫혀 있어도 변경 이벤트를 받으면 열어서 반영한다")
+    public void openOnEvent() {
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setTeamName("teamA");
+        assertThat(memberSearchService.search(condition).getContent()).extracting("age").containsExactly(10, 20);
+
+        memberReadCache.close();
+        memberUpdateService.changeAge(memberId, 30);
+        changeEventDispatcher.dispatchPending();
+
+        assertThat(memberSearchService.search(condition).getContent()).extracting("age").containsExactly(30, 20);
+    }
+
+    @Test
+    @DisplayName("조회하는 동안 무효화되었으면 결과를 담지 않는다")
+    public void skipStalePut() {
+        long generation = memberReadCache.generation();
+        MemberTeamDto stale = memberSearchService.findMember(memberId).orElseThrow();
+        memberReadCache.invalidate();
+
+        memberReadCache.putMember(new MemberTeamDto(stale.getMemberId(), "stale", 99, null, null), generation);
+
+        assertThat(memberReadCache.getMember(memberId)).isNull();
+    }
+}
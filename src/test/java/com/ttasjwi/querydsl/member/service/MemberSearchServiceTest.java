@@ -0,0 +1,179 @@
+package com.ttasjwi.querydsl.member.service;
+
+import com.ttasjwi.querydsl.common.event.ChangeEventDispatcher;
+import com.ttasjwi.querydsl.member.domain.Member;
+import com.ttasjwi.querydsl.member.dto.MemberField;
+import com.ttasjwi.querydsl.member.dto.MemberSearchCondition;
+import com.ttasjwi.querydsl.member.dto.MemberSearchResult;
+import com.ttasjwi.querydsl.member.dto.MemberTeamDto;
+import com.ttasjwi.querydsl.member.repository.MemberJpaRepository;
+import com.ttasjwi.querydsl.team.domain.Team;
+import com.ttasjwi.querydsl.team.repository.TeamJpaRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@Transactional
+class MemberSearchServiceTest {
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private MemberJpaRepository memberJpaRepository;
+
+    @Autowired
+    private TeamJpaRepository teamJpaRepository;
+
+    @Autowired
+    private MemberCountCache memberCountCache;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ChangeEventDispatcher changeEventDispatcher;
+
+    private MemberSearchProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void before() {
+        Team teamA = new Team("teamA");
+        Team teamB = new Team("teamB");
+        em.persist(teamA);
+        em.persist(teamB);
+        for (int i = 0; i < 30; i++) {
+            em.persist(new Member("member" + i, i, i < 20 ? teamA : teamB));
+        }
+        em.flush();
+        em.clear();
+
+        properties = new MemberSearchProperties();
+        properties.getCoalescing().setEnabled(false);
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    @DisplayName("최대 건수를 넘는 결과는 잘라서 반환하고 truncated로 표시")
+    public void truncateTest() {
+        properties.getGuardrail().setMaxRows(5);
+
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setTeamName("teamA");
+        MemberSearchResult<MemberTeamDto> result = createService().search(condition);
+
+        assertThat(result.isTruncated()).isTrue();
+        assertThat(result.getContent()).extracting("memberName")
+                .containsExactly("member0", "member1", "member2", "member3", "member4");
+        assertThat(meterRegistry.counter("member.search.guardrail.truncated").count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("최대 건수 이하의 결과는 그대로 반환")
+    public void notTruncatedTest() {
+        properties.getGuardrail().setMaxRows(10);
+
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setTeamName("teamB");
+        MemberSearchResult<MemberTeamDto> result = createService().search(condition);
+
+        assertThat(result.isTruncated()).isFalse();
+        assertThat(result.getContent()).hasSize(10);
+    }
+
+    @Test
+    @DisplayName("선택도가 낮은 조건 - REJECT 이면 거부")
+    public void rejectTest() {
+        properties.getGuardrail().setMaxEstimatedRows(10);
+        properties.getGuardrail().setUnselectiveAction(MemberSearchProperties.UnselectiveAction.REJECT);
+
+        MemberSearchService service = createService();
+        assertThatThrownBy(() -> service.search(new MemberSearchCondition()))
+                .isInstanceOf(UnselectiveSearchException.class);
+        assertThat(meterRegistry.counter("member.search.guardrail.rejected").count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("선택도가 낮은 조건 - PAGINATE 이면 forcedPageSize 만큼만 반환")
+    public void forcedPaginationTest() {
+        properties.getGuardrail().setMaxEstimatedRows(10);
+        properties.getGuardrail().setForcedPageSize(3);
+
+        MemberSearchResult<MemberTeamDto> result = createService().search(new MemberSearchCondition());
+
+        assertThat(result.isTruncated()).isTrue();
+        assertThat(result.getContent()).hasSize(3);
+        assertThat(result.getNextAfterId()).isEqualTo(result.getContent().get(2).getMemberId());
+        assertThat(meterRegistry.counter("member.search.guardrail.forced.pagination").count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("잘린 결과는 nextAfterId로 다음 페이지를 이어서 받아 전체를 읽을 수 있다")
+    public void followNextAfterIdTest() {
+        properties.getGuardrail().setMaxEstimatedRows(10);
+        properties.getGuardrail().setForcedPageSize(7);
+        MemberSearchService service = createService();
+
+        List<Integer> ages = new ArrayList<>();
+        Long afterId = null;
+        int pages = 0;
+        do {
+            MemberSearchResult<MemberTeamDto> page = service.search(new MemberSearchCondition(), afterId);
+            page.getContent().forEach(row -> ages.add(row.getAge()));
+            afterId = page.getNextAfterId();
+            pages++;
+        } while (afterId != null);
+
+        assertThat(pages).isEqualTo(5);
+        assertThat(ages).isEqualTo(IntStream.range(0, 30).boxed().collect(Collectors.toList()));
+
+        MemberSearchResult<Map<String, Object>> fields = service.searchFields(
+                new MemberSearchCondition(), Set.of(MemberField.AGE), null);
+        assertThat(fields.getContent()).hasSize(7).allMatch(row -> row.keySet().equals(Set.of("age")));
+        assertThat(service.searchFields(new MemberSearchCondition(), Set.of(MemberField.AGE), fields.getNextAfterId())
+                .getContent()).extracting(row -> row.get("age")).startsWith(7, 8);
+    }
+
+    @Test
+    @DisplayName("나이 범위 조건의 예상 결과 건수는 나이별 회원 수로 계산")
+    public void estimateTest() {
+        MemberSearchCostEstimator estimator = createEstimator();
+
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setAgeGoe(10);
+        condition.setAgeLoe(19);
+        assertThat(estimator.estimate(condition.normalize())).isEqualTo(10);
+
+        condition.setTeamName("teamA");
+        assertThat(estimator.estimate(condition.normalize())).isEqualTo(5);
+    }
+
+    private MemberSearchService createService() {
+        return new MemberSearchService(memberJpaRepository, createEstimator(), memberCountCache,
+                new MemberBitmapIndex(memberJpaRepository, teamJpaRepository, properties, transactionManager, meterRegistry),
+                new MemberReadCache(properties, changeEventDispatcher, meterRegistry),
+                properties, meterRegistry);
+    }
+
+    private MemberSearchCostEstimator createEstimator() {
+        return new MemberSearchCostEstimator(memberJpaRepository, teamJpaRepository, properties);
+    }
+}
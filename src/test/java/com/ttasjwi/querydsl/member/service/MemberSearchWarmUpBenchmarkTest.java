@@ -0,0 +1,114 @@
+package com.ttasjwi.querydsl.member.service;
+
+import com.ttasjwi.querydsl.QuerydslApplication;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 워밍업 유무에 따른 첫 /v1/members 요청 응답 시간 비교
+ * JIT, 클래스 초기화 상태는 JVM 단위이므로 측정마다 새 JVM(FirstRequestProbe)을 띄운다.
+ * HTTP 클라이언트, 커넥터 초기화 비용은 빼기 위해 /actuator/health 를 먼저 한 번 호출한 뒤 잰다.
+ */
+@Slf4j
+@Tag("benchmark")
+class MemberSearchWarmUpBenchmarkTest {
+
+    private static final int FORKS = 3;
+    private static final String RESULT_PREFIX = "FIRST_REQUEST_MS=";
+
+    @Test
+    @DisplayName("첫 요청 응답 시간 - 워밍업 없음 vs 있음")
+    public void firstRequestLatency() throws Exception {
+        for (boolean warmUp : new boolean[]{false, true}) {
+            List<Long> millis = new ArrayList<>();
+            for (int i = 0; i < FORKS; i++) {
+                millis.add(fork(warmUp));
+            }
+            millis.sort(null);
+            log.info("warmUp = {} // first request = {}ms (median), runs = {}",
+                    warmUp, millis.get(FORKS / 2), millis);
+        }
+    }
+
+    private long fork(boolean warmUp) throws Exception {
+        Path output = Files.createTempFile("warm-up-probe", ".log");
+        try {
+            String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+            Process process = new ProcessBuilder(java,
+                    "-cp", System.getProperty("java.class.path"),
+                    FirstRequestProbe.class.getName(),
+                    "--spring.profiles.active=embedded",
+                    "--member.seed.member-count=20000",
+                    "--member.search.warm-up.enabled=" + warmUp)
+                    .redirectErrorStream(true)
+                    .redirectOutput(output.toFile())
+                    .start();
+            assertThat(process.waitFor(3, TimeUnit.MINUTES)).isTrue();
+
+            return Files.readAllLines(output, StandardCharsets.UTF_8).stream()
+                    .filter(line -> line.startsWith(RESULT_PREFIX))
+                    .map(line -> Long.parseLong(line.substring(RESULT_PREFIX.length())))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalStateException("측정 결과가 없습니다. log = " + output));
+        } finally {
+            Files.deleteIfExists(output);
+        }
+    }
+
+    /**
+     * 별도 JVM에서 애플리케이션을 띄우고 첫 검색 요청 시간을 출력한다.
+     */
+    public static class FirstRequestProbe {
+
+        public static void main(String[] args) throws Exception {
+            List<String> arguments = new ArrayList<>(Arrays.asList(args));
+            arguments.add("--server.port=0");
+            ConfigurableApplicationContext context = SpringApplication.run(
+                    QuerydslApplication.class, arguments.toArray(new String[0]));
+            int exitCode = 1;
+            try {
+                String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+                HttpClient httpClient = HttpClient.newHttpClient();
+                get(httpClient, baseUrl + "/actuator/health");
+
+                long start = System.nanoTime();
+                int status = get(httpClient, baseUrl + "/v1/members?teamName=team3&ageGoe=20&ageLoe=30");
+                long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                if (status == 200) {
+                    System.out.println(RESULT_PREFIX + elapsed);
+                    exitCode = 0;
+                }
+            } finally {
+                context.close();
+            }
+            System.exit(exitCode);
+        }
+
+        private static int get(HttpClient httpClient, String url) throws Exception {
+            HttpRequest request = HttpRequest.newBuilder(URI.create(url))
+                    .timeout(Duration.ofSeconds(30))
+                    .GET()
+                    .build();
+            return httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.ttasjwi.querydsl.member.service;
+
+import com.ttasjwi.querydsl.member.dto.MemberSearchCondition;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 워밍업은 자체 트랜잭션을 롤백하므로 테스트 트랜잭션을 쓰지 않는다.
+ */
+@SpringBootTest
+class MemberSearchWarmUpTest {
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MemberSearchWarmUp memberSearchWarmUp;
+
+    @Autowired
+    private MemberSearchProperties properties;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private MemberReadCache memberReadCache;
+
+    private TransactionTemplate transactionTemplate;
+    private int iterations;
+
+    @BeforeEach
+    void before() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        iterations = properties.getWarmUp().getIterations();
+    }
+
+    @AfterEach
+    void after() {
+        properties.getWarmUp().setIterations(iterations);
+    }
+
+    @Test
+    @DisplayName("모든 조건 형태, 조회 경로를 실행하고 데이터, 읽기 캐시는 남기지 않는다")
+    public void warmUp() {
+        properties.getWarmUp().setIterations(2);
+        long members = count("select count(m) from Member m");
+        long teams = count("select count(t) from Team t");
+        long events = count("select count(e) from ChangeEvent e");
+        long warmUps = meterRegistry.timer("member.search.warmup").count();
+
+        int queries = memberSearchWarmUp.warmUp();
+
+        // (16가지 조건 형태 x (검색 2 + 페이징 1 + 필드 선택 검색 2) + 회원 한 명 조회 1) x 2회
+        assertThat(queries).isEqualTo((16 * 5 + 1) * 2);
+        assertThat(count("select count(m) from Member m")).isEqualTo(members);
+        assertThat(count("select count(t) from Team t")).isEqualTo(teams);
+        assertThat(count("select count(e) from ChangeEvent e")).isEqualTo(events);
+        assertThat(meterRegistry.timer("member.search.warmup").count()).isEqualTo(warmUps + 1);
+
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setMemberName("warm-up");
+        assertThat(memberReadCache.getSearch(condition.normalize())).isNull();
+    }
+
+    private long count(String jpql) {
+        return transactionTemplate.execute(status -> em.createQuery(jpql, Long.class).getSingleResult());
+    }
+}
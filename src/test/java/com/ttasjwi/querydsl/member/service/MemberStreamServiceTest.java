@@ -0,0 +1,84 @@
+package com.ttasjwi.querydsl.member.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ttasjwi.querydsl.member.dto.MemberSearchCondition;
+import com.ttasjwi.querydsl.member.dto.MemberTeamDto;
+import com.ttasjwi.querydsl.member.repository.MemberBulkLoader;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 페이지마다 새 트랜잭션으로 조회하므로 테스트 트랜잭션을 쓰지 않고 직접 정리한다.
+ */
+@SpringBootTest
+class MemberStreamServiceTest {
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MemberBulkLoader memberBulkLoader;
+
+    @Autowired
+    private MemberStreamService memberStreamService;
+
+    @Autowired
+    private MemberSearchProperties properties;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @AfterEach
+    void cleanUp() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            em.createQuery("delete from Member").executeUpdate();
+            em.createQuery("delete from Team").executeUpdate();
+        });
+    }
+
+    @Test
+    @DisplayName("조건에 맞는 회원 전체를 식별자 순으로 한 줄씩 쓴다")
+    public void streamAllPages() throws IOException {
+        memberBulkLoader.load(2, 100);
+
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setTeamName("team1");
+        condition.setAgeGoe(10);
+
+        int pageSize = properties.getStream().getPageSize();
+        properties.getStream().setPageSize(7);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long rows;
+        try {
+            rows = memberStreamService.stream(condition, out);
+        } finally {
+            properties.getStream().setPageSize(pageSize);
+        }
+
+        List<MemberTeamDto> result = new ArrayList<>();
+        for (String line : out.toString(StandardCharsets.UTF_8).split("\n")) {
+            result.add(objectMapper.readValue(line, MemberTeamDto.class));
+        }
+        assertThat(rows).isEqualTo(45);
+        assertThat(result).hasSize(45)
+                .allMatch(row -> row.getTeamName().equals("team1") && row.getAge() >= 10);
+        assertThat(result).extracting("memberId").isSorted();
+    }
+}
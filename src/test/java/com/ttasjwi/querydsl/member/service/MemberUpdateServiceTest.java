@@ -0,0 +1,174 @@
+package com.ttasjwi.querydsl.member.service;
+
+import com.ttasjwi.querydsl.member.domain.Member;
+import com.ttasjwi.querydsl.member.repository.MemberJpaRepository;
+import com.ttasjwi.querydsl.team.domain.Team;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 여러 스레드가 같은 회원을 동시에 수정해도 갱신 손실이 없는지 확인
+ * 커밋이 필요하므로 테스트 트랜잭션을 쓰지 않고 직접 정리한다.
+ */
+@SpringBootTest
+class MemberUpdateServiceTest {
+
+    private static final int THREAD_COUNT = 8;
+    private static final int UPDATES_PER_THREAD = 25;
+
+    /**
+     * 모든 스레드가 같은 회원 하나에 몰리는 극단적인 경합이므로 기본값보다 넉넉하게 재시도
+     */
+    private static final int STRESS_MAX_ATTEMPTS = 100;
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MemberJpaRepository memberJpaRepository;
+
+    @Autowired
+    private MemberUpdateService memberUpdateService;
+
+    @Autowired
+    private MemberUpdateProperties properties;
+
+    private TransactionTemplate transactionTemplate;
+    private TransactionTemplate requiresNewTemplate;
+
+    @BeforeEach
+    void before() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        requiresNewTemplate = new TransactionTemplate(transactionManager);
+        requiresNewTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        cleanUp();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        transactionTemplate.executeWithoutResult(status -> {
+            em.createQuery("delete from ChangeEvent").executeUpdate();
+            em.createQuery("delete from Member").executeUpdate();
+            em.createQuery("delete from Team").executeUpdate();
+        });
+    }
+
+    @Test
+    @DisplayName("동시 나이 증가 - 충돌한 수정은 재시도되어 모든 증가가 반영된다")
+    public void concurrentAddAge() throws Exception {
+        Long[] memberIds = transactionTemplate.execute(status -> {
+            Team team = new Team("teamA");
+            em.persist(team);
+            Member member1 = new Member("member1", 0, team);
+            Member member2 = new Member("member2", 100, team);
+            em.persist(member1);
+            em.persist(member2);
+            return new Long[]{member1.getId(), member2.getId()};
+        });
+
+        int maxAttempts = properties.getMaxAttempts();
+        properties.setMaxAttempts(STRESS_MAX_ATTEMPTS);
+        ExecutorService executor = Executors.newFixedThreadPool(THREAD_COUNT);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < THREAD_COUNT; t++) {
+                int delta = t % 2 == 0 ? 1 : -1;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < UPDATES_PER_THREAD; i++) {
+                        memberUpdateService.addAge(memberIds[0], 1);
+                        memberUpdateService.addAge(memberIds[1], delta);
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+            properties.setMaxAttempts(maxAttempts);
+        }
+
+        Member member1 = memberJpaRepository.findById(memberIds[0]).get();
+        Member member2 = memberJpaRepository.findById(memberIds[1]).get();
+        assertThat(member1.getAge()).isEqualTo(THREAD_COUNT * UPDATES_PER_THREAD);
+        assertThat(member1.getVersion()).isEqualTo(THREAD_COUNT * UPDATES_PER_THREAD);
+        assertThat(member2.getAge()).isEqualTo(100);
+        assertThat(member2.getVersion()).isEqualTo(THREAD_COUNT * UPDATES_PER_THREAD);
+    }
+
+    @Test
+    @DisplayName("팀 이동은 회원 버전만 올리고 팀 버전은 올리지 않는다")
+    public void changeTeamVersion() {
+        Long[] ids = transactionTemplate.execute(status -> {
+            Team teamA = new Team("teamA");
+            Team teamB = new Team("teamB");
+            em.persist(teamA);
+            em.persist(teamB);
+            Member member = new Member("member1", 10, teamA);
+            em.persist(member);
+            return new Long[]{teamA.getId(), teamB.getId(), member.getId()};
+        });
+
+        memberUpdateService.changeTeam(ids[2], ids[1]);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            Member member = em.find(Member.class, ids[2]);
+            assertThat(member.getTeam().getId()).isEqualTo(ids[1]);
+            assertThat(member.getVersion()).isEqualTo(1);
+            assertThat(em.find(Team.class, ids[0]).getVersion()).isZero();
+            assertThat(em.find(Team.class, ids[1]).getVersion()).isZero();
+        });
+    }
+
+    @Test
+    @DisplayName("벌크 수정 전에 읽은 엔티티로 수정하면 버전 충돌")
+    public void bulkUpdateBumpsVersion() {
+        Long memberId = transactionTemplate.execute(status -> {
+            Member member = new Member("member1", 10);
+            em.persist(member);
+            return member.getId();
+        });
+
+        int maxAttempts = properties.getMaxAttempts();
+        properties.setMaxAttempts(1);
+        try {
+            assertThatThrownBy(() -> memberUpdateService.update(memberId, member -> {
+                // 회원을 읽은 뒤 다른 트랜잭션에서 벌크 수정이 먼저 커밋됨
+                requiresNewTemplate.executeWithoutResult(status -> memberJpaRepository.bulkAgePlus(0));
+                member.setAge(20);
+            })).isInstanceOf(OptimisticLockingFailureException.class);
+        } finally {
+            properties.setMaxAttempts(maxAttempts);
+        }
+
+        Member member = memberJpaRepository.findById(memberId).get();
+        assertThat(member.getAge()).isEqualTo(11);
+        assertThat(member.getVersion()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,11 @@
+package com.ttasjwi.querydsl.member.web;
+
+import org.springframework.test.context.TestPropertySource;
+
+/**
+ * 기본 설정 - MemberSearchPerfLoadTest와 같은 조건으로 비교하도록 전용 인메모리 DB를 쓰고,
+ * H2 QUERY_CACHE_SIZE는 기본값(8)으로 둔다.
+ */
+@TestPropertySource(properties = "spring.datasource.url=jdbc:h2:mem:loadtest-default;DB_CLOSE_DELAY=-1")
+class MemberSearchDefaultLoadTest extends MemberSearchLoadTestSupport {
+}
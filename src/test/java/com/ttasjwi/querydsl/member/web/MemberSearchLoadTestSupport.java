@@ -0,0 +1,80 @@
+package com.ttasjwi.querydsl.member.web;
+
+import com.ttasjwi.querydsl.member.repository.MemberBulkLoader;
+import com.ttasjwi.querydsl.support.LoadTestHarness;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.server.LocalServerPort;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * /v1/members 부하 테스트 공통 부분
+ * 설정(프로파일, 프로퍼티)만 다른 하위 클래스끼리 p50/p99 응답 시간과 처리량을 비교한다.
+ */
+@Slf4j
+@Tag("benchmark")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+abstract class MemberSearchLoadTestSupport {
+
+    private static final int TEAM_COUNT = 10;
+    private static final int MEMBER_COUNT = 5_000;
+    private static final int THREAD_COUNT = 32;
+    private static final int REQUESTS_PER_THREAD = 200;
+
+    private static final String[] QUERIES = {
+            "teamName=team3&ageGoe=20&ageLoe=30",
+            "memberName=member%d",
+            "ageGoe=90",
+            "teamName=team%d&ageLoe=5",
+    };
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private MemberBulkLoader memberBulkLoader;
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(3))
+            .build();
+
+    @BeforeAll
+    void seed() {
+        memberBulkLoader.load(TEAM_COUNT, MEMBER_COUNT);
+    }
+
+    @Test
+    public void searchMembers() throws Exception {
+        LoadTestHarness harness = new LoadTestHarness(THREAD_COUNT, REQUESTS_PER_THREAD);
+
+        // 워밍업
+        harness.run("warmup", this::request);
+        LoadTestHarness.Report report = harness.run(getClass().getSimpleName(), this::request);
+
+        log.info("{}", report);
+        assertThat(report.getErrors()).isZero();
+    }
+
+    private boolean request(int sequence) throws Exception {
+        String query = String.format(QUERIES[sequence % QUERIES.length], sequence % MEMBER_COUNT % TEAM_COUNT);
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/v1/members?" + query))
+                .timeout(Duration.ofSeconds(10))
+                .GET()
+                .build();
+        HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+        return response.statusCode() == 200;
+    }
+}
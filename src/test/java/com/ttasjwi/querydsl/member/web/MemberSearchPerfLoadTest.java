@@ -0,0 +1,13 @@
+package com.ttasjwi.querydsl.member.web;
+
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+/**
+ * perf 프로파일 (커넥션 풀, JDBC, Hibernate 튜닝 적용)
+ * 다른 테스트 컨텍스트와 섞이지 않는 전용 인메모리 DB를 쓰고, H2의 prepared statement 파싱 결과 캐시를 늘린다. (QUERY_CACHE_SIZE=64)
+ */
+@ActiveProfiles("perf")
+@TestPropertySource(properties = "spring.datasource.url=jdbc:h2:mem:loadtest-perf;DB_CLOSE_DELAY=-1;QUERY_CACHE_SIZE=64")
+class MemberSearchPerfLoadTest extends MemberSearchLoadTestSupport {
+}
@@ -0,0 +1,136 @@
+package com.ttasjwi.querydsl.member.web;
+
+import com.ttasjwi.querydsl.member.repository.MemberBulkLoader;
+import com.ttasjwi.querydsl.support.LoadTestHarness;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.server.LocalServerPort;
+
+import javax.sql.DataSource;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 느린 클라이언트가 많을 때 /v1/members 와 /v1/members/stream 의 커넥션 사용량 비교
+ * 클라이언트는 응답을 조금씩 쉬어가며 읽고, 그동안 사용 중인 커넥션 수의 최댓값과 요청당 커넥션 점유 시간을 잰다.
+ * (open-in-view 가 켜진 기본 설정 기준, 요청마다 DB 조회가 일어나도록 검색 결과 공유는 끔)
+ */
+@Slf4j
+@Tag("benchmark")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "member.search.coalescing.enabled=false")
+class MemberStreamConnectionLoadTest {
+
+    private static final int TEAM_COUNT = 10;
+    private static final int MEMBER_COUNT = 5_000;
+    private static final int CLIENT_COUNT = 30;
+    private static final int REQUESTS_PER_CLIENT = 2;
+    private static final int READ_CHUNK_SIZE = 4 * 1024;
+    private static final long READ_PAUSE_MILLIS = 5;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private MemberBulkLoader memberBulkLoader;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(3))
+            .build();
+
+    @BeforeAll
+    void seed() {
+        memberBulkLoader.load(TEAM_COUNT, MEMBER_COUNT);
+    }
+
+    @Test
+    @DisplayName("느린 클라이언트 - 전체 응답 vs 스트리밍 응답 커넥션 사용량")
+    public void slowClients() throws Exception {
+        // 같은 1,000건 (v1의 최대 건수 이내)
+        compare("/v1/members?ageLoe=19");
+        compare("/v1/members/stream?ageLoe=19");
+    }
+
+    private void compare(String path) throws Exception {
+        HikariDataSource hikari = dataSource.unwrap(HikariDataSource.class);
+        Timer connectionUsage = meterRegistry.get("hikaricp.connections.usage").timer();
+        double usageMillisBefore = connectionUsage.totalTime(TimeUnit.MILLISECONDS);
+        long usageCountBefore = connectionUsage.count();
+        AtomicInteger peakActive = new AtomicInteger();
+        AtomicBoolean sampling = new AtomicBoolean(true);
+        Thread sampler = new Thread(() -> {
+            while (sampling.get()) {
+                peakActive.accumulateAndGet(hikari.getHikariPoolMXBean().getActiveConnections(), Math::max);
+                try {
+                    Thread.sleep(1);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        });
+        sampler.start();
+
+        AtomicInteger maxBytes = new AtomicInteger();
+        LoadTestHarness.Report report = new LoadTestHarness(CLIENT_COUNT, REQUESTS_PER_CLIENT)
+                .run(path, sequence -> {
+                    int bytes = slowRead(path);
+                    maxBytes.accumulateAndGet(bytes, Math::max);
+                    return bytes > 0;
+                });
+
+        sampling.set(false);
+        sampler.join();
+        double usageMillis = connectionUsage.totalTime(TimeUnit.MILLISECONDS) - usageMillisBefore;
+        long checkouts = connectionUsage.count() - usageCountBefore;
+        log.info("{} // peakActiveConnections = {} (pool = {}) // connectionHeld = {}ms per request, checkouts = {} // responseBytes = {}",
+                report, peakActive.get(), hikari.getMaximumPoolSize(),
+                String.format("%.1f", usageMillis / report.getRequests()), checkouts, maxBytes.get());
+        assertThat(report.getErrors()).isZero();
+    }
+
+    private int slowRead(String path) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .timeout(Duration.ofSeconds(60))
+                .GET()
+                .build();
+        HttpResponse<InputStream> response = httpClient.send(request, HttpResponse.BodyHandlers.ofInputStream());
+        if (response.statusCode() != 200) {
+            return -1;
+        }
+        int total = 0;
+        byte[] buffer = new byte[READ_CHUNK_SIZE];
+        try (InputStream body = response.body()) {
+            int read;
+            while ((read = body.read(buffer)) != -1) {
+                total += read;
+                Thread.sleep(READ_PAUSE_MILLIS);
+            }
+        }
+        return total;
+    }
+}
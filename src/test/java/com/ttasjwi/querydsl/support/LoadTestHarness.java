@@ -0,0 +1,121 @@
+package com.ttasjwi.querydsl.support;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 멀티스레드 부하 생성기
+ * threadCount개의 스레드가 각각 requestsPerThread번 요청을 보내고, 요청별 응답 시간으로 p50/p99/처리량을 계산한다.
+ */
+@RequiredArgsConstructor
+public class LoadTestHarness {
+
+    private final int threadCount;
+    private final int requestsPerThread;
+
+    @FunctionalInterface
+    public interface Request {
+
+        /**
+         * @param sequence 스레드 내 요청 순번
+         * @return 성공 여부
+         */
+        boolean execute(int sequence) throws Exception;
+    }
+
+    public Report run(String name, Request request) throws InterruptedException {
+        long[][] latencies = new long[threadCount][requestsPerThread];
+        AtomicLong errors = new AtomicLong();
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(threadCount);
+
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        for (int t = 0; t < threadCount; t++) {
+            long[] threadLatencies = latencies[t];
+            executor.execute(() -> {
+                try {
+                    start.await();
+                    for (int i = 0; i < requestsPerThread; i++) {
+                        long begin = System.nanoTime();
+                        boolean success = execute(request, i);
+                        threadLatencies[i] = System.nanoTime() - begin;
+                        if (!success) {
+                            errors.incrementAndGet();
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+
+        long begin = System.nanoTime();
+        start.countDown();
+        done.await();
+        long elapsed = System.nanoTime() - begin;
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+
+        List<Long> all = new ArrayList<>(threadCount * requestsPerThread);
+        for (long[] threadLatencies : latencies) {
+            Arrays.stream(threadLatencies).forEach(all::add);
+        }
+        return new Report(name, all, errors.get(), elapsed);
+    }
+
+    private static boolean execute(Request request, int sequence) {
+        try {
+            return request.execute(sequence);
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    @Getter
+    public static class Report {
+
+        private final String name;
+        private final long requests;
+        private final long errors;
+        private final double throughput;
+        private final double p50Millis;
+        private final double p99Millis;
+        private final double maxMillis;
+
+        Report(String name, List<Long> latencies, long errors, long elapsedNanos) {
+            long[] sorted = latencies.stream().mapToLong(Long::longValue).sorted().toArray();
+            this.name = name;
+            this.requests = sorted.length;
+            this.errors = errors;
+            this.throughput = sorted.length / (elapsedNanos / 1_000_000_000.0);
+            this.p50Millis = percentile(sorted, 0.50);
+            this.p99Millis = percentile(sorted, 0.99);
+            this.maxMillis = sorted.length == 0 ? 0 : sorted[sorted.length - 1] / 1_000_000.0;
+        }
+
+        private static double percentile(long[] sorted, double percentile) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(percentile * sorted.length) - 1;
+            return sorted[Math.max(index, 0)] / 1_000_000.0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("[%s] requests = %d, errors = %d, throughput = %.1f req/s, p50 = %.2fms, p99 = %.2fms, max = %.2fms",
+                    name, requests, errors, throughput, p50Millis, p99Millis, maxMillis);
+        }
+    }
+}
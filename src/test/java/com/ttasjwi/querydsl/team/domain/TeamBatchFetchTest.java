@@ -0,0 +1,86 @@
+package com.ttasjwi.querydsl.team.domain;
+
+import com.ttasjwi.querydsl.member.domain.Member;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 지연 로딩 연관관계를 차례로 읽어도 단계마다 IN 쿼리 한 번씩만 실행하는지 (실행한 statement 수로 확인)
+ */
+@SpringBootTest
+@Transactional
+class TeamBatchFetchTest {
+
+    private static final int TEAM_COUNT = 10;
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private EntityManagerFactory emf;
+
+    private Statistics statistics;
+    private boolean statisticsEnabled;
+
+    @BeforeEach
+    void before() {
+        statistics = emf.unwrap(SessionFactory.class).getStatistics();
+        statisticsEnabled = statistics.isStatisticsEnabled();
+        statistics.setStatisticsEnabled(true);
+
+        for (int i = 0; i < TEAM_COUNT; i++) {
+            Team team = new Team("team" + i);
+            em.persist(team);
+            em.persist(new Member("member" + i + "-1", i, team));
+            em.persist(new Member("member" + i + "-2", i, team));
+        }
+        em.flush();
+        em.clear();
+    }
+
+    @AfterEach
+    void after() {
+        statistics.setStatisticsEnabled(statisticsEnabled);
+    }
+
+    @Test
+    @DisplayName("회원들의 팀을 읽으면 팀 조회는 한 번이다")
+    public void memberTeams() {
+        long start = statistics.getPrepareStatementCount();
+
+        List<Member> members = em.createQuery("select m from Member m order by m.id", Member.class).getResultList();
+        for (Member member : members) {
+            assertThat(member.getTeam().getName()).startsWith("team");
+        }
+
+        assertThat(statistics.getPrepareStatementCount() - start).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("팀들의 회원 목록을 읽으면 회원 조회는 한 번이다")
+    public void teamMembers() {
+        long start = statistics.getPrepareStatementCount();
+
+        List<Team> teams = em.createQuery("select t from Team t order by t.id", Team.class).getResultList();
+        for (Team team : teams) {
+            assertThat(team.getMembers()).extracting("name")
+                    .containsExactlyInAnyOrder(team.getName().replace("team", "member") + "-1",
+                            team.getName().replace("team", "member") + "-2");
+        }
+
+        assertThat(statistics.getPrepareStatementCount() - start).isEqualTo(2);
+    }
+}
@@ -0,0 +1,260 @@
+package com.ttasjwi.querydsl.team.repository;
+
+import com.ttasjwi.querydsl.member.domain.Member;
+import com.ttasjwi.querydsl.member.dto.MemberSearchCondition;
+import com.ttasjwi.querydsl.team.domain.Team;
+import com.ttasjwi.querydsl.team.dto.TeamMembersDto;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+@SpringBootTest
+@Transactional
+class TeamJpaRepositoryTest {
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private EntityManagerFactory emf;
+
+    @Autowired
+    private TeamJpaRepository teamJpaRepository;
+
+    @Autowired
+    private TeamMembersProperties properties;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Team teamA;
+    private Team teamB;
+
+    @BeforeEach
+    void before() {
+        teamA = new Team("teamA");
+        teamB = new Team("teamB");
+        em.persist(teamA);
+        em.persist(teamB);
+        for (int i = 0; i < 30; i++) {
+            em.persist(new Member("member" + i, i, i < 25 ? teamA : teamB));
+        }
+        em.flush();
+        em.clear();
+    }
+
+    @Test
+    @DisplayName("팀 회원을 식별자 순으로 나눠 읽는다")
+    public void findMembers() {
+        List<List<Member>> pages = new ArrayList<>();
+        long afterMemberId = 0;
+        while (true) {
+            List<Member> page = teamJpaRepository.findMembers(teamA.getId(), afterMemberId, 10);
+            if (page.isEmpty()) {
+                break;
+            }
+            pages.add(page);
+            afterMemberId = page.get(page.size() - 1).getId();
+        }
+
+        assertThat(pages).extracting(List::size).containsExactly(10, 10, 5);
+        List<Long> ids = new ArrayList<>();
+        pages.forEach(page -> page.forEach(member -> ids.add(member.getId())));
+        assertThat(ids).isSorted().doesNotHaveDuplicates();
+        assertThat(pages.get(0)).extracting("name").startsWith("member0", "member1");
+    }
+
+    @Test
+    @DisplayName("회원 수는 목록을 초기화하지 않고 센다")
+    public void countMembers() {
+        assertThat(teamJpaRepository.countMembers(teamA.getId())).isEqualTo(25);
+
+        Team findTeam = em.find(Team.class, teamA.getId());
+        assertThat(findTeam.getMembers().size()).isEqualTo(25);
+        assertThat(Hibernate.isInitialized(findTeam.getMembers())).isFalse();
+    }
+
+    @Test
+    @DisplayName("warnThreshold 이상인 팀 회원 목록을 초기화하면 기록한다")
+    public void loadGuard() {
+        int warnThreshold = properties.getWarnThreshold();
+        properties.setWarnThreshold(20);
+        try {
+            double before = meterRegistry.counter("team.members.large.loads").count();
+
+            Hibernate.initialize(em.find(Team.class, teamB.getId()).getMembers());
+            assertThat(meterRegistry.counter("team.members.large.loads").count()).isEqualTo(before);
+
+            Hibernate.initialize(em.find(Team.class, teamA.getId()).getMembers());
+            assertThat(meterRegistry.counter("team.members.large.loads").count()).isEqualTo(before + 1);
+        } finally {
+            properties.setWarnThreshold(warnThreshold);
+        }
+    }
+
+    @Test
+    @DisplayName("팀 이동은 이전 팀 회원 목록을 초기화하지 않는다")
+    public void changeTeamWithoutLoadingMembers() {
+        Member member = teamJpaRepository.findMembers(teamA.getId(), 0, 1).get(0);
+        Team oldTeam = member.getTeam();
+        oldTeam.getName();
+
+        member.changeTeam(em.find(Team.class, teamB.getId()));
+        em.flush();
+
+        assertThat(Hibernate.isInitialized(oldTeam.getMembers())).isFalse();
+        assertThat(teamJpaRepository.countMembers(teamA.getId())).isEqualTo(24);
+        assertThat(teamJpaRepository.countMembers(teamB.getId())).isEqualTo(6);
+    }
+
+    @Test
+    @DisplayName("팀과 회원 목록을 fetch join + distinct 없이 팀 단위로 나눠 읽는다")
+    public void findTeamsWithMembers() {
+        Team teamC = new Team("teamC");
+        em.persist(teamC);
+        em.flush();
+        em.clear();
+
+        List<Team> expected = em.createQuery(
+                        "select distinct t from Team t join fetch t.members order by t.id", Team.class)
+                .getResultList();
+        List<TeamMembersDto> result = teamJpaRepository.findTeamsWithMembers(new MemberSearchCondition(), 0, 10);
+
+        assertThat(result).extracting("teamId", "teamName").containsExactly(
+                tuple(teamA.getId(), "teamA"), tuple(teamB.getId(), "teamB"), tuple(teamC.getId(), "teamC"));
+        for (int i = 0; i < expected.size(); i++) {
+            assertThat(result.get(i).getMembers()).extracting("memberId")
+                    .containsExactlyInAnyOrderElementsOf(expected.get(i).getMembers().stream()
+                            .map(Member::getId)
+                            .collect(Collectors.toList()))
+                    .isSorted();
+        }
+        assertThat(result.get(2).getMembers()).isEmpty();
+
+        List<TeamMembersDto> next = teamJpaRepository.findTeamsWithMembers(
+                new MemberSearchCondition(), teamA.getId(), 1);
+        assertThat(next).extracting("teamId").containsExactly(teamB.getId());
+    }
+
+    @Test
+    @DisplayName("회원 조건이 있으면 맞는 회원이 있는 팀만, 맞는 회원만 읽는다")
+    public void findTeamsWithMembersByMemberCondition() {
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setAgeGoe(20);
+        condition.setAgeLoe(26);
+
+        List<TeamMembersDto> result = teamJpaRepository.findTeamsWithMembers(condition, 0, 10);
+        assertThat(result).extracting("teamId").containsExactly(teamA.getId(), teamB.getId());
+        assertThat(result.get(0).getMembers()).extracting("age").containsExactly(20, 21, 22, 23, 24);
+        assertThat(result.get(1).getMembers()).extracting("age").containsExactly(25, 26);
+
+        List<TeamMembersDto> first = teamJpaRepository.findTeamsWithMembers(condition, 0, 1);
+        assertThat(first).extracting("teamId").containsExactly(teamA.getId());
+
+        condition.setAgeGoe(27);
+        condition.setAgeLoe(null);
+        assertThat(teamJpaRepository.findTeamsWithMembers(condition, 0, 10))
+                .extracting("teamId").containsExactly(teamB.getId());
+    }
+
+    @Test
+    @DisplayName("팀마다 maxMembersPerTeam 명까지만 담고, 나머지는 nextAfterMemberId부터 이어서 읽는다")
+    public void capMembersPerTeam() {
+        int maxMembersPerTeam = properties.getMaxMembersPerTeam();
+        properties.setMaxMembersPerTeam(10);
+        try {
+            MemberSearchCondition condition = new MemberSearchCondition();
+            condition.setAgeGoe(5);
+            List<TeamMembersDto> result = teamJpaRepository.findTeamsWithMembers(condition, 0, 10);
+
+            TeamMembersDto first = result.get(0);
+            assertThat(first.getMembers()).extracting("age").containsExactly(5, 6, 7, 8, 9, 10, 11, 12, 13, 14);
+            assertThat(first.getNextAfterMemberId()).isEqualTo(first.getMembers().get(9).getMemberId());
+            assertThat(teamJpaRepository.findTeamMembers(teamA.getId(), condition, first.getNextAfterMemberId(), 100))
+                    .extracting("age").containsExactly(15, 16, 17, 18, 19, 20, 21, 22, 23, 24);
+
+            assertThat(result.get(1).getMembers()).hasSize(5);
+            assertThat(result.get(1).getNextAfterMemberId()).isNull();
+        } finally {
+            properties.setMaxMembersPerTeam(maxMembersPerTeam);
+        }
+    }
+
+    @Test
+    @DisplayName("팀 수와 관계없이 팀 페이지와 회원 목록을 각각 한 번씩 조회한다")
+    public void findTeamsWithMembersStatementCount() {
+        for (int i = 0; i < 8; i++) {
+            Team team = new Team("team" + i);
+            em.persist(team);
+            for (int j = 0; j < 3; j++) {
+                em.persist(new Member("extra" + i + "-" + j, 40 + j, team));
+            }
+        }
+        em.flush();
+        em.clear();
+
+        Statistics statistics = emf.unwrap(SessionFactory.class).getStatistics();
+        boolean statisticsEnabled = statistics.isStatisticsEnabled();
+        int maxMembersPerTeam = properties.getMaxMembersPerTeam();
+        statistics.setStatisticsEnabled(true);
+        properties.setMaxMembersPerTeam(10);
+        try {
+            long start = statistics.getPrepareStatementCount();
+            List<TeamMembersDto> result = teamJpaRepository.findTeamsWithMembers(new MemberSearchCondition(), 0, 10);
+            assertThat(statistics.getPrepareStatementCount() - start).isEqualTo(2);
+            assertThat(result).hasSize(10);
+            assertThat(result.get(0).getMembers()).hasSize(10);
+            assertThat(result.get(1).getMembers()).hasSize(5);
+            assertThat(result.subList(2, 10)).allSatisfy(teamMembers -> {
+                assertThat(teamMembers.getMembers()).extracting("age").containsExactly(40, 41, 42);
+                assertThat(teamMembers.getNextAfterMemberId()).isNull();
+            });
+
+            // 회원 조건이 있으면 팀 식별자, 팀 이름, 회원 목록 순으로 한 번씩
+            MemberSearchCondition condition = new MemberSearchCondition();
+            condition.setAgeGoe(41);
+            start = statistics.getPrepareStatementCount();
+            result = teamJpaRepository.findTeamsWithMembers(condition, 0, 10);
+            assertThat(statistics.getPrepareStatementCount() - start).isEqualTo(3);
+            assertThat(result).hasSize(8);
+            assertThat(result).allSatisfy(teamMembers ->
+                    assertThat(teamMembers.getMembers()).extracting("age").containsExactly(41, 42));
+        } finally {
+            statistics.setStatisticsEnabled(statisticsEnabled);
+            properties.setMaxMembersPerTeam(maxMembersPerTeam);
+        }
+    }
+
+    @Test
+    @DisplayName("팀명 조건은 회원 조건이 있을 때와 없을 때 모두 적용한다")
+    public void findTeamsWithMembersByTeamName() {
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setTeamName(" teamB ");
+        assertThat(teamJpaRepository.findTeamsWithMembers(condition, 0, 10))
+                .extracting("teamId").containsExactly(teamB.getId());
+
+        condition.setMemberName("member27");
+        List<TeamMembersDto> result = teamJpaRepository.findTeamsWithMembers(condition, 0, 10);
+        assertThat(result).extracting("teamId").containsExactly(teamB.getId());
+        assertThat(result.get(0).getMembers()).extracting("name").containsExactly("member27");
+
+        condition.setTeamName("teamA");
+        assertThat(teamJpaRepository.findTeamsWithMembers(condition, 0, 10)).isEmpty();
+    }
+}